@@ -0,0 +1,37 @@
+package io.umadb.client;
+
+/**
+ * Payload compression metrics of one event type, see {@link PayloadCompression#stats()}.
+ *
+ * @param events             the number of events passed to the compressor
+ * @param compressedEvents   the number of events stored compressed; the others were below the
+ *                           threshold or did not get smaller
+ * @param uncompressedBytes  the original payload size of the compressed events
+ * @param compressedBytes    the stored payload size of the compressed events
+ * @param compressionNanos   the CPU time spent compressing, including attempts that did not pay off
+ * @param decompressedEvents the number of events decompressed
+ * @param decompressionNanos the CPU time spent decompressing
+ *                           <p>
+ *                           Both times are the CPU time of the calling threads, and zero if the
+ *                           JVM does not support measuring it.
+ */
+public record CompressionStats(
+        long events,
+        long compressedEvents,
+        long uncompressedBytes,
+        long compressedBytes,
+        long compressionNanos,
+        long decompressedEvents,
+        long decompressionNanos
+) {
+
+    /**
+     * Returns the compression ratio of the compressed events, e.g. {@code 5.0} if they
+     * shrank to a fifth of their size.
+     *
+     * @return the ratio, or {@code 1.0} if no event has been compressed
+     */
+    public double ratio() {
+        return compressedBytes == 0 ? 1.0 : (double) uncompressedBytes / compressedBytes;
+    }
+}
@@ -0,0 +1,66 @@
+package io.umadb.client;
+
+import java.time.Duration;
+
+/**
+ * Configures the client-side adaptive concurrency limit for an operation type.
+ * <p>
+ * The client adjusts the number of concurrent calls between {@code minLimit} and
+ * {@code maxLimit} based on the observed round-trip times: the limit grows while
+ * latency stays close to the best observed latency and shrinks when requests start
+ * queueing on the server or time out. Calls beyond the current limit wait for at most
+ * {@code maxQueueTime} and are then rejected with
+ * {@link UmaDbException.LimitExceededException}.
+ *
+ * @param initialLimit the concurrency limit to start with
+ * @param minLimit     the lower bound of the limit; must be >= 1
+ * @param maxLimit     the upper bound of the limit
+ * @param maxQueueTime the maximum time a call waits for a free slot;
+ *                     {@link Duration#ZERO} rejects immediately
+ */
+public record ConcurrencyLimit(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        Duration maxQueueTime
+) {
+
+    /**
+     * Creates a new {@code ConcurrencyLimit}.
+     *
+     * @throws IllegalArgumentException if the limits are not ordered
+     *                                  {@code 1 <= minLimit <= initialLimit <= maxLimit}
+     *                                  or {@code maxQueueTime} is {@code null} or negative
+     */
+    public ConcurrencyLimit {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("minLimit must be >= 1");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        }
+        if (maxQueueTime == null || maxQueueTime.isNegative()) {
+            throw new IllegalArgumentException("maxQueueTime must not be null or negative");
+        }
+    }
+
+    /**
+     * Creates a {@code ConcurrencyLimit} with sensible defaults: starts at 20 concurrent
+     * calls, adapts between 1 and 200, and rejects excess calls immediately.
+     *
+     * @return a default {@code ConcurrencyLimit}
+     */
+    public static ConcurrencyLimit defaults() {
+        return new ConcurrencyLimit(20, 1, 200, Duration.ZERO);
+    }
+
+    /**
+     * Returns a copy of this limit with the given maximum queue time.
+     *
+     * @param maxQueueTime the maximum time a call waits for a free slot
+     * @return a new {@code ConcurrencyLimit} with the specified queue time
+     */
+    public ConcurrencyLimit withMaxQueueTime(Duration maxQueueTime) {
+        return new ConcurrencyLimit(initialLimit, minLimit, maxLimit, maxQueueTime);
+    }
+}
@@ -0,0 +1,250 @@
+package io.umadb.client;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses event payloads with DEFLATE before they are sent, and decompresses them when
+ * they are read, see {@link UmaDbClientBuilder#withPayloadCompression(PayloadCompression)}.
+ * <p>
+ * Only payloads of at least the threshold size are compressed, and only if the encoded event
+ * gets smaller, including the added tag.
+ * A compressed event carries the reserved tag {@value #COMPRESSED_TAG} and a payload of the
+ * original length (4 bytes, big-endian) followed by the DEFLATE data. Events without the tag
+ * are read unchanged, so compressed and uncompressed events can be mixed freely. The tag is
+ * removed again when the event is read; events that already carry it are not compressed twice.
+ * <p>
+ * {@link Deflater} and {@link Inflater} instances are reused per thread. {@link #stats()}
+ * reports the compression ratio and CPU time per event type, to decide where compression
+ * pays off. CPU time is measured with {@link ThreadMXBean#getCurrentThreadCpuTime()}, so it
+ * excludes time the thread spent descheduled; it stays zero on JVMs that do not support it.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class PayloadCompression {
+
+    /**
+     * The tag marking a compressed payload.
+     */
+    public static final String COMPRESSED_TAG = "umadb:deflate";
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+    /**
+     * Encoded size of the added tag: field key, length and the characters.
+     */
+    private static final int TAG_BYTES = 2 + COMPRESSED_TAG.length();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final int thresholdBytes;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private PayloadCompression(int thresholdBytes, int level) {
+        this.thresholdBytes = thresholdBytes;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    /**
+     * Creates a compression using the default DEFLATE level.
+     *
+     * @param thresholdBytes the minimum payload size to compress
+     * @return the new compression
+     * @throws IllegalArgumentException if {@code thresholdBytes} is negative
+     */
+    public static PayloadCompression deflate(int thresholdBytes) {
+        return deflate(thresholdBytes, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a compression.
+     *
+     * @param thresholdBytes the minimum payload size to compress
+     * @param level          the DEFLATE level from {@code 1} (fastest) to {@code 9} (smallest),
+     *                       or {@code -1} for the default
+     * @return the new compression
+     * @throws IllegalArgumentException if {@code thresholdBytes} is negative or {@code level} is invalid
+     */
+    public static PayloadCompression deflate(int thresholdBytes, int level) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must be >= 0");
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("level must be between 1 and 9, or -1");
+        }
+        return new PayloadCompression(thresholdBytes, level);
+    }
+
+    /**
+     * Returns the event with its payload compressed, or the event itself if it is below the
+     * threshold, already compressed, or does not get smaller including the added tag.
+     *
+     * @param event the event to send
+     * @return the event to store
+     */
+    public Event compress(Event event) {
+        byte[] data = event.data();
+        if (event.tags().contains(COMPRESSED_TAG)) {
+            return event;
+        }
+        var counters = countersOf(event.type());
+        counters.events.increment();
+        if (data.length < thresholdBytes) {
+            return event;
+        }
+
+        long start = cpuTime();
+        var deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        // Only worth storing if it gets smaller including the tag, so never write more than that
+        int limit = data.length - TAG_BYTES;
+        byte[] buffer = new byte[Math.max(limit, HEADER_BYTES)];
+        int length = HEADER_BYTES;
+        while (!deflater.finished() && length < buffer.length) {
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        boolean smaller = deflater.finished() && length < limit;
+        counters.compressionNanos.add(cpuTime() - start);
+        if (!smaller) {
+            return event;
+        }
+
+        writeInt(buffer, data.length);
+        byte[] compressed = Arrays.copyOf(buffer, length);
+        counters.compressedEvents.increment();
+        counters.uncompressedBytes.add(data.length);
+        counters.compressedBytes.add(compressed.length);
+
+        var tags = new ArrayList<String>(event.tags().size() + 1);
+        tags.addAll(event.tags());
+        tags.add(COMPRESSED_TAG);
+        return new Event(event.type(), tags, compressed, event.id());
+    }
+
+    /**
+     * Returns the event with its original payload if it was compressed, or the event itself.
+     *
+     * @param event the stored event
+     * @return the event as it was appended
+     * @throws UmaDbException.SerializationException if the compressed payload is corrupt
+     */
+    public Event decompress(Event event) {
+        if (!event.tags().contains(COMPRESSED_TAG)) {
+            return event;
+        }
+        byte[] decompressed = decompress(event.type(), event.data(), 0, event.data().length);
+        var tags = new ArrayList<>(event.tags());
+        tags.remove(COMPRESSED_TAG);
+        return new Event(event.type(), tags, decompressed, event.id());
+    }
+
+    /**
+     * Returns the original payload of an event carrying the {@value #COMPRESSED_TAG} tag,
+     * for decoders that do not create an {@link Event} for it.
+     *
+     * @param eventType the type of the event, for the metrics
+     * @param data      the buffer holding the stored payload
+     * @param offset    the offset of the stored payload
+     * @param length    the length of the stored payload
+     * @return the payload as it was appended
+     * @throws UmaDbException.SerializationException if the compressed payload is corrupt
+     */
+    public byte[] decompress(String eventType, byte[] data, int offset, int length) {
+        long start = cpuTime();
+        int originalLength = length >= HEADER_BYTES ? readInt(data, offset) : -1;
+        if (originalLength < 0) {
+            throw new UmaDbException.SerializationException("Corrupt compressed payload of " + eventType);
+        }
+
+        var inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(data, offset + HEADER_BYTES, length - HEADER_BYTES);
+        byte[] decompressed = new byte[originalLength];
+        try {
+            int read = 0;
+            while (read < originalLength) {
+                int n = inflater.inflate(decompressed, read, originalLength - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != originalLength || !inflater.finished()) {
+                throw new UmaDbException.SerializationException("Corrupt compressed payload of " + eventType);
+            }
+        } catch (DataFormatException e) {
+            throw new UmaDbException.SerializationException("Corrupt compressed payload of " + eventType + ": " + e.getMessage());
+        }
+
+        var counters = countersOf(eventType);
+        counters.decompressedEvents.increment();
+        counters.decompressionNanos.add(cpuTime() - start);
+        return decompressed;
+    }
+
+    /**
+     * Returns the metrics collected so far, per event type.
+     *
+     * @return a snapshot of the metrics
+     */
+    public Map<String, CompressionStats> stats() {
+        var stats = new HashMap<String, CompressionStats>();
+        counters.forEach((type, counters) -> stats.put(type, counters.snapshot()));
+        return Map.copyOf(stats);
+    }
+
+    private Counters countersOf(String eventType) {
+        return counters.computeIfAbsent(eventType, type -> new Counters());
+    }
+
+    private static long cpuTime() {
+        // -1 if measurement has been disabled at runtime
+        return CPU_TIME_SUPPORTED ? Math.max(0, THREADS.getCurrentThreadCpuTime()) : 0;
+    }
+
+    private static void writeInt(byte[] buffer, int value) {
+        buffer[0] = (byte) (value >>> 24);
+        buffer[1] = (byte) (value >>> 16);
+        buffer[2] = (byte) (value >>> 8);
+        buffer[3] = (byte) value;
+    }
+
+    private static int readInt(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xff) << 24 | (buffer[offset + 1] & 0xff) << 16
+                | (buffer[offset + 2] & 0xff) << 8 | buffer[offset + 3] & 0xff;
+    }
+
+    private static final class Counters {
+        private final LongAdder events = new LongAdder();
+        private final LongAdder compressedEvents = new LongAdder();
+        private final LongAdder uncompressedBytes = new LongAdder();
+        private final LongAdder compressedBytes = new LongAdder();
+        private final LongAdder compressionNanos = new LongAdder();
+        private final LongAdder decompressedEvents = new LongAdder();
+        private final LongAdder decompressionNanos = new LongAdder();
+
+        private CompressionStats snapshot() {
+            return new CompressionStats(
+                    events.sum(),
+                    compressedEvents.sum(),
+                    uncompressedBytes.sum(),
+                    compressedBytes.sum(),
+                    compressionNanos.sum(),
+                    decompressedEvents.sum(),
+                    decompressionNanos.sum()
+            );
+        }
+    }
+}
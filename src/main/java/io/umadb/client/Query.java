@@ -1,6 +1,6 @@
 package io.umadb.client;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * Represents a query composed of zero or more {@link QueryItem}s.
@@ -72,10 +72,143 @@ public record Query(List<QueryItem> items) {
             throw new IllegalArgumentException("item must not be null");
         }
         return new Query(
-                new java.util.ArrayList<>() {{
+                new ArrayList<>() {{
                     addAll(items);
                     add(item);
                 }}
         );
     }
+
+    /**
+     * Returns whether the given event matches this query, i.e. whether it
+     * matches at least one of its items. An empty query matches all events.
+     *
+     * @param event the event to test
+     * @return {@code true} if the event matches this query
+     * @throws IllegalArgumentException if {@code event} is {@code null}
+     */
+    public boolean matches(Event event) {
+        if (event == null) {
+            throw new IllegalArgumentException("event must not be null");
+        }
+        if (items.isEmpty()) {
+            return true;
+        }
+        for (QueryItem item : items) {
+            if (item.matches(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an equivalent query in canonical form, which matches exactly the same events
+     * with as few items as possible.
+     * <p>
+     * The optimized query
+     * <ul>
+     *   <li>has sorted types and tags without duplicates in every item,</li>
+     *   <li>merges items with the same tags into one item with all their types,</li>
+     *   <li>drops items that are {@linkplain QueryItem#subsumes(QueryItem) subsumed} by another
+     *       item, e.g. an item with tags {@code [a, b]} next to one with tags {@code [a]}, and</li>
+     *   <li>has its items sorted.</li>
+     * </ul>
+     * A query containing {@link QueryItem#matchAll()} is reduced to that single item.
+     * Equivalent queries built in different ways usually optimize to equal queries.
+     *
+     * @return the optimized query
+     */
+    public Query optimize() {
+        // Items with types and equal tags are merged, as the types are alternatives
+        Map<List<String>, SortedSet<String>> typesByTags = new LinkedHashMap<>();
+        Set<List<String>> anyTypeTags = new LinkedHashSet<>();
+        for (QueryItem item : items) {
+            List<String> tags = sortedDistinct(item.tags());
+            if (item.types().isEmpty()) {
+                anyTypeTags.add(tags);
+            } else {
+                typesByTags.computeIfAbsent(tags, key -> new TreeSet<>()).addAll(item.types());
+            }
+        }
+        var candidates = new ArrayList<QueryItem>(anyTypeTags.size() + typesByTags.size());
+        for (List<String> tags : anyTypeTags) {
+            candidates.add(new QueryItem(List.of(), tags));
+        }
+        typesByTags.forEach((tags, types) -> candidates.add(new QueryItem(List.copyOf(types), tags)));
+
+        // Candidates are pairwise distinct, so they never subsume each other mutually and
+        // the items not subsumed by any other cover all events of the query
+        var optimized = new ArrayList<QueryItem>(candidates.size());
+        for (QueryItem candidate : candidates) {
+            boolean subsumed = false;
+            for (QueryItem other : candidates) {
+                if (other != candidate && other.subsumes(candidate)) {
+                    subsumed = true;
+                    break;
+                }
+            }
+            if (!subsumed) {
+                optimized.add(candidate);
+            }
+        }
+        optimized.sort(Comparator.comparing(QueryItem::types, Query::compareLists)
+                .thenComparing(QueryItem::tags, Query::compareLists));
+        return new Query(optimized);
+    }
+
+    /**
+     * Returns a 64-bit hash of the {@linkplain #optimize() optimized} query, e.g. to key
+     * caches of query results.
+     * <p>
+     * Unlike {@link #hashCode()}, the hash is the same for queries that optimize to equal
+     * queries, and it is stable across JVMs and client versions. Distinct queries may
+     * collide, so the hash must not be used as proof of equality.
+     *
+     * @return the canonical hash
+     */
+    public long canonicalHash() {
+        // 64-bit FNV-1a over the lengths and characters of the optimized query
+        long hash = 0xcbf29ce484222325L;
+        List<QueryItem> optimizedItems = optimize().items();
+        hash = mix(hash, optimizedItems.size());
+        for (QueryItem item : optimizedItems) {
+            hash = mix(hash, item.types());
+            hash = mix(hash, item.tags());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, List<String> values) {
+        hash = mix(hash, values.size());
+        for (String value : values) {
+            hash = mix(hash, value.length());
+            for (int i = 0; i < value.length(); i++) {
+                hash = mix(hash, value.charAt(i));
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static List<String> sortedDistinct(List<String> values) {
+        return values.size() < 2 ? values : List.copyOf(new TreeSet<>(values));
+    }
+
+    private static int compareLists(List<String> first, List<String> second) {
+        for (int i = 0; i < Math.min(first.size(), second.size()); i++) {
+            int result = first.get(i).compareTo(second.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(first.size(), second.size());
+    }
 }
@@ -0,0 +1,140 @@
+package io.umadb.client;
+
+import io.umadb.client.grpc.UmaDbUtils;
+import umadb.v1.Umadb;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of encoded queries, so queries that are sent over and over, e.g. as read
+ * filters or append conditions of command handlers, are not encoded again every time.
+ * <p>
+ * {@link Query} and {@link QueryItem} are records, so equal queries share an
+ * entry no matter where they were built. When full, the least recently used query is evicted.
+ * Queries passed to {@link #precompile(List)} are encoded up front and never evicted.
+ *
+ * <pre>{@code
+ * QueryCache queryCache = new QueryCache(1000).precompile(List.of(openOrders, customerOrders));
+ * UmaDbClient client = UmaDbClient.builder()
+ *     .withHostAndPort("localhost", 50051)
+ *     .withQueryCache(queryCache)
+ *     .build();
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe.
+ */
+public final class QueryCache {
+
+    private final int maxSize;
+    private final Map<Query, Umadb.Query> precompiled = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Query, Umadb.Query> recent;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxSize the maximum number of queries kept besides the precompiled ones
+     * @throws IllegalArgumentException if {@code maxSize} is zero or negative
+     */
+    public QueryCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        this.maxSize = maxSize;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Umadb.Query> eldest) {
+                return size() > QueryCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Encodes the given queries up front. They stay cached regardless of the maximum size.
+     *
+     * @param queries the queries to encode
+     * @return this cache
+     * @throws IllegalArgumentException if {@code queries} is or contains {@code null}
+     */
+    public QueryCache precompile(List<Query> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("queries must not be null");
+        }
+        for (Query query : queries) {
+            if (query == null) {
+                throw new IllegalArgumentException("queries must not contain null");
+            }
+            precompiled.computeIfAbsent(query, QueryCache::encode);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the encoded query, encoding and caching it on a miss.
+     *
+     * @param query the query to encode
+     * @return the encoded query; must not be modified
+     */
+    public Umadb.Query toUmadbQuery(Query query) {
+        var umadbQuery = precompiled.get(query);
+        if (umadbQuery == null) {
+            synchronized (recent) {
+                umadbQuery = recent.get(query);
+            }
+        }
+        if (umadbQuery != null) {
+            hits.increment();
+            return umadbQuery;
+        }
+
+        misses.increment();
+        // Encoded outside the lock; a concurrent miss for the same query encodes it twice
+        umadbQuery = encode(query);
+        synchronized (recent) {
+            recent.put(query, umadbQuery);
+        }
+        return umadbQuery;
+    }
+
+    private static Umadb.Query encode(Query query) {
+        var umadbQuery = UmaDbUtils.toUmadbQuery(query);
+        // Memoized by the message, so the encoders do not compute it on every use
+        umadbQuery.getSerializedSize();
+        return umadbQuery;
+    }
+
+    /**
+     * Returns the number of cached queries, including the precompiled ones.
+     *
+     * @return the number of cached queries
+     */
+    public int size() {
+        synchronized (recent) {
+            return precompiled.size() + recent.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to encode the query.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+}
@@ -94,4 +94,38 @@ public record QueryItem(
     public static QueryItem of(List<String> types, List<String> tags) {
         return new QueryItem(types, tags);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns whether the given event matches this item.
+     *
+     * @param event the event to test
+     * @return {@code true} if the event has one of the types and all of the tags of this item
+     * @throws IllegalArgumentException if {@code event} is {@code null}
+     */
+    public boolean matches(Event event) {
+        if (event == null) {
+            throw new IllegalArgumentException("event must not be null");
+        }
+        return (types.isEmpty() || types.contains(event.type()))
+                && event.tags().containsAll(tags);
+    }
+
+    /**
+     * Returns whether this item matches every event the other item matches, i.e. whether
+     * the other item is redundant next to this one in a {@link Query}.
+     * <p>
+     * That is the case if this item allows all types of the other item (or any type) and
+     * requires no tag the other item does not require.
+     *
+     * @param other the item to compare with
+     * @return {@code true} if this item is at least as broad as the other
+     * @throws IllegalArgumentException if {@code other} is {@code null}
+     */
+    public boolean subsumes(QueryItem other) {
+        if (other == null) {
+            throw new IllegalArgumentException("other must not be null");
+        }
+        return (types.isEmpty() || (!other.types.isEmpty() && types.containsAll(other.types)))
+                && other.tags.containsAll(tags);
+    }
+}
@@ -0,0 +1,72 @@
+package io.umadb.client;
+
+import java.time.Duration;
+
+/**
+ * Per-call options overriding the client defaults for a single request.
+ *
+ * @param timeout
+ *        an optional deadline for the call; may be {@code null} to use
+ *        the default timeout configured on the {@link UmaDbClientBuilder}
+ * @param coalesce
+ *        whether the call may share a call in flight for an identical request, see
+ *        {@link UmaDbClientBuilder#withRequestCoalescing(boolean)}; ignored unless
+ *        coalescing is enabled on the client
+ */
+public record RequestOptions(Duration timeout, boolean coalesce) {
+
+    private static final RequestOptions DEFAULTS = new RequestOptions(null);
+
+    /**
+     * Creates new {@code RequestOptions}.
+     *
+     * @throws IllegalArgumentException if {@code timeout} is zero or negative
+     */
+    public RequestOptions {
+        if (timeout != null && (timeout.isZero() || timeout.isNegative())) {
+            throw new IllegalArgumentException("timeout must be > 0");
+        }
+    }
+
+    /**
+     * Creates new {@code RequestOptions} for a call that is never coalesced.
+     *
+     * @param timeout an optional deadline for the call; may be {@code null}
+     * @throws IllegalArgumentException if {@code timeout} is zero or negative
+     */
+    public RequestOptions(Duration timeout) {
+        this(timeout, false);
+    }
+
+    /**
+     * Returns options that apply the client defaults.
+     *
+     * @return the default {@code RequestOptions}
+     */
+    public static RequestOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Creates {@code RequestOptions} with the given deadline.
+     *
+     * @param timeout the maximum duration of the call
+     * @return a new {@code RequestOptions}
+     * @throws IllegalArgumentException if {@code timeout} is zero or negative
+     */
+    public static RequestOptions ofTimeout(Duration timeout) {
+        return new RequestOptions(timeout);
+    }
+
+    /**
+     * Returns a copy of these options that lets the call share a call in flight for an
+     * identical request.
+     *
+     * @param coalesce whether the call may be coalesced
+     * @return the new {@code RequestOptions}
+     * @see UmaDbClientBuilder#withRequestCoalescing(boolean)
+     */
+    public RequestOptions withCoalescing(boolean coalesce) {
+        return new RequestOptions(timeout, coalesce);
+    }
+}
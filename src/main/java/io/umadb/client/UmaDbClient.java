@@ -58,7 +58,22 @@ public interface UmaDbClient {
      * @throws UmaDbException if the append fails (e.g., due to conditional constraints,
      *                        serialization errors, or server issues)
      */
-    AppendResponse handle(AppendRequest appendRequest);
+    default AppendResponse handle(AppendRequest appendRequest) {
+        return handle(appendRequest, RequestOptions.defaults());
+    }
+
+    /**
+     * Handles an append request with per-call options.
+     *
+     * @param appendRequest  the request describing the events to append
+     * @param requestOptions options overriding the client defaults for this call
+     * @return the response containing the position of the last appended event
+     * @throws UmaDbException.TimeoutException if the append does not complete within its deadline;
+     *                                         the events may or may not have been written
+     * @throws UmaDbException                  if the append fails
+     * @see #handle(AppendRequest)
+     */
+    AppendResponse handle(AppendRequest appendRequest, RequestOptions requestOptions);
 
     /**
      * Handles a read request, returning an iterator over {@link ReadResponse} objects.
@@ -72,7 +87,28 @@ public interface UmaDbClient {
      * @return an iterator over {@link ReadResponse} batches
      * @throws UmaDbException if the read fails (e.g., network error or serialization failure)
      */
-    Iterator<ReadResponse> handle(ReadRequest readRequest);
+    default Iterator<ReadResponse> handle(ReadRequest readRequest) {
+        return handle(readRequest, RequestOptions.defaults());
+    }
+
+    /**
+     * Handles a read request with per-call options.
+     * <p>
+     * A timeout applies to the whole stream. The default read timeout of the client
+     * is not applied to subscriptions, but an explicit per-call timeout is.
+     * <p>
+     * The iterators of the gRPC client also implement {@link AutoCloseable}. Closing one
+     * cancels the read from any thread, and a blocked {@code hasNext()} fails with an
+     * {@link UmaDbException}, e.g. to stop a subscription that waits for new events.
+     *
+     * @param readRequest    the request describing which events to read
+     * @param requestOptions options overriding the client defaults for this call
+     * @return an iterator over {@link ReadResponse} batches
+     * @throws UmaDbException.TimeoutException if the read does not complete within its deadline
+     * @throws UmaDbException                  if the read fails
+     * @see #handle(ReadRequest)
+     */
+    Iterator<ReadResponse> handle(ReadRequest readRequest, RequestOptions requestOptions);
 
     /**
      * Returns the position of the most recent event in the event store.
@@ -83,7 +119,20 @@ public interface UmaDbClient {
      * @return the sequence number of the latest event
      * @throws UmaDbException.IoException if the position cannot be retrieved
      */
-    long getHeadPosition();
+    default long getHeadPosition() {
+        return getHeadPosition(RequestOptions.defaults());
+    }
+
+    /**
+     * Returns the position of the most recent event in the event store, with per-call options.
+     *
+     * @param requestOptions options overriding the client defaults for this call
+     * @return the sequence number of the latest event
+     * @throws UmaDbException.TimeoutException if the call does not complete within its deadline
+     * @throws UmaDbException                  if the position cannot be retrieved
+     * @see #getHeadPosition()
+     */
+    long getHeadPosition(RequestOptions requestOptions);
 
     /**
      * Shuts down the client, closing any active connections and releasing resources.
@@ -1,6 +1,14 @@
 package io.umadb.client;
 
+import io.grpc.ClientInterceptor;
+import io.opentelemetry.api.OpenTelemetry;
+import io.umadb.client.grpc.ClientOptions;
 import io.umadb.client.grpc.UmaDbClientImpl;
+import io.umadb.client.otel.TracingInterceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Builder for creating {@link UmaDbClient} instances.
@@ -10,6 +18,10 @@ import io.umadb.client.grpc.UmaDbClientImpl;
  *   <li>Target host and port</li>
  *   <li>TLS using a custom Certificate Authority (CA)</li>
  *   <li>API key authentication (sent as a Bearer token)</li>
+ *   <li>Distributed tracing with OpenTelemetry</li>
+ *   <li>Default deadlines per operation type</li>
+ *   <li>Adaptive client-side concurrency limits for appends and reads</li>
+ *   <li>Local pre-check of append conditions against recently seen events</li>
  * </ul>
  *
  * <h2>Security model</h2>
@@ -38,6 +50,17 @@ public final class UmaDbClientBuilder {
     private int port = -1;
     private String caFilePath;
     private String apiKey;
+    private OpenTelemetry openTelemetry;
+    private Duration appendTimeout = ClientOptions.DEFAULT_APPEND_TIMEOUT;
+    private Duration readTimeout;
+    private Duration headTimeout = ClientOptions.DEFAULT_HEAD_TIMEOUT;
+    private ConcurrencyLimit appendLimit;
+    private ConcurrencyLimit readLimit;
+    private int conflictPrecheckWindow;
+    private PayloadCompression payloadCompression;
+    private QueryCache queryCache;
+    private boolean optimizeQueries;
+    private boolean coalesceRequests;
 
     /**
      * Sets both the host and port for the UmaDB server.
@@ -121,19 +144,231 @@ public final class UmaDbClientBuilder {
         return this;
     }
 
+    /**
+     * Enables distributed tracing with OpenTelemetry.
+     * <p>
+     * Every RPC is recorded as a client span and the trace context is propagated
+     * to the server in the request metadata. See {@link TracingInterceptor} for
+     * the recorded attributes.
+     * </p>
+     *
+     * <p>
+     * <strong>Note:</strong> OpenTelemetry is an optional dependency and must be
+     * on the classpath when using this method.
+     * </p>
+     *
+     * @param openTelemetry the OpenTelemetry instance to use
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withTracing(OpenTelemetry openTelemetry) {
+        this.openTelemetry = openTelemetry;
+        return this;
+    }
+
+    /**
+     * Sets the default deadline for appends.
+     * <p>
+     * Defaults to 30 seconds. Can be overridden per call using {@link RequestOptions}.
+     * </p>
+     *
+     * @param appendTimeout the default deadline, or {@code null} for none
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withAppendTimeout(Duration appendTimeout) {
+        this.appendTimeout = appendTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the default deadline for reads.
+     * <p>
+     * The deadline covers the whole stream and only applies to reads that do not
+     * subscribe. No deadline is set by default. Can be overridden per call
+     * using {@link RequestOptions}.
+     * </p>
+     *
+     * @param readTimeout the default deadline, or {@code null} for none
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the default deadline for head calls.
+     * <p>
+     * Defaults to 10 seconds. Can be overridden per call using {@link RequestOptions}.
+     * </p>
+     *
+     * @param headTimeout the default deadline, or {@code null} for none
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withHeadTimeout(Duration headTimeout) {
+        this.headTimeout = headTimeout;
+        return this;
+    }
+
+    /**
+     * Enables an adaptive concurrency limit for appends.
+     * <p>
+     * Appends beyond the current limit are queued for at most the configured
+     * queue time and then rejected with {@link UmaDbException.LimitExceededException}.
+     * </p>
+     *
+     * @param appendLimit the concurrency limit, or {@code null} for unlimited
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withAppendConcurrencyLimit(ConcurrencyLimit appendLimit) {
+        this.appendLimit = appendLimit;
+        return this;
+    }
+
+    /**
+     * Enables an adaptive concurrency limit for reads.
+     * <p>
+     * Only reads that do not subscribe are limited. A read holds its slot until the
+     * first batch has been received, which also serves as its RTT sample.
+     * </p>
+     *
+     * @param readLimit the concurrency limit, or {@code null} for unlimited
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withReadConcurrencyLimit(ConcurrencyLimit readLimit) {
+        this.readLimit = readLimit;
+        return this;
+    }
+
+    /**
+     * Enables a local pre-check of conditional appends.
+     * <p>
+     * The client keeps the given number of most recently seen events from reads,
+     * subscriptions and its own appends. A conditional append whose condition matches
+     * one of these events after the condition's position is bound to fail and is
+     * rejected with {@link UmaDbException.IntegrityException} without contacting the
+     * server. Appends without a known conflict are checked by the server as usual.
+     * </p>
+     *
+     * @param windowSize the number of recent events to keep, or {@code 0} to disable
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withConflictPrecheck(int windowSize) {
+        this.conflictPrecheckWindow = windowSize;
+        return this;
+    }
+
+    /**
+     * Enables compression of event payloads.
+     * <p>
+     * Payloads above the compression's threshold are compressed before they are appended
+     * and transparently decompressed when they are read. Events appended without
+     * compression remain readable.
+     * </p>
+     *
+     * @param payloadCompression the compression to apply, or {@code null} to disable
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withPayloadCompression(PayloadCompression payloadCompression) {
+        this.payloadCompression = payloadCompression;
+        return this;
+    }
+
+    /**
+     * Enables caching of encoded queries.
+     * <p>
+     * Queries of reads and append conditions are looked up in the cache instead of being
+     * encoded on every call. Queries can be precompiled on the cache before it is passed in.
+     * </p>
+     *
+     * @param queryCache the cache to use, or {@code null} to disable
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+        return this;
+    }
+
+    /**
+     * Enables optimization of queries before they are sent.
+     * <p>
+     * Queries of reads and append conditions are replaced by their
+     * {@linkplain Query#optimize() optimized} form, which matches the same events with
+     * fewer query items. This helps with generated queries that contain duplicate or
+     * redundant items. With a query cache, the optimized queries are cached.
+     * </p>
+     *
+     * @param optimizeQueries whether to optimize queries
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withQueryOptimization(boolean optimizeQueries) {
+        this.optimizeQueries = optimizeQueries;
+        return this;
+    }
+
+    /**
+     * Enables coalescing of concurrent identical requests that opt in per call.
+     * <p>
+     * Non-subscribing reads with equal {@link ReadRequest}s and {@link RequestOptions}, and
+     * head calls with equal {@link RequestOptions}, that run at the same time share a single
+     * call to the server, whose result is handed to all callers. This relieves the server from
+     * stampedes, e.g. when many threads miss a cache at once. Only calls whose options are
+     * {@linkplain RequestOptions#withCoalescing(boolean) marked for coalescing} are shared;
+     * all other calls, including those with {@link RequestOptions#defaults()}, behave as if
+     * coalescing were disabled.
+     * </p>
+     * <p>
+     * Coalesced calls do not read their own writes. A caller that joins a call in flight gets
+     * the result of a call that may have started before its own preceding append, e.g.
+     * {@code getHeadPosition(options)} right after an append can return a head below the
+     * position of that append. Only coalesce calls that tolerate a result from a moment earlier.
+     * </p>
+     * <p>
+     * A shared read is received completely before it is handed out, so its errors are thrown
+     * by {@code handle} instead of by the iterator. Coalesce only reads whose results fit into
+     * memory, e.g. reads with a small {@link ReadRequest#limit() limit}. The returned events,
+     * including their payload arrays, are shared between the callers and must not be modified.
+     * </p>
+     *
+     * @param coalesceRequests whether to coalesce concurrent identical requests
+     * @return this builder instance
+     */
+    public UmaDbClientBuilder withRequestCoalescing(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+        return this;
+    }
+
     /**
      * Builds a new {@link UmaDbClient} using the configured settings.
      *
      * @return a fully configured {@link UmaDbClient}
      * @throws IllegalStateException if required configuration is missing
      *                               or if an API key is configured without TLS
+     * @throws IllegalArgumentException if a timeout is zero or negative
+     *                                  or the conflict pre-check window is negative
      */
     public UmaDbClient build() {
+        List<ClientInterceptor> interceptors = new ArrayList<>();
+        if (openTelemetry != null) {
+            interceptors.add(new TracingInterceptor(openTelemetry));
+        }
         return new UmaDbClientImpl(
                 host,
                 port,
                 caFilePath,
-                apiKey
+                apiKey,
+                new ClientOptions(
+                        interceptors,
+                        appendTimeout,
+                        readTimeout,
+                        headTimeout,
+                        appendLimit,
+                        readLimit,
+                        conflictPrecheckWindow,
+                        payloadCompression,
+                        queryCache,
+                        optimizeQueries,
+                        coalesceRequests
+                )
         );
     }
 }
@@ -34,6 +34,11 @@ public sealed class UmaDbException extends RuntimeException {
         public SerializationException(String message) {
             super(message);
         }
+
+        public SerializationException(String message, Throwable cause) {
+            super(message);
+            initCause(cause);
+        }
     }
 
     /**
@@ -66,6 +71,30 @@ public sealed class UmaDbException extends RuntimeException {
         }
     }
 
+    /**
+     * Indicates that a call did not complete within its deadline.
+     * <p>
+     * For appends, the outcome is unknown: the events may or may not
+     * have been written.
+     */
+    public static final class TimeoutException extends UmaDbException {
+        public TimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Indicates that a call was rejected by the client-side concurrency limiter
+     * without being sent to the server.
+     * <p>
+     * Callers should shed load or retry later.
+     */
+    public static final class LimitExceededException extends UmaDbException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
     /**
      * Indicates an authentication failure, such as invalid credentials
      * or lack of authorization to access the requested resource.
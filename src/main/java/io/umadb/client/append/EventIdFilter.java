@@ -0,0 +1,105 @@
+package io.umadb.client.append;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Probabilistic set of recently written event ids.
+ * <p>
+ * A Bloom filter never reports a written id as absent, but may report an unknown id as
+ * present with the configured false positive rate. To only remember <em>recent</em> ids,
+ * two generations are kept: once the current generation has seen the expected number of
+ * insertions it becomes the previous one, and the oldest generation is discarded.
+ * <p>
+ * This class is thread-safe. Concurrent rotation may drop a few concurrent insertions,
+ * which only turns an exact answer into a verification read.
+ */
+final class EventIdFilter {
+
+    private final int expectedInsertions;
+    private final int bitCount;
+    private final int hashCount;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    EventIdFilter(int expectedInsertions, double falsePositiveRate) {
+        this.expectedInsertions = expectedInsertions;
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+    }
+
+    void add(UUID id) {
+        var generation = current;
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            generation.set(index(h1 + i * h2));
+        }
+        if (generation.insertions.incrementAndGet() == expectedInsertions) {
+            previous = generation;
+            current = new Generation(bitCount);
+        }
+    }
+
+    /**
+     * Returns {@code false} if the id has definitely not been added recently.
+     */
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits()) | 1;
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    private boolean contains(Generation generation, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            if (!generation.get(index(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long hash) {
+        return (int) Long.remainderUnsigned(hash, bitCount);
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreads the bits of random and non-random UUIDs alike.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Generation(int bitCount) {
+            this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+        }
+
+        private void set(int bit) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long value;
+            do {
+                value = words.get(word);
+                if ((value & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, value, value | mask));
+        }
+
+        private boolean get(int bit) {
+            return (words.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+    }
+}
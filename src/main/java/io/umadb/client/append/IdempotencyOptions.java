@@ -0,0 +1,83 @@
+package io.umadb.client.append;
+
+import java.time.Duration;
+
+/**
+ * Configures an {@link IdempotentAppender}.
+ *
+ * @param maxAttempts       the maximum number of times an append is sent, including the first attempt,
+ *                          and the maximum number of verification reads after an append with an
+ *                          unknown outcome
+ * @param lookback          the maximum number of recent matching events read backwards when
+ *                          verifying whether an append has landed
+ * @param expectedInsertions the number of written event ids remembered per generation of the
+ *                          local filter; two generations are kept
+ * @param falsePositiveRate the desired false positive probability of the local filter,
+ *                          between 0 and 1 (exclusive)
+ * @param verificationBackoff the wait before the second verification read of an unknown outcome;
+ *                          doubled for every further read
+ */
+public record IdempotencyOptions(
+        int maxAttempts,
+        int lookback,
+        int expectedInsertions,
+        double falsePositiveRate,
+        Duration verificationBackoff
+) {
+
+    private static final Duration DEFAULT_VERIFICATION_BACKOFF = Duration.ofMillis(100);
+
+    /**
+     * Creates new {@code IdempotencyOptions}.
+     *
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public IdempotencyOptions {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be >= 1");
+        }
+        if (lookback < 1) {
+            throw new IllegalArgumentException("lookback must be >= 1");
+        }
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions must be >= 1");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        if (verificationBackoff == null || verificationBackoff.isNegative()) {
+            throw new IllegalArgumentException("verificationBackoff must not be null or negative");
+        }
+    }
+
+    /**
+     * Creates new {@code IdempotencyOptions} with a verification backoff of 100 ms.
+     *
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public IdempotencyOptions(int maxAttempts, int lookback, int expectedInsertions, double falsePositiveRate) {
+        this(maxAttempts, lookback, expectedInsertions, falsePositiveRate, DEFAULT_VERIFICATION_BACKOFF);
+    }
+
+    /**
+     * Creates {@code IdempotencyOptions} with sensible defaults: up to 3 attempts,
+     * verification against the last 1000 matching events with a backoff of 100 ms, and a
+     * filter remembering 100,000 event ids per generation at a 1% false positive rate.
+     *
+     * @return the default {@code IdempotencyOptions}
+     */
+    public static IdempotencyOptions defaults() {
+        return new IdempotencyOptions(3, 1000, 100_000, 0.01);
+    }
+
+    /**
+     * Returns a copy of these options with the given verification backoff.
+     *
+     * @param verificationBackoff the wait before the second verification read; zero to retry at once
+     * @return the new options
+     * @throws IllegalArgumentException if {@code verificationBackoff} is {@code null} or negative
+     */
+    public IdempotencyOptions withVerificationBackoff(Duration verificationBackoff) {
+        return new IdempotencyOptions(maxAttempts, lookback, expectedInsertions, falsePositiveRate, verificationBackoff);
+    }
+}
@@ -0,0 +1,233 @@
+package io.umadb.client.append;
+
+import io.umadb.client.*;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends events without duplicating them when an append has to be retried.
+ * <p>
+ * When an append fails with a {@link UmaDbException.TimeoutException} or an
+ * {@link UmaDbException.IoException}, the client cannot tell whether the events have been
+ * written. Instead of blindly resending them, this appender first verifies by event id
+ * whether the append has landed, using a bounded backwards read of the most recent events
+ * matching the appended event. Only if the events are not found are they sent again.
+ * All events of a request are written atomically, so looking up the last event suffices.
+ * If the verification read fails as well, it is repeated with a backoff; the events are
+ * never resent while the outcome of an earlier attempt is unknown.
+ * <p>
+ * The ids of successfully written events, as well as those passed to {@link #observe(Event)}
+ * e.g. from a subscription, are remembered in a compact probabilistic filter. Appending an
+ * event whose id has definitely not been written recently, the common case for high-rate
+ * producers, skips the verification read. Appending an event that may have been written
+ * before, e.g. when a caller replays its outbox, verifies first and returns the existing
+ * position instead of writing a duplicate.
+ *
+ * <pre>{@code
+ * IdempotentAppender appender = new IdempotentAppender(client);
+ * AppendResponse response = appender.append(AppendRequest.of(List.of(orderPlaced)));
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe.
+ */
+public final class IdempotentAppender {
+
+    private final UmaDbClient client;
+    private final IdempotencyOptions options;
+    private final EventIdFilter writtenIds;
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * Creates a new appender using {@link IdempotencyOptions#defaults()}.
+     *
+     * @param client the client to append with
+     * @throws IllegalArgumentException if {@code client} is {@code null}
+     */
+    public IdempotentAppender(UmaDbClient client) {
+        this(client, IdempotencyOptions.defaults());
+    }
+
+    /**
+     * Creates a new appender.
+     *
+     * @param client  the client to append with
+     * @param options the retry and verification settings
+     * @throws IllegalArgumentException if {@code client} or {@code options} is {@code null}
+     */
+    public IdempotentAppender(UmaDbClient client, IdempotencyOptions options) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
+        this.client = client;
+        this.options = options;
+        this.writtenIds = new EventIdFilter(options.expectedInsertions(), options.falsePositiveRate());
+    }
+
+    /**
+     * Appends the events of the given request at most once.
+     *
+     * @param appendRequest the request to append
+     * @return the position of the last event, either newly written or found by verification
+     * @throws UmaDbException.TimeoutException if the outcome is still unknown after all attempts
+     * @throws UmaDbException.IoException      if the server is still unreachable after all attempts
+     * @throws UmaDbException                  if the append fails for another reason
+     */
+    public AppendResponse append(AppendRequest appendRequest) {
+        if (appendRequest == null) {
+            throw new IllegalArgumentException("appendRequest must not be null");
+        }
+        Event last = appendRequest.events().get(appendRequest.events().size() - 1);
+        if (writtenIds.mightContain(last.id())) {
+            Long position = findPosition(last);
+            if (position != null) {
+                deduplicated.increment();
+                return new AppendResponse(position);
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                var response = client.handle(appendRequest);
+                remember(appendRequest.events());
+                return response;
+            } catch (UmaDbException.TimeoutException | UmaDbException.IoException e) {
+                if (attempt >= options.maxAttempts()) {
+                    throw e;
+                }
+            }
+
+            // The outcome of the previous attempt is unknown, check before resending
+            Long position = verify(last);
+            if (position != null) {
+                deduplicated.increment();
+                remember(appendRequest.events());
+                return new AppendResponse(position);
+            }
+        }
+    }
+
+    /**
+     * Looks up an event whose append has an unknown outcome, repeating failed reads with a
+     * backoff until the outcome is known.
+     *
+     * @return the position of the event, or {@code null} if it has not been written
+     * @throws UmaDbException.TimeoutException if the outcome is still unknown after all reads
+     */
+    private Long verify(Event event) {
+        for (int read = 1; ; read++) {
+            try {
+                return findPosition(event);
+            } catch (UmaDbException.TimeoutException | UmaDbException.IoException e) {
+                if (read >= options.maxAttempts()) {
+                    throw new UmaDbException.TimeoutException(
+                            "Outcome of append unknown after %d verification reads: %s".formatted(read, e.getMessage()));
+                }
+            }
+            try {
+                Thread.sleep(options.verificationBackoff().multipliedBy(1L << Math.min(read - 1, 10)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UmaDbException.TimeoutException("Interrupted while verifying an append with unknown outcome");
+            }
+        }
+    }
+
+    /**
+     * Appends the events of a request that may already have been written by an earlier
+     * attempt, e.g. one that was interrupted by a crash. Verifies first, regardless of
+     * the local filter, and only appends if the events are not found.
+     *
+     * @param appendRequest the request to append
+     * @return the position of the last event, either found by verification or newly written
+     * @throws UmaDbException if the verification or the append fails
+     */
+    public AppendResponse retry(AppendRequest appendRequest) {
+        if (appendRequest == null) {
+            throw new IllegalArgumentException("appendRequest must not be null");
+        }
+        Long position = findPosition(appendRequest.events().get(appendRequest.events().size() - 1));
+        if (position != null) {
+            deduplicated.increment();
+            remember(appendRequest.events());
+            return new AppendResponse(position);
+        }
+        return append(appendRequest);
+    }
+
+    /**
+     * Remembers an event known to be written, e.g. one received from a subscription,
+     * so that appending it again is detected.
+     *
+     * @param event the written event
+     */
+    public void observe(Event event) {
+        writtenIds.add(event.id());
+    }
+
+    /**
+     * Returns the number of verification reads performed.
+     *
+     * @return the number of verification reads
+     */
+    public long verifications() {
+        return verifications.sum();
+    }
+
+    /**
+     * Returns the number of appends that were found to be written already and not resent.
+     *
+     * @return the number of deduplicated appends
+     */
+    public long deduplicated() {
+        return deduplicated.sum();
+    }
+
+    private void remember(List<Event> events) {
+        for (Event event : events) {
+            writtenIds.add(event.id());
+        }
+    }
+
+    /**
+     * Searches the most recent events of the same type and tags for the given event.
+     *
+     * @return the position of the event, or {@code null} if it is not among them
+     */
+    private Long findPosition(Event event) {
+        verifications.increment();
+        var readRequest = ReadRequest.of(Query.of(QueryItem.of(List.of(event.type()), event.tags())))
+                .withDirection(true)
+                .withLimit(options.lookback());
+
+        UUID id = event.id();
+        Iterator<ReadResponse> responses = client.handle(readRequest);
+        try {
+            while (responses.hasNext()) {
+                for (SequencedEvent candidate : responses.next().events()) {
+                    if (id.equals(candidate.event().id())) {
+                        return candidate.position();
+                    }
+                }
+            }
+            return null;
+        } finally {
+            // Cancels the rest of the read instead of leaving it open until its deadline
+            if (responses instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    // The read ends with its deadline instead
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.umadb.client.bulk;
+
+/**
+ * Configures a {@link BulkLoader}.
+ *
+ * @param maxRequestBytes     the maximum serialized size of a single append request;
+ *                            must not exceed the server's maximum inbound message size
+ * @param maxEventsPerRequest the maximum number of events in a single append request
+ * @param maxInFlight         the maximum number of append requests sent concurrently;
+ *                            {@code 1} preserves the input order across requests
+ */
+public record BulkLoadOptions(
+        int maxRequestBytes,
+        int maxEventsPerRequest,
+        int maxInFlight
+) {
+
+    /**
+     * The default maximum message size of gRPC.
+     */
+    public static final int DEFAULT_MAX_REQUEST_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * Creates new {@code BulkLoadOptions}.
+     *
+     * @throws IllegalArgumentException if a value is zero or negative
+     */
+    public BulkLoadOptions {
+        if (maxRequestBytes <= 0) {
+            throw new IllegalArgumentException("maxRequestBytes must be > 0");
+        }
+        if (maxEventsPerRequest <= 0) {
+            throw new IllegalArgumentException("maxEventsPerRequest must be > 0");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be > 0");
+        }
+    }
+
+    /**
+     * Creates {@code BulkLoadOptions} with sensible defaults: requests of up to 4 MiB
+     * and 10,000 events, sent one at a time to preserve the input order.
+     *
+     * @return the default {@code BulkLoadOptions}
+     */
+    public static BulkLoadOptions defaults() {
+        return new BulkLoadOptions(DEFAULT_MAX_REQUEST_BYTES, 10_000, 1);
+    }
+
+    /**
+     * Returns a copy of these options with the given number of concurrent requests.
+     *
+     * @param maxInFlight the maximum number of append requests sent concurrently
+     * @return new {@code BulkLoadOptions} with the specified concurrency
+     */
+    public BulkLoadOptions withMaxInFlight(int maxInFlight) {
+        return new BulkLoadOptions(maxRequestBytes, maxEventsPerRequest, maxInFlight);
+    }
+}
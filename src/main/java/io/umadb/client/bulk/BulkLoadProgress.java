@@ -0,0 +1,24 @@
+package io.umadb.client.bulk;
+
+/**
+ * Progress of a bulk load, reported after every acknowledged append request.
+ *
+ * @param eventsAppended   the number of events appended so far
+ * @param requestsAppended the number of append requests acknowledged so far
+ * @param bytesAppended    the serialized size of all acknowledged append requests
+ * @param resumeIndex      the number of leading input events that have all been appended;
+ *                         an interrupted load can be resumed by skipping this many events
+ * @param lastPosition     the highest position assigned so far, or {@code 0} if none
+ */
+public record BulkLoadProgress(
+        long eventsAppended,
+        long requestsAppended,
+        long bytesAppended,
+        long resumeIndex,
+        long lastPosition
+) {
+
+    static BulkLoadProgress initial() {
+        return new BulkLoadProgress(0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,286 @@
+package io.umadb.client.bulk;
+
+import io.umadb.client.*;
+import io.umadb.client.grpc.UmaDbClientImpl;
+import io.umadb.client.grpc.UmaDbUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Imports large numbers of events efficiently.
+ * <p>
+ * Events are packed into unconditional append requests that are as large as possible
+ * without exceeding {@link BulkLoadOptions#maxRequestBytes()}, based on the exact
+ * serialized size of every event. If the gRPC client compresses payloads, events are
+ * compressed while packing, so the size includes the {@value PayloadCompression#COMPRESSED_TAG}
+ * tag, and the client sends them as they are. While one request is in flight, the next one is
+ * packed; up to {@link BulkLoadOptions#maxInFlight()} requests are sent concurrently.
+ * <p>
+ * Within a request, events are appended atomically and in order. With a single request
+ * in flight (the default), requests are also appended in input order. With more requests
+ * in flight, the order across requests is not guaranteed.
+ * <p>
+ * After every acknowledged request the {@link BulkLoadProgress} is reported. Its
+ * {@link BulkLoadProgress#resumeIndex()} is the number of leading input events that
+ * have all been appended, so a failed load can be resumed by skipping that many events.
+ *
+ * <pre>{@code
+ * BulkLoader loader = new BulkLoader(client);
+ * BulkLoadProgress result = loader.load(historicalEvents(), progress ->
+ *     log.info("imported {} events", progress.resumeIndex()));
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe; every call to {@code load} uses its own worker threads.
+ */
+public final class BulkLoader {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final UmaDbClient client;
+    private final BulkLoadOptions options;
+    private final ToIntFunction<Event> eventSize;
+    private final PayloadCompression compression;
+
+    /**
+     * Creates a new loader using {@link BulkLoadOptions#defaults()}.
+     *
+     * @param client the client to append with
+     * @throws IllegalArgumentException if {@code client} is {@code null}
+     */
+    public BulkLoader(UmaDbClient client) {
+        this(client, BulkLoadOptions.defaults());
+    }
+
+    /**
+     * Creates a new loader.
+     *
+     * @param client  the client to append with
+     * @param options the batching and concurrency settings
+     * @throws IllegalArgumentException if {@code client} or {@code options} is {@code null}
+     */
+    public BulkLoader(UmaDbClient client, BulkLoadOptions options) {
+        this(client, options, UmaDbUtils::appendRequestEventSize,
+                client instanceof UmaDbClientImpl grpcClient ? grpcClient.payloadCompression() : null);
+    }
+
+    BulkLoader(UmaDbClient client, BulkLoadOptions options, ToIntFunction<Event> eventSize) {
+        this(client, options, eventSize, null);
+    }
+
+    BulkLoader(UmaDbClient client, BulkLoadOptions options, ToIntFunction<Event> eventSize, PayloadCompression compression) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
+        this.client = client;
+        this.options = options;
+        this.eventSize = eventSize;
+        this.compression = compression;
+    }
+
+    /**
+     * Appends all events of the given stream.
+     *
+     * @param events the events to append
+     * @return the final progress
+     * @see #load(Iterator, Consumer)
+     */
+    public BulkLoadProgress load(Stream<Event> events) {
+        return load(events.iterator(), progress -> {
+        });
+    }
+
+    /**
+     * Appends all events of the given stream.
+     *
+     * @param events           the events to append
+     * @param progressListener called after every acknowledged request, never concurrently
+     * @return the final progress
+     * @see #load(Iterator, Consumer)
+     */
+    public BulkLoadProgress load(Stream<Event> events, Consumer<BulkLoadProgress> progressListener) {
+        return load(events.iterator(), progressListener);
+    }
+
+    /**
+     * Appends all events of the given iterator.
+     * <p>
+     * Returns once all requests have been acknowledged. If a request fails, an event is
+     * rejected or the iterator throws, no further requests are sent and the failure is
+     * rethrown once the requests in flight have completed; the last reported progress
+     * tells where to resume.
+     *
+     * @param events           the events to append
+     * @param progressListener called after every acknowledged request, never concurrently
+     * @return the final progress
+     * @throws IllegalArgumentException if a single event exceeds the maximum request size
+     * @throws UmaDbException           if an append fails
+     */
+    public BulkLoadProgress load(Iterator<Event> events, Consumer<BulkLoadProgress> progressListener) {
+        if (events == null) {
+            throw new IllegalArgumentException("events must not be null");
+        }
+        if (progressListener == null) {
+            throw new IllegalArgumentException("progressListener must not be null");
+        }
+
+        var tracker = new ProgressTracker(progressListener);
+        var inFlight = new Semaphore(options.maxInFlight());
+        ExecutorService executor = Executors.newFixedThreadPool(options.maxInFlight(), runnable -> {
+            var thread = new Thread(runnable, "umadb-bulk-loader-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        boolean drained = false;
+        try {
+            long sequence = 0;
+            long firstIndex = 0;
+            var batch = new ArrayList<Event>();
+            int batchBytes = 0;
+
+            while (events.hasNext() && !tracker.hasFailed()) {
+                Event event = events.next();
+                if (compression != null) {
+                    event = compression.compress(event);
+                }
+                int size = eventSize.applyAsInt(event);
+                if (size > options.maxRequestBytes()) {
+                    throw new IllegalArgumentException("event %s of %d bytes exceeds maxRequestBytes %d"
+                            .formatted(event.id(), size, options.maxRequestBytes()));
+                }
+                if (batchBytes + size > options.maxRequestBytes() || batch.size() == options.maxEventsPerRequest()) {
+                    submit(executor, inFlight, tracker, new Batch(sequence++, firstIndex, batch, batchBytes));
+                    firstIndex += batch.size();
+                    batch = new ArrayList<>();
+                    batchBytes = 0;
+                }
+                batch.add(event);
+                batchBytes += size;
+            }
+            if (!batch.isEmpty() && !tracker.hasFailed()) {
+                submit(executor, inFlight, tracker, new Batch(sequence, firstIndex, batch, batchBytes));
+            }
+
+            // Wait for all requests in flight
+            acquire(inFlight, options.maxInFlight());
+            drained = true;
+            tracker.throwIfFailed();
+            return tracker.progress();
+        } finally {
+            if (!drained) {
+                // Requests already sent may still be appended; the last reported progress
+                // must be final once the failure reaches the caller
+                inFlight.acquireUninterruptibly(options.maxInFlight());
+            }
+            executor.shutdown();
+        }
+    }
+
+    private void submit(ExecutorService executor, Semaphore inFlight, ProgressTracker tracker, Batch batch) {
+        acquire(inFlight, 1);
+        if (tracker.hasFailed()) {
+            // A previous request failed while waiting for a free slot
+            inFlight.release();
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                var response = client.handle(AppendRequest.of(batch.events()));
+                tracker.acknowledged(batch, response.position());
+            } catch (RuntimeException e) {
+                tracker.failed(e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UmaDbException("Interrupted while waiting for bulk append requests", e);
+        }
+    }
+
+    /**
+     * An append request in the making.
+     *
+     * @param sequence   the number of the request within the load
+     * @param firstIndex the input index of its first event
+     * @param events     the events of the request
+     * @param bytes      the serialized size of the request
+     */
+    private record Batch(long sequence, long firstIndex, List<Event> events, int bytes) {
+    }
+
+    /**
+     * Collects acknowledgements, which may arrive out of order, into the load progress.
+     */
+    private static final class ProgressTracker {
+
+        private final Consumer<BulkLoadProgress> listener;
+        private final TreeMap<Long, Batch> acknowledgedOutOfOrder = new TreeMap<>();
+
+        private BulkLoadProgress progress = BulkLoadProgress.initial();
+        private long nextSequence;
+        private volatile RuntimeException failure;
+
+        private ProgressTracker(Consumer<BulkLoadProgress> listener) {
+            this.listener = listener;
+        }
+
+        private synchronized void acknowledged(Batch batch, long position) {
+            acknowledgedOutOfOrder.put(batch.sequence(), batch);
+            long resumeIndex = progress.resumeIndex();
+            while (!acknowledgedOutOfOrder.isEmpty() && acknowledgedOutOfOrder.firstKey() == nextSequence) {
+                var contiguous = acknowledgedOutOfOrder.pollFirstEntry().getValue();
+                resumeIndex = contiguous.firstIndex() + contiguous.events().size();
+                nextSequence++;
+            }
+            progress = new BulkLoadProgress(
+                    progress.eventsAppended() + batch.events().size(),
+                    progress.requestsAppended() + 1,
+                    progress.bytesAppended() + batch.bytes(),
+                    resumeIndex,
+                    Math.max(progress.lastPosition(), position)
+            );
+            listener.accept(progress);
+        }
+
+        private synchronized void failed(RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        private boolean hasFailed() {
+            return failure != null;
+        }
+
+        private void throwIfFailed() {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private synchronized BulkLoadProgress progress() {
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.umadb.client.checkpoint;
+
+/**
+ * Stores the position up to which a consumer has processed events, so it can resume after
+ * that position when it restarts.
+ * <p>
+ * Implementations may commit saved positions asynchronously. After a restart, a consumer
+ * replays the events after the last <em>committed</em> position, i.e. at most the events
+ * processed since that commit.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface CheckpointStore extends AutoCloseable {
+
+    /**
+     * Returns the last committed position.
+     *
+     * @return the position, or {@code null} if no checkpoint has been committed
+     */
+    Long load();
+
+    /**
+     * Records that all events up to and including the given position have been processed.
+     * The position may be committed later.
+     *
+     * @param position the processed position
+     */
+    void save(long position);
+
+    /**
+     * Commits the last saved position, blocking until it is durable.
+     */
+    void flush();
+
+    /**
+     * Commits the last saved position and releases the store.
+     */
+    @Override
+    void close();
+}
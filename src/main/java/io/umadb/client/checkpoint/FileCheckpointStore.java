@@ -0,0 +1,193 @@
+package io.umadb.client.checkpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * {@link CheckpointStore} backed by a small memory-mapped file.
+ * <p>
+ * The file holds two slots, each with a sequence number, a position and a CRC32C checksum.
+ * Commits alternate between the slots, so a torn write only ever damages the slot being
+ * written and the previous checkpoint stays readable. On load, the valid slot with the
+ * highest sequence number wins.
+ * <p>
+ * {@link #save(long)} only records the position in memory. A background thread commits the
+ * latest saved position once per commit interval, flushing it to disk; intermediate positions
+ * are coalesced. After a crash, a consumer therefore replays at most the events processed
+ * during one commit interval. With a zero interval, every save is committed synchronously.
+ *
+ * <pre>{@code
+ * try (CheckpointStore checkpoints = new FileCheckpointStore(Path.of("orders-projection.checkpoint"))) {
+ *     new CatchUpSubscription(client).run(ReadRequest.of(query), projection::apply, checkpoints);
+ * }
+ * }</pre>
+ */
+public final class FileCheckpointStore implements CheckpointStore {
+
+    private static final int SLOT_BYTES = 32;
+    private static final int FILE_BYTES = 2 * SLOT_BYTES;
+    private static final int SEQUENCE = 0;
+    private static final int POSITION = 8;
+    private static final int CHECKSUM = 16;
+    private static final long NONE = -1;
+
+    private final MappedByteBuffer buffer;
+    private final ScheduledExecutorService committer;
+
+    private long sequence;
+    private long committed;
+    private volatile long saved;
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    /**
+     * Opens the store with a commit interval of one second.
+     *
+     * @param file the checkpoint file; created if missing
+     * @throws IllegalArgumentException if {@code file} is {@code null}
+     * @throws IOException              if the file cannot be created or read
+     */
+    public FileCheckpointStore(Path file) throws IOException {
+        this(file, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Opens the store.
+     *
+     * @param file           the checkpoint file; created if missing
+     * @param commitInterval the interval between asynchronous commits; zero commits every save
+     * @throws IllegalArgumentException if an argument is {@code null} or the interval is negative
+     * @throws IOException              if the file cannot be created or read
+     */
+    public FileCheckpointStore(Path file, Duration commitInterval) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        if (commitInterval == null || commitInterval.isNegative()) {
+            throw new IllegalArgumentException("commitInterval must not be null or negative");
+        }
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            // The mapping stays valid after the channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+        }
+
+        this.committed = NONE;
+        for (int slot = 0; slot < 2; slot++) {
+            int offset = slot * SLOT_BYTES;
+            long slotSequence = buffer.getLong(offset + SEQUENCE);
+            if (slotSequence > sequence && buffer.getInt(offset + CHECKSUM) == checksum(offset)) {
+                sequence = slotSequence;
+                committed = buffer.getLong(offset + POSITION);
+            }
+        }
+        this.saved = committed;
+
+        if (commitInterval.isZero()) {
+            this.committer = null;
+        } else {
+            this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "umadb-checkpoint-committer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long nanos = commitInterval.toNanos();
+            committer.scheduleWithFixedDelay(this::commitInBackground, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public synchronized Long load() {
+        return committed == NONE ? null : committed;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code position} is negative
+     * @throws IllegalStateException    if the store is closed
+     * @throws UncheckedIOException     if a previous commit failed
+     */
+    @Override
+    public void save(long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must be >= 0");
+        }
+        if (closed) {
+            throw new IllegalStateException("checkpoint store is closed");
+        }
+        var failure = this.failure;
+        if (failure != null) {
+            throw failure;
+        }
+        saved = position;
+        if (committer == null) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (closed) {
+            throw new IllegalStateException("checkpoint store is closed");
+        }
+        commit();
+    }
+
+    private synchronized void commitInBackground() {
+        if (closed) {
+            return;
+        }
+        try {
+            commit();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Writes the last saved position to the older slot and flushes it. Must hold the lock.
+     */
+    private void commit() {
+        long position = saved;
+        if (position == committed) {
+            return;
+        }
+        sequence++;
+        int offset = (int) (sequence % 2) * SLOT_BYTES;
+        buffer.putLong(offset + SEQUENCE, sequence);
+        buffer.putLong(offset + POSITION, position);
+        buffer.putInt(offset + CHECKSUM, checksum(offset));
+        buffer.force(offset, SLOT_BYTES);
+        committed = position;
+    }
+
+    private int checksum(int offset) {
+        var crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM));
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void close() {
+        if (committer != null) {
+            committer.shutdown();
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            commit();
+            closed = true;
+        }
+    }
+}
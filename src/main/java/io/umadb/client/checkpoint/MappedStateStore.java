@@ -0,0 +1,613 @@
+package io.umadb.client.checkpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Projection state kept off-heap in a memory-mapped hash table, committed atomically together
+ * with the position it reflects.
+ * <p>
+ * The store maps byte or {@code long} keys to byte values. Entries live in fixed-size slots
+ * of a file-backed open-addressing table, so the state of large read models stays out of the
+ * Java heap and survives restarts. The table is sized up front by {@link StateStoreOptions}.
+ * <p>
+ * As a {@link CheckpointStore}, the store ties the state to the processed position:
+ * {@link #save(long)} marks all changes made so far as reflecting the given position, and a
+ * commit persists those changes and the position as one unit. Commits first write the changed
+ * slots to a journal next to the file, then update the table and finally the position, so a
+ * commit interrupted by a crash is completed when the store is reopened. After a restart,
+ * {@link #load()} returns the committed position and the table holds exactly the state up to
+ * it, so a projection resumes from there instead of replaying from the start. Changes that
+ * were not saved, and saved changes not committed yet, are kept on the heap until then.
+ * <p>
+ * As with {@link FileCheckpointStore}, a background thread commits the latest save once per
+ * commit interval; with a zero interval, every save is committed synchronously. Changes made
+ * after the last save are discarded on {@link #close()}, since no position covers them.
+ *
+ * <pre>{@code
+ * try (var state = new MappedStateStore(Path.of("order-totals.state"), StateStoreOptions.of(50_000_000, 8, 16))) {
+ *     new CatchUpSubscription(client).run(ReadRequest.of(query),
+ *             event -> state.put(orderId(event), total(state, event)), state);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class MappedStateStore implements CheckpointStore {
+
+    private static final int HEADER_BYTES = 4096;
+    private static final int MAGIC = 0x554d5353;
+    private static final int VERSION = 1;
+    // Geometry, written once when the file is created
+    private static final int GEOMETRY_MAGIC = 0;
+    private static final int GEOMETRY_VERSION = 4;
+    private static final int GEOMETRY_CAPACITY = 8;
+    private static final int GEOMETRY_KEY_BYTES = 12;
+    private static final int GEOMETRY_VALUE_BYTES = 16;
+    // Two commit records that alternate, so a torn write leaves the previous one readable
+    private static final int COMMIT_OFFSET = 64;
+    private static final int COMMIT_BYTES = 32;
+    private static final int SEQUENCE = 0;
+    private static final int POSITION = 8;
+    private static final int SIZE = 16;
+    private static final int CHECKSUM = 24;
+    // Slot layout; a key length of zero marks an empty slot
+    private static final int KEY_LENGTH = 0;
+    private static final int VALUE_LENGTH = 4;
+    private static final int KEY = 8;
+    // Journal layout: sequence, position, size and slot count, then the slots and a checksum
+    private static final int JOURNAL_HEADER_BYTES = 28;
+    private static final int JOURNAL_CHUNK_BYTES = 64 * 1024;
+    private static final long NONE = -1;
+
+    private final StateStoreOptions options;
+    private final Path journal;
+    private final int slots;
+    private final int slotBytes;
+    private final int slotsPerSegment;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final ScheduledExecutorService committer;
+
+    // Slot images changed since the last save, and saved but not yet committed
+    private Map<Integer, ByteBuffer> pending = new HashMap<>();
+    private Map<Integer, ByteBuffer> saved = new HashMap<>();
+    private long sequence;
+    private long committed;
+    private long savedPosition;
+    private long size;
+    private long savedSize;
+    private RuntimeException failure;
+    private boolean closed;
+
+    // The slot found by the last call to locate(int)
+    private ByteBuffer buffer;
+    private int base;
+
+    /**
+     * Opens the store, creating the file if it is missing.
+     *
+     * @param file    the state file; the journal is kept next to it
+     * @param options the table geometry and commit interval
+     * @throws IllegalArgumentException if an argument is {@code null}, or the options do not
+     *                                  match the geometry of an existing file
+     * @throws IOException              if the file cannot be created or read, or is not a state store
+     */
+    public MappedStateStore(Path file, StateStoreOptions options) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
+        this.options = options;
+        this.journal = file.resolveSibling(file.getFileName() + ".journal");
+        this.slots = options.capacity() + options.capacity() / 3 + 1;
+        this.slotBytes = KEY + options.maxKeyBytes() + options.maxValueBytes();
+        this.slotsPerSegment = Math.min(slots, Integer.MAX_VALUE / slotBytes);
+
+        long fileBytes = HEADER_BYTES + (long) slots * slotBytes;
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            boolean created = channel.size() == 0;
+            if (created) {
+                // Sparse on most file systems; unused slots read as empty
+                channel.write(ByteBuffer.allocate(1), fileBytes - 1);
+            }
+            // The mappings stay valid after the channel is closed
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (created) {
+                header.putInt(GEOMETRY_MAGIC, MAGIC);
+                header.putInt(GEOMETRY_VERSION, VERSION);
+                header.putInt(GEOMETRY_CAPACITY, options.capacity());
+                header.putInt(GEOMETRY_KEY_BYTES, options.maxKeyBytes());
+                header.putInt(GEOMETRY_VALUE_BYTES, options.maxValueBytes());
+                header.force();
+            } else {
+                checkGeometry(file, channel.size(), fileBytes);
+            }
+            this.segments = new MappedByteBuffer[(slots + slotsPerSegment - 1) / slotsPerSegment];
+            for (int i = 0; i < segments.length; i++) {
+                int segmentSlots = Math.min(slotsPerSegment, slots - i * slotsPerSegment);
+                long offset = HEADER_BYTES + (long) i * slotsPerSegment * slotBytes;
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) segmentSlots * slotBytes);
+            }
+        }
+
+        this.committed = NONE;
+        for (int record = 0; record < 2; record++) {
+            int offset = COMMIT_OFFSET + record * COMMIT_BYTES;
+            long recordSequence = header.getLong(offset + SEQUENCE);
+            if (recordSequence > sequence && header.getInt(offset + CHECKSUM) == checksum(offset)) {
+                sequence = recordSequence;
+                committed = header.getLong(offset + POSITION);
+                size = header.getLong(offset + SIZE);
+            }
+        }
+        recover();
+        this.savedPosition = committed;
+        this.savedSize = size;
+
+        if (options.commitInterval().isZero()) {
+            this.committer = null;
+        } else {
+            this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "umadb-state-committer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long nanos = options.commitInterval().toNanos();
+            committer.scheduleWithFixedDelay(this::commitInBackground, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void checkGeometry(Path file, long actualBytes, long expectedBytes) throws IOException {
+        if (header.getInt(GEOMETRY_MAGIC) != MAGIC || header.getInt(GEOMETRY_VERSION) != VERSION) {
+            throw new IOException(file + " is not a state store");
+        }
+        int capacity = header.getInt(GEOMETRY_CAPACITY);
+        int maxKeyBytes = header.getInt(GEOMETRY_KEY_BYTES);
+        int maxValueBytes = header.getInt(GEOMETRY_VALUE_BYTES);
+        if (capacity != options.capacity() || maxKeyBytes != options.maxKeyBytes() || maxValueBytes != options.maxValueBytes()) {
+            throw new IllegalArgumentException("options must match the existing store with capacity %d, maxKeyBytes %d and maxValueBytes %d"
+                    .formatted(capacity, maxKeyBytes, maxValueBytes));
+        }
+        if (actualBytes < expectedBytes) {
+            throw new IOException(file + " is truncated");
+        }
+    }
+
+    /**
+     * Completes a commit that was interrupted after its journal had been written.
+     */
+    private void recover() throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        MappedByteBuffer content;
+        try (FileChannel channel = FileChannel.open(journal, READ)) {
+            long length = channel.size();
+            if (length < JOURNAL_HEADER_BYTES + 4 || length > Integer.MAX_VALUE) {
+                return;
+            }
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        long journalSequence = content.getLong(0);
+        int count = content.getInt(24);
+        long expectedLength = JOURNAL_HEADER_BYTES + (long) count * (4 + slotBytes) + 4;
+        // Older journals have been applied already; incomplete ones were never committed
+        if (journalSequence != sequence + 1 || count < 0 || content.capacity() != expectedLength) {
+            return;
+        }
+        int checksumOffset = (int) expectedLength - 4;
+        var crc = new CRC32C();
+        crc.update(content.slice(0, checksumOffset));
+        if ((int) crc.getValue() != content.getInt(checksumOffset)) {
+            return;
+        }
+
+        Map<Integer, ByteBuffer> images = new HashMap<>();
+        for (int offset = JOURNAL_HEADER_BYTES; offset < checksumOffset; offset += 4 + slotBytes) {
+            var image = new byte[slotBytes];
+            content.get(offset + 4, image);
+            images.put(content.getInt(offset), ByteBuffer.wrap(image));
+        }
+        apply(images);
+        size = content.getLong(16);
+        writeCommit(journalSequence, content.getLong(8), size);
+    }
+
+    /**
+     * Returns the value stored under the given key, including changes that are not committed yet.
+     *
+     * @param key the key
+     * @return a copy of the value, or {@code null} if the key is absent
+     * @throws IllegalArgumentException if the key is {@code null}, empty or too long
+     * @throws IllegalStateException    if the store is closed
+     */
+    public synchronized byte[] get(byte[] key) {
+        checkKey(key);
+        checkOpen();
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        var value = new byte[buffer.getInt(base + VALUE_LENGTH)];
+        buffer.get(base + KEY + options.maxKeyBytes(), value);
+        return value;
+    }
+
+    /**
+     * Returns the value stored under the given {@code long} key.
+     *
+     * @param key the key
+     * @return a copy of the value, or {@code null} if the key is absent
+     * @throws IllegalArgumentException if {@code maxKeyBytes} is less than 8
+     * @throws IllegalStateException    if the store is closed
+     * @see #get(byte[])
+     */
+    public byte[] get(long key) {
+        return get(toBytes(key));
+    }
+
+    /**
+     * Stores a value under the given key, replacing any previous value. The change becomes
+     * durable with the next commit after the next {@link #save(long)}.
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws IllegalArgumentException if the key is {@code null}, empty or too long, or the
+     *                                  value is {@code null} or too long
+     * @throws IllegalStateException    if the store is closed, or full and the key is absent
+     */
+    public synchronized void put(byte[] key, byte[] value) {
+        checkKey(key);
+        if (value == null || value.length > options.maxValueBytes()) {
+            throw new IllegalArgumentException("value must not be null or longer than maxValueBytes");
+        }
+        checkOpen();
+        int slot = find(key);
+        if (slot < 0) {
+            if (size == options.capacity()) {
+                throw new IllegalStateException("state store is full");
+            }
+            slot = -slot - 1;
+            size++;
+        }
+        var image = ByteBuffer.allocate(slotBytes);
+        image.putInt(KEY_LENGTH, key.length);
+        image.putInt(VALUE_LENGTH, value.length);
+        image.put(KEY, key);
+        image.put(KEY + options.maxKeyBytes(), value);
+        pending.put(slot, image);
+    }
+
+    /**
+     * Stores a value under the given {@code long} key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws IllegalArgumentException if {@code maxKeyBytes} is less than 8, or the value is
+     *                                  {@code null} or too long
+     * @throws IllegalStateException    if the store is closed or full
+     * @see #put(byte[], byte[])
+     */
+    public void put(long key, byte[] value) {
+        put(toBytes(key), value);
+    }
+
+    /**
+     * Removes the value stored under the given key. The change becomes durable with the next
+     * commit after the next {@link #save(long)}.
+     *
+     * @param key the key
+     * @return {@code true} if the key was present
+     * @throws IllegalArgumentException if the key is {@code null}, empty or too long
+     * @throws IllegalStateException    if the store is closed
+     */
+    public synchronized boolean remove(byte[] key) {
+        checkKey(key);
+        checkOpen();
+        int gap = find(key);
+        if (gap < 0) {
+            return false;
+        }
+        // Shift the following entries of the probe sequence into the gap, so lookups need no tombstones
+        int next = gap;
+        while (true) {
+            next = next + 1 == slots ? 0 : next + 1;
+            locate(next);
+            int keyLength = buffer.getInt(base + KEY_LENGTH);
+            if (keyLength == 0) {
+                break;
+            }
+            int home = home(buffer, base + KEY, keyLength);
+            boolean reachableFromGap = gap <= next ? home <= gap || home > next : home <= gap && home > next;
+            if (reachableFromGap) {
+                var image = ByteBuffer.allocate(slotBytes);
+                image.put(0, buffer, base, slotBytes);
+                pending.put(gap, image);
+                gap = next;
+            }
+        }
+        pending.put(gap, ByteBuffer.allocate(slotBytes));
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes the value stored under the given {@code long} key.
+     *
+     * @param key the key
+     * @return {@code true} if the key was present
+     * @throws IllegalArgumentException if {@code maxKeyBytes} is less than 8
+     * @throws IllegalStateException    if the store is closed
+     * @see #remove(byte[])
+     */
+    public boolean remove(long key) {
+        return remove(toBytes(key));
+    }
+
+    /**
+     * Returns the number of entries, including changes that are not committed yet.
+     *
+     * @return the number of entries
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    @Override
+    public synchronized Long load() {
+        return committed == NONE ? null : committed;
+    }
+
+    /**
+     * Marks all changes made so far as reflecting the given position. They are committed
+     * together with it.
+     *
+     * @throws IllegalArgumentException if {@code position} is negative
+     * @throws IllegalStateException    if the store is closed
+     * @throws UncheckedIOException     if a previous commit failed
+     */
+    @Override
+    public synchronized void save(long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must be >= 0");
+        }
+        checkOpen();
+        if (failure != null) {
+            throw failure;
+        }
+        if (saved.isEmpty()) {
+            saved = pending;
+            pending = new HashMap<>();
+        } else if (!pending.isEmpty()) {
+            saved.putAll(pending);
+            pending.clear();
+        }
+        savedPosition = position;
+        savedSize = size;
+        if (committer == null) {
+            commit();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        checkOpen();
+        commit();
+    }
+
+    private synchronized void commitInBackground() {
+        if (closed) {
+            return;
+        }
+        try {
+            commit();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Writes the saved changes to the journal, applies them to the table and then commits
+     * the saved position. Must hold the lock.
+     */
+    private void commit() {
+        if (saved.isEmpty() && savedPosition == committed) {
+            return;
+        }
+        long next = sequence + 1;
+        try {
+            writeJournal(next);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        apply(saved);
+        writeCommit(next, savedPosition, savedSize);
+        saved = new HashMap<>();
+    }
+
+    private void writeJournal(long journalSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(journal, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            var crc = new CRC32C();
+            var chunk = ByteBuffer.allocate(Math.max(JOURNAL_CHUNK_BYTES, JOURNAL_HEADER_BYTES + 4 + slotBytes));
+            chunk.putLong(journalSequence).putLong(savedPosition).putLong(savedSize).putInt(saved.size());
+            for (var entry : saved.entrySet()) {
+                if (chunk.remaining() < 4 + slotBytes) {
+                    write(channel, chunk, crc);
+                }
+                chunk.putInt(entry.getKey()).put(entry.getValue().array());
+            }
+            write(channel, chunk, crc);
+            chunk.putInt((int) crc.getValue());
+            write(channel, chunk, null);
+            channel.force(false);
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer chunk, CRC32C crc) throws IOException {
+        chunk.flip();
+        if (crc != null) {
+            crc.update(chunk.duplicate());
+        }
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    private void apply(Map<Integer, ByteBuffer> images) {
+        var dirty = new boolean[segments.length];
+        for (var entry : images.entrySet()) {
+            int slot = entry.getKey();
+            int segment = slot / slotsPerSegment;
+            segments[segment].put((slot % slotsPerSegment) * slotBytes, entry.getValue().array());
+            dirty[segment] = true;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (dirty[i]) {
+                segments[i].force();
+            }
+        }
+    }
+
+    private void writeCommit(long commitSequence, long position, long commitSize) {
+        int offset = COMMIT_OFFSET + (int) (commitSequence % 2) * COMMIT_BYTES;
+        header.putLong(offset + SEQUENCE, commitSequence);
+        header.putLong(offset + POSITION, position);
+        header.putLong(offset + SIZE, commitSize);
+        header.putInt(offset + CHECKSUM, checksum(offset));
+        header.force(offset, COMMIT_BYTES);
+        sequence = commitSequence;
+        committed = position;
+    }
+
+    private int checksum(int offset) {
+        var crc = new CRC32C();
+        crc.update(header.slice(offset, CHECKSUM));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Returns the slot holding the key, or {@code -(slot + 1)} for the empty slot that ends its
+     * probe sequence. Leaves the returned slot located.
+     */
+    private int find(byte[] key) {
+        int slot = home(key);
+        while (true) {
+            locate(slot);
+            int keyLength = buffer.getInt(base + KEY_LENGTH);
+            if (keyLength == 0) {
+                return -slot - 1;
+            }
+            if (keyLength == key.length && keyEquals(key)) {
+                return slot;
+            }
+            slot = slot + 1 == slots ? 0 : slot + 1;
+        }
+    }
+
+    /**
+     * Points {@link #buffer} and {@link #base} at the current image of the slot.
+     */
+    private void locate(int slot) {
+        if (!pending.isEmpty() || !saved.isEmpty()) {
+            var image = pending.get(slot);
+            if (image == null) {
+                image = saved.get(slot);
+            }
+            if (image != null) {
+                buffer = image;
+                base = 0;
+                return;
+            }
+        }
+        buffer = segments[slot / slotsPerSegment];
+        base = (slot % slotsPerSegment) * slotBytes;
+    }
+
+    private boolean keyEquals(byte[] key) {
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(base + KEY + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int home(byte[] key) {
+        int hash = 1;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        return home(hash);
+    }
+
+    private int home(ByteBuffer source, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + source.get(i);
+        }
+        return home(hash);
+    }
+
+    private int home(int hash) {
+        // Spread the bits, as the polynomial hash of short keys clusters
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % slots;
+    }
+
+    private void checkKey(byte[] key) {
+        if (key == null || key.length == 0 || key.length > options.maxKeyBytes()) {
+            throw new IllegalArgumentException("key must not be null, empty or longer than maxKeyBytes");
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("state store is closed");
+        }
+    }
+
+    private static byte[] toBytes(long key) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(key).array();
+    }
+
+    /**
+     * Commits the last saved position with its changes and releases the store. Changes made
+     * after the last save are discarded.
+     */
+    @Override
+    public void close() {
+        if (committer != null) {
+            committer.shutdown();
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            commit();
+            closed = true;
+            pending = new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.umadb.client.checkpoint;
+
+import java.time.Duration;
+
+/**
+ * Configures a {@link MappedStateStore}.
+ * <p>
+ * The capacity and the maximum key and value sizes determine the layout of the file and are
+ * fixed once it has been created. Every entry occupies a slot of
+ * {@code 8 + maxKeyBytes + maxValueBytes} bytes, and the table holds a third more slots than
+ * its capacity.
+ *
+ * @param capacity       the maximum number of entries
+ * @param maxKeyBytes    the maximum key length in bytes; {@code long} keys take 8 bytes
+ * @param maxValueBytes  the maximum value length in bytes
+ * @param commitInterval the interval between asynchronous commits; zero commits every save
+ */
+public record StateStoreOptions(
+        int capacity,
+        int maxKeyBytes,
+        int maxValueBytes,
+        Duration commitInterval
+) {
+
+    /**
+     * Upper bound of {@link #capacity()}, so the table with its spare slots stays addressable
+     * by {@code int}.
+     */
+    public static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Upper bound of the combined key and value size.
+     */
+    public static final int MAX_ENTRY_BYTES = 1024 * 1024;
+
+    /**
+     * Creates new {@code StateStoreOptions}.
+     *
+     * @throws IllegalArgumentException if the capacity or a size is out of range, or the
+     *                                  commit interval is {@code null} or negative
+     */
+    public StateStoreOptions {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be <= " + MAX_CAPACITY);
+        }
+        if (maxKeyBytes <= 0) {
+            throw new IllegalArgumentException("maxKeyBytes must be > 0");
+        }
+        if (maxValueBytes < 0) {
+            throw new IllegalArgumentException("maxValueBytes must be >= 0");
+        }
+        if ((long) maxKeyBytes + maxValueBytes > MAX_ENTRY_BYTES) {
+            throw new IllegalArgumentException("maxKeyBytes + maxValueBytes must be <= " + MAX_ENTRY_BYTES);
+        }
+        if (commitInterval == null || commitInterval.isNegative()) {
+            throw new IllegalArgumentException("commitInterval must not be null or negative");
+        }
+    }
+
+    /**
+     * Creates {@code StateStoreOptions} that commit once per second.
+     *
+     * @param capacity      the maximum number of entries
+     * @param maxKeyBytes   the maximum key length in bytes
+     * @param maxValueBytes the maximum value length in bytes
+     * @return the options
+     * @throws IllegalArgumentException if the capacity or a size is out of range
+     */
+    public static StateStoreOptions of(int capacity, int maxKeyBytes, int maxValueBytes) {
+        return new StateStoreOptions(capacity, maxKeyBytes, maxValueBytes, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Returns a copy of these options with the given commit interval.
+     *
+     * @param commitInterval the interval between asynchronous commits; zero commits every save
+     * @return the new options
+     * @throws IllegalArgumentException if {@code commitInterval} is {@code null} or negative
+     */
+    public StateStoreOptions withCommitInterval(Duration commitInterval) {
+        return new StateStoreOptions(capacity, maxKeyBytes, maxValueBytes, commitInterval);
+    }
+}
@@ -0,0 +1,126 @@
+package io.umadb.client.codec;
+
+import io.umadb.client.Event;
+import io.umadb.client.SequencedEvent;
+import io.umadb.client.UmaDbException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of {@link EventCodec}s, indexed by event type and by payload class.
+ * <p>
+ * Both lookups are single hash table probes built when the registry is created, so the typed
+ * path costs no more than handling raw payloads. Payloads are encoded into a reused
+ * per-thread buffer; the only allocation is the final payload array of the event.
+ *
+ * <pre>{@code
+ * CodecRegistry codecs = CodecRegistry.of(new OrderPlacedCodec(), new OrderShippedCodec());
+ * Event event = codecs.encode(new OrderPlaced("123"), List.of("order:123"));
+ * }</pre>
+ */
+public final class CodecRegistry {
+
+    private final Map<String, EventCodec<?>> byEventType;
+    private final Map<Class<?>, EventCodec<?>> byPayloadType;
+
+    private CodecRegistry(Map<String, EventCodec<?>> byEventType, Map<Class<?>, EventCodec<?>> byPayloadType) {
+        this.byEventType = byEventType;
+        this.byPayloadType = byPayloadType;
+    }
+
+    /**
+     * Creates a registry of the given codecs.
+     *
+     * @param codecs the codecs to register
+     * @return the new registry
+     * @throws IllegalArgumentException if a codec is {@code null}, or two codecs share an event type
+     *                                  or payload class
+     */
+    public static CodecRegistry of(EventCodec<?>... codecs) {
+        if (codecs == null) {
+            throw new IllegalArgumentException("codecs must not be null");
+        }
+        var byEventType = new HashMap<String, EventCodec<?>>();
+        var byPayloadType = new HashMap<Class<?>, EventCodec<?>>();
+        for (EventCodec<?> codec : codecs) {
+            if (codec == null) {
+                throw new IllegalArgumentException("codec must not be null");
+            }
+            if (byEventType.putIfAbsent(codec.eventType(), codec) != null) {
+                throw new IllegalArgumentException("duplicate codec for event type " + codec.eventType());
+            }
+            if (byPayloadType.putIfAbsent(codec.payloadType(), codec) != null) {
+                throw new IllegalArgumentException("duplicate codec for payload type " + codec.payloadType().getName());
+            }
+        }
+        return new CodecRegistry(Map.copyOf(byEventType), Map.copyOf(byPayloadType));
+    }
+
+    /**
+     * Returns the codec for the given event type.
+     *
+     * @param eventType the event type
+     * @return the codec, or {@code null} if none is registered
+     */
+    public EventCodec<?> codecFor(String eventType) {
+        return byEventType.get(eventType);
+    }
+
+    /**
+     * Returns the codec for the given payload class.
+     *
+     * @param payloadType the payload class
+     * @param <T>         the payload type
+     * @return the codec, or {@code null} if none is registered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> EventCodec<T> codecFor(Class<T> payloadType) {
+        return (EventCodec<T>) byPayloadType.get(payloadType);
+    }
+
+    /**
+     * Creates an event from the given payload, using the event type of its codec.
+     *
+     * @param payload the payload to encode
+     * @param tags    the event tags
+     * @return the new event with a random id
+     * @throws IllegalArgumentException               if {@code payload} is {@code null} or has no codec
+     * @throws UmaDbException.SerializationException if the codec fails
+     */
+    public Event encode(Object payload, List<String> tags) {
+        if (payload == null) {
+            throw new IllegalArgumentException("payload must not be null");
+        }
+        @SuppressWarnings("unchecked")
+        var codec = (EventCodec<Object>) byPayloadType.get(payload.getClass());
+        if (codec == null) {
+            throw new IllegalArgumentException("no codec registered for payload type " + payload.getClass().getName());
+        }
+        var buffer = PayloadBuffer.acquire();
+        try {
+            codec.encode(payload, buffer);
+            return Event.of(codec.eventType(), tags, buffer.toByteArray());
+        } catch (IOException e) {
+            throw new UmaDbException.SerializationException("Failed to encode " + codec.eventType() + ": " + e.getMessage(), e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Wraps the event for lazy decoding of its payload.
+     *
+     * @param sequencedEvent the event to wrap
+     * @return the typed view of the event
+     * @throws IllegalArgumentException if {@code sequencedEvent} is {@code null}
+     */
+    public TypedEvent decode(SequencedEvent sequencedEvent) {
+        if (sequencedEvent == null) {
+            throw new IllegalArgumentException("sequencedEvent must not be null");
+        }
+        return new TypedEvent(sequencedEvent, byEventType.get(sequencedEvent.event().type()));
+    }
+}
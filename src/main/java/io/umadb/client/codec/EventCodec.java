@@ -0,0 +1,57 @@
+package io.umadb.client.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Converts the payload of one event type between a Java object and its binary form.
+ * <p>
+ * Codecs are registered in a {@link CodecRegistry}, which selects the codec by payload class
+ * when encoding and by event type when decoding. Implementations must be thread-safe.
+ *
+ * <pre>{@code
+ * final class OrderPlacedCodec implements EventCodec<OrderPlaced> {
+ *     public String eventType() { return "order-placed"; }
+ *     public Class<OrderPlaced> payloadType() { return OrderPlaced.class; }
+ *     public void encode(OrderPlaced payload, OutputStream out) throws IOException { mapper.writeValue(out, payload); }
+ *     public OrderPlaced decode(byte[] data) throws IOException { return mapper.readValue(data, OrderPlaced.class); }
+ * }
+ * }</pre>
+ *
+ * @param <T> the payload type
+ */
+public interface EventCodec<T> {
+
+    /**
+     * Returns the event type written for and read with this codec.
+     *
+     * @return the event type
+     */
+    String eventType();
+
+    /**
+     * Returns the class of the payloads this codec handles.
+     *
+     * @return the payload class
+     */
+    Class<T> payloadType();
+
+    /**
+     * Writes the binary form of the payload. The stream is a reused buffer; it must not be
+     * closed or retained.
+     *
+     * @param payload the payload to encode
+     * @param out     the stream to write to
+     * @throws IOException if the payload cannot be encoded
+     */
+    void encode(T payload, OutputStream out) throws IOException;
+
+    /**
+     * Reads a payload from its binary form.
+     *
+     * @param data the event data
+     * @return the decoded payload
+     * @throws IOException if the data cannot be decoded
+     */
+    T decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,43 @@
+package io.umadb.client.codec;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Per-thread buffer that codecs encode into, so encoding allocates only the final
+ * exactly-sized payload array.
+ */
+final class PayloadBuffer extends ByteArrayOutputStream {
+
+    /**
+     * Buffers that grew beyond this size are dropped after use rather than retained.
+     */
+    static final int MAX_RETAINED_BYTES = 1024 * 1024;
+
+    private static final ThreadLocal<PayloadBuffer> BUFFERS = ThreadLocal.withInitial(PayloadBuffer::new);
+
+    private PayloadBuffer() {
+        super(4096);
+    }
+
+    /**
+     * Returns the empty buffer of the calling thread.
+     */
+    static PayloadBuffer acquire() {
+        var buffer = BUFFERS.get();
+        buffer.reset();
+        return buffer;
+    }
+
+    /**
+     * Releases the buffer after its content has been copied, dropping it if it grew too large.
+     */
+    void release() {
+        if (buf.length > MAX_RETAINED_BYTES) {
+            BUFFERS.remove();
+        }
+    }
+
+    int capacity() {
+        return buf.length;
+    }
+}
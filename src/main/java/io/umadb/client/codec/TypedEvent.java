@@ -0,0 +1,103 @@
+package io.umadb.client.codec;
+
+import io.umadb.client.Event;
+import io.umadb.client.SequencedEvent;
+import io.umadb.client.UmaDbException;
+
+import java.io.IOException;
+
+/**
+ * A read event whose payload is decoded with its {@link EventCodec} on first access.
+ * <p>
+ * Consumers that only look at the position, type or tags never pay for decoding. The decoded
+ * payload is cached; concurrent first accesses may decode it more than once.
+ */
+public final class TypedEvent {
+
+    private final SequencedEvent sequencedEvent;
+    private final EventCodec<?> codec;
+    private volatile Object payload;
+
+    TypedEvent(SequencedEvent sequencedEvent, EventCodec<?> codec) {
+        this.sequencedEvent = sequencedEvent;
+        this.codec = codec;
+    }
+
+    /**
+     * Returns the underlying event with its raw payload.
+     *
+     * @return the sequenced event
+     */
+    public SequencedEvent sequencedEvent() {
+        return sequencedEvent;
+    }
+
+    /**
+     * Returns the position of the event.
+     *
+     * @return the position
+     */
+    public long position() {
+        return sequencedEvent.position();
+    }
+
+    /**
+     * Returns the event without its position.
+     *
+     * @return the event
+     */
+    public Event event() {
+        return sequencedEvent.event();
+    }
+
+    /**
+     * Returns whether a codec is registered for the type of this event.
+     *
+     * @return {@code true} if the payload can be decoded
+     */
+    public boolean hasCodec() {
+        return codec != null;
+    }
+
+    /**
+     * Returns the decoded payload, decoding it on first access.
+     *
+     * @return the payload
+     * @throws UmaDbException.SerializationException if no codec is registered for the event type
+     *                                               or the codec fails
+     */
+    public Object payload() {
+        var decoded = payload;
+        if (decoded == null) {
+            decoded = decode();
+            payload = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * Returns the decoded payload as the given type.
+     *
+     * @param payloadType the expected payload class
+     * @param <T>         the payload type
+     * @return the payload
+     * @throws ClassCastException                    if the payload has a different type
+     * @throws UmaDbException.SerializationException if the payload cannot be decoded
+     */
+    public <T> T payload(Class<T> payloadType) {
+        return payloadType.cast(payload());
+    }
+
+    private Object decode() {
+        var type = sequencedEvent.event().type();
+        if (codec == null) {
+            throw new UmaDbException.SerializationException("No codec registered for event type " + type);
+        }
+        try {
+            return codec.decode(sequencedEvent.event().data());
+        } catch (IOException e) {
+            throw new UmaDbException.SerializationException("Failed to decode " + type + " at position "
+                    + sequencedEvent.position() + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.umadb.client.codec;
+
+import io.umadb.client.*;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Appends and reads events with typed payloads, converted by the codecs of a
+ * {@link CodecRegistry}.
+ *
+ * <pre>{@code
+ * TypedEventClient typed = new TypedEventClient(client, codecs);
+ * typed.append(new OrderPlaced("123"), List.of("order:123"));
+ * Iterator<TypedEvent> events = typed.read(ReadRequest.of(query));
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe if the underlying client is.
+ */
+public final class TypedEventClient {
+
+    private final UmaDbClient client;
+    private final CodecRegistry codecs;
+
+    /**
+     * Creates a new typed client.
+     *
+     * @param client the client to append and read with
+     * @param codecs the codecs of the payload types
+     * @throws IllegalArgumentException if an argument is {@code null}
+     */
+    public TypedEventClient(UmaDbClient client, CodecRegistry codecs) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (codecs == null) {
+            throw new IllegalArgumentException("codecs must not be null");
+        }
+        this.client = client;
+        this.codecs = codecs;
+    }
+
+    /**
+     * Appends a single event with the given payload.
+     *
+     * @param payload the payload
+     * @param tags    the event tags
+     * @return the append response
+     * @throws IllegalArgumentException               if no codec is registered for the payload
+     * @throws UmaDbException.SerializationException if encoding fails
+     */
+    public AppendResponse append(Object payload, List<String> tags) {
+        return client.handle(AppendRequest.of(List.of(codecs.encode(payload, tags))));
+    }
+
+    /**
+     * Appends a single event with the given payload if the condition holds.
+     *
+     * @param payload   the payload
+     * @param tags      the event tags
+     * @param condition the append condition
+     * @return the append response
+     * @throws IllegalArgumentException               if no codec is registered for the payload
+     * @throws UmaDbException.SerializationException if encoding fails
+     * @throws UmaDbException.IntegrityException     if the condition fails
+     */
+    public AppendResponse append(Object payload, List<String> tags, AppendCondition condition) {
+        return client.handle(AppendRequest.of(List.of(codecs.encode(payload, tags)), condition));
+    }
+
+    /**
+     * Reads events, decoding each payload only when it is accessed.
+     *
+     * @param readRequest the read
+     * @return the events in read order
+     */
+    public Iterator<TypedEvent> read(ReadRequest readRequest) {
+        var responses = client.handle(readRequest);
+        return new Iterator<>() {
+            private Iterator<SequencedEvent> events = List.<SequencedEvent>of().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!events.hasNext() && responses.hasNext()) {
+                    events = responses.next().events().iterator();
+                }
+                return events.hasNext();
+            }
+
+            @Override
+            public TypedEvent next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return codecs.decode(events.next());
+            }
+        };
+    }
+}
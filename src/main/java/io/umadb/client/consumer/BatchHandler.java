@@ -0,0 +1,17 @@
+package io.umadb.client.consumer;
+
+/**
+ * Handles the batches delivered by a {@link BatchingConsumer}, e.g. by writing them to
+ * a database in a single transaction.
+ */
+@FunctionalInterface
+public interface BatchHandler {
+
+    /**
+     * Handles a batch of events. A batch is only checkpointed once this method returns;
+     * an exception stops the consumer.
+     *
+     * @param batch the events to handle
+     */
+    void handle(EventBatch batch);
+}
@@ -0,0 +1,299 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.*;
+import io.umadb.client.checkpoint.CheckpointStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Delivers the events of a read to a handler in batches, independent of how the server
+ * split them into {@link ReadResponse}s.
+ * <p>
+ * A batch is flushed once it holds {@link BatchingOptions#maxBatchSize()} events, once its
+ * payloads reach {@link BatchingOptions#maxBatchBytes()}, or once its first event has waited
+ * {@link BatchingOptions#maxLinger()} for more events. Responses are received on a separate
+ * thread, so the next responses are fetched while a batch is handled.
+ * <p>
+ * After a batch has been handled, its {@link EventBatch#checkpoint()} is reported to the
+ * checkpoint listener; a consumer can resume after that position.
+ *
+ * <pre>{@code
+ * try (BatchingConsumer consumer = new BatchingConsumer(client)) {
+ *     consumer.run(ReadRequest.of(query).subscribe(1000), batch -> repository.saveAll(batch.events()),
+ *             checkpoint -> log.info("projected up to {}", checkpoint));
+ * }
+ * }</pre>
+ *
+ * <p>
+ * {@link #close()} may be called from any thread to stop a running consumer.
+ */
+public final class BatchingConsumer implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    // Number of responses received ahead of the dispatching thread
+    private static final int PREFETCH = 4;
+
+    private final UmaDbClient client;
+    private final BatchingOptions options;
+
+    private volatile boolean closed;
+    private volatile Thread reader;
+
+    /**
+     * Creates a new consumer using {@link BatchingOptions#defaults()}.
+     *
+     * @param client the client to read with
+     * @throws IllegalArgumentException if {@code client} is {@code null}
+     */
+    public BatchingConsumer(UmaDbClient client) {
+        this(client, BatchingOptions.defaults());
+    }
+
+    /**
+     * Creates a new consumer.
+     *
+     * @param client  the client to read with
+     * @param options the batching limits
+     * @throws IllegalArgumentException if {@code client} or {@code options} is {@code null}
+     */
+    public BatchingConsumer(UmaDbClient client, BatchingOptions options) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * Reads the events of the given request and delivers them to the handler in batches.
+     *
+     * @param readRequest the read to consume
+     * @param handler     the handler receiving the batches
+     * @return the checkpoint of the last handled batch, or {@code null} if no events were read
+     * @see #run(ReadRequest, BatchHandler, LongConsumer)
+     */
+    public Long run(ReadRequest readRequest, BatchHandler handler) {
+        return run(readRequest, handler, checkpoint -> {
+        });
+    }
+
+    /**
+     * Reads the events of the given request and delivers them to the handler in batches,
+     * resuming after the last committed checkpoint and saving the checkpoint of every
+     * handled batch.
+     *
+     * @param readRequest     the read to consume; its start is used if no checkpoint has been committed yet
+     * @param handler         the handler receiving the batches
+     * @param checkpointStore the store to resume from and save to
+     * @return the checkpoint of the last handled batch, or {@code null} if no events were read
+     * @see #run(ReadRequest, BatchHandler, LongConsumer)
+     */
+    public Long run(ReadRequest readRequest, BatchHandler handler, CheckpointStore checkpointStore) {
+        if (readRequest == null) {
+            throw new IllegalArgumentException("readRequest must not be null");
+        }
+        if (checkpointStore == null) {
+            throw new IllegalArgumentException("checkpointStore must not be null");
+        }
+        Long committed = checkpointStore.load();
+        return run(committed != null ? readRequest.withStart(committed + 1) : readRequest, handler, checkpointStore::save);
+    }
+
+    /**
+     * Reads the events of the given request and delivers them to the handler in batches,
+     * blocking the calling thread until the read ends or the consumer is closed.
+     * Events received before the consumer was closed are still delivered.
+     *
+     * @param readRequest        the read to consume; a subscribing read runs until the consumer is closed
+     * @param handler            the handler receiving the batches
+     * @param checkpointListener called with the checkpoint of every handled batch
+     * @return the checkpoint of the last handled batch, or {@code null} if no events were read
+     * @throws IllegalArgumentException if an argument is {@code null}
+     * @throws IllegalStateException    if the consumer is closed or already running
+     * @throws UmaDbException           if reading fails
+     */
+    public Long run(ReadRequest readRequest, BatchHandler handler, LongConsumer checkpointListener) {
+        if (readRequest == null) {
+            throw new IllegalArgumentException("readRequest must not be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        if (checkpointListener == null) {
+            throw new IllegalArgumentException("checkpointListener must not be null");
+        }
+
+        BlockingQueue<Signal> queue = new LinkedBlockingQueue<>();
+        var prefetch = new Semaphore(PREFETCH);
+        var thread = new Thread(() -> receive(readRequest, queue, prefetch), "umadb-batching-reader-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("consumer is closed");
+            }
+            if (reader != null) {
+                throw new IllegalStateException("consumer is already running");
+            }
+            reader = thread;
+        }
+        thread.start();
+
+        try {
+            return dispatch(queue, prefetch, handler, checkpointListener);
+        } finally {
+            thread.interrupt();
+            synchronized (this) {
+                reader = null;
+            }
+        }
+    }
+
+    private Long dispatch(BlockingQueue<Signal> queue, Semaphore prefetch, BatchHandler handler, LongConsumer checkpointListener) {
+        var batch = new Batch(handler, checkpointListener);
+        while (true) {
+            Signal signal;
+            try {
+                if (batch.isEmpty()) {
+                    signal = queue.take();
+                } else {
+                    signal = queue.poll(batch.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (signal == null) {
+                        batch.flush();
+                        continue;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.flush();
+                return batch.checkpoint;
+            }
+
+            if (signal instanceof Signal.Events events) {
+                prefetch.release();
+                for (SequencedEvent event : events.response().events()) {
+                    batch.add(event);
+                }
+            } else {
+                batch.flush();
+                if (signal instanceof Signal.Failed failed) {
+                    throw failed.exception();
+                }
+                return batch.checkpoint;
+            }
+        }
+    }
+
+    private void receive(ReadRequest readRequest, BlockingQueue<Signal> queue, Semaphore prefetch) {
+        Signal last = new Signal.Completed();
+        try {
+            var responses = client.handle(readRequest);
+            while (!closed) {
+                prefetch.acquire();
+                if (!responses.hasNext()) {
+                    break;
+                }
+                queue.add(new Signal.Events(responses.next()));
+            }
+        } catch (InterruptedException e) {
+            // Closed while waiting for the dispatcher
+        } catch (RuntimeException e) {
+            // Closing interrupts the read, which may surface as a failure
+            if (!closed) {
+                last = new Signal.Failed(e);
+            }
+        }
+        // Unbounded, so the dispatcher is always notified
+        queue.add(last);
+    }
+
+    /**
+     * Stops the running read. The calling {@code run} delivers the events received so far
+     * and returns.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = reader;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Hand-over from the reader thread to the dispatching thread.
+     */
+    private sealed interface Signal {
+
+        record Events(ReadResponse response) implements Signal {
+        }
+
+        record Completed() implements Signal {
+        }
+
+        record Failed(RuntimeException exception) implements Signal {
+        }
+    }
+
+    /**
+     * The batch being collected by the dispatching thread.
+     */
+    private final class Batch {
+
+        private final BatchHandler handler;
+        private final LongConsumer checkpointListener;
+
+        private List<SequencedEvent> events = new ArrayList<>();
+        private long bytes;
+        private long deadline;
+        private Long checkpoint;
+
+        private Batch(BatchHandler handler, LongConsumer checkpointListener) {
+            this.handler = handler;
+            this.checkpointListener = checkpointListener;
+        }
+
+        boolean isEmpty() {
+            return events.isEmpty();
+        }
+
+        void add(SequencedEvent event) {
+            int size = event.event().data().length;
+            if (!events.isEmpty() && bytes + size > options.maxBatchBytes()) {
+                flush();
+            }
+            if (events.isEmpty()) {
+                deadline = System.nanoTime() + options.maxLinger().toNanos();
+            }
+            events.add(event);
+            bytes += size;
+            if (events.size() >= options.maxBatchSize() || bytes >= options.maxBatchBytes()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (events.isEmpty()) {
+                return;
+            }
+            var batch = new EventBatch(events, bytes);
+            events = new ArrayList<>();
+            bytes = 0;
+            handler.handle(batch);
+            checkpoint = batch.checkpoint();
+            checkpointListener.accept(checkpoint);
+        }
+    }
+}
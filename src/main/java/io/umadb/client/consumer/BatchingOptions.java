@@ -0,0 +1,48 @@
+package io.umadb.client.consumer;
+
+import java.time.Duration;
+
+/**
+ * Configures a {@link BatchingConsumer}.
+ * <p>
+ * A batch is flushed to the handler as soon as one of the limits is reached.
+ *
+ * @param maxBatchSize  the maximum number of events in a batch
+ * @param maxBatchBytes the maximum total payload size of a batch in bytes; a single event
+ *                      larger than this is delivered in a batch of its own
+ * @param maxLinger     the maximum time the first event of a batch waits for more events
+ */
+public record BatchingOptions(
+        int maxBatchSize,
+        int maxBatchBytes,
+        Duration maxLinger
+) {
+
+    /**
+     * Creates new {@code BatchingOptions}.
+     *
+     * @throws IllegalArgumentException if a size is zero or negative, or {@code maxLinger}
+     *                                  is {@code null} or negative
+     */
+    public BatchingOptions {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be > 0");
+        }
+        if (maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("maxBatchBytes must be > 0");
+        }
+        if (maxLinger == null || maxLinger.isNegative()) {
+            throw new IllegalArgumentException("maxLinger must not be null or negative");
+        }
+    }
+
+    /**
+     * Creates {@code BatchingOptions} with sensible defaults: batches of up to 500 events
+     * and 1 MiB of payload, lingering for at most 100 milliseconds.
+     *
+     * @return the default {@code BatchingOptions}
+     */
+    public static BatchingOptions defaults() {
+        return new BatchingOptions(500, 1024 * 1024, Duration.ofMillis(100));
+    }
+}
@@ -0,0 +1,51 @@
+package io.umadb.client.consumer;
+
+import java.time.Duration;
+
+/**
+ * Configures a {@link CatchUpSubscription}.
+ *
+ * @param catchUpBatchSize    the batch size hint for reading historical events
+ * @param liveBatchSize       the batch size hint for the live subscription
+ * @param reconnectBackoff    the time to wait before the first reconnect; doubled on every
+ *                            consecutive failure
+ * @param maxReconnectBackoff the maximum time to wait before a reconnect
+ */
+public record CatchUpOptions(
+        int catchUpBatchSize,
+        int liveBatchSize,
+        Duration reconnectBackoff,
+        Duration maxReconnectBackoff
+) {
+
+    /**
+     * Creates new {@code CatchUpOptions}.
+     *
+     * @throws IllegalArgumentException if a batch size is zero or negative, or a backoff is
+     *                                  {@code null}, negative or out of order
+     */
+    public CatchUpOptions {
+        if (catchUpBatchSize <= 0) {
+            throw new IllegalArgumentException("catchUpBatchSize must be > 0");
+        }
+        if (liveBatchSize <= 0) {
+            throw new IllegalArgumentException("liveBatchSize must be > 0");
+        }
+        if (reconnectBackoff == null || reconnectBackoff.isNegative()) {
+            throw new IllegalArgumentException("reconnectBackoff must not be null or negative");
+        }
+        if (maxReconnectBackoff == null || maxReconnectBackoff.compareTo(reconnectBackoff) < 0) {
+            throw new IllegalArgumentException("maxReconnectBackoff must not be null or less than reconnectBackoff");
+        }
+    }
+
+    /**
+     * Creates {@code CatchUpOptions} with sensible defaults: historical batches of 5000 events,
+     * live batches of 100 events, and reconnects backing off from 100 milliseconds to 10 seconds.
+     *
+     * @return the default {@code CatchUpOptions}
+     */
+    public static CatchUpOptions defaults() {
+        return new CatchUpOptions(5000, 100, Duration.ofMillis(100), Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,314 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.*;
+import io.umadb.client.checkpoint.CheckpointStore;
+import io.umadb.client.jfr.SubscriptionReconnectEvent;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Delivers the historical events of a query followed by new events as they are appended,
+ * without gaps or duplicates.
+ * <p>
+ * The subscription first reads the existing events without subscribing, using large batches.
+ * Once that read is exhausted, it subscribes after the {@link ReadResponse#head() head} the
+ * read reported, or after the last delivered event if that is higher. From then on the
+ * subscription is {@linkplain #isLive() live}, which readiness probes can gate on.
+ * <p>
+ * If the read fails with an {@link UmaDbException.IoException} or
+ * {@link UmaDbException.TimeoutException}, the subscription waits with an exponential backoff,
+ * emits a {@link SubscriptionReconnectEvent} and catches up again from where it stopped.
+ * <p>
+ * With a {@link CheckpointStore}, the subscription resumes after the last committed checkpoint
+ * and saves a checkpoint after every handled response.
+ *
+ * <pre>{@code
+ * try (CatchUpSubscription subscription = new CatchUpSubscription(client)) {
+ *     executor.submit(() -> subscription.run(ReadRequest.of(query), projection::apply));
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>
+ * {@link #isLive()}, {@link #lastPosition()} and {@link #close()} may be called from any thread.
+ */
+public final class CatchUpSubscription implements AutoCloseable {
+
+    private final UmaDbClient client;
+    private final CatchUpOptions options;
+
+    private volatile boolean live;
+    private volatile Long lastPosition;
+    private volatile boolean closed;
+    private volatile Iterator<ReadResponse> responses;
+    private Thread runner;
+
+    /**
+     * Creates a new subscription using {@link CatchUpOptions#defaults()}.
+     *
+     * @param client the client to read with
+     * @throws IllegalArgumentException if {@code client} is {@code null}
+     */
+    public CatchUpSubscription(UmaDbClient client) {
+        this(client, CatchUpOptions.defaults());
+    }
+
+    /**
+     * Creates a new subscription.
+     *
+     * @param client  the client to read with
+     * @param options the batch sizes and reconnect backoff
+     * @throws IllegalArgumentException if {@code client} or {@code options} is {@code null}
+     */
+    public CatchUpSubscription(UmaDbClient client, CatchUpOptions options) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * Delivers the events matching the request to the handler, blocking the calling thread
+     * until the subscription is closed.
+     *
+     * @param readRequest the query and optional start position; must read forwards without a limit.
+     *                    Its batch size and subscribe flag are replaced.
+     * @param handler     the handler receiving the events in position order
+     * @return the position after which a new subscription would resume, or {@code null} if
+     * neither an event nor the head has been seen
+     * @throws IllegalArgumentException if an argument is {@code null}, or the read goes backwards or has a limit
+     * @throws IllegalStateException    if the subscription is closed or already running
+     * @throws UmaDbException           if the read fails with a non-transient error
+     */
+    public Long run(ReadRequest readRequest, Consumer<SequencedEvent> handler) {
+        return run(readRequest, handler, position -> {
+        });
+    }
+
+    /**
+     * Delivers the events matching the request to the handler, resuming after the last
+     * committed checkpoint, and saves the checkpoint after every handled response.
+     *
+     * @param readRequest     the query and start position used if no checkpoint has been committed yet
+     * @param handler         the handler receiving the events in position order
+     * @param checkpointStore the store to resume from and save to
+     * @return the position after which a new subscription would resume, or {@code null} if
+     * neither an event nor the head has been seen
+     * @throws IllegalArgumentException if an argument is {@code null}, or the read goes backwards or has a limit
+     * @throws IllegalStateException    if the subscription is closed or already running
+     * @throws UmaDbException           if the read fails with a non-transient error
+     * @see #run(ReadRequest, Consumer)
+     */
+    public Long run(ReadRequest readRequest, Consumer<SequencedEvent> handler, CheckpointStore checkpointStore) {
+        if (readRequest == null) {
+            throw new IllegalArgumentException("readRequest must not be null");
+        }
+        if (checkpointStore == null) {
+            throw new IllegalArgumentException("checkpointStore must not be null");
+        }
+        Long committed = checkpointStore.load();
+        return run(committed != null ? readRequest.withStart(committed + 1) : readRequest, handler, checkpointStore::save);
+    }
+
+    private Long run(ReadRequest readRequest, Consumer<SequencedEvent> handler, LongConsumer checkpoints) {
+        if (readRequest == null) {
+            throw new IllegalArgumentException("readRequest must not be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        if (Boolean.TRUE.equals(readRequest.backwards()) || readRequest.limit() != null) {
+            throw new IllegalArgumentException("only forward reads without limit can be subscribed to");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("subscription is closed");
+            }
+            if (runner != null) {
+                throw new IllegalStateException("subscription is already running");
+            }
+            runner = Thread.currentThread();
+        }
+
+        lastPosition = readRequest.start() != null ? readRequest.start() - 1 : null;
+        try {
+            int attempt = 0;
+            while (!closed) {
+                long before = lastPosition != null ? lastPosition : 0;
+                try {
+                    catchUp(readRequest, handler, checkpoints);
+                    subscribe(readRequest, handler, checkpoints);
+                } catch (UmaDbException.IoException | UmaDbException.TimeoutException e) {
+                    if (closed) {
+                        break;
+                    }
+                    // Only back off further if the failed attempt made no progress
+                    attempt = lastPosition != null && lastPosition > before ? 1 : attempt + 1;
+                    reconnect(attempt, e);
+                } catch (UmaDbException e) {
+                    // Closing cancels the read, which surfaces as a failure
+                    if (!closed) {
+                        throw e;
+                    }
+                }
+            }
+            return lastPosition;
+        } finally {
+            live = false;
+            responses = null;
+            synchronized (this) {
+                runner = null;
+            }
+        }
+    }
+
+    private void catchUp(ReadRequest readRequest, Consumer<SequencedEvent> handler, LongConsumer checkpoints) {
+        live = false;
+        Long head = null;
+        Iterator<ReadResponse> responses = open(resume(readRequest, false, options.catchUpBatchSize()));
+        while (!closed && responses.hasNext()) {
+            var response = responses.next();
+            deliver(response, handler, checkpoints);
+            if (response.head() != null) {
+                head = head == null ? response.head() : Math.max(head, response.head());
+            }
+        }
+        // Once the read is exhausted, events up to the head that were not delivered do not match the query
+        if (!closed && head != null && (lastPosition == null || head > lastPosition)) {
+            lastPosition = head;
+            checkpoints.accept(head);
+        }
+    }
+
+    private void subscribe(ReadRequest readRequest, Consumer<SequencedEvent> handler, LongConsumer checkpoints) {
+        if (closed) {
+            return;
+        }
+        Iterator<ReadResponse> responses = open(resume(readRequest, true, options.liveBatchSize()));
+        live = true;
+        while (!closed && responses.hasNext()) {
+            deliver(responses.next(), handler, checkpoints);
+        }
+        if (!closed) {
+            throw new UmaDbException.IoException("Subscription ended unexpectedly");
+        }
+    }
+
+    /**
+     * Opens a read that {@link #close()} can cancel.
+     */
+    private Iterator<ReadResponse> open(ReadRequest readRequest) {
+        var responses = client.handle(readRequest);
+        this.responses = responses;
+        // close() may have run before the read was published
+        if (closed) {
+            cancel(responses);
+        }
+        return responses;
+    }
+
+    private static void cancel(Iterator<ReadResponse> responses) {
+        if (responses instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // The read ends with the next response instead
+            }
+        }
+    }
+
+    private ReadRequest resume(ReadRequest readRequest, boolean subscribe, int batchSize) {
+        Long start = lastPosition != null ? Long.valueOf(lastPosition + 1) : readRequest.start();
+        return new ReadRequest(readRequest.query(), start, null, null, subscribe, batchSize);
+    }
+
+    private void deliver(ReadResponse response, Consumer<SequencedEvent> handler, LongConsumer checkpoints) {
+        for (SequencedEvent event : response.events()) {
+            handler.accept(event);
+            lastPosition = event.position();
+        }
+        if (!response.events().isEmpty()) {
+            checkpoints.accept(lastPosition);
+        }
+    }
+
+    private void reconnect(int attempt, UmaDbException failure) {
+        var event = new SubscriptionReconnectEvent();
+        event.begin();
+        event.reconnect(attempt, lastPosition != null ? lastPosition : 0, live, failure);
+        live = false;
+        backOff(attempt);
+        event.commit();
+    }
+
+    private void backOff(int attempt) {
+        Duration backoff = options.reconnectBackoff();
+        for (int i = 1; i < attempt && backoff.compareTo(options.maxReconnectBackoff()) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        if (backoff.compareTo(options.maxReconnectBackoff()) > 0) {
+            backoff = options.maxReconnectBackoff();
+        }
+        long deadline = System.nanoTime() + backoff.toNanos();
+        synchronized (this) {
+            long remaining;
+            while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    // Only close() ends the backoff early
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the subscription has caught up and receives new events as they are
+     * appended.
+     *
+     * @return {@code true} if the subscription is live
+     */
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * Returns the position after which the subscription would resume, i.e. the position of
+     * the last delivered event, or the head once the subscription caught up past it.
+     *
+     * @return the last position, or {@code null} if none has been seen
+     */
+    public Long lastPosition() {
+        return lastPosition;
+    }
+
+    /**
+     * Stops the subscription. The running {@code run} returns once the handler has processed
+     * the current event; the handler is not interrupted.
+     * <p>
+     * A read waiting for the server is cancelled if the iterator of the client is
+     * {@link AutoCloseable}, like those of the gRPC client. Otherwise {@code run} returns once
+     * the next response arrives.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            // Ends a backoff
+            notifyAll();
+        }
+        var responses = this.responses;
+        if (responses != null) {
+            cancel(responses);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.SequencedEvent;
+
+import java.util.List;
+
+/**
+ * A batch of consecutive events delivered by a {@link BatchingConsumer}.
+ *
+ * @param events the events in position order; never empty
+ * @param bytes  the total payload size of the events in bytes
+ */
+public record EventBatch(
+        List<SequencedEvent> events,
+        long bytes
+) {
+
+    /**
+     * Creates a new {@code EventBatch}.
+     *
+     * @throws IllegalArgumentException if {@code events} is {@code null} or empty
+     */
+    public EventBatch {
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("events must not be null or empty");
+        }
+        events = List.copyOf(events);
+    }
+
+    /**
+     * Returns the number of events in the batch.
+     *
+     * @return the number of events
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Returns the position of the first event in the batch.
+     *
+     * @return the first position
+     */
+    public long firstPosition() {
+        return events.get(0).position();
+    }
+
+    /**
+     * Returns the position of the last event in the batch. Once the batch has been
+     * handled, a consumer can resume after this position.
+     *
+     * @return the checkpoint position
+     */
+    public long checkpoint() {
+        return events.get(events.size() - 1).position();
+    }
+}
@@ -0,0 +1,314 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.SequencedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processes events on several worker threads while preserving the order of events with
+ * the same key.
+ * <p>
+ * Every event is assigned to a partition by the hash of its key, e.g. the {@code order:123}
+ * tag (see {@link #tagWithPrefix(String)}), and each partition is processed by its own worker
+ * in dispatch order. Events without a key have no ordering requirement and are spread across
+ * the partitions. Each partition queues a bounded number of events; dispatching blocks while
+ * the queue is full.
+ * <p>
+ * As events of different keys complete out of order, {@link #lowWatermark()} returns the
+ * highest position up to which all dispatched events have been handled. This is the
+ * position a consumer can safely checkpoint.
+ *
+ * <pre>{@code
+ * try (var dispatcher = new PartitionedDispatcher(8, PartitionedDispatcher.tagWithPrefix("order:"), projection::apply)) {
+ *     Iterator<ReadResponse> responses = client.handle(ReadRequest.of(query).subscribe(1000));
+ *     while (responses.hasNext()) {
+ *         for (SequencedEvent event : responses.next().events()) {
+ *             dispatcher.dispatch(event);
+ *         }
+ *         checkpoints.save(dispatcher.lowWatermark());
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>
+ * {@link #dispatch(SequencedEvent)} must be called from a single thread, in position order.
+ * All other methods are thread-safe.
+ */
+public final class PartitionedDispatcher implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Queued once per partition by {@link #close()}; a worker stops when it takes it.
+     */
+    private static final SequencedEvent CLOSE = new SequencedEvent(-1, null);
+
+    private final Function<SequencedEvent, String> keyExtractor;
+    private final Consumer<SequencedEvent> handler;
+    private final List<Worker> workers;
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private volatile long lastDispatched;
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new dispatcher with daemon platform threads.
+     *
+     * @param partitions   the number of partitions, each processed by its own thread
+     * @param keyExtractor returns the ordering key of an event, or {@code null} if it has none
+     * @param handler      processes a single event
+     * @throws IllegalArgumentException if {@code partitions} is not positive or an argument is {@code null}
+     */
+    public PartitionedDispatcher(int partitions,
+                                 Function<SequencedEvent, String> keyExtractor,
+                                 Consumer<SequencedEvent> handler) {
+        this(partitions, DEFAULT_QUEUE_CAPACITY, keyExtractor, handler, runnable -> {
+            var thread = new Thread(runnable, "umadb-partition-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new dispatcher.
+     * <p>
+     * Pass {@code Thread.ofVirtual().factory()} to process partitions on virtual threads.
+     *
+     * @param partitions    the number of partitions, each processed by its own thread
+     * @param queueCapacity the maximum number of events queued per partition
+     * @param keyExtractor  returns the ordering key of an event, or {@code null} if it has none
+     * @param handler       processes a single event
+     * @param threadFactory creates the worker threads
+     * @throws IllegalArgumentException if a number is not positive or an argument is {@code null}
+     */
+    public PartitionedDispatcher(int partitions,
+                                 int queueCapacity,
+                                 Function<SequencedEvent, String> keyExtractor,
+                                 Consumer<SequencedEvent> handler,
+                                 ThreadFactory threadFactory) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be > 0");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be > 0");
+        }
+        if (keyExtractor == null) {
+            throw new IllegalArgumentException("keyExtractor must not be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory must not be null");
+        }
+        this.keyExtractor = keyExtractor;
+        this.handler = handler;
+
+        var workers = new ArrayList<Worker>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            workers.add(new Worker(new ArrayBlockingQueue<>(queueCapacity)));
+        }
+        this.workers = List.copyOf(workers);
+        for (Worker worker : this.workers) {
+            var thread = threadFactory.newThread(worker);
+            if (thread == null) {
+                throw new IllegalArgumentException("threadFactory must create a thread");
+            }
+            worker.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns a key extractor using the first tag of an event that starts with the given
+     * prefix, e.g. {@code order:} for tags like {@code order:123}.
+     *
+     * @param prefix the tag prefix identifying the ordering key
+     * @return the key extractor
+     * @throws IllegalArgumentException if {@code prefix} is {@code null}
+     */
+    public static Function<SequencedEvent, String> tagWithPrefix(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("prefix must not be null");
+        }
+        return sequencedEvent -> {
+            for (String tag : sequencedEvent.event().tags()) {
+                if (tag.startsWith(prefix)) {
+                    return tag;
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Queues the event on the worker of its partition, blocking while the queue is full.
+     *
+     * @param sequencedEvent the event to process; positions must increase with every call
+     * @throws IllegalArgumentException if {@code sequencedEvent} is {@code null}
+     * @throws IllegalStateException    if the dispatcher is closed or the handler failed
+     * @throws InterruptedException     if interrupted while waiting for room in the queue
+     */
+    public void dispatch(SequencedEvent sequencedEvent) throws InterruptedException {
+        if (sequencedEvent == null) {
+            throw new IllegalArgumentException("sequencedEvent must not be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("dispatcher is closed");
+        }
+        throwIfFailed();
+
+        long position = sequencedEvent.position();
+        String key = keyExtractor.apply(sequencedEvent);
+        int hash = key != null ? key.hashCode() : Long.hashCode(position);
+        var worker = workers.get(Math.floorMod(spread(hash), workers.size()));
+
+        // Registered as in flight before it is queued and before it becomes the last
+        // dispatched position, so lowWatermark() never passes it
+        inFlight.add(position);
+        try {
+            worker.queue.put(sequencedEvent);
+        } catch (InterruptedException e) {
+            inFlight.remove(position);
+            throw e;
+        }
+        lastDispatched = position;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the highest position up to which all dispatched events have been handled.
+     * Events that failed are never handled, so the watermark stays below them.
+     *
+     * @return the low watermark, or {@code 0} if no events have been handled
+     */
+    public long lowWatermark() {
+        long last = lastDispatched;
+        try {
+            return inFlight.first() - 1;
+        } catch (NoSuchElementException e) {
+            // Nothing in flight, everything up to the last dispatched event has been handled
+            return last;
+        }
+    }
+
+    /**
+     * Waits until all dispatched events have been handled.
+     *
+     * @param timeout the maximum time to wait
+     * @return {@code true} if all events have been handled, {@code false} if the timeout elapsed
+     * @throws IllegalStateException if the handler failed
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (inFlight) {
+            while (!inFlight.isEmpty()) {
+                throwIfFailed();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                inFlight.wait(Math.max(1, remaining / 1_000_000));
+            }
+        }
+        throwIfFailed();
+        return true;
+    }
+
+    private void throwIfFailed() {
+        var failure = this.failure;
+        if (failure != null) {
+            throw new IllegalStateException("event handler failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Stops the workers after they have processed the events queued so far and waits for
+     * them to finish. Handlers in progress are not interrupted.
+     */
+    @Override
+    public void close() {
+        boolean closing;
+        synchronized (workers) {
+            closing = !closed;
+            closed = true;
+        }
+        try {
+            if (closing) {
+                for (Worker worker : workers) {
+                    // Queued behind the pending events, blocks while the queue is full
+                    worker.queue.put(CLOSE);
+                }
+            }
+            for (Worker worker : workers) {
+                worker.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes the events of one partition in order.
+     */
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<SequencedEvent> queue;
+        private Thread thread;
+
+        private Worker(BlockingQueue<SequencedEvent> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                SequencedEvent sequencedEvent;
+                try {
+                    sequencedEvent = queue.take();
+                } catch (InterruptedException e) {
+                    // Only close() stops a worker, after the events queued before it
+                    continue;
+                }
+                if (sequencedEvent == CLOSE) {
+                    return;
+                }
+                if (failure != null) {
+                    // The watermark cannot pass the failed event; stop doing work that is redone anyway
+                    continue;
+                }
+                try {
+                    handler.accept(sequencedEvent);
+                } catch (RuntimeException e) {
+                    failure = e;
+                    synchronized (inFlight) {
+                        inFlight.notifyAll();
+                    }
+                    continue;
+                }
+                inFlight.remove(sequencedEvent.position());
+                if (inFlight.isEmpty()) {
+                    synchronized (inFlight) {
+                        inFlight.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+}
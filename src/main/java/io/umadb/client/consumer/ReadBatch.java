@@ -0,0 +1,682 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.Event;
+import io.umadb.client.ReadRequest;
+import io.umadb.client.ReadResponse;
+import io.umadb.client.RequestOptions;
+import io.umadb.client.SequencedEvent;
+import io.umadb.client.UmaDbClient;
+import io.umadb.client.UmaDbException;
+import io.umadb.client.grpc.UmaDbClientImpl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * Columnar view of a batch of read events, for consumers that scan many events and only
+ * look at a few fields of each.
+ * <p>
+ * Instead of one {@link SequencedEvent} with its {@link Event}, tag list and payload array
+ * per event, the batch holds one primitive array per field:
+ * <ul>
+ *     <li>positions in a {@code long[]},</li>
+ *     <li>type ids in an {@code int[]}, resolved against a {@link StringDictionary},</li>
+ *     <li>tag ids of all events in one flat {@code int[]}, delimited by offsets,</li>
+ *     <li>payloads as slices of one contiguous buffer, delimited by offsets,</li>
+ *     <li>event ids as pairs of {@code long}s.</li>
+ * </ul>
+ * Scanning a batch therefore walks a handful of arrays sequentially and compares types and
+ * tags as {@code int}s. Records are only created for the events passed to {@link #event(int)}.
+ *
+ * <pre>{@code
+ * var dictionary = new StringDictionary();
+ * int orderPlaced = dictionary.intern("order-placed");
+ * Iterator<ReadBatch> batches = ReadBatch.read(client, ReadRequest.of(query), dictionary);
+ * while (batches.hasNext()) {
+ *     ReadBatch batch = batches.next();
+ *     batch.forEachOfType(orderPlaced, (index, position, typeId) -> totals.add(batch.payload(index)));
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Instances are immutable.
+ */
+public final class ReadBatch {
+
+    private final StringDictionary dictionary;
+    private final int size;
+    private final long[] positions;
+    private final int[] typeIds;
+    private final int[] tagOffsets;
+    private final int[] tagIds;
+    private final int[] payloadOffsets;
+    private final byte[] payloads;
+    private final long[] ids;
+    private final Long head;
+
+    private ReadBatch(Builder builder, Long head) {
+        // Takes over the columns of the builder, which allocates new ones when it is reused
+        this.dictionary = builder.dictionary;
+        this.size = builder.size;
+        this.positions = builder.positions;
+        this.typeIds = builder.typeIds;
+        this.tagOffsets = builder.tagOffsets;
+        this.tagIds = builder.tagIds;
+        this.payloadOffsets = builder.payloadOffsets;
+        this.payloads = builder.payloads;
+        this.ids = builder.ids;
+        this.head = head;
+    }
+
+    /**
+     * Reads events as columnar batches.
+     * <p>
+     * With the gRPC client, every response is decoded from the wire straight into the columns
+     * of a batch, without creating records for its events. Other clients return their
+     * responses converted with {@link #of(ReadResponse, StringDictionary)}.
+     *
+     * @param client      the client to read with
+     * @param readRequest the request describing which events to read
+     * @param dictionary  the dictionary to resolve types and tags against
+     * @return an iterator over one batch per response; the iterators of the gRPC client cancel
+     * the read when closed, like those of {@link UmaDbClient#handle(ReadRequest, RequestOptions)}
+     * @throws IllegalArgumentException if an argument is {@code null}
+     * @throws UmaDbException           if the read fails
+     */
+    public static Iterator<ReadBatch> read(UmaDbClient client, ReadRequest readRequest, StringDictionary dictionary) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (readRequest == null) {
+            throw new IllegalArgumentException("readRequest must not be null");
+        }
+        if (dictionary == null) {
+            throw new IllegalArgumentException("dictionary must not be null");
+        }
+        if (client instanceof UmaDbClientImpl grpcClient) {
+            return grpcClient.readBatches(readRequest, RequestOptions.defaults(), dictionary);
+        }
+        var responses = client.handle(readRequest);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return responses.hasNext();
+            }
+
+            @Override
+            public ReadBatch next() {
+                return of(responses.next(), dictionary);
+            }
+        };
+    }
+
+    /**
+     * Converts the events of a read response into a columnar batch.
+     *
+     * @param response   the response to convert
+     * @param dictionary the dictionary to resolve types and tags against
+     * @return the batch holding the events and head of the response
+     * @throws IllegalArgumentException if an argument is {@code null}
+     */
+    public static ReadBatch of(ReadResponse response, StringDictionary dictionary) {
+        if (response == null) {
+            throw new IllegalArgumentException("response must not be null");
+        }
+        var builder = builder(dictionary);
+        var events = response.events();
+        for (int i = 0; i < events.size(); i++) {
+            builder.add(events.get(i));
+        }
+        return builder.build(response.head());
+    }
+
+    /**
+     * Returns a builder collecting events into a batch.
+     *
+     * @param dictionary the dictionary to resolve types and tags against
+     * @return a new builder
+     * @throws IllegalArgumentException if {@code dictionary} is {@code null}
+     */
+    public static Builder builder(StringDictionary dictionary) {
+        return new Builder(dictionary);
+    }
+
+    /**
+     * Returns the dictionary the type and tag ids of the batch resolve against.
+     *
+     * @return the dictionary
+     */
+    public StringDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the number of events in the batch.
+     *
+     * @return the number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the batch holds no events.
+     *
+     * @return {@code true} if the batch is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the head reported with the events.
+     *
+     * @return the head position, or {@code null} if unknown
+     */
+    public Long head() {
+        return head;
+    }
+
+    /**
+     * Returns the position of the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long position(int index) {
+        return positions[checkIndex(index)];
+    }
+
+    /**
+     * Returns the type id of the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the type id in the {@linkplain #dictionary() dictionary}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int typeId(int index) {
+        return typeIds[checkIndex(index)];
+    }
+
+    /**
+     * Returns the type of the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the event type
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String type(int index) {
+        return dictionary.get(typeId(index));
+    }
+
+    /**
+     * Returns the number of tags of the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the number of tags
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int tagCount(int index) {
+        checkIndex(index);
+        return tagOffsets[index + 1] - tagOffsets[index];
+    }
+
+    /**
+     * Returns the id of a tag of the event at the given index.
+     *
+     * @param index the index of the event
+     * @param tag   the index of the tag within the event
+     * @return the tag id in the {@linkplain #dictionary() dictionary}
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    public int tagId(int index, int tag) {
+        Objects.checkIndex(tag, tagCount(index));
+        return tagIds[tagOffsets[index] + tag];
+    }
+
+    /**
+     * Returns whether the event at the given index carries the tag with the given id.
+     *
+     * @param index the index of the event
+     * @param tagId the tag id in the {@linkplain #dictionary() dictionary}
+     * @return {@code true} if the event carries the tag
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean hasTag(int index, int tagId) {
+        checkIndex(index);
+        for (int i = tagOffsets[index]; i < tagOffsets[index + 1]; i++) {
+            if (tagIds[i] == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the payload of the event at the given index as a read-only slice of the
+     * batch's payload buffer.
+     *
+     * @param index the index of the event
+     * @return the payload, positioned at its first byte
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public ByteBuffer payload(int index) {
+        return ByteBuffer.wrap(payloads, payloadOffset(index), payloadLength(index)).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the offset of the payload of the event at the given index within
+     * {@link #payloads()}.
+     *
+     * @param index the index of the event
+     * @return the payload offset
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int payloadOffset(int index) {
+        return payloadOffsets[checkIndex(index)];
+    }
+
+    /**
+     * Returns the length of the payload of the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the payload length in bytes
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int payloadLength(int index) {
+        checkIndex(index);
+        return payloadOffsets[index + 1] - payloadOffsets[index];
+    }
+
+    /**
+     * Returns the payloads of all events as one read-only buffer. The payload of an event
+     * starts at its {@link #payloadOffset(int)}.
+     *
+     * @return the payload buffer
+     */
+    public ByteBuffer payloads() {
+        return ByteBuffer.wrap(payloads, 0, payloadOffsets[size]).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the id of the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the event id
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public UUID id(int index) {
+        checkIndex(index);
+        return new UUID(ids[2 * index], ids[2 * index + 1]);
+    }
+
+    /**
+     * Materializes the event at the given index.
+     *
+     * @param index the index of the event
+     * @return the event as a record
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public SequencedEvent event(int index) {
+        checkIndex(index);
+        var tags = new String[tagCount(index)];
+        for (int i = 0; i < tags.length; i++) {
+            tags[i] = dictionary.get(tagIds[tagOffsets[index] + i]);
+        }
+        byte[] data = Arrays.copyOfRange(payloads, payloadOffsets[index], payloadOffsets[index + 1]);
+        return new SequencedEvent(positions[index], new Event(type(index), List.of(tags), data, id(index)));
+    }
+
+    /**
+     * Materializes all events of the batch.
+     *
+     * @return the events as records, in batch order
+     */
+    public List<SequencedEvent> events() {
+        var events = new ArrayList<SequencedEvent>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(event(i));
+        }
+        return events;
+    }
+
+    /**
+     * Passes every event of the batch to the visitor, in batch order.
+     *
+     * @param visitor the visitor receiving the events
+     * @throws IllegalArgumentException if {@code visitor} is {@code null}
+     */
+    public void forEach(EventVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor must not be null");
+        }
+        for (int i = 0; i < size; i++) {
+            visitor.visit(i, positions[i], typeIds[i]);
+        }
+    }
+
+    /**
+     * Passes the events of the given type to the visitor, in batch order.
+     *
+     * @param typeId  the type id in the {@linkplain #dictionary() dictionary}
+     * @param visitor the visitor receiving the events
+     * @throws IllegalArgumentException if {@code visitor} is {@code null}
+     */
+    public void forEachOfType(int typeId, EventVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor must not be null");
+        }
+        for (int i = 0; i < size; i++) {
+            if (typeIds[i] == typeId) {
+                visitor.visit(i, positions[i], typeId);
+            }
+        }
+    }
+
+    /**
+     * Passes the position of every event of the batch to the consumer, in batch order.
+     *
+     * @param consumer the consumer receiving the positions
+     * @throws IllegalArgumentException if {@code consumer} is {@code null}
+     */
+    public void forEachPosition(LongConsumer consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer must not be null");
+        }
+        for (int i = 0; i < size; i++) {
+            consumer.accept(positions[i]);
+        }
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Receives the events of a {@link ReadBatch} without boxing. Further fields are read from
+     * the batch by index.
+     */
+    @FunctionalInterface
+    public interface EventVisitor {
+
+        /**
+         * Visits one event.
+         *
+         * @param index    the index of the event in the batch
+         * @param position the position of the event
+         * @param typeId   the type id of the event in the batch's dictionary
+         */
+        void visit(int index, long position, int typeId);
+    }
+
+    /**
+     * Collects events into a {@link ReadBatch}, growing its columns as needed.
+     * <p>
+     * Events are added either as records with {@link #add(long, Event)}, or field by field
+     * between {@link #begin()} and {@link #end()}, as decoders do that read the fields in
+     * wire order. {@link #build(Long)} hands the columns over to the batch without copying
+     * them, including their unused capacity, and the builder continues with new columns.
+     * <p>
+     * A builder can be reused after {@link #build(Long)}; it is not thread-safe.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_EVENTS = 16;
+        private static final int INITIAL_PAYLOAD_BYTES = 1024;
+
+        private final StringDictionary dictionary;
+
+        private int size;
+        // null after a build, until the builder is reused
+        private long[] positions;
+        private int[] typeIds;
+        private int[] tagOffsets;
+        private int[] tagIds;
+        private int[] payloadOffsets;
+        private byte[] payloads;
+        private long[] ids;
+
+        // State of the event between begin() and end()
+        private boolean open;
+        private boolean hasType;
+        private boolean hasId;
+
+        private Builder(StringDictionary dictionary) {
+            if (dictionary == null) {
+                throw new IllegalArgumentException("dictionary must not be null");
+            }
+            this.dictionary = dictionary;
+            allocate();
+        }
+
+        private void allocate() {
+            positions = new long[INITIAL_EVENTS];
+            typeIds = new int[INITIAL_EVENTS];
+            tagOffsets = new int[INITIAL_EVENTS + 1];
+            tagIds = new int[INITIAL_EVENTS];
+            payloadOffsets = new int[INITIAL_EVENTS + 1];
+            payloads = new byte[INITIAL_PAYLOAD_BYTES];
+            ids = new long[2 * INITIAL_EVENTS];
+        }
+
+        /**
+         * Adds an event.
+         *
+         * @param event the event to add
+         * @return this builder
+         * @throws IllegalArgumentException if {@code event} is {@code null}
+         */
+        public Builder add(SequencedEvent event) {
+            if (event == null) {
+                throw new IllegalArgumentException("event must not be null");
+            }
+            return add(event.position(), event.event());
+        }
+
+        /**
+         * Adds an event at the given position.
+         *
+         * @param position the position of the event
+         * @param event    the event to add
+         * @return this builder
+         * @throws IllegalArgumentException if {@code event} is {@code null}
+         * @throws IllegalStateException    if an event added field by field has not been ended
+         */
+        public Builder add(long position, Event event) {
+            if (event == null) {
+                throw new IllegalArgumentException("event must not be null");
+            }
+            begin().position(position).type(event.type());
+            var tags = event.tags();
+            for (int i = 0; i < tags.size(); i++) {
+                tag(tags.get(i));
+            }
+            byte[] data = event.data();
+            return payload(data, 0, data.length)
+                    .id(event.id().getMostSignificantBits(), event.id().getLeastSignificantBits())
+                    .end();
+        }
+
+        /**
+         * Starts an event to be added field by field. Its fields may be set in any order; the
+         * tags and the payload are appended to those set before.
+         *
+         * @return this builder
+         * @throws IllegalStateException if the previous event has not been ended
+         */
+        public Builder begin() {
+            if (open) {
+                throw new IllegalStateException("previous event has not been ended");
+            }
+            if (positions == null) {
+                allocate();
+            } else if (size == positions.length) {
+                int capacity = size * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                typeIds = Arrays.copyOf(typeIds, capacity);
+                tagOffsets = Arrays.copyOf(tagOffsets, capacity + 1);
+                payloadOffsets = Arrays.copyOf(payloadOffsets, capacity + 1);
+                ids = Arrays.copyOf(ids, 2 * capacity);
+            }
+            positions[size] = 0;
+            tagOffsets[size + 1] = tagOffsets[size];
+            payloadOffsets[size + 1] = payloadOffsets[size];
+            open = true;
+            hasType = false;
+            hasId = false;
+            return this;
+        }
+
+        /**
+         * Sets the position of the started event; zero if not set.
+         *
+         * @param position the position of the event
+         * @return this builder
+         * @throws IllegalStateException if no event has been started
+         */
+        public Builder position(long position) {
+            checkOpen();
+            positions[size] = position;
+            return this;
+        }
+
+        /**
+         * Sets the type of the started event.
+         *
+         * @param type the event type
+         * @return this builder
+         * @throws IllegalArgumentException if {@code type} is {@code null}
+         * @throws IllegalStateException    if no event has been started
+         */
+        public Builder type(String type) {
+            checkOpen();
+            typeIds[size] = dictionary.intern(type);
+            hasType = true;
+            return this;
+        }
+
+        /**
+         * Adds a tag to the started event.
+         *
+         * @param tag the tag
+         * @return this builder
+         * @throws IllegalArgumentException if {@code tag} is {@code null}
+         * @throws IllegalStateException    if no event has been started
+         */
+        public Builder tag(String tag) {
+            checkOpen();
+            int id = dictionary.intern(tag);
+            int end = tagOffsets[size + 1];
+            if (end == tagIds.length) {
+                tagIds = Arrays.copyOf(tagIds, tagIds.length * 2);
+            }
+            tagIds[end] = id;
+            tagOffsets[size + 1] = end + 1;
+            return this;
+        }
+
+        /**
+         * Appends bytes to the payload of the started event.
+         *
+         * @param source the buffer holding the bytes
+         * @param offset the offset of the first byte
+         * @param length the number of bytes
+         * @return this builder
+         * @throws IndexOutOfBoundsException if the range is out of bounds of {@code source}
+         * @throws IllegalStateException     if no event has been started
+         */
+        public Builder payload(byte[] source, int offset, int length) {
+            checkOpen();
+            Objects.checkFromIndexSize(offset, length, source.length);
+            int end = payloadOffsets[size + 1];
+            if (end + length > payloads.length) {
+                payloads = Arrays.copyOf(payloads, Math.max(payloads.length * 2, end + length));
+            }
+            System.arraycopy(source, offset, payloads, end, length);
+            payloadOffsets[size + 1] = end + length;
+            return this;
+        }
+
+        /**
+         * Sets the id of the started event.
+         *
+         * @param mostSignificantBits  the most significant bits of the id
+         * @param leastSignificantBits the least significant bits of the id
+         * @return this builder
+         * @throws IllegalStateException if no event has been started
+         */
+        public Builder id(long mostSignificantBits, long leastSignificantBits) {
+            checkOpen();
+            ids[2 * size] = mostSignificantBits;
+            ids[2 * size + 1] = leastSignificantBits;
+            hasId = true;
+            return this;
+        }
+
+        /**
+         * Adds the started event to the batch.
+         *
+         * @return this builder
+         * @throws IllegalStateException if no event has been started, or it has no type or id
+         */
+        public Builder end() {
+            checkOpen();
+            if (!hasType || !hasId) {
+                throw new IllegalStateException("event at position %d must have a type and an id".formatted(positions[size]));
+            }
+            open = false;
+            size++;
+            return this;
+        }
+
+        private void checkOpen() {
+            if (!open) {
+                throw new IllegalStateException("no event has been started");
+            }
+        }
+
+        /**
+         * Returns the number of events added since the last build.
+         *
+         * @return the number of events
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds a batch of the added events and resets the builder. The batch takes over the
+         * columns; new ones are only allocated if the builder is used again.
+         *
+         * @param head the head to report with the batch, or {@code null} if unknown
+         * @return the batch
+         * @throws IllegalStateException if an event added field by field has not been ended
+         */
+        public ReadBatch build(Long head) {
+            if (open) {
+                throw new IllegalStateException("last event has not been ended");
+            }
+            if (positions == null) {
+                // Built again without adding events
+                allocate();
+            }
+            var batch = new ReadBatch(this, head);
+            size = 0;
+            positions = null;
+            typeIds = null;
+            tagOffsets = null;
+            tagIds = null;
+            payloadOffsets = null;
+            payloads = null;
+            ids = null;
+            return batch;
+        }
+    }
+}
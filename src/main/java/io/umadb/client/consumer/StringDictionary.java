@@ -0,0 +1,101 @@
+package io.umadb.client.consumer;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense {@code int} ids to event types and tags, so {@link ReadBatch}es can store
+ * and compare them as primitives.
+ * <p>
+ * Ids are assigned in order of first appearance, starting at zero, and never change. Sharing
+ * one dictionary between the batches of a consumer keeps ids comparable across batches, so
+ * a handler can resolve the ids it is interested in once up front.
+ * <p>
+ * Strings are never evicted, so a dictionary grows with every distinct type and tag it has
+ * seen. Types are few, but tags often name entities, such as {@code order:123}, and grow
+ * with the number of entities read. A dictionary shared for the lifetime of a long-running
+ * subscription therefore keeps every tag it ever read; scope dictionaries to a bounded
+ * unit of work, such as one scan or one catch-up, and resolve the ids of interest again
+ * for the next one.
+ * <p>
+ * Instances are thread-safe; lookups do not lock.
+ */
+public final class StringDictionary {
+
+    /**
+     * Returned by {@link #idOf(String)} for strings that have not been interned.
+     */
+    public static final int ABSENT = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] strings = new String[16];
+    private int size;
+
+    /**
+     * Returns the id of the given string, assigning the next free id if it has not been
+     * interned yet.
+     *
+     * @param string the string to intern
+     * @return the id of the string
+     * @throws IllegalArgumentException if {@code string} is {@code null}
+     */
+    public int intern(String string) {
+        if (string == null) {
+            throw new IllegalArgumentException("string must not be null");
+        }
+        Integer id = ids.get(string);
+        return id != null ? id : add(string);
+    }
+
+    private synchronized int add(String string) {
+        Integer id = ids.get(string);
+        if (id != null) {
+            return id;
+        }
+        var strings = this.strings;
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        strings[size] = string;
+        // Published before the id, so every id handed out resolves
+        this.strings = strings;
+        ids.put(string, size);
+        return size++;
+    }
+
+    /**
+     * Returns the id of the given string without interning it.
+     *
+     * @param string the string to look up
+     * @return the id of the string, or {@link #ABSENT} if it has not been interned
+     */
+    public int idOf(String string) {
+        Integer id = string != null ? ids.get(string) : null;
+        return id != null ? id : ABSENT;
+    }
+
+    /**
+     * Returns the string with the given id.
+     *
+     * @param id an id returned by {@link #intern(String)}
+     * @return the interned string
+     * @throws IndexOutOfBoundsException if no string has the given id
+     */
+    public String get(int id) {
+        var strings = this.strings;
+        String string = id >= 0 && id < strings.length ? strings[id] : null;
+        if (string == null) {
+            throw new IndexOutOfBoundsException("no string with id " + id);
+        }
+        return string;
+    }
+
+    /**
+     * Returns the number of interned strings.
+     *
+     * @return the number of strings
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,225 @@
+package io.umadb.client.dcb;
+
+import io.umadb.client.*;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs the Dynamic Consistency Boundary (DCB) decide-and-append loop.
+ * <p>
+ * A decision reads all events matching the {@link DecisionModel#query()}, folds them into
+ * the decision state, lets the caller decide which events to append, and appends them with
+ * {@link AppendCondition#failIfExistsAfter(Query, long)} using the position the state was
+ * read at. If another writer appended a matching event in the meantime, the server rejects
+ * the append with {@link UmaDbException.IntegrityException}; the executor then reads only the
+ * events after the previous position, folds them into the existing state, decides again and
+ * retries according to the {@link RetryPolicy}.
+ * <p>
+ * With a {@link SnapshotCache}, the state of models with a
+ * {@linkplain DecisionModel#withSnapshots(String) snapshot id} is kept between decisions. A
+ * decision then starts from the cached state and reads only the events after the position
+ * it covers, which also becomes the position of the append condition.
+ *
+ * <pre>{@code
+ * DecisionExecutor executor = new DecisionExecutor(client);
+ *
+ * DecisionResult<Integer> result = executor.execute(
+ *     DecisionModel.of(query, 0, (count, event) -> count + 1),
+ *     count -> count < 10 ? List.of(seatReserved) : List.of()
+ * );
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe; a single instance can execute decisions concurrently.
+ */
+public final class DecisionExecutor {
+
+    private final UmaDbClient client;
+    private final RetryPolicy retryPolicy;
+    private final SnapshotCache snapshotCache;
+
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder appendAttempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * Creates a new executor using {@link RetryPolicy#defaults()}.
+     *
+     * @param client the client to read and append with
+     * @throws IllegalArgumentException if {@code client} is {@code null}
+     */
+    public DecisionExecutor(UmaDbClient client) {
+        this(client, RetryPolicy.defaults());
+    }
+
+    /**
+     * Creates a new executor.
+     *
+     * @param client      the client to read and append with
+     * @param retryPolicy the policy for retrying conflicting appends
+     * @throws IllegalArgumentException if {@code client} or {@code retryPolicy} is {@code null}
+     */
+    public DecisionExecutor(UmaDbClient client, RetryPolicy retryPolicy) {
+        this(client, retryPolicy, null);
+    }
+
+    /**
+     * Creates a new executor that keeps decision states between decisions.
+     *
+     * @param client        the client to read and append with
+     * @param retryPolicy   the policy for retrying conflicting appends
+     * @param snapshotCache the cache for the states of models with a snapshot id, or
+     *                      {@code null} to read the full boundary for every decision
+     * @throws IllegalArgumentException if {@code client} or {@code retryPolicy} is {@code null}
+     */
+    public DecisionExecutor(UmaDbClient client, RetryPolicy retryPolicy, SnapshotCache snapshotCache) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("retryPolicy must not be null");
+        }
+        this.client = client;
+        this.retryPolicy = retryPolicy;
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Executes a decision.
+     *
+     * @param model  describes how the decision state is built
+     * @param decide returns the events to append for a given state; an empty list appends nothing
+     * @param <S>    the type of the decision state
+     * @return the outcome of the decision
+     * @throws UmaDbException.IntegrityException if the append still conflicts after all attempts
+     * @throws UmaDbException                    if reading or appending fails for another reason
+     */
+    public <S> DecisionResult<S> execute(DecisionModel<S> model, Function<S, List<Event>> decide) {
+        decisions.increment();
+        var projection = start(model);
+        projection.catchUp(client);
+        remember(projection);
+
+        for (int attempt = 1; ; attempt++) {
+            List<Event> events = decide.apply(projection.state);
+            if (events == null || events.isEmpty()) {
+                return new DecisionResult<>(projection.state, List.of(), null, attempt);
+            }
+
+            try {
+                appendAttempts.increment();
+                var response = client.handle(AppendRequest.of(events, projection.appendCondition()));
+                return new DecisionResult<>(projection.state, List.copyOf(events), response.position(), attempt);
+            } catch (UmaDbException.IntegrityException e) {
+                conflicts.increment();
+                if (attempt >= retryPolicy.maxAttempts()) {
+                    exhausted.increment();
+                    throw e;
+                }
+            }
+
+            sleep(retryPolicy.backoff(attempt));
+            // Only the events appended since the previous read are missing from the state
+            projection.catchUp(client);
+            remember(projection);
+        }
+    }
+
+    private <S> Projection<S> start(DecisionModel<S> model) {
+        if (snapshotCache != null && model.snapshotId() != null) {
+            var snapshot = snapshotCache.get(model);
+            if (snapshot != null) {
+                return new Projection<>(model, snapshot.state(), snapshot.position());
+            }
+        }
+        return new Projection<>(model, model.initialState(), null);
+    }
+
+    private <S> void remember(Projection<S> projection) {
+        if (snapshotCache != null && projection.model.snapshotId() != null && projection.position != null) {
+            snapshotCache.put(projection.model, new Snapshot<>(projection.state, projection.position));
+        }
+    }
+
+    /**
+     * Returns a snapshot of the counters of this executor.
+     *
+     * @return the current statistics
+     */
+    public DecisionStats stats() {
+        return new DecisionStats(
+                decisions.sum(),
+                appendAttempts.sum(),
+                conflicts.sum(),
+                exhausted.sum()
+        );
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UmaDbException("Interrupted while backing off after a conflict", e);
+        }
+    }
+
+    /**
+     * The decision state together with the position it has been read up to.
+     */
+    private static final class Projection<S> {
+
+        private final DecisionModel<S> model;
+        private S state;
+        private Long position;
+
+        private Projection(DecisionModel<S> model, S state, Long position) {
+            this.model = model;
+            this.state = state;
+            this.position = position;
+        }
+
+        /**
+         * Folds all matching events after the current position into the state.
+         */
+        private void catchUp(UmaDbClient client) {
+            var readRequest = ReadRequest.of(model.query());
+            if (position != null) {
+                readRequest = readRequest.withStart(position + 1);
+            }
+
+            Iterator<ReadResponse> responses = client.handle(readRequest);
+            while (responses.hasNext()) {
+                var response = responses.next();
+                for (SequencedEvent event : response.events()) {
+                    state = model.evolve().apply(state, event);
+                    advanceTo(event.position());
+                }
+                // All matching events up to the head have been returned
+                if (response.head() != null) {
+                    advanceTo(response.head());
+                }
+            }
+        }
+
+        private void advanceTo(long newPosition) {
+            if (position == null || newPosition > position) {
+                position = newPosition;
+            }
+        }
+
+        private AppendCondition appendCondition() {
+            return position != null
+                    ? AppendCondition.failIfExistsAfter(model.query(), position)
+                    : AppendCondition.failIfExists(model.query());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.umadb.client.dcb;
+
+import io.umadb.client.Query;
+import io.umadb.client.SequencedEvent;
+
+import java.util.function.BiFunction;
+
+/**
+ * Describes how the decision state for a consistency boundary is built.
+ * <p>
+ * The {@code query} defines the consistency boundary: all events matching it are folded
+ * into the state, starting from {@code initialState}, using {@code evolve}. The same query
+ * is used as the append condition, so a decision only succeeds if no matching event was
+ * appended after the state was read.
+ * <p>
+ * With a {@code snapshotId}, a {@link DecisionExecutor} with a {@link SnapshotCache} keeps
+ * the folded state between decisions and only folds the events appended since. The id stands
+ * for the initial state and the fold function, which lambdas cannot be compared by: models
+ * with equal queries and ids share snapshots, so the id must change whenever either changes.
+ * Cached states are shared by concurrent decisions and must therefore not be modified.
+ *
+ * @param query         the query selecting the events of the consistency boundary
+ * @param initialState  the state before any event has been applied; may be {@code null}
+ * @param evolve        folds a single event into the state
+ * @param snapshotId    identifies the initial state and fold function for snapshot caching;
+ *                      {@code null} disables snapshots
+ * @param snapshotCodec encodes the state for the disk tier of the snapshot cache;
+ *                      {@code null} keeps snapshots in memory only
+ * @param <S>           the type of the decision state
+ */
+public record DecisionModel<S>(
+        Query query,
+        S initialState,
+        BiFunction<S, SequencedEvent, S> evolve,
+        String snapshotId,
+        SnapshotCodec<S> snapshotCodec
+) {
+
+    /**
+     * Creates a new {@code DecisionModel}.
+     *
+     * @throws IllegalArgumentException if {@code query} or {@code evolve} is {@code null},
+     *                                  {@code snapshotId} is blank, or a codec is given without an id
+     */
+    public DecisionModel {
+        if (query == null) {
+            throw new IllegalArgumentException("query must not be null");
+        }
+        if (evolve == null) {
+            throw new IllegalArgumentException("evolve must not be null");
+        }
+        if (snapshotId != null && snapshotId.isBlank()) {
+            throw new IllegalArgumentException("snapshotId must not be blank");
+        }
+        if (snapshotCodec != null && snapshotId == null) {
+            throw new IllegalArgumentException("snapshotCodec requires a snapshotId");
+        }
+    }
+
+    /**
+     * Creates a new {@code DecisionModel} without snapshots.
+     *
+     * @param query        the query selecting the events of the consistency boundary
+     * @param initialState the state before any event has been applied; may be {@code null}
+     * @param evolve       folds a single event into the state
+     * @throws IllegalArgumentException if {@code query} or {@code evolve} is {@code null}
+     */
+    public DecisionModel(Query query, S initialState, BiFunction<S, SequencedEvent, S> evolve) {
+        this(query, initialState, evolve, null, null);
+    }
+
+    /**
+     * Creates a {@code DecisionModel}.
+     *
+     * @param query        the query selecting the events of the consistency boundary
+     * @param initialState the state before any event has been applied
+     * @param evolve       folds a single event into the state
+     * @param <S>          the type of the decision state
+     * @return a new {@code DecisionModel}
+     */
+    public static <S> DecisionModel<S> of(Query query, S initialState, BiFunction<S, SequencedEvent, S> evolve) {
+        return new DecisionModel<>(query, initialState, evolve);
+    }
+
+    /**
+     * Returns a copy of this model whose state is kept in memory between decisions.
+     *
+     * @param snapshotId identifies the initial state and fold function
+     * @return the new model
+     * @throws IllegalArgumentException if {@code snapshotId} is {@code null} or blank
+     */
+    public DecisionModel<S> withSnapshots(String snapshotId) {
+        return withSnapshots(snapshotId, null);
+    }
+
+    /**
+     * Returns a copy of this model whose state is kept between decisions, in memory and, if
+     * the cache has a disk tier, on disk.
+     *
+     * @param snapshotId    identifies the initial state and fold function
+     * @param snapshotCodec encodes the state for the disk tier; {@code null} keeps it in memory only
+     * @return the new model
+     * @throws IllegalArgumentException if {@code snapshotId} is {@code null} or blank
+     */
+    public DecisionModel<S> withSnapshots(String snapshotId, SnapshotCodec<S> snapshotCodec) {
+        if (snapshotId == null) {
+            throw new IllegalArgumentException("snapshotId must not be null");
+        }
+        return new DecisionModel<>(query, initialState, evolve, snapshotId, snapshotCodec);
+    }
+}
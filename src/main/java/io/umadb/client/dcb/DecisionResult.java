@@ -0,0 +1,31 @@
+package io.umadb.client.dcb;
+
+import io.umadb.client.Event;
+
+import java.util.List;
+
+/**
+ * The outcome of a decision executed by a {@link DecisionExecutor}.
+ *
+ * @param state    the decision state the events were decided on
+ * @param events   the appended events; empty if the decision produced no events
+ * @param position the position of the last appended event, or {@code null} if nothing was appended
+ * @param attempts the number of decide-and-append attempts, including the successful one
+ * @param <S>      the type of the decision state
+ */
+public record DecisionResult<S>(
+        S state,
+        List<Event> events,
+        Long position,
+        int attempts
+) {
+
+    /**
+     * Returns whether events have been appended.
+     *
+     * @return {@code true} if the decision produced and appended events
+     */
+    public boolean appended() {
+        return position != null;
+    }
+}
@@ -0,0 +1,35 @@
+package io.umadb.client.dcb;
+
+/**
+ * A snapshot of the counters of a {@link DecisionExecutor}.
+ *
+ * @param decisions      the number of executed decisions
+ * @param appendAttempts the number of conditional appends sent to the server
+ * @param conflicts      the number of appends rejected because of a concurrent write
+ * @param exhausted      the number of decisions that failed after exhausting all retries
+ */
+public record DecisionStats(
+        long decisions,
+        long appendAttempts,
+        long conflicts,
+        long exhausted
+) {
+
+    /**
+     * Returns the share of appends that conflicted with a concurrent write.
+     *
+     * @return the conflict rate between {@code 0.0} and {@code 1.0}
+     */
+    public double conflictRate() {
+        return appendAttempts == 0 ? 0.0 : (double) conflicts / appendAttempts;
+    }
+
+    /**
+     * Returns the number of retries caused by conflicts.
+     *
+     * @return the number of retries
+     */
+    public long retries() {
+        return conflicts - exhausted;
+    }
+}
@@ -0,0 +1,75 @@
+package io.umadb.client.dcb;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry policy with exponential backoff and full jitter.
+ * <p>
+ * Before retry {@code n} (starting at 1) the executor sleeps for a random duration
+ * between zero and {@code min(maxBackoff, initialBackoff * 2^(n-1))}. The jitter spreads
+ * out competing writers on a contended consistency boundary.
+ *
+ * @param maxAttempts    the maximum number of attempts, including the first one; must be >= 1
+ * @param initialBackoff the backoff ceiling before the first retry
+ * @param maxBackoff     the upper bound of the backoff ceiling
+ */
+public record RetryPolicy(
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff
+) {
+
+    /**
+     * Creates a new {@code RetryPolicy}.
+     *
+     * @throws IllegalArgumentException if {@code maxAttempts} is less than 1, or a backoff
+     *                                  is {@code null} or negative
+     */
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be >= 1");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative()) {
+            throw new IllegalArgumentException("initialBackoff must not be null or negative");
+        }
+        if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("maxBackoff must not be null or less than initialBackoff");
+        }
+    }
+
+    /**
+     * Returns the default policy: 5 attempts, backoff starting at 10 ms, capped at 500 ms.
+     *
+     * @return the default {@code RetryPolicy}
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(5, Duration.ofMillis(10), Duration.ofMillis(500));
+    }
+
+    /**
+     * Returns a policy that never retries.
+     *
+     * @return a {@code RetryPolicy} with a single attempt
+     */
+    public static RetryPolicy noRetry() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * Returns the jittered backoff before the given retry.
+     *
+     * @param retry the retry number, starting at 1
+     * @return the duration to wait
+     */
+    Duration backoff(int retry) {
+        long ceiling = initialBackoff.toNanos() << Math.min(retry - 1, 30);
+        if (ceiling < 0 || ceiling > maxBackoff.toNanos()) {
+            ceiling = maxBackoff.toNanos();
+        }
+        if (ceiling == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
@@ -0,0 +1,30 @@
+package io.umadb.client.dcb;
+
+/**
+ * A decision state together with the position up to which events have been folded into it.
+ * <p>
+ * All events matching the model's query up to and including {@code position} are reflected
+ * in the state, so a decision resumes reading after it and appends with
+ * {@link io.umadb.client.AppendCondition#failIfExistsAfter(io.umadb.client.Query, long)}
+ * using the same position.
+ *
+ * @param state    the folded state; may be {@code null}
+ * @param position the position the state covers
+ * @param <S>      the type of the decision state
+ */
+public record Snapshot<S>(
+        S state,
+        long position
+) {
+
+    /**
+     * Creates a new {@code Snapshot}.
+     *
+     * @throws IllegalArgumentException if {@code position} is negative
+     */
+    public Snapshot {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must be >= 0");
+        }
+    }
+}
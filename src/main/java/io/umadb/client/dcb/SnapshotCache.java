@@ -0,0 +1,397 @@
+package io.umadb.client.dcb;
+
+import io.umadb.client.Query;
+import io.umadb.client.UmaDbException;
+import io.umadb.client.grpc.UmaDbUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Bounded cache of decision states, so a {@link DecisionExecutor} folds only the events
+ * appended since the previous decision instead of the whole history of the boundary.
+ * <p>
+ * Snapshots are keyed by the {@link DecisionModel#query() query} and
+ * {@link DecisionModel#snapshotId() snapshot id} of a model; models without an id are not
+ * cached. Of two snapshots for the same key, the one covering the higher position is kept.
+ * When full, the least recently used snapshot is evicted.
+ * <p>
+ * With a directory, snapshots of models with a {@link DecisionModel#snapshotCodec() codec}
+ * are also written to disk and read back on a memory miss, e.g. after a restart. Disk files
+ * are named after the {@linkplain Query#canonicalHash() canonical hash} of the query, so
+ * equivalent queries share them. Since hashes may collide, a file also holds the encoded
+ * {@linkplain Query#optimize() optimized} query and the snapshot id, and is only used if
+ * both match. Disk failures are treated like misses: a snapshot that cannot be read is
+ * rebuilt from the events, and one that cannot be written stays in memory only.
+ * <p>
+ * Snapshots are written behind, on a background thread, so {@link #put} does not wait for
+ * the disk. A snapshot superseded before it was written is skipped. {@link #flush()} waits
+ * for the pending writes, and {@link #close()} writes them before it stops the thread.
+ * Codecs are therefore called from that thread as well.
+ *
+ * <pre>{@code
+ * SnapshotCache snapshots = new SnapshotCache(10_000, Path.of("snapshots")); // closed on shutdown
+ * DecisionExecutor executor = new DecisionExecutor(client, RetryPolicy.defaults(), snapshots);
+ *
+ * DecisionModel<Integer> seats = DecisionModel.of(courseQuery, 0, (count, event) -> count + 1)
+ *     .withSnapshots("course-seats-v1", seatCountCodec);
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SnapshotCache implements AutoCloseable {
+
+    // Version 2 adds the encoded query; files of version 1 are ignored
+    private static final int MAGIC = 0x554d5332;
+
+    private final int maxSize;
+    private final Path directory;
+    private final LinkedHashMap<Key, Snapshot<?>> snapshots;
+    private final Map<Key, PendingWrite<?>> pendingWrites = new HashMap<>();
+    private final ExecutorService writer;
+    private boolean closed;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty cache that keeps snapshots in memory only.
+     *
+     * @param maxSize the maximum number of snapshots kept in memory
+     * @throws IllegalArgumentException if {@code maxSize} is zero or negative
+     */
+    public SnapshotCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        this.maxSize = maxSize;
+        this.directory = null;
+        this.snapshots = newSnapshots();
+        this.writer = null;
+    }
+
+    /**
+     * Creates a cache that also keeps snapshots on disk.
+     *
+     * @param maxSize   the maximum number of snapshots kept in memory
+     * @param directory the directory for snapshot files; created if missing
+     * @throws IllegalArgumentException if {@code maxSize} is zero or negative, or {@code directory} is {@code null}
+     * @throws IOException              if the directory cannot be created
+     */
+    public SnapshotCache(int maxSize, Path directory) throws IOException {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        this.maxSize = maxSize;
+        this.directory = Files.createDirectories(directory);
+        this.snapshots = newSnapshots();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "umadb-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private LinkedHashMap<Key, Snapshot<?>> newSnapshots() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Snapshot<?>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the latest snapshot of the model, reading it from disk on a memory miss.
+     *
+     * @param model the model whose state to look up
+     * @param <S>   the type of the decision state
+     * @return the snapshot, or {@code null} if none is cached
+     * @throws IllegalArgumentException if {@code model} is {@code null} or has no snapshot id
+     */
+    public <S> Snapshot<S> get(DecisionModel<S> model) {
+        var key = keyOf(model);
+        Snapshot<?> snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(key);
+        }
+        if (snapshot == null && directory != null && model.snapshotCodec() != null) {
+            snapshot = pendingOrRead(key, model.snapshotCodec());
+            if (snapshot != null) {
+                remember(key, snapshot);
+            }
+        }
+        if (snapshot == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        // The snapshot id stands for the state type
+        @SuppressWarnings("unchecked")
+        var typed = (Snapshot<S>) snapshot;
+        return typed;
+    }
+
+    /**
+     * Stores a snapshot of the model unless a snapshot covering the same or a higher position
+     * is cached already.
+     *
+     * @param model    the model the state was folded with
+     * @param snapshot the folded state and the position it covers
+     * @param <S>      the type of the decision state
+     * @throws IllegalArgumentException if an argument is {@code null}, or the model has no snapshot id
+     */
+    public <S> void put(DecisionModel<S> model, Snapshot<S> snapshot) {
+        var key = keyOf(model);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("snapshot must not be null");
+        }
+        if (remember(key, snapshot) && directory != null && model.snapshotCodec() != null) {
+            writeBehind(key, model.snapshotCodec(), snapshot);
+        }
+    }
+
+    /**
+     * Waits until the snapshots put so far have been written to disk, or failed to.
+     *
+     * @throws UmaDbException if interrupted while waiting
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        Future<?> written;
+        synchronized (pendingWrites) {
+            if (closed) {
+                return;
+            }
+            // The writer runs its tasks in order, so this one completes after all pending writes
+            written = writer.submit(() -> {
+            });
+        }
+        try {
+            written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UmaDbException("Interrupted while waiting for snapshot writes", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the pending snapshots to disk and stops the background thread. Snapshots put
+     * afterwards are kept in memory only.
+     *
+     * @throws UmaDbException if interrupted while waiting for the pending writes
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        synchronized (pendingWrites) {
+            closed = true;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UmaDbException("Interrupted while waiting for snapshot writes", e);
+        }
+    }
+
+    private <S> void writeBehind(Key key, SnapshotCodec<S> codec, Snapshot<S> snapshot) {
+        synchronized (pendingWrites) {
+            if (closed) {
+                return;
+            }
+            var pending = pendingWrites.get(key);
+            if (pending != null && pending.snapshot().position() >= snapshot.position()) {
+                return;
+            }
+            // A queued write of the key picks up the newer snapshot instead
+            if (pendingWrites.put(key, new PendingWrite<>(codec, snapshot)) == null) {
+                writer.execute(() -> writePending(key));
+            }
+        }
+    }
+
+    private void writePending(Key key) {
+        while (true) {
+            PendingWrite<?> pending;
+            synchronized (pendingWrites) {
+                pending = pendingWrites.get(key);
+            }
+            write(key, pending);
+            synchronized (pendingWrites) {
+                // Removed only now, so a lookup finds it until it can be read from disk
+                if (pendingWrites.get(key) == pending) {
+                    pendingWrites.remove(key);
+                    return;
+                }
+            }
+        }
+    }
+
+    private <S> Snapshot<?> pendingOrRead(Key key, SnapshotCodec<S> codec) {
+        synchronized (pendingWrites) {
+            var pending = pendingWrites.get(key);
+            if (pending != null) {
+                return pending.snapshot();
+            }
+        }
+        return read(key, codec);
+    }
+
+    private boolean remember(Key key, Snapshot<?> snapshot) {
+        synchronized (snapshots) {
+            var current = snapshots.get(key);
+            if (current != null && current.position() >= snapshot.position()) {
+                return false;
+            }
+            snapshots.put(key, snapshot);
+            return true;
+        }
+    }
+
+    private static Key keyOf(DecisionModel<?> model) {
+        if (model == null) {
+            throw new IllegalArgumentException("model must not be null");
+        }
+        if (model.snapshotId() == null) {
+            throw new IllegalArgumentException("model must have a snapshotId");
+        }
+        return new Key(model.query(), model.snapshotId());
+    }
+
+    private Path fileOf(Key key) {
+        return directory.resolve("%016x-%08x.snapshot".formatted(key.query().canonicalHash(), key.snapshotId().hashCode()));
+    }
+
+    private <S> Snapshot<S> read(Key key, SnapshotCodec<S> codec) {
+        try {
+            byte[] content = Files.readAllBytes(fileOf(key));
+            if (content.length < Integer.BYTES) {
+                return null;
+            }
+            int length = content.length - Integer.BYTES;
+            var crc = new CRC32C();
+            crc.update(content, 0, length);
+            if (ByteBuffer.wrap(content).getInt(length) != (int) crc.getValue()) {
+                return null;
+            }
+
+            var in = new DataInputStream(new ByteArrayInputStream(content, 0, length));
+            if (in.readInt() != MAGIC || !in.readUTF().equals(key.snapshotId())) {
+                return null;
+            }
+            // Another query with the same canonical hash
+            if (!Arrays.equals(in.readNBytes(in.readInt()), encodedQuery(key))) {
+                return null;
+            }
+            long position = in.readLong();
+            byte[] state = in.readNBytes(in.readInt());
+            return new Snapshot<>(codec.decode(state), position);
+        } catch (IOException | RuntimeException e) {
+            // Missing or damaged; rebuilt from the events instead
+            return null;
+        }
+    }
+
+    private static byte[] encodedQuery(Key key) {
+        return UmaDbUtils.toUmadbQuery(key.query().optimize()).toByteArray();
+    }
+
+    private <S> void write(Key key, PendingWrite<S> pending) {
+        var snapshot = pending.snapshot();
+        Path temporary = null;
+        try {
+            byte[] state = pending.codec().encode(snapshot.state());
+            byte[] query = encodedQuery(key);
+            var content = new ByteArrayOutputStream(state.length + query.length + 64);
+            var out = new DataOutputStream(content);
+            out.writeInt(MAGIC);
+            out.writeUTF(key.snapshotId());
+            out.writeInt(query.length);
+            out.write(query);
+            out.writeLong(snapshot.position());
+            out.writeInt(state.length);
+            out.write(state);
+            var crc = new CRC32C();
+            crc.update(content.toByteArray());
+            out.writeInt((int) crc.getValue());
+
+            // Replaced atomically, so readers never see a partially written snapshot
+            temporary = Files.createTempFile(directory, "snapshot", ".tmp");
+            Files.write(temporary, content.toByteArray());
+            Files.move(temporary, fileOf(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            // Kept in memory only
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // Left behind; snapshot files are only read by name
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of snapshots kept in memory.
+     *
+     * @return the number of snapshots
+     */
+    public int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from memory or disk.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no snapshot.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    private record Key(Query query, String snapshotId) {
+    }
+
+    private record PendingWrite<S>(SnapshotCodec<S> codec, Snapshot<S> snapshot) {
+    }
+}
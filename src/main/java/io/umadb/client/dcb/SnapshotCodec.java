@@ -0,0 +1,32 @@
+package io.umadb.client.dcb;
+
+import java.io.IOException;
+
+/**
+ * Converts a decision state between a Java object and its binary form, so a
+ * {@link SnapshotCache} can keep snapshots of it on disk.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @param <S> the type of the decision state
+ */
+public interface SnapshotCodec<S> {
+
+    /**
+     * Returns the binary form of the state.
+     *
+     * @param state the state to encode; may be {@code null} if the model's initial state is
+     * @return the encoded state
+     * @throws IOException if the state cannot be encoded
+     */
+    byte[] encode(S state) throws IOException;
+
+    /**
+     * Reads a state from its binary form.
+     *
+     * @param data the encoded state
+     * @return the decoded state
+     * @throws IOException if the data cannot be decoded
+     */
+    S decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,210 @@
+package io.umadb.client.export;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import io.umadb.client.*;
+import io.umadb.client.grpc.UmaDbClientImpl;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Streams the events of a read to a file.
+ * <p>
+ * Every event is written as a length-prefixed protobuf record (see {@link EventImporter} to
+ * load it again). The records are encoded straight from the received messages into a large
+ * direct buffer that is written through a {@link FileChannel}, so payloads are never copied
+ * into intermediate arrays.
+ * <p>
+ * Exports are resumable: if the file already contains events, e.g. from an interrupted
+ * export, a partially written last record is discarded and the read continues after the
+ * position of the last complete record.
+ *
+ * <pre>{@code
+ * EventExporter exporter = new EventExporter(client);
+ * ExportResult result = exporter.export(ReadRequest.of(query), Path.of("orders.umadb"));
+ * }</pre>
+ */
+public final class EventExporter {
+
+    private final UmaDbClient client;
+    private final int bufferSize;
+
+    /**
+     * Creates a new exporter with a 1 MiB write buffer.
+     *
+     * @param client the client to read with
+     * @throws IllegalArgumentException if {@code client} is {@code null}
+     */
+    public EventExporter(UmaDbClient client) {
+        this(client, ExportFormat.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new exporter.
+     *
+     * @param client     the client to read with
+     * @param bufferSize the size of the direct write buffer in bytes
+     * @throws IllegalArgumentException if {@code client} is {@code null} or {@code bufferSize} is too small
+     */
+    public EventExporter(UmaDbClient client, int bufferSize) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (bufferSize < ExportFormat.HEADER.length) {
+            throw new IllegalArgumentException("bufferSize must be >= " + ExportFormat.HEADER.length);
+        }
+        this.client = client;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Exports the events of the given read to the file, resuming a previous export if the
+     * file already exists.
+     *
+     * @param readRequest the read to export; must read forwards and must not subscribe
+     * @param file        the file to write to
+     * @return the outcome of the export
+     * @throws IllegalArgumentException if the read goes backwards or subscribes
+     * @throws IOException              if the file cannot be read or written
+     * @throws UmaDbException           if reading from the server fails
+     */
+    public ExportResult export(ReadRequest readRequest, Path file) throws IOException {
+        if (readRequest == null) {
+            throw new IllegalArgumentException("readRequest must not be null");
+        }
+        if (Boolean.TRUE.equals(readRequest.backwards()) || Boolean.TRUE.equals(readRequest.subscribe())) {
+            throw new IllegalArgumentException("only forward reads without subscription can be exported");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            var buffer = ByteBuffer.allocateDirect(bufferSize);
+            Long lastPosition = null;
+            if (channel.size() == 0) {
+                buffer.put(ExportFormat.HEADER);
+            } else {
+                lastPosition = resume(channel);
+                if (lastPosition != null) {
+                    readRequest = readRequest.withStart(lastPosition + 1);
+                }
+            }
+
+            long events = 0;
+            long bytes = 0;
+            Iterator<Umadb.ReadResponse> responses = readRaw(readRequest);
+            while (responses.hasNext()) {
+                for (Umadb.SequencedEvent event : responses.next().getEventsList()) {
+                    bytes += write(event, buffer, channel);
+                    lastPosition = event.getPosition();
+                    events++;
+                }
+            }
+            drain(buffer, channel);
+            channel.force(false);
+            return new ExportResult(events, bytes, lastPosition);
+        }
+    }
+
+    /**
+     * Truncates a partially written record and positions the channel at the end of the file.
+     *
+     * @return the position of the last complete record, or {@code null} if there is none
+     */
+    private Long resume(FileChannel channel) throws IOException {
+        var reader = new ExportFileReader(channel, bufferSize);
+        Long lastPosition = null;
+        ByteBuffer record;
+        while ((record = reader.next()) != null) {
+            lastPosition = ExportFormat.position(record);
+        }
+        channel.truncate(reader.validEnd());
+        channel.position(reader.validEnd());
+        return lastPosition;
+    }
+
+    private Iterator<Umadb.ReadResponse> readRaw(ReadRequest readRequest) {
+        if (client instanceof UmaDbClientImpl grpcClient) {
+            return grpcClient.readRaw(readRequest, RequestOptions.defaults());
+        }
+        // Other clients only provide domain objects, wrap them without copying the payloads
+        var responses = client.handle(readRequest);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return responses.hasNext();
+            }
+
+            @Override
+            public Umadb.ReadResponse next() {
+                var builder = Umadb.ReadResponse.newBuilder();
+                for (SequencedEvent event : responses.next().events()) {
+                    builder.addEvents(toUmadbSequencedEvent(event));
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    private static Umadb.SequencedEvent toUmadbSequencedEvent(SequencedEvent sequencedEvent) {
+        var event = sequencedEvent.event();
+        return Umadb.SequencedEvent.newBuilder()
+                .setPosition(sequencedEvent.position())
+                .setEvent(Umadb.Event.newBuilder()
+                        .setEventType(event.type())
+                        .addAllTags(event.tags())
+                        .setData(UnsafeByteOperations.unsafeWrap(event.data()))
+                        .setUuid(event.id().toString())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Appends the record for the given event to the buffer, writing the buffer to the
+     * channel when it is full.
+     *
+     * @return the number of bytes of the record
+     */
+    private static int write(Umadb.SequencedEvent event, ByteBuffer buffer, FileChannel channel) throws IOException {
+        int size = event.getSerializedSize();
+        int recordSize = Integer.BYTES + size;
+        if (recordSize > buffer.remaining()) {
+            drain(buffer, channel);
+        }
+        if (recordSize > buffer.capacity()) {
+            // Larger than the whole buffer, encode it separately
+            var large = ByteBuffer.allocate(recordSize);
+            encode(event, size, large);
+            large.flip();
+            writeFully(large, channel);
+        } else {
+            encode(event, size, buffer);
+        }
+        return recordSize;
+    }
+
+    private static void encode(Umadb.SequencedEvent event, int size, ByteBuffer target) throws IOException {
+        target.putInt(size);
+        var output = CodedOutputStream.newInstance(target);
+        event.writeTo(output);
+        // Advances the position of the target buffer
+        output.flush();
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        writeFully(buffer, channel);
+        buffer.clear();
+    }
+
+    private static void writeFully(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
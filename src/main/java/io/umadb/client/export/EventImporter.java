@@ -0,0 +1,158 @@
+package io.umadb.client.export;
+
+import io.umadb.client.Event;
+import io.umadb.client.UmaDbException;
+import io.umadb.client.bulk.BulkLoadProgress;
+import io.umadb.client.bulk.BulkLoader;
+import io.umadb.client.grpc.UmaDbUtils;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Appends the events of a file written by {@link EventExporter} using a {@link BulkLoader}.
+ * <p>
+ * Event types, tags, payloads and ids are preserved; the events get new positions.
+ * A partially written last record is ignored.
+ *
+ * <pre>{@code
+ * EventImporter importer = new EventImporter(new BulkLoader(client));
+ * BulkLoadProgress result = importer.importFrom(Path.of("orders.umadb"));
+ * }</pre>
+ */
+public final class EventImporter {
+
+    private final BulkLoader loader;
+    private final int bufferSize;
+
+    /**
+     * Creates a new importer with a 1 MiB read buffer.
+     *
+     * @param loader the loader to append the events with
+     * @throws IllegalArgumentException if {@code loader} is {@code null}
+     */
+    public EventImporter(BulkLoader loader) {
+        this(loader, ExportFormat.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new importer.
+     *
+     * @param loader     the loader to append the events with
+     * @param bufferSize the size of the direct read buffer in bytes
+     * @throws IllegalArgumentException if {@code loader} is {@code null} or {@code bufferSize} is too small
+     */
+    public EventImporter(BulkLoader loader, int bufferSize) {
+        if (loader == null) {
+            throw new IllegalArgumentException("loader must not be null");
+        }
+        if (bufferSize < ExportFormat.HEADER.length) {
+            throw new IllegalArgumentException("bufferSize must be >= " + ExportFormat.HEADER.length);
+        }
+        this.loader = loader;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Appends all events of the given file.
+     *
+     * @param file the export file
+     * @return the final progress
+     * @throws IOException    if the file cannot be read or is not an export file
+     * @throws UmaDbException if appending fails
+     */
+    public BulkLoadProgress importFrom(Path file) throws IOException {
+        return importFrom(file, 0, progress -> {
+        });
+    }
+
+    /**
+     * Appends the events of the given file, skipping the first {@code skip} events.
+     * <p>
+     * To resume a failed import, pass the last reported {@link BulkLoadProgress#resumeIndex()},
+     * which counts from the start of the file.
+     *
+     * @param file             the export file
+     * @param skip             the number of leading events to skip
+     * @param progressListener called after every acknowledged append request
+     * @return the final progress
+     * @throws IOException    if the file cannot be read or is not an export file
+     * @throws UmaDbException if appending fails
+     */
+    public BulkLoadProgress importFrom(Path file, long skip, Consumer<BulkLoadProgress> progressListener) throws IOException {
+        if (skip < 0) {
+            throw new IllegalArgumentException("skip must be >= 0");
+        }
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            var events = new EventIterator(new ExportFileReader(channel, bufferSize));
+            for (long i = 0; i < skip && events.hasNext(); i++) {
+                events.next();
+            }
+            return offset(loader.load(events, progress -> progressListener.accept(offset(progress, skip))), skip);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static BulkLoadProgress offset(BulkLoadProgress progress, long skip) {
+        return new BulkLoadProgress(
+                progress.eventsAppended(),
+                progress.requestsAppended(),
+                progress.bytesAppended(),
+                progress.resumeIndex() + skip,
+                progress.lastPosition()
+        );
+    }
+
+    /**
+     * Decodes the records of an export file on demand.
+     */
+    private static final class EventIterator implements Iterator<Event> {
+
+        private final ExportFileReader reader;
+        private Event next;
+
+        private EventIterator(ExportFileReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var event = next;
+            next = null;
+            return event;
+        }
+
+        private Event readNext() {
+            try {
+                ByteBuffer record = reader.next();
+                if (record == null) {
+                    return null;
+                }
+                return UmaDbUtils.toSequencedEvent(Umadb.SequencedEvent.parseFrom(record)).event();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.umadb.client.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequentially reads the records of an export file through a large direct buffer.
+ * <p>
+ * A truncated record at the end of the file, e.g. left by an interrupted export,
+ * is treated as the end of the file; {@link #validEnd()} then points to its start.
+ */
+final class ExportFileReader {
+
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private long validEnd;
+
+    /**
+     * @param channel    the channel positioned at the start of the file
+     * @param bufferSize the size of the read buffer
+     * @throws IOException if the file does not start with the export file header
+     */
+    ExportFileReader(FileChannel channel, int bufferSize) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).flip();
+        if (!ensure(ExportFormat.HEADER.length)) {
+            throw new IOException("Not an UmaDB export file: missing header");
+        }
+        for (byte expected : ExportFormat.HEADER) {
+            if (buffer.get() != expected) {
+                throw new IOException("Not an UmaDB export file: unexpected header");
+            }
+        }
+        this.validEnd = ExportFormat.HEADER.length;
+    }
+
+    /**
+     * Returns the next record without its length prefix, or {@code null} at the end of the
+     * file. The returned buffer is only valid until the next call.
+     *
+     * @throws IOException if the file cannot be read or a record length is corrupt
+     */
+    ByteBuffer next() throws IOException {
+        if (!ensure(Integer.BYTES)) {
+            return null;
+        }
+        int length = buffer.getInt(buffer.position());
+        if (length < 0) {
+            throw new IOException("Corrupt record length %d at offset %d".formatted(length, validEnd));
+        }
+        if (!ensure(Integer.BYTES + length)) {
+            return null;
+        }
+        int start = buffer.position() + Integer.BYTES;
+        var record = buffer.slice(start, length);
+        buffer.position(start + length);
+        validEnd += Integer.BYTES + length;
+        return record;
+    }
+
+    /**
+     * Returns the file offset directly after the last complete record read so far.
+     */
+    long validEnd() {
+        return validEnd;
+    }
+
+    /**
+     * Makes sure that at least {@code bytes} bytes are buffered.
+     *
+     * @return {@code false} if the end of the file is reached before
+     */
+    private boolean ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        if (bytes > buffer.capacity()) {
+            // Records larger than the buffer are rare, grow it for the rest of the file
+            var larger = ByteBuffer.allocateDirect(Math.max(bytes, buffer.capacity() * 2));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package io.umadb.client.export;
+
+import com.google.protobuf.CodedInputStream;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of export files.
+ * <p>
+ * An export file starts with an 8 byte header, followed by one record per event. Each
+ * record is a 4 byte big-endian length followed by the protobuf encoded
+ * {@code umadb.v1.SequencedEvent}, so the file can also be read without this client.
+ */
+final class ExportFormat {
+
+    static final byte[] HEADER = "UMADBEX1".getBytes(StandardCharsets.US_ASCII);
+
+    static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Returns the position of an encoded {@code SequencedEvent} without decoding the event.
+     *
+     * @throws IOException if the record does not contain a position
+     */
+    static long position(ByteBuffer record) throws IOException {
+        var input = CodedInputStream.newInstance(record.duplicate());
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag >>> 3 == Umadb.SequencedEvent.POSITION_FIELD_NUMBER) {
+                return input.readUInt64();
+            }
+            input.skipField(tag);
+        }
+        throw new IOException("Record without position");
+    }
+
+    private ExportFormat() {
+        // constants
+    }
+}
@@ -0,0 +1,15 @@
+package io.umadb.client.export;
+
+/**
+ * Outcome of an export.
+ *
+ * @param eventsWritten the number of events written by this export, excluding resumed ones
+ * @param bytesWritten  the number of bytes written by this export, excluding resumed ones
+ * @param lastPosition  the position of the last event in the file, or {@code null} if it is empty
+ */
+public record ExportResult(
+        long eventsWritten,
+        long bytesWritten,
+        Long lastPosition
+) {
+}
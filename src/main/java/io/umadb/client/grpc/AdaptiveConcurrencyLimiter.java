@@ -0,0 +1,167 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.ConcurrencyLimit;
+import io.umadb.client.UmaDbException;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limiter in front of the RPCs of one operation type.
+ * <p>
+ * The limit is adjusted with a Vegas-style algorithm: every completed call yields an
+ * RTT sample, from which the number of calls queued at the server is estimated as
+ * {@code limit * (1 - minRtt / rtt)}. A small queue increases the limit by one,
+ * a large queue decreases it by one. Dropped calls (timeouts, unavailability,
+ * resource exhaustion) decrease the limit multiplicatively.
+ * <p>
+ * The minimum RTT is re-probed periodically so the limiter adapts to a server
+ * whose baseline latency changes.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Queue estimate below which the limit is increased.
+     */
+    private static final int ALPHA = 3;
+
+    /**
+     * Queue estimate above which the limit is decreased.
+     */
+    private static final int BETA = 6;
+
+    /**
+     * Multiplicative decrease applied on dropped calls.
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * Number of samples after which the minimum RTT is re-probed.
+     */
+    private static final int MIN_RTT_PROBE_INTERVAL = 1_000;
+
+    private final ConcurrencyLimit config;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimit config) {
+        this(config, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimit config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.limit = config.initialLimit();
+    }
+
+    /**
+     * Acquires a permit, waiting for at most the configured queue time.
+     *
+     * @return the permit that must be released once the call completes
+     * @throws UmaDbException.LimitExceededException if no permit becomes available in time
+     */
+    Permit acquire() {
+        lock.lock();
+        try {
+            long remainingNanos = config.maxQueueTime().toNanos();
+            while (inFlight >= currentLimit()) {
+                if (remainingNanos <= 0) {
+                    throw new UmaDbException.LimitExceededException(
+                            "Client concurrency limit of %d reached".formatted(currentLimit())
+                    );
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return new Permit(nanoClock.getAsLong(), inFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UmaDbException("Interrupted while waiting for a concurrency permit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     */
+    int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Permit permit, boolean dropped) {
+        long rttNanos = nanoClock.getAsLong() - permit.startNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped) {
+                limit = Math.max(config.minLimit(), limit * BACKOFF_RATIO);
+            } else {
+                onSample(rttNanos, permit.inFlightAtStart);
+            }
+            permitReleased.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart) {
+        rttNanos = Math.max(rttNanos, 1);
+        if (++samplesSinceProbe >= MIN_RTT_PROBE_INTERVAL) {
+            samplesSinceProbe = 0;
+            minRttNanos = rttNanos;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+        }
+
+        double queueSize = Math.ceil(limit * (1 - (double) minRttNanos / rttNanos));
+        if (queueSize < ALPHA && inFlightAtStart * 2 >= limit) {
+            // Only grow while the limit is actually being used
+            limit = Math.min(config.maxLimit(), limit + 1);
+        } else if (queueSize > BETA) {
+            limit = Math.max(config.minLimit(), limit - 1);
+        }
+    }
+
+    /**
+     * A granted slot for a single call.
+     */
+    final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the permit and feeds the call outcome into the limit.
+         * Subsequent invocations have no effect.
+         *
+         * @param dropped whether the call failed in a way that indicates overload
+         */
+        void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            AdaptiveConcurrencyLimiter.this.release(this, dropped);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.umadb.client.grpc;
+
+import com.google.protobuf.CodedOutputStream;
+import io.umadb.client.*;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the {@code AppendRequest} wire format straight from the client records,
+ * skipping the generated protobuf classes.
+ * <p>
+ * Sizes are computed up front, so the request is written in a single pass into a buffer of
+ * the exact size without buffering nested messages. Strings are encoded directly into the
+ * buffer and UUIDs are formatted without going through {@link java.util.UUID#toString()}.
+ * The output is byte for byte the one of
+ * {@link UmaDbUtils#toUmadbAppendRequest(AppendRequest)}.
+ * <p>
+ * The condition query can be passed in already encoded, e.g. from a {@link QueryCache}.
+ */
+final class AppendRequestEncoder {
+
+    // Tags are the field number shifted by three bits, combined with the wire type
+    // (0 for varints, 2 for length-delimited fields)
+    private static final int APPEND_REQUEST_EVENTS = 1 << 3 | 2;
+    private static final int APPEND_REQUEST_CONDITION = 2 << 3 | 2;
+    private static final int EVENT_TYPE = 1 << 3 | 2;
+    private static final int EVENT_TAGS = 2 << 3 | 2;
+    private static final int EVENT_DATA = 3 << 3 | 2;
+    private static final int EVENT_UUID = 4 << 3 | 2;
+    private static final int APPEND_CONDITION_QUERY = 1 << 3 | 2;
+    private static final int APPEND_CONDITION_AFTER = 2 << 3;
+    private static final int QUERY_ITEMS = 1 << 3 | 2;
+    private static final int QUERY_ITEM_TYPES = 1 << 3 | 2;
+    private static final int QUERY_ITEM_TAGS = 2 << 3 | 2;
+
+    private AppendRequestEncoder() {
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(AppendRequest, Umadb.Query, CodedOutputStream)} writes.
+     * The size does not depend on whether the condition query is passed in encoded.
+     *
+     * @param appendRequest the request to encode
+     * @return the serialized size
+     */
+    static int serializedSize(AppendRequest appendRequest) {
+        return serializedSize(appendRequest, null);
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(AppendRequest, Umadb.Query, CodedOutputStream)} writes.
+     *
+     * @param appendRequest the request to encode
+     * @param conditionQuery the encoded condition query, or {@code null} to encode it
+     * @return the serialized size
+     */
+    static int serializedSize(AppendRequest appendRequest, Umadb.Query conditionQuery) {
+        int size = 0;
+        List<Event> events = appendRequest.events();
+        for (int i = 0; i < events.size(); i++) {
+            size += eventFieldSize(events.get(i));
+        }
+        if (appendRequest.condition() != null) {
+            size += fieldSize(conditionSize(appendRequest.condition(), conditionQuery));
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes the event adds to an encoded request, including its field
+     * tag and length prefix.
+     *
+     * @param event the event to encode
+     * @return the size of the event field
+     */
+    static int eventFieldSize(Event event) {
+        return fieldSize(eventSize(event));
+    }
+
+    /**
+     * Writes the request.
+     *
+     * @param appendRequest the request to encode
+     * @param conditionQuery the encoded condition query, or {@code null} to encode it
+     * @param output        the stream to write to
+     * @throws IOException if the stream cannot be written to, e.g. because it is too small
+     */
+    static void encode(AppendRequest appendRequest, Umadb.Query conditionQuery, CodedOutputStream output) throws IOException {
+        // Scratch space for the UUIDs of all events
+        byte[] uuid = new byte[Uuids.CANONICAL_LENGTH];
+        List<Event> events = appendRequest.events();
+        for (int i = 0; i < events.size(); i++) {
+            var event = events.get(i);
+            output.writeUInt32NoTag(APPEND_REQUEST_EVENTS);
+            output.writeUInt32NoTag(eventSize(event));
+            writeEvent(event, output, uuid);
+        }
+
+        var condition = appendRequest.condition();
+        if (condition != null) {
+            output.writeUInt32NoTag(APPEND_REQUEST_CONDITION);
+            output.writeUInt32NoTag(conditionSize(condition, conditionQuery));
+            output.writeUInt32NoTag(APPEND_CONDITION_QUERY);
+            if (conditionQuery != null) {
+                output.writeUInt32NoTag(conditionQuery.getSerializedSize());
+                conditionQuery.writeTo(output);
+            } else {
+                writeQuery(condition.failIfEventsMatch(), output);
+            }
+            if (condition.after() != null) {
+                output.writeUInt32NoTag(APPEND_CONDITION_AFTER);
+                output.writeUInt64NoTag(condition.after());
+            }
+        }
+    }
+
+    private static void writeQuery(Query query, CodedOutputStream output) throws IOException {
+        output.writeUInt32NoTag(querySize(query));
+        List<QueryItem> items = query.items();
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            output.writeUInt32NoTag(QUERY_ITEMS);
+            output.writeUInt32NoTag(queryItemSize(item));
+            writeStrings(QUERY_ITEM_TYPES, item.types(), output);
+            writeStrings(QUERY_ITEM_TAGS, item.tags(), output);
+        }
+    }
+
+    private static void writeEvent(Event event, CodedOutputStream output, byte[] uuid) throws IOException {
+        // Like the generated code, empty proto3 scalars are left out
+        writeString(EVENT_TYPE, event.type(), output);
+        writeStrings(EVENT_TAGS, event.tags(), output);
+        if (event.data().length > 0) {
+            output.writeUInt32NoTag(EVENT_DATA);
+            output.writeUInt32NoTag(event.data().length);
+            output.writeRawBytes(event.data(), 0, event.data().length);
+        }
+        if (event.id() != null) {
+            Uuids.format(event.id(), uuid, 0);
+            output.writeUInt32NoTag(EVENT_UUID);
+            output.writeUInt32NoTag(Uuids.CANONICAL_LENGTH);
+            output.writeRawBytes(uuid, 0, Uuids.CANONICAL_LENGTH);
+        }
+    }
+
+    private static void writeStrings(int tag, List<String> values, CodedOutputStream output) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            output.writeUInt32NoTag(tag);
+            output.writeStringNoTag(values.get(i));
+        }
+    }
+
+    private static void writeString(int tag, String value, CodedOutputStream output) throws IOException {
+        if (!value.isEmpty()) {
+            output.writeUInt32NoTag(tag);
+            output.writeStringNoTag(value);
+        }
+    }
+
+    private static int eventSize(Event event) {
+        int size = stringSize(event.type()) + stringsSize(event.tags());
+        if (event.data().length > 0) {
+            size += fieldSize(event.data().length);
+        }
+        if (event.id() != null) {
+            size += fieldSize(Uuids.CANONICAL_LENGTH);
+        }
+        return size;
+    }
+
+    private static int conditionSize(AppendCondition condition, Umadb.Query conditionQuery) {
+        int querySize = conditionQuery != null
+                ? conditionQuery.getSerializedSize()
+                : querySize(condition.failIfEventsMatch());
+        int size = fieldSize(querySize);
+        if (condition.after() != null) {
+            size += 1 + CodedOutputStream.computeUInt64SizeNoTag(condition.after());
+        }
+        return size;
+    }
+
+    private static int querySize(Query query) {
+        int size = 0;
+        List<QueryItem> items = query.items();
+        for (int i = 0; i < items.size(); i++) {
+            size += fieldSize(queryItemSize(items.get(i)));
+        }
+        return size;
+    }
+
+    private static int queryItemSize(QueryItem item) {
+        return stringsSize(item.types()) + stringsSize(item.tags());
+    }
+
+    private static int stringsSize(List<String> values) {
+        int size = 0;
+        for (int i = 0; i < values.size(); i++) {
+            size += 1 + CodedOutputStream.computeStringSizeNoTag(values.get(i));
+        }
+        return size;
+    }
+
+    private static int stringSize(String value) {
+        return value.isEmpty() ? 0 : 1 + CodedOutputStream.computeStringSizeNoTag(value);
+    }
+
+    /**
+     * Returns the size of a length-delimited field with a single byte tag, as all fields
+     * of the request have.
+     */
+    private static int fieldSize(int length) {
+        return 1 + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+    }
+}
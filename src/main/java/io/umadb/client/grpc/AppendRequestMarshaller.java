@@ -0,0 +1,109 @@
+package io.umadb.client.grpc;
+
+import com.google.protobuf.CodedOutputStream;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.umadb.client.AppendRequest;
+import io.umadb.client.QueryCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes {@link AppendRequest}s for the {@code Append} method with the
+ * {@link AppendRequestEncoder}.
+ * <p>
+ * The request is written straight into an array of its exact size, which the returned
+ * stream owns. The array is not shared with other messages: gRPC may queue the stream until
+ * a transport is ready, or replay it for a transparent retry, after the same thread has
+ * encoded further requests. Payloads must already be compressed, if compression is configured.
+ */
+final class AppendRequestMarshaller implements MethodDescriptor.Marshaller<AppendRequest> {
+
+    private final QueryCache queryCache;
+
+    /**
+     * @param queryCache the cache of encoded condition queries, or {@code null} to encode them
+     */
+    AppendRequestMarshaller(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @Override
+    public InputStream stream(AppendRequest appendRequest) {
+        var condition = appendRequest.condition();
+        var conditionQuery = queryCache != null && condition != null
+                ? queryCache.toUmadbQuery(condition.failIfEventsMatch())
+                : null;
+        int size = AppendRequestEncoder.serializedSize(appendRequest, conditionQuery);
+        byte[] buffer = new byte[size];
+        try {
+            var output = CodedOutputStream.newInstance(buffer, 0, size);
+            AppendRequestEncoder.encode(appendRequest, conditionQuery, output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedMessage(buffer, size);
+    }
+
+    /**
+     * Requests are only encoded on the client.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public AppendRequest parse(InputStream stream) {
+        throw new UnsupportedOperationException("append requests are only encoded by the client");
+    }
+
+    /**
+     * The encoded bytes of one request. Draining writes them to the transport in one go.
+     */
+    private static final class EncodedMessage extends InputStream implements KnownLength, Drainable {
+
+        private final byte[] buffer;
+        private final int size;
+        private int position;
+
+        private EncodedMessage(byte[] buffer, int size) {
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int remaining = size - position;
+            target.write(buffer, position, remaining);
+            position = size;
+            return remaining;
+        }
+
+        @Override
+        public int read() {
+            return position < size ? buffer[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == size) {
+                return -1;
+            }
+            int count = Math.min(length, size - position);
+            System.arraycopy(buffer, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return size - position;
+        }
+    }
+}
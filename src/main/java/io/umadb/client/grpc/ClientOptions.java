@@ -0,0 +1,92 @@
+package io.umadb.client.grpc;
+
+import io.grpc.ClientInterceptor;
+import io.umadb.client.ConcurrencyLimit;
+import io.umadb.client.PayloadCompression;
+import io.umadb.client.QueryCache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Optional settings of {@link UmaDbClientImpl}, assembled by the
+ * {@link io.umadb.client.UmaDbClientBuilder}.
+ *
+ * @param interceptors  additional gRPC client interceptors
+ * @param appendTimeout default deadline for appends; {@code null} for none
+ * @param readTimeout   default deadline for non-subscribing reads; {@code null} for none
+ * @param headTimeout   default deadline for head calls; {@code null} for none
+ * @param appendLimit   adaptive concurrency limit for appends; {@code null} for unlimited
+ * @param readLimit     adaptive concurrency limit for non-subscribing reads; {@code null} for unlimited
+ * @param conflictPrecheckWindow number of recently seen events used to fail conditional appends
+ *                      locally on a known conflict; {@code 0} to disable the pre-check
+ * @param payloadCompression compression of event payloads; {@code null} to send payloads unchanged
+ * @param queryCache    cache of encoded read and condition queries; {@code null} to encode them on every call
+ * @param optimizeQueries whether read and condition queries are {@linkplain io.umadb.client.Query#optimize() optimized}
+ *                      before they are sent
+ * @param coalesceRequests whether concurrent identical non-subscribing reads and head calls share
+ *                      one call, if their {@link io.umadb.client.RequestOptions#coalesce() options} allow it
+ */
+public record ClientOptions(
+        List<ClientInterceptor> interceptors,
+        Duration appendTimeout,
+        Duration readTimeout,
+        Duration headTimeout,
+        ConcurrencyLimit appendLimit,
+        ConcurrencyLimit readLimit,
+        int conflictPrecheckWindow,
+        PayloadCompression payloadCompression,
+        QueryCache queryCache,
+        boolean optimizeQueries,
+        boolean coalesceRequests
+) {
+
+    /**
+     * Default deadline for appends.
+     */
+    public static final Duration DEFAULT_APPEND_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Default deadline for head calls.
+     */
+    public static final Duration DEFAULT_HEAD_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Creates new {@code ClientOptions}.
+     *
+     * @throws IllegalArgumentException if {@code interceptors} is {@code null}
+     *                                  or a timeout is zero or negative
+     *                                  or {@code conflictPrecheckWindow} is negative
+     */
+    public ClientOptions {
+        if (interceptors == null) {
+            throw new IllegalArgumentException("interceptors must not be null");
+        }
+        requirePositiveOrNull(appendTimeout, "appendTimeout");
+        requirePositiveOrNull(readTimeout, "readTimeout");
+        requirePositiveOrNull(headTimeout, "headTimeout");
+        if (conflictPrecheckWindow < 0) {
+            throw new IllegalArgumentException("conflictPrecheckWindow must be >= 0");
+        }
+
+        interceptors = List.copyOf(interceptors);
+    }
+
+    /**
+     * Returns the default options: no additional interceptors, default append and
+     * head deadlines, no deadline for reads, no concurrency limits, no
+     * conflict pre-check, no payload compression, no query cache, queries sent as they are
+     * and no coalescing of requests.
+     *
+     * @return the default {@code ClientOptions}
+     */
+    public static ClientOptions defaults() {
+        return new ClientOptions(List.of(), DEFAULT_APPEND_TIMEOUT, null, DEFAULT_HEAD_TIMEOUT, null, null, 0, null, null, false, false);
+    }
+
+    private static void requirePositiveOrNull(Duration timeout, String name) {
+        if (timeout != null && (timeout.isZero() || timeout.isNegative())) {
+            throw new IllegalArgumentException(name + " must be > 0");
+        }
+    }
+}
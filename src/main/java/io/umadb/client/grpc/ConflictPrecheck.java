@@ -0,0 +1,102 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.AppendRequest;
+import io.umadb.client.Event;
+import io.umadb.client.SequencedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Window of the most recent events the client has seen, used to detect append
+ * conditions that are bound to fail without a round trip to the server.
+ * <p>
+ * Events are immutable once appended, so a seen event after {@code after} that matches
+ * the condition query is a certain conflict. The window is incomplete by nature, so a
+ * miss proves nothing and the server remains the authority.
+ * <p>
+ * The window is fed by all reads and subscriptions of the client as well as its own
+ * successful appends. When full, the events with the lowest positions are evicted first,
+ * as conditions usually refer to recent positions.
+ * <p>
+ * Events of the request itself are never reported as a conflict: the server treats a
+ * retried append of already written events as idempotent and returns their position.
+ */
+final class ConflictPrecheck {
+
+    private final int capacity;
+    private final TreeMap<Long, Event> window = new TreeMap<>();
+
+    /**
+     * @param capacity maximum number of events to keep
+     * @throws IllegalArgumentException if {@code capacity} is zero or negative
+     */
+    ConflictPrecheck(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records events received from the server.
+     */
+    synchronized void record(List<SequencedEvent> events) {
+        for (SequencedEvent event : events) {
+            window.put(event.position(), event.event());
+        }
+        evict();
+    }
+
+    /**
+     * Records events appended by this client, ending at the returned position.
+     */
+    synchronized void recordAppended(List<Event> events, long lastPosition) {
+        long position = lastPosition - events.size() + 1;
+        for (Event event : events) {
+            window.put(position++, event);
+        }
+        evict();
+    }
+
+    private void evict() {
+        while (window.size() > capacity) {
+            window.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Returns a known event that violates the condition of the given request, if any.
+     */
+    synchronized Optional<SequencedEvent> findConflict(AppendRequest appendRequest) {
+        var condition = appendRequest.condition();
+        if (condition == null) {
+            return Optional.empty();
+        }
+        var candidates = condition.after() != null
+                ? window.tailMap(condition.after(), false)
+                : window;
+        for (Map.Entry<Long, Event> entry : candidates.entrySet()) {
+            if (condition.failIfEventsMatch().matches(entry.getValue())
+                    && !isPartOf(entry.getValue(), appendRequest)) {
+                return Optional.of(new SequencedEvent(entry.getKey(), entry.getValue()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isPartOf(Event event, AppendRequest appendRequest) {
+        for (Event requested : appendRequest.events()) {
+            if (requested.id().equals(event.id())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized int size() {
+        return window.size();
+    }
+}
@@ -0,0 +1,19 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.consumer.ReadBatch;
+
+/**
+ * A read response as received by {@link UmaDbClientImpl#readBatches}, decoded into the
+ * columns of a batch, along with the size it had on the wire.
+ * <p>
+ * This is the response message type interceptors observe for reads issued through
+ * {@link io.umadb.client.consumer.ReadBatch#read}.
+ *
+ * @param batch          the decoded batch
+ * @param serializedSize the number of bytes of the encoded message
+ */
+public record DecodedReadBatch(
+        ReadBatch batch,
+        int serializedSize
+) {
+}
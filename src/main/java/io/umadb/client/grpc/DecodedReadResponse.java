@@ -0,0 +1,19 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.ReadResponse;
+
+/**
+ * A read response as received by the client's {@code Read} calls, decoded into client
+ * records, along with the size it had on the wire.
+ * <p>
+ * This is the response message type interceptors observe for reads issued through
+ * {@link UmaDbClientImpl#handle(io.umadb.client.ReadRequest, io.umadb.client.RequestOptions)}.
+ *
+ * @param response       the decoded response
+ * @param serializedSize the number of bytes of the encoded message
+ */
+public record DecodedReadResponse(
+        ReadResponse response,
+        int serializedSize
+) {
+}
@@ -0,0 +1,354 @@
+package io.umadb.client.grpc;
+
+import com.google.protobuf.CodedInputStream;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.umadb.client.Event;
+import io.umadb.client.PayloadCompression;
+import io.umadb.client.ReadResponse;
+import io.umadb.client.SequencedEvent;
+import io.umadb.client.consumer.ReadBatch;
+import io.umadb.client.consumer.StringDictionary;
+import io.umadb.client.jfr.ReadBatchDecodedEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * Decodes {@code ReadResponse} messages straight from the wire into client records,
+ * skipping the generated protobuf classes.
+ * <p>
+ * The message is read into a reusable per-thread buffer and parsed with a
+ * {@link CodedInputStream} on top of it. Payloads are copied once from the buffer into the
+ * event, and UUIDs are parsed in place instead of through an intermediate string. Fields the
+ * client records do not hold, such as fields added by newer servers, are skipped without
+ * being materialized.
+ * <p>
+ * Payload decompression is applied while decoding, so the responses are equal to those of
+ * {@link UmaDbUtils#toReadResponse(umadb.v1.Umadb.ReadResponse)} followed by
+ * {@link PayloadCompression#decompress(Event)} of each event.
+ * <p>
+ * The same field walk decodes responses into the columns of a {@link ReadBatch} instead,
+ * see {@link #batches(StringDictionary)}. Payloads are then copied once from the buffer into
+ * the payload column of the batch, and no records are created for its events.
+ */
+final class ReadResponseMarshaller implements MethodDescriptor.Marshaller<DecodedReadResponse> {
+
+    // Tags are the field number shifted by three bits, combined with the wire type
+    // (0 for varints, 2 for length-delimited fields)
+    private static final int READ_RESPONSE_EVENTS = 1 << 3 | 2;
+    private static final int READ_RESPONSE_HEAD = 2 << 3;
+    private static final int SEQUENCED_EVENT_POSITION = 1 << 3;
+    private static final int SEQUENCED_EVENT_EVENT = 2 << 3 | 2;
+    private static final int EVENT_TYPE = 1 << 3 | 2;
+    private static final int EVENT_TAGS = 2 << 3 | 2;
+    private static final int EVENT_DATA = 3 << 3 | 2;
+    private static final int EVENT_UUID = 4 << 3 | 2;
+
+    private static final ThreadLocalBuffer BUFFER = new ThreadLocalBuffer();
+
+    private final PayloadCompression payloadCompression;
+
+    /**
+     * @param payloadCompression the payload compression, or {@code null} to keep payloads unchanged
+     */
+    ReadResponseMarshaller(PayloadCompression payloadCompression) {
+        this.payloadCompression = payloadCompression;
+    }
+
+    /**
+     * Responses are only decoded on the client.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public InputStream stream(DecodedReadResponse value) {
+        throw new UnsupportedOperationException("read responses are only decoded by the client");
+    }
+
+    @Override
+    public DecodedReadResponse parse(InputStream stream) {
+        return parse(stream, (buffer, size) -> new DecodedReadResponse(decode(buffer, size), size),
+                decoded -> decoded.response().events().size());
+    }
+
+    /**
+     * Returns a marshaller decoding responses into columnar batches, with types and tags
+     * resolved against the given dictionary.
+     *
+     * @param dictionary the dictionary to resolve types and tags against
+     * @return the marshaller
+     */
+    MethodDescriptor.Marshaller<DecodedReadBatch> batches(StringDictionary dictionary) {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(DecodedReadBatch value) {
+                throw new UnsupportedOperationException("read responses are only decoded by the client");
+            }
+
+            @Override
+            public DecodedReadBatch parse(InputStream stream) {
+                return ReadResponseMarshaller.parse(stream,
+                        (buffer, size) -> new DecodedReadBatch(decode(buffer, size, ReadBatch.builder(dictionary)), size),
+                        decoded -> decoded.batch().size());
+            }
+        };
+    }
+
+    private static <T> T parse(InputStream stream, Decoder<T> decoder, ToIntFunction<T> eventCount) {
+        try {
+            int size;
+            byte[] buffer;
+            if (stream instanceof KnownLength) {
+                size = stream.available();
+                buffer = BUFFER.get(size);
+                if (stream.readNBytes(buffer, 0, size) != size) {
+                    throw new IOException("read response ended after fewer bytes than announced");
+                }
+            } else {
+                buffer = stream.readAllBytes();
+                size = buffer.length;
+            }
+
+            var decodedEvent = new ReadBatchDecodedEvent();
+            decodedEvent.begin();
+            var decoded = decoder.decode(buffer, size);
+            decodedEvent.end();
+            if (decodedEvent.shouldCommit()) {
+                decodedEvent.decoded(eventCount.applyAsInt(decoded));
+                decodedEvent.commit();
+            }
+            return decoded;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the encoded {@code ReadResponse} in the first {@code size} bytes of the buffer.
+     * The buffer may be reused once this method returns.
+     *
+     * @param buffer the encoded message
+     * @param size   the length of the encoded message
+     * @return the decoded response
+     * @throws IOException if the message is malformed
+     */
+    ReadResponse decode(byte[] buffer, int size) throws IOException {
+        var input = CodedInputStream.newInstance(buffer, 0, size);
+
+        SequencedEvent[] events = new SequencedEvent[16];
+        int eventCount = 0;
+        // Scratch space for the tags of one event, shared by all events of the response
+        String[] tags = new String[4];
+        long head = 0;
+
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0 -> {
+                    return new ReadResponse(toList(events, eventCount), head);
+                }
+                case READ_RESPONSE_EVENTS -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    if (eventCount == events.length) {
+                        events = Arrays.copyOf(events, eventCount * 2);
+                    }
+                    events[eventCount++] = decodeSequencedEvent(input, buffer, tags);
+                    input.popLimit(limit);
+                }
+                case READ_RESPONSE_HEAD -> head = input.readUInt64();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+
+    private SequencedEvent decodeSequencedEvent(CodedInputStream input, byte[] buffer, String[] tags) throws IOException {
+        long position = 0;
+        Event event = null;
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0 -> {
+                    if (event == null) {
+                        throw new IOException("sequenced event at position %d has no event".formatted(position));
+                    }
+                    return new SequencedEvent(position, event);
+                }
+                case SEQUENCED_EVENT_POSITION -> position = input.readUInt64();
+                case SEQUENCED_EVENT_EVENT -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    event = decodeEvent(input, buffer, tags);
+                    input.popLimit(limit);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+    }
+
+    private Event decodeEvent(CodedInputStream input, byte[] buffer, String[] tags) throws IOException {
+        String type = "";
+        int tagCount = 0;
+        byte[] data = new byte[0];
+        UUID id = null;
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0 -> {
+                    var event = new Event(type, toList(tags, tagCount), data, id);
+                    return payloadCompression != null ? payloadCompression.decompress(event) : event;
+                }
+                // Decoded straight from the buffer; unlike readStringRequireUtf8() it needs no char[] in between
+                case EVENT_TYPE -> type = input.readString();
+                case EVENT_TAGS -> {
+                    if (tagCount == tags.length) {
+                        tags = Arrays.copyOf(tags, tagCount * 2);
+                    }
+                    tags[tagCount++] = input.readString();
+                }
+                case EVENT_DATA -> data = input.readByteArray();
+                case EVENT_UUID -> {
+                    int length = input.readRawVarint32();
+                    if (length > 0) {
+                        // The stream reads straight from the buffer, so its position is the offset
+                        id = Uuids.parse(buffer, input.getTotalBytesRead(), length);
+                    }
+                    input.skipRawBytes(length);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+    }
+
+    /**
+     * Decodes the encoded {@code ReadResponse} in the first {@code size} bytes of the buffer
+     * into the builder. The buffer may be reused once this method returns.
+     *
+     * @param buffer  the encoded message
+     * @param size    the length of the encoded message
+     * @param builder the builder to add the events to
+     * @return the batch built from the events
+     * @throws IOException if the message is malformed
+     */
+    ReadBatch decode(byte[] buffer, int size, ReadBatch.Builder builder) throws IOException {
+        var input = CodedInputStream.newInstance(buffer, 0, size);
+        long head = 0;
+
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0 -> {
+                    return builder.build(head);
+                }
+                case READ_RESPONSE_EVENTS -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    decodeSequencedEvent(input, buffer, builder);
+                    input.popLimit(limit);
+                }
+                case READ_RESPONSE_HEAD -> head = input.readUInt64();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+
+    private void decodeSequencedEvent(CodedInputStream input, byte[] buffer, ReadBatch.Builder builder) throws IOException {
+        long position = 0;
+        boolean hasEvent = false;
+        builder.begin();
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0 -> {
+                    if (!hasEvent) {
+                        throw new IOException("sequenced event at position %d has no event".formatted(position));
+                    }
+                    builder.position(position).end();
+                    return;
+                }
+                case SEQUENCED_EVENT_POSITION -> position = input.readUInt64();
+                case SEQUENCED_EVENT_EVENT -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    decodeEvent(input, buffer, builder);
+                    input.popLimit(limit);
+                    hasEvent = true;
+                }
+                default -> input.skipField(tag);
+            }
+        }
+    }
+
+    private void decodeEvent(CodedInputStream input, byte[] buffer, ReadBatch.Builder builder) throws IOException {
+        String type = "";
+        boolean compressed = false;
+        int dataOffset = 0;
+        int dataLength = 0;
+        UUID id = null;
+        while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+                case 0 -> {
+                    if (type.isBlank() || id == null) {
+                        throw new IOException("event must have a type and an id");
+                    }
+                    builder.type(type).id(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                    if (compressed) {
+                        byte[] data = payloadCompression.decompress(type, buffer, dataOffset, dataLength);
+                        builder.payload(data, 0, data.length);
+                    } else {
+                        builder.payload(buffer, dataOffset, dataLength);
+                    }
+                    return;
+                }
+                case EVENT_TYPE -> type = input.readString();
+                case EVENT_TAGS -> {
+                    String eventTag = input.readString();
+                    if (payloadCompression != null && eventTag.equals(PayloadCompression.COMPRESSED_TAG)) {
+                        compressed = true;
+                    } else {
+                        builder.tag(eventTag);
+                    }
+                }
+                case EVENT_DATA -> {
+                    // Copied into the batch once the event is complete, straight from the buffer
+                    dataLength = input.readRawVarint32();
+                    dataOffset = input.getTotalBytesRead();
+                    input.skipRawBytes(dataLength);
+                }
+                case EVENT_UUID -> {
+                    int length = input.readRawVarint32();
+                    if (length > 0) {
+                        id = Uuids.parse(buffer, input.getTotalBytesRead(), length);
+                    }
+                    input.skipRawBytes(length);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+    }
+
+    /**
+     * Decodes a message held in the first {@code size} bytes of a buffer.
+     */
+    @FunctionalInterface
+    private interface Decoder<T> {
+        T decode(byte[] buffer, int size) throws IOException;
+    }
+
+    /**
+     * Returns an immutable list of the first {@code count} values, which the record
+     * constructors keep without copying it again.
+     */
+    private static <T> List<T> toList(T[] values, int count) {
+        return switch (count) {
+            case 0 -> List.of();
+            case 1 -> List.of(values[0]);
+            case 2 -> List.of(values[0], values[1]);
+            case 3 -> List.of(values[0], values[1], values[2]);
+            default -> List.of(count == values.length ? values : Arrays.copyOf(values, count));
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.UmaDbException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with equal keys into one.
+ * <p>
+ * The first caller for a key runs the call; callers arriving while it is in flight wait for
+ * it and receive the same result or exception. Once the call completes, the next caller for
+ * the key starts a new one, so results are never reused after the fact.
+ *
+ * @param <K> the type of the keys; must implement value equality
+ * @param <V> the type of the results; shared by all callers, so it should be immutable
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Runs the call, or waits for the call already in flight for an equal key.
+     *
+     * @param key  the key identifying equal calls
+     * @param call the call to run if none is in flight
+     * @return the result of the call
+     * @throws UmaDbException if interrupted while waiting for the call of another thread
+     */
+    V execute(K key, Supplier<V> call) {
+        var flight = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.increment();
+            return await(existing);
+        }
+
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UmaDbException("Interrupted while waiting for a coalesced call", e);
+        } catch (ExecutionException e) {
+            // The exception thrown to the caller that ran the call, which a supplier can only throw unchecked
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Returns the number of calls that waited for a call already in flight.
+     */
+    long joined() {
+        return joined.sum();
+    }
+}
@@ -0,0 +1,37 @@
+package io.umadb.client.grpc;
+
+/**
+ * Byte array reused by the messages decoded on the same thread, so a call does not
+ * allocate a fresh buffer for its message. Only suitable where the bytes are consumed
+ * before the method that requested the buffer returns.
+ * <p>
+ * Arrays larger than {@link #MAX_RETAINED_BYTES} are handed out once and not retained,
+ * so a single huge message does not stay reachable from an idle thread.
+ */
+final class ThreadLocalBuffer {
+
+    static final int MAX_RETAINED_BYTES = 1024 * 1024;
+
+    private static final int INITIAL_BYTES = 8192;
+
+    private final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[INITIAL_BYTES]);
+
+    /**
+     * Returns the buffer of the calling thread, grown to at least the given size.
+     * The content is undefined.
+     *
+     * @param size the minimum number of bytes
+     * @return the buffer
+     */
+    byte[] get(int size) {
+        var bytes = buffer.get();
+        if (bytes.length >= size) {
+            return bytes;
+        }
+        bytes = new byte[size];
+        if (size <= MAX_RETAINED_BYTES) {
+            buffer.set(bytes);
+        }
+        return bytes;
+    }
+}
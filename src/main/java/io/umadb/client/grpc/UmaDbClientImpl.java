@@ -1,15 +1,23 @@
 package io.umadb.client.grpc;
 
-import com.google.protobuf.InvalidProtocolBufferException;
 import io.grpc.*;
+import io.grpc.stub.ClientCalls;
 import io.umadb.client.*;
+import io.umadb.client.consumer.ReadBatch;
+import io.umadb.client.consumer.StringDictionary;
+import io.umadb.client.jfr.AppendEvent;
+import io.umadb.client.jfr.HeadEvent;
+import io.umadb.client.jfr.ReadBatchReceivedEvent;
 import umadb.v1.DCBGrpc;
 import umadb.v1.Umadb;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -29,15 +37,6 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  */
 public final class UmaDbClientImpl implements UmaDbClient {
 
-    /**
-     * gRPC metadata key used to extract structured UmaDB error details
-     * returned by the server.
-     */
-    private static final Metadata.Key<byte[]> DETAILS = Metadata.Key.of(
-            "grpc-status-details-bin",
-            Metadata.BINARY_BYTE_MARSHALLER
-    );
-
     /**
      * Maximum time to wait for a graceful channel shutdown.
      */
@@ -47,6 +46,15 @@ public final class UmaDbClientImpl implements UmaDbClient {
     private final int port;
     private final String optionalApiKey;
     private final Path optionalCaFilePath;
+    private final ClientOptions options;
+    private final AdaptiveConcurrencyLimiter appendLimiter;
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final ConflictPrecheck conflictPrecheck;
+    private final MethodDescriptor<AppendRequest, Umadb.AppendResponse> appendMethod;
+    private final ReadResponseMarshaller readResponseMarshaller;
+    private final MethodDescriptor<Umadb.ReadRequest, DecodedReadResponse> readMethod;
+    private final SingleFlight<ReadKey, List<ReadResponse>> readFlights;
+    private final SingleFlight<RequestOptions, Long> headFlights;
 
     private boolean isConnected = false;
     private boolean isShutdown = false;
@@ -64,12 +72,29 @@ public final class UmaDbClientImpl implements UmaDbClient {
      * @throws IllegalArgumentException if arguments are invalid or insecure
      */
     public UmaDbClientImpl(String host, int port, String caFilePath, String apiKey) {
+        this(host, port, caFilePath, apiKey, ClientOptions.defaults());
+    }
+
+    /**
+     * Creates a new client implementation with additional options.
+     *
+     * @param host       UmaDB server host
+     * @param port       UmaDB server port
+     * @param caFilePath optional path to a CA certificate for TLS
+     * @param apiKey     optional API key (requires TLS)
+     * @param options    additional client options
+     * @throws IllegalArgumentException if arguments are invalid or insecure
+     */
+    public UmaDbClientImpl(String host, int port, String caFilePath, String apiKey, ClientOptions options) {
         if (host == null) {
             throw new IllegalArgumentException("host must not be null");
         }
         if (port <= 0) {
             throw new IllegalArgumentException("port must be strictly positive");
         }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
 
         // Enforce security: API keys must never be sent over plaintext channels
         if (apiKey != null && caFilePath == null) {
@@ -80,6 +105,21 @@ public final class UmaDbClientImpl implements UmaDbClient {
         this.port = port;
         this.optionalApiKey = apiKey;
         this.optionalCaFilePath = Optional.ofNullable(caFilePath).map(Path::of).orElse(null);
+        this.options = options;
+        this.appendLimiter = options.appendLimit() != null ? new AdaptiveConcurrencyLimiter(options.appendLimit()) : null;
+        this.readLimiter = options.readLimit() != null ? new AdaptiveConcurrencyLimiter(options.readLimit()) : null;
+        this.conflictPrecheck = options.conflictPrecheckWindow() > 0 ? new ConflictPrecheck(options.conflictPrecheckWindow()) : null;
+        // Encodes append requests and decodes read responses straight from and into client
+        // records instead of generated messages
+        this.appendMethod = DCBGrpc.getAppendMethod()
+                .toBuilder(new AppendRequestMarshaller(options.queryCache()), DCBGrpc.getAppendMethod().getResponseMarshaller())
+                .build();
+        this.readResponseMarshaller = new ReadResponseMarshaller(options.payloadCompression());
+        this.readMethod = DCBGrpc.getReadMethod()
+                .toBuilder(DCBGrpc.getReadMethod().getRequestMarshaller(), readResponseMarshaller)
+                .build();
+        this.readFlights = options.coalesceRequests() ? new SingleFlight<>() : null;
+        this.headFlights = options.coalesceRequests() ? new SingleFlight<>() : null;
     }
 
     @Override
@@ -111,10 +151,11 @@ public final class UmaDbClientImpl implements UmaDbClient {
     /**
      * Returns the list of gRPC client interceptors to apply.
      * <p>
-     * Currently only used for API key authentication.
+     * Consists of the API key authentication (if configured) and any
+     * additional interceptors configured on the builder.
      */
     private List<ClientInterceptor> resolveClientInterceptors() {
-        var interceptors = new ArrayList<ClientInterceptor>();
+        var interceptors = new ArrayList<ClientInterceptor>(options.interceptors());
         if (optionalApiKey != null) {
             interceptors.add(new ApiKeyInterceptor(optionalApiKey));
         }
@@ -137,17 +178,138 @@ public final class UmaDbClientImpl implements UmaDbClient {
     }
 
     @Override
-    public AppendResponse handle(AppendRequest appendRequest) {
-        var umadbAppendRequest = UmaDbUtils.toUmadbAppendRequest(appendRequest);
+    public AppendResponse handle(AppendRequest appendRequest, RequestOptions requestOptions) {
+        precheck(appendRequest);
+        var requestToSend = compress(optimize(appendRequest));
+        var stub = withDeadline(requestOptions.timeout(), options.appendTimeout());
+        var permit = acquire(appendLimiter);
+        var appendEvent = new AppendEvent();
+        appendEvent.begin();
+        boolean dropped = false;
         try {
-            var umadbAppendResponse = blockingStub.append(umadbAppendRequest);
+            var umadbAppendResponse = ClientCalls.blockingUnaryCall(stub.getChannel(), appendMethod, stub.getCallOptions(), requestToSend);
+            appendEvent.succeeded(umadbAppendResponse.getPosition());
+            if (conflictPrecheck != null) {
+                conflictPrecheck.recordAppended(appendRequest.events(), umadbAppendResponse.getPosition());
+            }
             return new AppendResponse(umadbAppendResponse.getPosition());
         } catch (StatusRuntimeException e) {
-            throw resolveUmaDbException(e);
+            dropped = isDropped(e);
+            var exception = resolveUmaDbException(e);
+            appendEvent.failed(exception);
+            throw exception;
+        } finally {
+            release(permit, dropped);
+            commit(appendEvent, requestToSend);
+        }
+    }
+
+    /**
+     * Returns the request with its condition query optimized, if queries are to be optimized.
+     */
+    private AppendRequest optimize(AppendRequest appendRequest) {
+        var condition = appendRequest.condition();
+        if (!options.optimizeQueries() || condition == null) {
+            return appendRequest;
+        }
+        return new AppendRequest(
+                appendRequest.events(),
+                new AppendCondition(condition.failIfEventsMatch().optimize(), condition.after())
+        );
+    }
+
+    /**
+     * Returns the request with its query optimized, if queries are to be optimized.
+     */
+    private ReadRequest optimize(ReadRequest readRequest) {
+        if (!options.optimizeQueries() || readRequest.query() == null) {
+            return readRequest;
+        }
+        return new ReadRequest(
+                readRequest.query().optimize(),
+                readRequest.start(),
+                readRequest.backwards(),
+                readRequest.limit(),
+                readRequest.subscribe(),
+                readRequest.batchSize()
+        );
+    }
+
+    /**
+     * Returns the request with compressed payloads, or the request itself without compression.
+     */
+    private AppendRequest compress(AppendRequest appendRequest) {
+        var compression = options.payloadCompression();
+        if (compression == null) {
+            return appendRequest;
+        }
+        var events = new ArrayList<Event>(appendRequest.events().size());
+        for (Event event : appendRequest.events()) {
+            events.add(compression.compress(event));
+        }
+        return new AppendRequest(events, appendRequest.condition());
+    }
+
+    /**
+     * Fails fast if a recently seen event is known to violate the append condition.
+     */
+    private void precheck(AppendRequest appendRequest) {
+        if (conflictPrecheck == null) {
+            return;
+        }
+        conflictPrecheck.findConflict(appendRequest).ifPresent(conflict -> {
+            throw new UmaDbException.IntegrityException(
+                    "Append condition failed locally: event at position %d matches the condition query"
+                            .formatted(conflict.position())
+            );
+        });
+    }
+
+    private static AdaptiveConcurrencyLimiter.Permit acquire(AdaptiveConcurrencyLimiter limiter) {
+        return limiter != null ? limiter.acquire() : null;
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter.Permit permit, boolean dropped) {
+        if (permit != null) {
+            permit.release(dropped);
+        }
+    }
+
+    /**
+     * Returns whether a failed call indicates overload and should shrink the concurrency limit.
+     * Application-level failures such as integrity violations are regular RTT samples.
+     */
+    private static boolean isDropped(StatusRuntimeException e) {
+        return switch (e.getStatus().getCode()) {
+            case DEADLINE_EXCEEDED, UNAVAILABLE, RESOURCE_EXHAUSTED -> true;
+            default -> false;
+        };
+    }
+
+    private static void commit(AppendEvent appendEvent, AppendRequest appendRequest) {
+        appendEvent.end();
+        if (appendEvent.shouldCommit()) {
+            var condition = appendRequest.condition();
+            appendEvent.request(
+                    appendRequest.events().size(),
+                    AppendRequestEncoder.serializedSize(appendRequest),
+                    condition != null ? condition.failIfEventsMatch().items().size() : 0,
+                    condition != null
+            );
+            appendEvent.commit();
         }
     }
 
     private static UmaDbException resolveUmaDbException(StatusRuntimeException e) {
+        // gRPC cancels a call whose response cannot be decoded, with the failure as cause
+        if (e.getStatus().getCode() == Status.Code.CANCELLED) {
+            if (e.getCause() instanceof UmaDbException decodeFailure) {
+                return decodeFailure;
+            }
+            if (e.getCause() instanceof UncheckedIOException malformed) {
+                return new UmaDbException.SerializationException("Malformed response: " + malformed.getCause().getMessage(), malformed);
+            }
+        }
         return extractErrorResponse(e)
                 .map(UmaDbClientImpl::toUmaDbException)
                 .orElseGet(() -> toUmaDbException(e));
@@ -166,9 +328,23 @@ public final class UmaDbClientImpl implements UmaDbClient {
         };
     }
 
+    /**
+     * Returns the blocking stub with the per-call timeout applied, falling back
+     * to the default timeout of the operation. Without either, no deadline is set.
+     */
+    private DCBGrpc.DCBBlockingStub withDeadline(Duration timeout, Duration defaultTimeout) {
+        var effectiveTimeout = timeout != null ? timeout : defaultTimeout;
+        if (effectiveTimeout == null) {
+            return blockingStub;
+        }
+        return blockingStub.withDeadlineAfter(effectiveTimeout.toNanos(), NANOSECONDS);
+    }
+
     private static UmaDbException toUmaDbException(StatusRuntimeException e) {
         var errorMessage = e.getMessage();
         return switch (e.getStatus().getCode()) {
+            case DEADLINE_EXCEEDED -> new UmaDbException.TimeoutException(errorMessage);
+            case UNAVAILABLE -> new UmaDbException.IoException(errorMessage);
             case UNAUTHENTICATED -> new UmaDbException.AuthenticationException(errorMessage);
             case FAILED_PRECONDITION -> new UmaDbException.IntegrityException(errorMessage);
             case DATA_LOSS -> new UmaDbException.CorruptionException(errorMessage);
@@ -180,20 +356,7 @@ public final class UmaDbClientImpl implements UmaDbClient {
 
     private static Optional<Umadb.ErrorResponse> extractErrorResponse(StatusRuntimeException e) {
         return Optional.ofNullable(e.getTrailers())
-                .flatMap(UmaDbClientImpl::extractErrorResponseFromMetadata);
-    }
-
-    private static Optional<Umadb.ErrorResponse> extractErrorResponseFromMetadata(Metadata trailers) {
-        try {
-            if (trailers.containsKey(DETAILS)) {
-                return Optional.of(
-                        Umadb.ErrorResponse.parseFrom(trailers.get(DETAILS))
-                );
-            }
-        } catch (InvalidProtocolBufferException ignored) {
-            // Fall back to generic gRPC error handling
-        }
-        return Optional.empty();
+                .flatMap(UmaDbUtils::extractErrorResponse);
     }
 
     private boolean isTlsEnabled() {
@@ -201,22 +364,124 @@ public final class UmaDbClientImpl implements UmaDbClient {
     }
 
     @Override
-    public Iterator<ReadResponse> handle(ReadRequest readRequest) {
-        var umadbReadRequest = UmaDbUtils.toUmadbReadRequest(readRequest);
+    public Iterator<ReadResponse> handle(ReadRequest readRequest, RequestOptions requestOptions) {
+        if (readFlights != null && requestOptions.coalesce() && !Boolean.TRUE.equals(readRequest.subscribe())) {
+            return readFlights.execute(new ReadKey(readRequest, requestOptions), () -> readAll(readRequest, requestOptions)).iterator();
+        }
+        return new ReadResponseIterator(openRead(readMethod, readRequest, requestOptions), readRequest, conflictPrecheck);
+    }
+
+    /**
+     * Receives all responses of a finite read, so they can be handed to every caller sharing it.
+     */
+    private List<ReadResponse> readAll(ReadRequest readRequest, RequestOptions requestOptions) {
+        var responses = new ReadResponseIterator(openRead(readMethod, readRequest, requestOptions), readRequest, conflictPrecheck);
+        var all = new ArrayList<ReadResponse>();
+        while (responses.hasNext()) {
+            all.add(responses.next());
+        }
+        return List.copyOf(all);
+    }
+
+    /**
+     * Returns the compression applied to the payloads of appended events.
+     * <p>
+     * Events that already carry the {@value PayloadCompression#COMPRESSED_TAG} tag are sent
+     * as they are, so callers that need the exact size of a request can compress up front.
+     *
+     * @return the payload compression, or {@code null} if payloads are sent unchanged
+     */
+    public PayloadCompression payloadCompression() {
+        return options.payloadCompression();
+    }
+
+    /**
+     * Reads events like {@link #handle(ReadRequest, RequestOptions)}, but returns the
+     * responses as received from the server without converting them to domain objects.
+     * <p>
+     * Intended for components that process the encoded events directly, such as exports.
+     *
+     * @param readRequest    the read request
+     * @param requestOptions the per-call options
+     * @return an iterator over the raw responses; closing it cancels the read
+     */
+    public Iterator<Umadb.ReadResponse> readRaw(ReadRequest readRequest, RequestOptions requestOptions) {
+        return openRead(DCBGrpc.getReadMethod(), readRequest, requestOptions);
+    }
+
+    /**
+     * Reads events like {@link #handle(ReadRequest, RequestOptions)}, but decodes every
+     * response straight into the columns of a {@link ReadBatch}, without creating records
+     * for its events.
+     * <p>
+     * Batches are not recorded for the conflict precheck, and reads are never coalesced,
+     * since every caller resolves against its own dictionary.
+     *
+     * @param readRequest    the read request
+     * @param requestOptions the per-call options
+     * @param dictionary     the dictionary to resolve types and tags against
+     * @return an iterator over one batch per response; closing it cancels the read
+     * @see ReadBatch#read(UmaDbClient, ReadRequest, StringDictionary)
+     */
+    public Iterator<ReadBatch> readBatches(ReadRequest readRequest, RequestOptions requestOptions, StringDictionary dictionary) {
+        var method = DCBGrpc.getReadMethod()
+                .toBuilder(DCBGrpc.getReadMethod().getRequestMarshaller(), readResponseMarshaller.batches(dictionary))
+                .build();
+        return new ReadBatchIterator(openRead(method, readRequest, requestOptions), readRequest);
+    }
+
+    private <T> ReadCall<T> openRead(MethodDescriptor<Umadb.ReadRequest, T> method,
+                                     ReadRequest readRequest,
+                                     RequestOptions requestOptions) {
+        var umadbReadRequest = UmaDbUtils.toUmadbReadRequest(optimize(readRequest), options.queryCache());
+        // Subscriptions are long-lived, the default read timeout only applies to finite reads
+        var defaultTimeout = Boolean.TRUE.equals(readRequest.subscribe()) ? null : options.readTimeout();
+        var stub = withDeadline(requestOptions.timeout(), defaultTimeout);
+        // Subscriptions may legitimately wait for new events, so only finite reads are limited
+        var permit = Boolean.TRUE.equals(readRequest.subscribe()) ? null : acquire(readLimiter);
+        boolean dropped = false;
+        // The call is bound to its own context, so closing the iterator cancels it from any thread
+        var context = Context.current().withCancellation();
+        var previous = context.attach();
         try {
-            var grpcIterator = blockingStub.read(umadbReadRequest);
-            return new ReadResponseIterator(grpcIterator);
+            var grpcIterator = ClientCalls.blockingServerStreamingCall(stub.getChannel(), method, stub.getCallOptions(), umadbReadRequest);
+            if (permit != null) {
+                // Hold the permit until the first batch arrives, which is the RTT sample of the read
+                grpcIterator.hasNext();
+            }
+            return new ReadCall<>(grpcIterator, context);
         } catch (StatusRuntimeException e) {
+            context.cancel(null);
+            dropped = isDropped(e);
             throw resolveUmaDbException(e);
+        } finally {
+            context.detach(previous);
+            release(permit, dropped);
         }
     }
 
     @Override
-    public long getHeadPosition() {
+    public long getHeadPosition(RequestOptions requestOptions) {
+        if (headFlights != null && requestOptions.coalesce()) {
+            return headFlights.execute(requestOptions, () -> head(requestOptions));
+        }
+        return head(requestOptions);
+    }
+
+    private long head(RequestOptions requestOptions) {
+        var stub = withDeadline(requestOptions.timeout(), options.headTimeout());
+        var headEvent = new HeadEvent();
+        headEvent.begin();
         try {
-            return blockingStub.head(Umadb.HeadRequest.getDefaultInstance()).getPosition();
+            long position = stub.head(Umadb.HeadRequest.getDefaultInstance()).getPosition();
+            headEvent.succeeded(position);
+            return position;
         } catch (StatusRuntimeException e) {
-            throw resolveUmaDbException(e);
+            var exception = resolveUmaDbException(e);
+            headEvent.failed(exception);
+            throw exception;
+        } finally {
+            headEvent.commit();
         }
     }
 
@@ -233,25 +498,201 @@ public final class UmaDbClientImpl implements UmaDbClient {
         }
     }
 
-    private record ReadResponseIterator(Iterator<Umadb.ReadResponse> grpcIterator) implements Iterator<ReadResponse> {
+    /**
+     * Identifies reads that can share one call.
+     */
+    private record ReadKey(ReadRequest readRequest, RequestOptions requestOptions) {
+    }
+
+    /**
+     * Responses of a read call, with failures translated into {@link UmaDbException}s.
+     * <p>
+     * Closing cancels the call, so a thread blocked waiting for the next response fails
+     * instead of waiting for the server.
+     */
+    private record ReadCall<T>(
+            Iterator<T> grpcIterator,
+            Context.CancellableContext context
+    ) implements Iterator<T>, AutoCloseable {
 
         @Override
         public boolean hasNext() {
             try {
-                return grpcIterator.hasNext();
+                if (grpcIterator.hasNext()) {
+                    return true;
+                }
             } catch (StatusRuntimeException e) {
+                context.cancel(null);
                 throw resolveUmaDbException(e);
             }
+            // Completed; releases the context
+            context.cancel(null);
+            return false;
         }
 
         @Override
-        public ReadResponse next() {
+        public T next() {
             try {
-                Umadb.ReadResponse grpcResponse = grpcIterator.next();
-                return UmaDbUtils.toReadResponse(grpcResponse);
+                return grpcIterator.next();
             } catch (StatusRuntimeException e) {
+                context.cancel(null);
                 throw resolveUmaDbException(e);
             }
         }
+
+        @Override
+        public void close() {
+            context.cancel(null);
+        }
+    }
+
+    /**
+     * Responses of a read call, each recorded as a {@link ReadBatchReceivedEvent}.
+     * <p>
+     * The event begins when the consumer starts waiting for a response, which is usually in
+     * {@link #hasNext()}, and ends once the response has been taken.
+     */
+    private abstract static class ReceivedBatchIterator<T, R> implements Iterator<R>, AutoCloseable {
+
+        private final ReadCall<T> call;
+        private final ReadRequest readRequest;
+        private ReadBatchReceivedEvent receivedEvent;
+
+        ReceivedBatchIterator(ReadCall<T> call, ReadRequest readRequest) {
+            this.call = call;
+            this.readRequest = readRequest;
+        }
+
+        @Override
+        public boolean hasNext() {
+            beginReceiving();
+            boolean hasNext;
+            try {
+                hasNext = call.hasNext();
+            } catch (UmaDbException e) {
+                fail(e);
+                throw e;
+            }
+            if (!hasNext) {
+                // The end of the stream is not a batch
+                receivedEvent = null;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public R next() {
+            beginReceiving();
+            T decoded;
+            try {
+                // Decoding happens in the marshaller, see ReadBatchDecodedEvent
+                decoded = call.next();
+            } catch (UmaDbException e) {
+                fail(e);
+                throw e;
+            }
+            var event = receivedEvent;
+            receivedEvent = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.succeeded(eventCount(decoded), serializedSize(decoded));
+                commit(event, readRequest);
+            }
+            return received(decoded);
+        }
+
+        @Override
+        public void close() {
+            call.close();
+        }
+
+        /**
+         * @return the number of events in the response
+         */
+        abstract int eventCount(T decoded);
+
+        /**
+         * @return the serialized size of the response
+         */
+        abstract int serializedSize(T decoded);
+
+        /**
+         * Hands the response to the consumer.
+         */
+        abstract R received(T decoded);
+
+        private void beginReceiving() {
+            if (receivedEvent == null) {
+                receivedEvent = new ReadBatchReceivedEvent();
+                receivedEvent.begin();
+            }
+        }
+
+        private void fail(UmaDbException e) {
+            var event = receivedEvent;
+            receivedEvent = null;
+            event.failed(e);
+            commit(event, readRequest);
+        }
+    }
+
+    private static final class ReadResponseIterator extends ReceivedBatchIterator<DecodedReadResponse, ReadResponse> {
+
+        private final ConflictPrecheck conflictPrecheck;
+
+        ReadResponseIterator(ReadCall<DecodedReadResponse> call, ReadRequest readRequest, ConflictPrecheck conflictPrecheck) {
+            super(call, readRequest);
+            this.conflictPrecheck = conflictPrecheck;
+        }
+
+        @Override
+        int eventCount(DecodedReadResponse decoded) {
+            return decoded.response().events().size();
+        }
+
+        @Override
+        int serializedSize(DecodedReadResponse decoded) {
+            return decoded.serializedSize();
+        }
+
+        @Override
+        ReadResponse received(DecodedReadResponse decoded) {
+            var readResponse = decoded.response();
+            if (conflictPrecheck != null) {
+                conflictPrecheck.record(readResponse.events());
+            }
+            return readResponse;
+        }
+    }
+
+    private static final class ReadBatchIterator extends ReceivedBatchIterator<DecodedReadBatch, ReadBatch> {
+
+        ReadBatchIterator(ReadCall<DecodedReadBatch> call, ReadRequest readRequest) {
+            super(call, readRequest);
+        }
+
+        @Override
+        int eventCount(DecodedReadBatch decoded) {
+            return decoded.batch().size();
+        }
+
+        @Override
+        int serializedSize(DecodedReadBatch decoded) {
+            return decoded.serializedSize();
+        }
+
+        @Override
+        ReadBatch received(DecodedReadBatch decoded) {
+            return decoded.batch();
+        }
+    }
+
+    private static void commit(ReadBatchReceivedEvent receivedEvent, ReadRequest readRequest) {
+        var query = readRequest.query();
+        receivedEvent.request(
+                query != null ? query.items().size() : 0,
+                Boolean.TRUE.equals(readRequest.subscribe())
+        );
+        receivedEvent.commit();
     }
 }
@@ -1,14 +1,26 @@
 package io.umadb.client.grpc;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Metadata;
 import io.umadb.client.*;
 import umadb.v1.Umadb;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.google.protobuf.ByteString.copyFrom;
 
 public final class UmaDbUtils {
 
+    /**
+     * gRPC metadata key used to extract structured UmaDB error details
+     * returned by the server.
+     */
+    private static final Metadata.Key<byte[]> DETAILS = Metadata.Key.of(
+            "grpc-status-details-bin",
+            Metadata.BINARY_BYTE_MARSHALLER
+    );
+
     private UmaDbUtils() {
         // utility class
     }
@@ -38,6 +50,14 @@ public final class UmaDbUtils {
         return eventBuilder.build();
     }
 
+    /**
+     * Returns the exact number of bytes the given event adds to a serialized
+     * {@code AppendRequest}, including its field tag and length prefix.
+     */
+    public static int appendRequestEventSize(Event event) {
+        return AppendRequestEncoder.eventFieldSize(event);
+    }
+
     public static Umadb.AppendCondition toUmadbAppendCondition(AppendCondition appendCondition) {
         var umaDbQuery = toUmadbQuery(appendCondition.failIfEventsMatch());
         var builder = Umadb.AppendCondition.newBuilder()
@@ -64,9 +84,21 @@ public final class UmaDbUtils {
     }
 
     public static Umadb.ReadRequest toUmadbReadRequest(ReadRequest readRequest) {
+        return toUmadbReadRequest(readRequest, null);
+    }
+
+    /**
+     * Converts the read request, taking the encoded query from the given cache.
+     *
+     * @param readRequest the request to convert
+     * @param queryCache  the cache of encoded queries, or {@code null} to encode the query
+     */
+    public static Umadb.ReadRequest toUmadbReadRequest(ReadRequest readRequest, QueryCache queryCache) {
         var readRequestBuilder = Umadb.ReadRequest.newBuilder();
         if (readRequest.query() != null) {
-            readRequestBuilder.setQuery(toUmadbQuery(readRequest.query()));
+            readRequestBuilder.setQuery(queryCache != null
+                    ? queryCache.toUmadbQuery(readRequest.query())
+                    : toUmadbQuery(readRequest.query()));
         }
         if (readRequest.start() != null) {
             readRequestBuilder.setStart(readRequest.start());
@@ -87,7 +119,9 @@ public final class UmaDbUtils {
     }
 
     public static ReadResponse toReadResponse(Umadb.ReadResponse umadbReadResponse) {
-        var sequencedEvents = umadbReadResponse.getEventsList().stream().map(UmaDbUtils::toSequencedEvent).toList();
+        var sequencedEvents = umadbReadResponse.getEventsList().stream()
+                .map(UmaDbUtils::toSequencedEvent)
+                .toList();
         return new ReadResponse(
                 sequencedEvents,
                 umadbReadResponse.getHead()
@@ -110,6 +144,25 @@ public final class UmaDbUtils {
         );
     }
 
+    /**
+     * Extracts the structured UmaDB error details from the trailers of a failed call.
+     *
+     * @param trailers the trailers returned by the server
+     * @return the error response, or empty if the trailers carry no (valid) details
+     */
+    public static Optional<Umadb.ErrorResponse> extractErrorResponse(Metadata trailers) {
+        try {
+            if (trailers.containsKey(DETAILS)) {
+                return Optional.of(
+                        Umadb.ErrorResponse.parseFrom(trailers.get(DETAILS))
+                );
+            }
+        } catch (InvalidProtocolBufferException ignored) {
+            // Fall back to generic gRPC error handling
+        }
+        return Optional.empty();
+    }
+
     private static boolean isNullOrBlank(String s) {
         return s == null || s.isBlank();
     }
@@ -0,0 +1,97 @@
+package io.umadb.client.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Converts between {@link UUID}s and their canonical ASCII form on the wire
+ * without going through intermediate strings.
+ */
+final class Uuids {
+
+    /**
+     * Length of the canonical form, e.g. {@code 123e4567-e89b-12d3-a456-426614174000}.
+     */
+    static final int CANONICAL_LENGTH = 36;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private Uuids() {
+    }
+
+    /**
+     * Parses the UUID encoded as ASCII in the given range.
+     * <p>
+     * The canonical form is parsed in place; other forms accepted by {@link UUID#fromString(String)}
+     * fall back to it.
+     *
+     * @param bytes  the buffer holding the encoded UUID
+     * @param offset the offset of the first character
+     * @param length the number of characters
+     * @return the parsed UUID
+     * @throws IllegalArgumentException if the range does not hold a valid UUID
+     */
+    static UUID parse(byte[] bytes, int offset, int length) {
+        if (length == CANONICAL_LENGTH
+                && bytes[offset + 8] == '-'
+                && bytes[offset + 13] == '-'
+                && bytes[offset + 18] == '-'
+                && bytes[offset + 23] == '-') {
+            long timeLow = parseHex(bytes, offset, 8);
+            long timeMid = parseHex(bytes, offset + 9, 4);
+            long timeHigh = parseHex(bytes, offset + 14, 4);
+            long clockSeq = parseHex(bytes, offset + 19, 4);
+            long node = parseHex(bytes, offset + 24, 12);
+            if ((timeLow | timeMid | timeHigh | clockSeq | node) >= 0) {
+                return new UUID(timeLow << 32 | timeMid << 16 | timeHigh, clockSeq << 48 | node);
+            }
+        }
+        return UUID.fromString(new String(bytes, offset, length, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes the canonical lower-case form of the UUID, as produced by {@link UUID#toString()}.
+     *
+     * @param uuid   the UUID to format
+     * @param target the buffer to write to
+     * @param offset the offset of the first character; {@link #CANONICAL_LENGTH} bytes are written
+     */
+    static void format(UUID uuid, byte[] target, int offset) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        formatHex(msb >>> 32, target, offset, 8);
+        target[offset + 8] = '-';
+        formatHex(msb >>> 16, target, offset + 9, 4);
+        target[offset + 13] = '-';
+        formatHex(msb, target, offset + 14, 4);
+        target[offset + 18] = '-';
+        formatHex(lsb >>> 48, target, offset + 19, 4);
+        target[offset + 23] = '-';
+        formatHex(lsb, target, offset + 24, 12);
+    }
+
+    /**
+     * Writes the lowest {@code digits} hex digits of the value.
+     */
+    private static void formatHex(long value, byte[] target, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = HEX_DIGITS[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * Parses the given number of hex digits, returning {@code -1} for invalid input.
+     */
+    private static long parseHex(byte[] bytes, int offset, int digits) {
+        long value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            int digit = Character.digit(bytes[i] & 0xFF, 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+}
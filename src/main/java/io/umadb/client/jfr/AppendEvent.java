@@ -0,0 +1,72 @@
+package io.umadb.client.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event emitted for every append RPC.
+ * <p>
+ * The event duration covers the full blocking round trip to the server.
+ * It can be toggled through JFR settings using the name {@code io.umadb.Append}.
+ */
+@Name("io.umadb.Append")
+@Label("UmaDB Append")
+@Category({"UmaDB", "Client"})
+@Description("Appends events to the UmaDB event store")
+@StackTrace(false)
+public final class AppendEvent extends Event {
+
+    @Label("Event Count")
+    private int eventCount;
+
+    @Label("Byte Size")
+    @DataAmount
+    private long byteSize;
+
+    @Label("Conditional")
+    private boolean conditional;
+
+    @Label("Query Size")
+    @Description("Number of query items in the append condition")
+    private int querySize;
+
+    @Label("Position")
+    private long position;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Records the request shape. Only called once the event is known to be committed,
+     * so computing the serialized size costs nothing while the event is disabled.
+     *
+     * @param eventCount the number of events in the request
+     * @param byteSize   the serialized size of the request
+     * @param querySize  the number of items in the condition query, or {@code 0}
+     * @param conditional whether the request carried an append condition
+     */
+    public void request(int eventCount, long byteSize, int querySize, boolean conditional) {
+        this.eventCount = eventCount;
+        this.byteSize = byteSize;
+        this.querySize = querySize;
+        this.conditional = conditional;
+    }
+
+    /**
+     * Marks the append as successful.
+     *
+     * @param position the position returned by the server
+     */
+    public void succeeded(long position) {
+        this.position = position;
+        this.outcome = Outcomes.SUCCESS;
+    }
+
+    /**
+     * Marks the append as failed.
+     *
+     * @param failure the exception surfaced to the caller
+     */
+    public void failed(Throwable failure) {
+        this.outcome = Outcomes.of(failure);
+    }
+}
@@ -0,0 +1,41 @@
+package io.umadb.client.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event emitted for every head RPC.
+ * <p>
+ * It can be toggled through JFR settings using the name {@code io.umadb.Head}.
+ */
+@Name("io.umadb.Head")
+@Label("UmaDB Head")
+@Category({"UmaDB", "Client"})
+@Description("Retrieves the head position of the UmaDB event store")
+@StackTrace(false)
+public final class HeadEvent extends Event {
+
+    @Label("Position")
+    private long position;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Marks the call as successful.
+     *
+     * @param position the head position returned by the server
+     */
+    public void succeeded(long position) {
+        this.position = position;
+        this.outcome = Outcomes.SUCCESS;
+    }
+
+    /**
+     * Marks the call as failed.
+     *
+     * @param failure the exception surfaced to the caller
+     */
+    public void failed(Throwable failure) {
+        this.outcome = Outcomes.of(failure);
+    }
+}
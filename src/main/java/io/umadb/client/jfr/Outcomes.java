@@ -0,0 +1,21 @@
+package io.umadb.client.jfr;
+
+/**
+ * Outcome labels shared by all UmaDB flight recorder events.
+ */
+final class Outcomes {
+
+    static final String SUCCESS = "success";
+
+    private Outcomes() {
+        // utility class
+    }
+
+    /**
+     * Returns the outcome label for a failure, which is the simple name
+     * of the exception type (e.g. {@code IntegrityException}).
+     */
+    static String of(Throwable failure) {
+        return failure.getClass().getSimpleName();
+    }
+}
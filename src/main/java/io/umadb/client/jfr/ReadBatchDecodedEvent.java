@@ -0,0 +1,32 @@
+package io.umadb.client.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event emitted after a received read batch has been
+ * decoded into client records.
+ * <p>
+ * The event duration covers only the decoding work.
+ * Disabled by default because it fires once per batch. Enable it through JFR settings
+ * using the name {@code io.umadb.ReadBatchDecoded}.
+ */
+@Name("io.umadb.ReadBatchDecoded")
+@Label("UmaDB Read Batch Decoded")
+@Category({"UmaDB", "Client"})
+@Description("A received batch of events decoded into client records")
+@StackTrace(false)
+@Enabled(false)
+public final class ReadBatchDecodedEvent extends Event {
+
+    @Label("Event Count")
+    private int eventCount;
+
+    /**
+     * Records the number of decoded events.
+     *
+     * @param eventCount the number of events in the batch
+     */
+    public void decoded(int eventCount) {
+        this.eventCount = eventCount;
+    }
+}
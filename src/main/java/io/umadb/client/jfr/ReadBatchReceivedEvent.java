@@ -0,0 +1,72 @@
+package io.umadb.client.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event emitted whenever a read batch arrives from the server.
+ * <p>
+ * The event duration covers the time the consumer was blocked waiting for the batch, from
+ * the call to {@code hasNext()} or {@code next()} that started waiting until the batch was
+ * taken. For subscriptions this includes idle time until new events are appended. A read
+ * that fails while waiting is recorded with the failure as outcome.
+ * <p>
+ * Disabled by default because it fires once per batch. Enable it through JFR settings
+ * using the name {@code io.umadb.ReadBatchReceived}.
+ */
+@Name("io.umadb.ReadBatchReceived")
+@Label("UmaDB Read Batch Received")
+@Category({"UmaDB", "Client"})
+@Description("A batch of events received from a read or subscription")
+@StackTrace(false)
+@Enabled(false)
+public final class ReadBatchReceivedEvent extends Event {
+
+    @Label("Event Count")
+    private int eventCount;
+
+    @Label("Byte Size")
+    @DataAmount
+    private long byteSize;
+
+    @Label("Query Size")
+    @Description("Number of query items in the read request")
+    private int querySize;
+
+    @Label("Subscription")
+    private boolean subscription;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Records the request shape.
+     *
+     * @param querySize    the number of items in the read query, or {@code 0}
+     * @param subscription whether the read is a subscription
+     */
+    public void request(int querySize, boolean subscription) {
+        this.querySize = querySize;
+        this.subscription = subscription;
+    }
+
+    /**
+     * Marks the batch as successfully received.
+     *
+     * @param eventCount the number of events in the batch
+     * @param byteSize   the serialized size of the batch
+     */
+    public void succeeded(int eventCount, long byteSize) {
+        this.eventCount = eventCount;
+        this.byteSize = byteSize;
+        this.outcome = Outcomes.SUCCESS;
+    }
+
+    /**
+     * Marks the read as failed.
+     *
+     * @param failure the exception surfaced to the caller
+     */
+    public void failed(Throwable failure) {
+        this.outcome = Outcomes.of(failure);
+    }
+}
@@ -0,0 +1,47 @@
+package io.umadb.client.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event emitted whenever a catch-up subscription reconnects after its
+ * read failed.
+ * <p>
+ * The event duration covers the backoff before the read is reopened.
+ * It can be toggled through JFR settings using the name {@code io.umadb.SubscriptionReconnect}.
+ */
+@Name("io.umadb.SubscriptionReconnect")
+@Label("UmaDB Subscription Reconnect")
+@Category({"UmaDB", "Client"})
+@Description("Reopens a subscription after its read failed")
+@StackTrace(false)
+public final class SubscriptionReconnectEvent extends Event {
+
+    @Label("Attempt")
+    @Description("Number of consecutive reconnects without receiving an event")
+    private int attempt;
+
+    @Label("Resume Position")
+    private long resumePosition;
+
+    @Label("Live")
+    @Description("Whether the subscription was live when the read failed")
+    private boolean live;
+
+    @Label("Cause")
+    private String cause;
+
+    /**
+     * Records the reconnect.
+     *
+     * @param attempt        the number of consecutive reconnects
+     * @param resumePosition the position after which the read is reopened
+     * @param live           whether the subscription was live when the read failed
+     * @param failure        the exception that ended the read
+     */
+    public void reconnect(int attempt, long resumePosition, boolean live, Throwable failure) {
+        this.attempt = attempt;
+        this.resumePosition = resumePosition;
+        this.live = live;
+        this.cause = Outcomes.of(failure);
+    }
+}
@@ -0,0 +1,234 @@
+package io.umadb.client.otel;
+
+import io.grpc.*;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.umadb.client.AppendRequest;
+import io.umadb.client.Event;
+import io.umadb.client.grpc.DecodedReadBatch;
+import io.umadb.client.grpc.DecodedReadResponse;
+import io.umadb.client.grpc.UmaDbUtils;
+import umadb.v1.Umadb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * gRPC client interceptor that records UmaDB calls as OpenTelemetry spans
+ * and propagates the trace context in the request metadata.
+ * <p>
+ * Every RPC becomes a {@link SpanKind#CLIENT} span named after the full gRPC method
+ * (e.g. {@code umadb.v1.DCB/Append}). Besides the standard {@code rpc.*} attributes,
+ * spans carry:
+ * <ul>
+ *   <li>{@code umadb.event.count} and {@code umadb.event.types} for appends and reads</li>
+ *   <li>{@code umadb.append.conditional} and {@code umadb.append.position} for appends</li>
+ *   <li>{@code umadb.query.items} and {@code umadb.read.subscribe} for reads</li>
+ *   <li>{@code umadb.error.type} mapped from the server's {@code ErrorResponse.ErrorType}</li>
+ * </ul>
+ *
+ * <p>
+ * Attributes are only computed for recording spans, so sampled-out calls and a
+ * no-op {@link OpenTelemetry} instance cost close to nothing. The trace context is
+ * injected using the configured {@link TextMapPropagator} (W3C trace context by default
+ * in the OpenTelemetry SDK).
+ *
+ * <p>
+ * OpenTelemetry is an optional dependency; it must be on the classpath when this class is used.
+ *
+ * <pre>{@code
+ * UmaDbClient client = UmaDbClient.builder()
+ *     .withHostAndPort("localhost", 50051)
+ *     .withTracing(openTelemetry)
+ *     .build();
+ * }</pre>
+ */
+public final class TracingInterceptor implements ClientInterceptor {
+
+    private static final String INSTRUMENTATION_NAME = "io.umadb.client";
+
+    static final AttributeKey<String> RPC_SYSTEM = AttributeKey.stringKey("rpc.system");
+    static final AttributeKey<String> RPC_SERVICE = AttributeKey.stringKey("rpc.service");
+    static final AttributeKey<String> RPC_METHOD = AttributeKey.stringKey("rpc.method");
+    static final AttributeKey<Long> RPC_GRPC_STATUS_CODE = AttributeKey.longKey("rpc.grpc.status_code");
+    static final AttributeKey<Long> EVENT_COUNT = AttributeKey.longKey("umadb.event.count");
+    static final AttributeKey<List<String>> EVENT_TYPES = AttributeKey.stringArrayKey("umadb.event.types");
+    static final AttributeKey<Boolean> APPEND_CONDITIONAL = AttributeKey.booleanKey("umadb.append.conditional");
+    static final AttributeKey<Long> APPEND_POSITION = AttributeKey.longKey("umadb.append.position");
+    static final AttributeKey<Long> QUERY_ITEMS = AttributeKey.longKey("umadb.query.items");
+    static final AttributeKey<Boolean> READ_SUBSCRIBE = AttributeKey.booleanKey("umadb.read.subscribe");
+    static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("umadb.error.type");
+
+    private static final TextMapSetter<Metadata> METADATA_SETTER = (carrier, key, value) -> {
+        if (carrier != null) {
+            carrier.put(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER), value);
+        }
+    };
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    /**
+     * Creates a new tracing interceptor.
+     *
+     * @param openTelemetry the OpenTelemetry instance providing the tracer and propagators
+     * @throws IllegalArgumentException if {@code openTelemetry} is {@code null}
+     */
+    public TracingInterceptor(OpenTelemetry openTelemetry) {
+        if (openTelemetry == null) {
+            throw new IllegalArgumentException("openTelemetry must not be null");
+        }
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next
+    ) {
+        Context parent = Context.current();
+        Span span = tracer.spanBuilder(method.getFullMethodName())
+                .setParent(parent)
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute(RPC_SYSTEM, "grpc")
+                .setAttribute(RPC_SERVICE, method.getServiceName())
+                .setAttribute(RPC_METHOD, method.getBareMethodName())
+                .startSpan();
+
+        if (!span.getSpanContext().isValid()) {
+            // Tracing is disabled, nothing to record or propagate
+            return next.newCall(method, callOptions);
+        }
+        return new TracingClientCall<>(next.newCall(method, callOptions), span, parent.with(span));
+    }
+
+    private final class TracingClientCall<ReqT, RespT>
+            extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final Span span;
+        private final Context context;
+
+        private TracingClientCall(ClientCall<ReqT, RespT> delegate, Span span, Context context) {
+            super(delegate);
+            this.span = span;
+            this.context = context;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            propagator.inject(context, headers, METADATA_SETTER);
+            super.start(new TracingListener<>(responseListener, span), headers);
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (span.isRecording()) {
+                recordRequest(span, message);
+            }
+            super.sendMessage(message);
+        }
+    }
+
+    private static final class TracingListener<RespT>
+            extends ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT> {
+
+        private final Span span;
+        private long receivedEvents;
+
+        private TracingListener(ClientCall.Listener<RespT> delegate, Span span) {
+            super(delegate);
+            this.span = span;
+        }
+
+        @Override
+        public void onMessage(RespT message) {
+            if (span.isRecording()) {
+                if (message instanceof Umadb.AppendResponse appendResponse) {
+                    span.setAttribute(APPEND_POSITION, appendResponse.getPosition());
+                } else if (message instanceof Umadb.ReadResponse readResponse) {
+                    receivedEvents += readResponse.getEventsCount();
+                } else if (message instanceof DecodedReadResponse decoded) {
+                    // Reads of the client are decoded straight into client records
+                    receivedEvents += decoded.response().events().size();
+                } else if (message instanceof DecodedReadBatch decoded) {
+                    receivedEvents += decoded.batch().size();
+                }
+            }
+            super.onMessage(message);
+        }
+
+        @Override
+        public void onClose(Status status, Metadata trailers) {
+            try {
+                recordClose(status, trailers);
+            } finally {
+                span.end();
+            }
+            super.onClose(status, trailers);
+        }
+
+        private void recordClose(Status status, Metadata trailers) {
+            if (!span.isRecording()) {
+                return;
+            }
+            span.setAttribute(RPC_GRPC_STATUS_CODE, (long) status.getCode().value());
+            if (receivedEvents > 0) {
+                span.setAttribute(EVENT_COUNT, receivedEvents);
+            }
+            if (!status.isOk()) {
+                if (status.getDescription() != null) {
+                    span.setStatus(StatusCode.ERROR, status.getDescription());
+                } else {
+                    span.setStatus(StatusCode.ERROR);
+                }
+                String errorType = trailers == null ? null : UmaDbUtils.extractErrorResponse(trailers)
+                        .map(errorResponse -> errorResponse.getErrorType().name())
+                        .orElse(null);
+                span.setAttribute(ERROR_TYPE, errorType != null ? errorType : status.getCode().name());
+            }
+        }
+    }
+
+    private static void recordRequest(Span span, Object message) {
+        if (message instanceof AppendRequest appendRequest) {
+            // Appends of the client are encoded straight from client records
+            span.setAttribute(EVENT_COUNT, (long) appendRequest.events().size());
+            span.setAttribute(EVENT_TYPES, distinctTypes(appendRequest.events().stream().map(Event::type).toList()));
+            span.setAttribute(APPEND_CONDITIONAL, appendRequest.condition() != null);
+            if (appendRequest.condition() != null) {
+                span.setAttribute(QUERY_ITEMS, (long) appendRequest.condition().failIfEventsMatch().items().size());
+            }
+        } else if (message instanceof Umadb.AppendRequest appendRequest) {
+            span.setAttribute(EVENT_COUNT, (long) appendRequest.getEventsCount());
+            span.setAttribute(EVENT_TYPES, distinctTypes(appendRequest.getEventsList().stream().map(Umadb.Event::getEventType).toList()));
+            span.setAttribute(APPEND_CONDITIONAL, appendRequest.hasCondition());
+            if (appendRequest.hasCondition()) {
+                span.setAttribute(QUERY_ITEMS, (long) appendRequest.getCondition().getFailIfEventsMatch().getItemsCount());
+            }
+        } else if (message instanceof Umadb.ReadRequest readRequest) {
+            span.setAttribute(READ_SUBSCRIBE, readRequest.getSubscribe());
+            if (readRequest.hasQuery()) {
+                span.setAttribute(QUERY_ITEMS, (long) readRequest.getQuery().getItemsCount());
+            }
+        }
+    }
+
+    private static List<String> distinctTypes(List<String> eventTypes) {
+        var types = new ArrayList<String>();
+        for (String eventType : eventTypes) {
+            if (!types.contains(eventType)) {
+                types.add(eventType);
+            }
+        }
+        return types;
+    }
+}
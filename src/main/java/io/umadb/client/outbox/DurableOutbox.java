@@ -0,0 +1,517 @@
+package io.umadb.client.outbox;
+
+import io.umadb.client.*;
+import io.umadb.client.append.IdempotentAppender;
+import io.umadb.client.grpc.UmaDbUtils;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind outbox that decouples producers from the availability of the server.
+ * <p>
+ * {@link #append(AppendRequest)} persists the request to a local, memory-mapped, append-only
+ * segment file and returns once it has been flushed to disk. Concurrent appends are flushed
+ * together (group commit), so a single flush covers many producers. A background thread
+ * drains the outbox to the server in large append requests whenever it is reachable,
+ * retrying with a backoff otherwise.
+ * <p>
+ * Events are drained in the order they were appended to the outbox, with their ids. Drained
+ * requests are sent through an {@link IdempotentAppender}. Before a batch is sent, its extent
+ * is recorded in the segment file; a batch whose outcome is unknown is resent exactly as it
+ * was, also after a restart, and verified first. As all events of a request are written
+ * atomically, neither a failed attempt nor a crash between sending and recording the progress
+ * duplicates events.
+ * <p>
+ * A record that cannot be decoded is copied to a {@code .corrupt} file in the directory and
+ * skipped, and the failure is reported through {@link #lastError()}.
+ * <p>
+ * Only unconditional appends can be buffered, as a condition can only be checked at the
+ * time of the append. Fully drained segment files are deleted.
+ *
+ * <pre>{@code
+ * try (DurableOutbox outbox = new DurableOutbox(client, OutboxOptions.defaults(Path.of("outbox")))) {
+ *     outbox.append(AppendRequest.of(List.of(orderPlaced)));
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is thread-safe.
+ */
+public final class DurableOutbox implements AutoCloseable {
+
+    private final OutboxOptions options;
+    private final IdempotentAppender appender;
+    private final Consumer<OutboxSegment> flush;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+
+    private final ArrayDeque<OutboxSegment> segments = new ArrayDeque<>();
+    private long appendedCount;
+    private long syncedCount;
+    private long quarantinedCount;
+    private boolean closed;
+    private IOException syncFailure;
+
+    private volatile UmaDbException lastError;
+
+    private final Thread syncThread;
+    private final Thread drainThread;
+
+    /**
+     * Opens the outbox in the configured directory, recovering pending records of a previous
+     * run, and starts draining.
+     *
+     * @param client  the client to drain to
+     * @param options the outbox settings
+     * @throws IllegalArgumentException if {@code client} or {@code options} is {@code null}
+     * @throws IOException              if the segment files cannot be created or read
+     */
+    public DurableOutbox(UmaDbClient client, OutboxOptions options) throws IOException {
+        this(client, options, OutboxSegment::force);
+    }
+
+    DurableOutbox(UmaDbClient client, OutboxOptions options, Consumer<OutboxSegment> flush) throws IOException {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options must not be null");
+        }
+        this.options = options;
+        this.appender = new IdempotentAppender(client);
+        this.flush = flush;
+
+        Files.createDirectories(options.directory());
+        try (Stream<Path> files = Files.list(options.directory())) {
+            for (Path file : files.filter(DurableOutbox::isSegmentFile).sorted().toList()) {
+                segments.add(OutboxSegment.open(file, segmentId(file)));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(OutboxSegment.create(options.directory(), 0, options.segmentBytes()));
+        }
+
+        this.syncThread = new Thread(this::syncLoop, "umadb-outbox-sync");
+        this.drainThread = new Thread(this::drainLoop, "umadb-outbox-drain");
+        syncThread.setDaemon(true);
+        drainThread.setDaemon(true);
+        syncThread.start();
+        drainThread.start();
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        var name = file.getFileName().toString();
+        return name.startsWith("outbox-") && name.endsWith(".seg");
+    }
+
+    private static long segmentId(Path file) {
+        var name = file.getFileName().toString();
+        return Long.parseLong(name.substring("outbox-".length(), name.length() - ".seg".length()));
+    }
+
+    /**
+     * Persists the events of the given request and returns once they have been flushed to
+     * disk. The events are appended to the server asynchronously.
+     *
+     * @param appendRequest the unconditional request to buffer
+     * @throws IllegalArgumentException if the request has a condition or does not fit into a segment
+     * @throws IllegalStateException    if the outbox is closed
+     * @throws UncheckedIOException     if a new segment file cannot be created, or the outbox
+     *                                  could not be flushed to disk; the events may still be drained
+     */
+    public void append(AppendRequest appendRequest) {
+        if (appendRequest == null) {
+            throw new IllegalArgumentException("appendRequest must not be null");
+        }
+        if (appendRequest.condition() != null) {
+            throw new IllegalArgumentException("only unconditional appends can be buffered in the outbox");
+        }
+        byte[] payload = UmaDbUtils.toUmadbAppendRequest(appendRequest).toByteArray();
+        if (payload.length > options.segmentBytes() - OutboxSegment.HEADER_BYTES - OutboxSegment.RECORD_OVERHEAD) {
+            throw new IllegalArgumentException("append request of %d bytes does not fit into a segment".formatted(payload.length));
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("outbox is closed");
+            }
+            throwIfSyncFailed();
+            var active = segments.getLast();
+            if (!active.hasRoom(payload.length)) {
+                flush.accept(active);
+                active = OutboxSegment.create(options.directory(), active.id() + 1, options.segmentBytes());
+                segments.add(active);
+            }
+            active.write(payload);
+            long ticket = ++appendedCount;
+            written.signalAll();
+            while (syncedCount < ticket && syncFailure == null) {
+                synced.awaitUninterruptibly();
+            }
+            if (syncedCount < ticket) {
+                throwIfSyncFailed();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fails once flushing to disk has failed. What reached the disk after a failed flush is
+     * unknown, so the outbox does not accept further appends.
+     */
+    private void throwIfSyncFailed() {
+        if (syncFailure != null) {
+            throw new UncheckedIOException("outbox could not be flushed to disk", syncFailure);
+        }
+    }
+
+    /**
+     * Waits until all buffered events have been appended to the server.
+     *
+     * @param timeout the maximum time to wait
+     * @return {@code true} if the outbox is empty, {@code false} if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (pendingBytesLocked() > 0) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = drained.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of buffered requests not yet appended to the server.
+     *
+     * @return the number of pending bytes
+     */
+    public long pendingBytes() {
+        lock.lock();
+        try {
+            return pendingBytesLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long pendingBytesLocked() {
+        long pending = 0;
+        for (OutboxSegment segment : segments) {
+            pending += segment.writeOffset() - segment.drainedOffset();
+        }
+        return pending;
+    }
+
+    /**
+     * Returns the error of the last failed attempt to drain, or {@code null} if the last
+     * attempt succeeded.
+     *
+     * @return the last drain error
+     */
+    public UmaDbException lastError() {
+        return lastError;
+    }
+
+    /**
+     * Returns the number of records that could not be decoded and were moved to
+     * {@code .corrupt} files instead of being drained.
+     *
+     * @return the number of quarantined records
+     */
+    public long quarantined() {
+        lock.lock();
+        try {
+            return quarantinedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops draining and closes the outbox. Pending events remain on disk and are drained
+     * by the next outbox opened on the same directory.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncThread.join();
+            drainThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Flushes written records to disk, covering all appends since the previous flush.
+     * Stops at the first failed flush, which fails the waiting and all further appends.
+     */
+    private void syncLoop() {
+        while (true) {
+            OutboxSegment segment;
+            long target;
+            lock.lock();
+            try {
+                while (syncedCount == appendedCount && !closed) {
+                    written.awaitUninterruptibly();
+                }
+                if (syncedCount == appendedCount) {
+                    return;
+                }
+                // Earlier segments have been flushed when they were rolled over
+                segment = segments.getLast();
+                target = appendedCount;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failure = null;
+            try {
+                flush.accept(segment);
+            } catch (RuntimeException e) {
+                failure = e instanceof UncheckedIOException io ? io.getCause() : new IOException(e);
+            }
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                } else {
+                    syncedCount = target;
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (failure != null) {
+                return;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        Batch batch = null;
+        boolean uncertain = false;
+        while (true) {
+            if (batch == null) {
+                batch = nextBatch();
+                if (batch == null) {
+                    return;
+                }
+                // A batch recovered from a previous run may have been written before it stopped
+                uncertain = batch.recovered();
+            } else if (isClosed()) {
+                return;
+            }
+
+            try {
+                if (uncertain) {
+                    appender.retry(batch.request());
+                } else {
+                    appender.append(batch.request());
+                }
+                lastError = null;
+            } catch (UmaDbException e) {
+                lastError = e;
+                // The batch may have been written even though it failed, so it is resent
+                // unchanged and verified first
+                uncertain = true;
+                backOff();
+                continue;
+            }
+
+            lock.lock();
+            try {
+                batch.segment().markDrained(batch.end());
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            batch = null;
+        }
+    }
+
+    /**
+     * Waits for pending records and returns the next batch, or {@code null} once the outbox is
+     * closed. A batch left in flight by a previous run is returned with the same records.
+     */
+    private Batch nextBatch() {
+        while (true) {
+            OutboxSegment segment;
+            boolean recovered;
+            List<byte[]> payloads = new ArrayList<>();
+            List<Integer> offsets = new ArrayList<>();
+            lock.lock();
+            try {
+                while (!closed && nothingToDrain()) {
+                    written.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return null;
+                }
+                segment = segments.getFirst();
+                recovered = segment.hasInFlight();
+                int limit = recovered ? segment.inFlightOffset() : segment.writeOffset();
+                int offset = segment.drainedOffset();
+                // Every record holds at least one event
+                while (offset < limit && (recovered || payloads.size() < options.drainBatchSize())) {
+                    payloads.add(segment.read(offset));
+                    offsets.add(offset);
+                    offset = segment.next(offset);
+                }
+                offsets.add(offset);
+            } finally {
+                lock.unlock();
+            }
+
+            var events = new ArrayList<Event>();
+            int count = 0;
+            for (; count < payloads.size(); count++) {
+                List<Event> recordEvents;
+                try {
+                    recordEvents = decode(payloads.get(count));
+                } catch (IOException | IllegalArgumentException e) {
+                    if (count == 0) {
+                        quarantine(segment, offsets.get(0), offsets.get(1), e);
+                    }
+                    // Otherwise quarantined once it is the first pending record
+                    break;
+                }
+                if (!recovered && !events.isEmpty() && events.size() + recordEvents.size() > options.drainBatchSize()) {
+                    break;
+                }
+                events.addAll(recordEvents);
+            }
+            if (count == 0) {
+                continue;
+            }
+
+            int end = offsets.get(count);
+            if (!recovered) {
+                lock.lock();
+                try {
+                    segment.markInFlight(end);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return new Batch(segment, end, AppendRequest.of(events), recovered);
+        }
+    }
+
+    private static List<Event> decode(byte[] payload) throws IOException {
+        var request = Umadb.AppendRequest.parseFrom(payload);
+        var events = new ArrayList<Event>(request.getEventsCount());
+        request.getEventsList().forEach(event -> events.add(UmaDbUtils.toEvent(event)));
+        return events;
+    }
+
+    /**
+     * Moves an undecodable record out of the way, so that the records after it are drained.
+     */
+    private void quarantine(OutboxSegment segment, int offset, int next, Exception cause) {
+        lock.lock();
+        try {
+            Path file = segment.quarantine(offset);
+            segment.markDrained(next);
+            quarantinedCount++;
+            lastError = new UmaDbException("Corrupt outbox record moved to " + file + ": " + cause.getMessage(), cause);
+            return;
+        } catch (IOException e) {
+            lastError = new UmaDbException("Corrupt outbox record could not be moved: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+        // Tried again after the backoff
+        backOff();
+    }
+
+    private boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether all records have been drained, deleting fully drained segments.
+     */
+    private boolean nothingToDrain() {
+        while (segments.getFirst().isDrained()) {
+            if (segments.size() == 1) {
+                drained.signalAll();
+                return true;
+            }
+            var segment = segments.removeFirst();
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                // Already drained, it is skipped on the next start if it cannot be deleted
+            }
+        }
+        return false;
+    }
+
+    private void backOff() {
+        long nanos = options.retryBackoff().toNanos();
+        lock.lock();
+        try {
+            while (!closed && nanos > 0) {
+                nanos = written.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Events of consecutive records of one segment, sent in one append request.
+     *
+     * @param segment   the segment holding the records
+     * @param end       the offset after the last record
+     * @param request   the request holding the events of the records
+     * @param recovered whether the batch was left in flight by a previous run
+     */
+    private record Batch(OutboxSegment segment, int end, AppendRequest request, boolean recovered) {
+    }
+}
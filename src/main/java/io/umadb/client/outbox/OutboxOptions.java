@@ -0,0 +1,52 @@
+package io.umadb.client.outbox;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configures a {@link DurableOutbox}.
+ *
+ * @param directory      the directory holding the segment files; created if missing
+ * @param segmentBytes   the size of a segment file; bounds the size of a single append request
+ * @param drainBatchSize the maximum number of events sent to the server in one append request
+ * @param retryBackoff   the time to wait before retrying after the server could not be reached
+ */
+public record OutboxOptions(
+        Path directory,
+        int segmentBytes,
+        int drainBatchSize,
+        Duration retryBackoff
+) {
+
+    /**
+     * Creates new {@code OutboxOptions}.
+     *
+     * @throws IllegalArgumentException if {@code directory} or {@code retryBackoff} is {@code null},
+     *                                  or a value is out of range
+     */
+    public OutboxOptions {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        if (segmentBytes <= OutboxSegment.HEADER_BYTES + OutboxSegment.RECORD_OVERHEAD) {
+            throw new IllegalArgumentException("segmentBytes must be > " + (OutboxSegment.HEADER_BYTES + OutboxSegment.RECORD_OVERHEAD));
+        }
+        if (drainBatchSize <= 0) {
+            throw new IllegalArgumentException("drainBatchSize must be > 0");
+        }
+        if (retryBackoff == null || retryBackoff.isNegative()) {
+            throw new IllegalArgumentException("retryBackoff must not be null or negative");
+        }
+    }
+
+    /**
+     * Creates {@code OutboxOptions} with sensible defaults for the given directory:
+     * 64 MiB segments, up to 1000 events per drained request and a retry backoff of one second.
+     *
+     * @param directory the directory holding the segment files
+     * @return the default {@code OutboxOptions}
+     */
+    public static OutboxOptions defaults(Path directory) {
+        return new OutboxOptions(directory, 64 * 1024 * 1024, 1000, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,224 @@
+package io.umadb.client.outbox;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * A fixed-size, memory-mapped, append-only file of outbox records.
+ * <p>
+ * Layout: a header with a magic number, the offset up to which the records of the batch in
+ * flight reach and the offset up to which the records have been drained, followed by records of a 4 byte length, a 4 byte CRC32C checksum and the payload.
+ * A zero length marks the end of the written records. Torn writes are detected by the
+ * checksum on recovery and discarded together with everything after them.
+ * <p>
+ * Not thread-safe; access is guarded by the {@link DurableOutbox}.
+ */
+final class OutboxSegment {
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+
+    private static final int MAGIC = 0x554d4f42; // "UMOB"
+    private static final int IN_FLIGHT_OFFSET = 4;
+    private static final int DRAINED_OFFSET = 8;
+
+    private final long id;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+
+    private int writeOffset;
+    private int inFlightOffset;
+    private int drainedOffset;
+
+    private OutboxSegment(long id, Path file, MappedByteBuffer buffer, int writeOffset, int inFlightOffset, int drainedOffset) {
+        this.id = id;
+        this.file = file;
+        this.buffer = buffer;
+        this.writeOffset = writeOffset;
+        this.inFlightOffset = inFlightOffset;
+        this.drainedOffset = drainedOffset;
+    }
+
+    static Path fileOf(Path directory, long id) {
+        return directory.resolve("outbox-%020d.seg".formatted(id));
+    }
+
+    /**
+     * Creates a new, empty segment.
+     */
+    static OutboxSegment create(Path directory, long id, int size) throws IOException {
+        Path file = fileOf(directory, id);
+        var buffer = map(file, size, CREATE_NEW, READ, WRITE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(IN_FLIGHT_OFFSET, HEADER_BYTES);
+        buffer.putLong(DRAINED_OFFSET, HEADER_BYTES);
+        buffer.force(0, HEADER_BYTES);
+        return new OutboxSegment(id, file, buffer, HEADER_BYTES, HEADER_BYTES, HEADER_BYTES);
+    }
+
+    /**
+     * Opens an existing segment and recovers its write offset and the batch in flight, if any.
+     */
+    static OutboxSegment open(Path file, long id) throws IOException {
+        var buffer = map(file, Files.size(file), READ, WRITE);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an outbox segment: " + file);
+        }
+        int drainedOffset = (int) buffer.getLong(DRAINED_OFFSET);
+        int writeOffset = drainedOffset;
+        int next;
+        while ((next = nextRecord(buffer, writeOffset)) > 0) {
+            writeOffset = next;
+        }
+        // Clear what follows the last valid record, so stale bytes are never mistaken for records
+        for (int i = writeOffset; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        // Records of the batch in flight that were not flushed before the stop are lost
+        int inFlightOffset = Math.max(drainedOffset, Math.min(buffer.getInt(IN_FLIGHT_OFFSET), writeOffset));
+        return new OutboxSegment(id, file, buffer, writeOffset, inFlightOffset, drainedOffset);
+    }
+
+    private static MappedByteBuffer map(Path file, long size, java.nio.file.OpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Returns the offset after the valid record at {@code offset}, or {@code -1} if there is none.
+     */
+    private static int nextRecord(ByteBuffer buffer, int offset) {
+        if (offset + RECORD_OVERHEAD > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.capacity() - offset - RECORD_OVERHEAD) {
+            return -1;
+        }
+        int checksum = buffer.getInt(offset + Integer.BYTES);
+        if (checksum != checksum(buffer, offset + RECORD_OVERHEAD, length)) {
+            return -1;
+        }
+        return offset + RECORD_OVERHEAD + length;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        var crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    long id() {
+        return id;
+    }
+
+    int writeOffset() {
+        return writeOffset;
+    }
+
+    int drainedOffset() {
+        return drainedOffset;
+    }
+
+    /**
+     * Returns the offset up to which the records of the batch in flight reach, or the drained
+     * offset if no batch is in flight.
+     */
+    int inFlightOffset() {
+        return inFlightOffset;
+    }
+
+    boolean hasInFlight() {
+        return inFlightOffset > drainedOffset;
+    }
+
+    boolean hasRoom(int payloadBytes) {
+        return writeOffset + RECORD_OVERHEAD + payloadBytes <= buffer.capacity();
+    }
+
+    boolean isDrained() {
+        return drainedOffset == writeOffset;
+    }
+
+    /**
+     * Appends a record. The caller must check {@link #hasRoom(int)} first.
+     */
+    void write(byte[] payload) {
+        int payloadOffset = writeOffset + RECORD_OVERHEAD;
+        buffer.put(payloadOffset, payload);
+        buffer.putInt(writeOffset + Integer.BYTES, checksum(buffer, payloadOffset, payload.length));
+        // The length is written last, a record is only visible once complete
+        buffer.putInt(writeOffset, payload.length);
+        writeOffset = payloadOffset + payload.length;
+    }
+
+    /**
+     * Returns the payload of the record at {@code offset}.
+     */
+    byte[] read(int offset) {
+        int length = buffer.getInt(offset);
+        byte[] payload = new byte[length];
+        buffer.get(offset + RECORD_OVERHEAD, payload);
+        return payload;
+    }
+
+    /**
+     * Returns the offset of the record following the one at {@code offset}.
+     */
+    int next(int offset) {
+        return offset + RECORD_OVERHEAD + buffer.getInt(offset);
+    }
+
+    /**
+     * Flushes all written records to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Durably records that the records before {@code offset} are about to be sent to the server,
+     * so that after a restart exactly this batch is verified and resent.
+     */
+    void markInFlight(int offset) {
+        buffer.putInt(IN_FLIGHT_OFFSET, offset);
+        buffer.force(0, HEADER_BYTES);
+        inFlightOffset = offset;
+    }
+
+    /**
+     * Copies the payload of the record at {@code offset} to a file next to the segment, so that
+     * an unreadable record can be skipped without losing it.
+     *
+     * @return the file holding the payload
+     */
+    Path quarantine(int offset) throws IOException {
+        Path target = file.resolveSibling("outbox-%020d-%010d.corrupt".formatted(id, offset));
+        Files.write(target, read(offset));
+        return target;
+    }
+
+    /**
+     * Durably records that all records before {@code offset} have been appended to the server.
+     */
+    void markDrained(int offset) {
+        buffer.putLong(DRAINED_OFFSET, offset);
+        buffer.force(0, HEADER_BYTES);
+        drainedOffset = offset;
+        inFlightOffset = Math.max(inFlightOffset, offset);
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
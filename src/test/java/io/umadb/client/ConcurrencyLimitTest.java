@@ -0,0 +1,52 @@
+package io.umadb.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitTest {
+
+    @Test
+    void constructor_shouldCreateLimit_whenArgumentsAreValid() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 2, 50, Duration.ofMillis(100));
+
+        assertEquals(10, limit.initialLimit());
+        assertEquals(2, limit.minLimit());
+        assertEquals(50, limit.maxLimit());
+        assertEquals(Duration.ofMillis(100), limit.maxQueueTime());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenMinLimitIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class,
+                        () -> new ConcurrencyLimit(1, 0, 10, Duration.ZERO));
+
+        assertEquals("minLimit must be >= 1", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenInitialLimitIsOutOfBounds() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class,
+                        () -> new ConcurrencyLimit(20, 1, 10, Duration.ZERO));
+
+        assertEquals("initialLimit must be between minLimit and maxLimit", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenQueueTimeIsNull() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrencyLimit(1, 1, 10, null));
+    }
+
+    @Test
+    void withMaxQueueTime_shouldReturnLimitWithUpdatedQueueTime() {
+        ConcurrencyLimit limit = ConcurrencyLimit.defaults().withMaxQueueTime(Duration.ofSeconds(1));
+
+        assertEquals(Duration.ofSeconds(1), limit.maxQueueTime());
+        assertEquals(ConcurrencyLimit.defaults().initialLimit(), limit.initialLimit());
+    }
+}
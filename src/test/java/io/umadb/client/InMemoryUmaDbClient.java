@@ -0,0 +1,250 @@
+package io.umadb.client;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link UmaDbClient} for unit tests of components built on top of the client.
+ * <p>
+ * Implements the append condition, query matching, read direction, limits, batching and
+ * subscriptions with the same semantics as the server. Hooks allow simulating concurrent
+ * writers.
+ */
+public class InMemoryUmaDbClient implements UmaDbClient {
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final List<SequencedEvent> events = new ArrayList<>();
+    private final List<ReadRequest> readRequests = new CopyOnWriteArrayList<>();
+    private final List<AppendRequest> appendRequests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger closedReads = new AtomicInteger();
+
+    private Consumer<AppendRequest> beforeAppend = request -> {
+    };
+    private Consumer<ReadRequest> beforeRead = request -> {
+    };
+    private boolean isShutdown = false;
+
+    /**
+     * Registers a hook invoked before every append is applied, e.g. to simulate
+     * a concurrent writer. The hook may append events itself.
+     */
+    public InMemoryUmaDbClient beforeAppend(Consumer<AppendRequest> hook) {
+        this.beforeAppend = hook;
+        return this;
+    }
+
+    /**
+     * Registers a hook invoked before every read is opened, e.g. to simulate
+     * an unreachable server.
+     */
+    public InMemoryUmaDbClient beforeRead(Consumer<ReadRequest> hook) {
+        this.beforeRead = hook;
+        return this;
+    }
+
+    /**
+     * Appends events unconditionally, bypassing the hook.
+     */
+    public synchronized long appendDirectly(Event... newEvents) {
+        for (Event event : newEvents) {
+            events.add(new SequencedEvent(events.size() + 1L, event));
+        }
+        notifyAll();
+        return events.size();
+    }
+
+    public List<ReadRequest> readRequests() {
+        return readRequests;
+    }
+
+    public List<AppendRequest> appendRequests() {
+        return appendRequests;
+    }
+
+    /**
+     * Returns the number of finite reads whose iterator was closed.
+     */
+    public int closedReads() {
+        return closedReads.get();
+    }
+
+    public synchronized List<SequencedEvent> events() {
+        return List.copyOf(events);
+    }
+
+    @Override
+    public void connect() {
+        // nothing to connect
+    }
+
+    @Override
+    public AppendResponse handle(AppendRequest appendRequest, RequestOptions requestOptions) {
+        appendRequests.add(appendRequest);
+        beforeAppend.accept(appendRequest);
+        synchronized (this) {
+            var condition = appendRequest.condition();
+            if (condition != null) {
+                long after = condition.after() != null ? condition.after() : 0L;
+                boolean conflict = events.stream()
+                        .anyMatch(e -> e.position() > after && matches(condition.failIfEventsMatch(), e.event()));
+                if (conflict) {
+                    throw new UmaDbException.IntegrityException("condition failed");
+                }
+            }
+            return new AppendResponse(appendDirectly(appendRequest.events().toArray(Event[]::new)));
+        }
+    }
+
+    @Override
+    public Iterator<ReadResponse> handle(ReadRequest readRequest, RequestOptions requestOptions) {
+        readRequests.add(readRequest);
+        beforeRead.accept(readRequest);
+        if (Boolean.TRUE.equals(readRequest.subscribe())) {
+            return new SubscriptionIterator(readRequest);
+        }
+        return new FiniteReadIterator(read(readRequest).iterator());
+    }
+
+    private synchronized List<ReadResponse> read(ReadRequest readRequest) {
+        boolean backwards = Boolean.TRUE.equals(readRequest.backwards());
+        var selected = new ArrayList<SequencedEvent>();
+        for (SequencedEvent event : events) {
+            boolean inRange = readRequest.start() == null
+                    || (backwards ? event.position() <= readRequest.start() : event.position() >= readRequest.start());
+            if (inRange && matches(readRequest.query(), event.event())) {
+                selected.add(event);
+            }
+        }
+        if (backwards) {
+            Collections.reverse(selected);
+        }
+        if (readRequest.limit() != null && selected.size() > readRequest.limit()) {
+            selected = new ArrayList<>(selected.subList(0, readRequest.limit()));
+        }
+        return batches(selected, batchSize(readRequest), head());
+    }
+
+    private static int batchSize(ReadRequest readRequest) {
+        return readRequest.batchSize() != null ? readRequest.batchSize() : DEFAULT_BATCH_SIZE;
+    }
+
+    private Long head() {
+        return events.isEmpty() ? null : (long) events.size();
+    }
+
+    private static List<ReadResponse> batches(List<SequencedEvent> selected, int batchSize, Long head) {
+        var responses = new ArrayList<ReadResponse>();
+        for (int from = 0; from < selected.size(); from += batchSize) {
+            var batch = selected.subList(from, Math.min(selected.size(), from + batchSize));
+            responses.add(new ReadResponse(List.copyOf(batch), head));
+        }
+        if (responses.isEmpty()) {
+            responses.add(new ReadResponse(List.of(), head));
+        }
+        return responses;
+    }
+
+    private static boolean matches(Query query, Event event) {
+        return query == null || query.matches(event);
+    }
+
+    @Override
+    public synchronized long getHeadPosition(RequestOptions requestOptions) {
+        return events.size();
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        isShutdown = true;
+        notifyAll();
+    }
+
+    /**
+     * Delivers the responses of a finite read, counting closes like the cancellations of
+     * the gRPC client.
+     */
+    private final class FiniteReadIterator implements Iterator<ReadResponse>, AutoCloseable {
+
+        private final Iterator<ReadResponse> responses;
+
+        private FiniteReadIterator(Iterator<ReadResponse> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return responses.hasNext();
+        }
+
+        @Override
+        public ReadResponse next() {
+            return responses.next();
+        }
+
+        @Override
+        public void close() {
+            closedReads.incrementAndGet();
+        }
+    }
+
+    /**
+     * Delivers all matching events from the start position, then blocks for new ones
+     * until the client is shut down or the iterator is closed.
+     */
+    private final class SubscriptionIterator implements Iterator<ReadResponse>, AutoCloseable {
+
+        private final ReadRequest readRequest;
+        private long nextPosition;
+        private boolean closed;
+
+        private SubscriptionIterator(ReadRequest readRequest) {
+            this.readRequest = readRequest;
+            this.nextPosition = readRequest.start() != null ? readRequest.start() : 1L;
+        }
+
+        @Override
+        public boolean hasNext() {
+            synchronized (InMemoryUmaDbClient.this) {
+                while (!isShutdown && !closed && events.size() < nextPosition) {
+                    try {
+                        InMemoryUmaDbClient.this.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                return !isShutdown && !closed;
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (InMemoryUmaDbClient.this) {
+                closed = true;
+                InMemoryUmaDbClient.this.notifyAll();
+            }
+        }
+
+        @Override
+        public ReadResponse next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            synchronized (InMemoryUmaDbClient.this) {
+                var batch = new ArrayList<SequencedEvent>();
+                int batchSize = batchSize(readRequest);
+                while (nextPosition <= events.size() && batch.size() < batchSize) {
+                    var event = events.get((int) nextPosition - 1);
+                    nextPosition++;
+                    if (matches(readRequest.query(), event.event())) {
+                        batch.add(event);
+                    }
+                }
+                return new ReadResponse(List.copyOf(batch), head());
+            }
+        }
+    }
+}
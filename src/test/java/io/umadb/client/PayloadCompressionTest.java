@@ -0,0 +1,138 @@
+package io.umadb.client;
+
+import io.umadb.client.grpc.UmaDbUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadCompressionTest {
+
+    private final PayloadCompression compression = PayloadCompression.deflate(100);
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static byte[] json(int entries) {
+        var json = new StringBuilder("[");
+        for (int i = 0; i < entries; i++) {
+            json.append("{\"orderId\":\"order-").append(i).append("\",\"status\":\"PLACED\",\"currency\":\"EUR\"},");
+        }
+        return json.append("]").toString().getBytes(UTF_8);
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void compress_shouldShrinkPayloadAndMarkEvent() {
+        var event = Event.of("order-placed", List.of("order:1"), json(100));
+
+        Event compressed = compression.compress(event);
+
+        assertTrue(compressed.data().length < event.data().length / 5);
+        assertEquals(List.of("order:1", PayloadCompression.COMPRESSED_TAG), compressed.tags());
+        assertEquals(event.id(), compressed.id());
+        assertEquals(event.type(), compressed.type());
+    }
+
+    @Test
+    void decompress_shouldRestoreOriginalEvent() {
+        var event = Event.of("order-placed", List.of("order:1"), json(100));
+
+        Event restored = compression.decompress(compression.compress(event));
+
+        assertArrayEquals(event.data(), restored.data());
+        assertEquals(event.tags(), restored.tags());
+        assertEquals(event.id(), restored.id());
+    }
+
+    @Test
+    void compress_shouldKeepEvent_whenBelowThreshold() {
+        var event = Event.of("order-placed", "order:1", new byte[99]);
+
+        assertSame(event, compression.compress(event));
+    }
+
+    @Test
+    void compress_shouldKeepEvent_whenPayloadDoesNotShrink() {
+        var random = new byte[1000];
+        new Random(42).nextBytes(random);
+        var event = Event.of("order-placed", "order:1", random);
+
+        assertSame(event, compression.compress(event));
+    }
+
+    @Test
+    void compress_shouldKeepEvent_whenSavingDoesNotCoverTag() {
+        var random = new Random(42);
+        for (int repeated = 0; repeated <= 64; repeated++) {
+            // Incompressible bytes followed by a short compressible run
+            byte[] data = new byte[200 + repeated];
+            random.nextBytes(data);
+            Arrays.fill(data, 200, data.length, (byte) 'a');
+            var event = Event.of("order-placed", "order:1", data);
+
+            Event compressed = compression.compress(event);
+
+            assertTrue(UmaDbUtils.appendRequestEventSize(compressed) <= UmaDbUtils.appendRequestEventSize(event),
+                    "compressed event with " + repeated + " repeated bytes is larger than the original");
+        }
+    }
+
+    @Test
+    void compress_shouldNotCompressTwice() {
+        Event compressed = compression.compress(Event.of("order-placed", "order:1", json(100)));
+
+        assertSame(compressed, compression.compress(compressed));
+    }
+
+    @Test
+    void decompress_shouldKeepUncompressedEvent() {
+        var event = Event.of("order-placed", "order:1", json(100));
+
+        assertSame(event, compression.decompress(event));
+    }
+
+    @Test
+    void decompress_shouldThrowSerializationException_whenPayloadIsCorrupt() {
+        Event compressed = compression.compress(Event.of("order-placed", "order:1", json(100)));
+        byte[] corrupt = compressed.data().clone();
+        corrupt[corrupt.length / 2] ^= 0x5a;
+        var event = new Event(compressed.type(), compressed.tags(), corrupt, compressed.id());
+
+        assertThrows(UmaDbException.SerializationException.class, () -> compression.decompress(event));
+    }
+
+    @Test
+    void stats_shouldReportRatioPerEventType() {
+        compression.decompress(compression.compress(Event.of("order-placed", "order:1", json(100))));
+        compression.compress(Event.of("order-placed", "order:2", new byte[10]));
+        compression.compress(Event.of("order-shipped", "order:1", new byte[10]));
+
+        CompressionStats placed = compression.stats().get("order-placed");
+        assertEquals(2, placed.events());
+        assertEquals(1, placed.compressedEvents());
+        assertEquals(1, placed.decompressedEvents());
+        assertTrue(placed.ratio() > 5);
+        assertTrue(placed.compressionNanos() > 0);
+
+        CompressionStats shipped = compression.stats().get("order-shipped");
+        assertEquals(0, shipped.compressedEvents());
+        assertEquals(1.0, shipped.ratio());
+    }
+
+    @Test
+    void deflate_shouldThrowException_whenLevelIsInvalid() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> PayloadCompression.deflate(0, 10));
+
+        assertEquals("level must be between 1 and 9, or -1", exception.getMessage());
+    }
+}
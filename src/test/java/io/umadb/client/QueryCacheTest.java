@@ -0,0 +1,92 @@
+package io.umadb.client;
+
+import io.umadb.client.grpc.UmaDbUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    private static Query query(String tag) {
+        return Query.of(QueryItem.of(List.of("order-placed"), List.of(tag)));
+    }
+
+    @Test
+    void toUmadbQuery_shouldEncodeLikeUmaDbUtils() {
+        var cache = new QueryCache(10);
+
+        assertEquals(UmaDbUtils.toUmadbQuery(query("order:1")), cache.toUmadbQuery(query("order:1")));
+    }
+
+    @Test
+    void toUmadbQuery_shouldReturnCachedMessage_whenQueryIsEqual() {
+        var cache = new QueryCache(10);
+
+        var first = cache.toUmadbQuery(query("order:1"));
+        // Built separately, equal by value
+        var second = cache.toUmadbQuery(query("order:1"));
+
+        assertSame(first, second);
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void toUmadbQuery_shouldEvictLeastRecentlyUsedQuery_whenFull() {
+        var cache = new QueryCache(2);
+        var first = cache.toUmadbQuery(query("order:1"));
+        cache.toUmadbQuery(query("order:2"));
+        // Touch order:1, so order:2 is the least recently used one
+        cache.toUmadbQuery(query("order:1"));
+
+        cache.toUmadbQuery(query("order:3"));
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.toUmadbQuery(query("order:1")));
+        long misses = cache.misses();
+        cache.toUmadbQuery(query("order:2"));
+        assertEquals(misses + 1, cache.misses());
+    }
+
+    @Test
+    void precompile_shouldKeepQueriesRegardlessOfMaxSize() {
+        var cache = new QueryCache(1).precompile(List.of(query("order:1"), query("order:2")));
+
+        cache.toUmadbQuery(query("order:3"));
+        cache.toUmadbQuery(query("order:4"));
+
+        assertEquals(3, cache.size());
+        cache.toUmadbQuery(query("order:1"));
+        cache.toUmadbQuery(query("order:2"));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void toUmadbReadRequest_shouldUseCachedQuery() {
+        var cache = new QueryCache(10);
+        var readRequest = ReadRequest.of(query("order:1"));
+
+        var umadbReadRequest = UmaDbUtils.toUmadbReadRequest(readRequest, cache);
+
+        assertSame(cache.toUmadbQuery(query("order:1")), umadbReadRequest.getQuery());
+        assertEquals(UmaDbUtils.toUmadbReadRequest(readRequest), umadbReadRequest);
+    }
+
+    @Test
+    void constructor_shouldThrow_whenMaxSizeIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(0));
+    }
+
+    @Test
+    void precompile_shouldThrow_whenQueryIsNull() {
+        var cache = new QueryCache(10);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.precompile(null));
+        assertThrows(IllegalArgumentException.class, () -> cache.precompile(Arrays.asList(query("order:1"), null)));
+    }
+}
@@ -78,4 +78,43 @@ class QueryItemTest {
         assertEquals(List.of("tag"), item.tags());
     }
 
+    @Test
+    void matches_shouldRequireAnyTypeAndAllTags() {
+        QueryItem item = QueryItem.of(List.of("a", "b"), List.of("x", "y"));
+
+        assertTrue(item.matches(Event.of("b", List.of("y", "x", "z"), new byte[0])));
+        assertFalse(item.matches(Event.of("c", List.of("x", "y"), new byte[0])));
+        assertFalse(item.matches(Event.of("a", List.of("x"), new byte[0])));
+    }
+
+    @Test
+    void matches_shouldMatchAnyEvent_whenItemHasNoConstraints() {
+        assertTrue(QueryItem.matchAll().matches(Event.of("any", "tag", new byte[0])));
+    }
+
+    @Test
+    void subsumes_shouldBeTrue_whenItemIsBroader() {
+        QueryItem item = QueryItem.of(List.of("a", "b"), List.of("x"));
+
+        assertTrue(item.subsumes(QueryItem.of(List.of("a"), List.of("x", "y"))));
+        assertTrue(item.subsumes(item));
+        assertTrue(QueryItem.matchAll().subsumes(item));
+        assertTrue(QueryItem.ofTags(List.of("x")).subsumes(item));
+    }
+
+    @Test
+    void subsumes_shouldBeFalse_whenOtherItemMatchesMoreEvents() {
+        QueryItem item = QueryItem.of(List.of("a", "b"), List.of("x"));
+
+        assertFalse(item.subsumes(QueryItem.of(List.of("c"), List.of("x"))));
+        assertFalse(item.subsumes(QueryItem.of(List.of("a"), List.of("y"))));
+        // Any type is broader than a list of types
+        assertFalse(item.subsumes(QueryItem.ofTags(List.of("x"))));
+        assertFalse(item.subsumes(QueryItem.matchAll()));
+    }
+
+    @Test
+    void subsumes_shouldThrow_whenOtherIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> QueryItem.matchAll().subsumes(null));
+    }
 }
@@ -2,7 +2,9 @@ package io.umadb.client;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -90,4 +92,119 @@ class QueryTest {
                 () -> query.and(null));
     }
 
+    @Test
+    void matches_shouldMatchEvent_whenAnyItemMatches() {
+        Query query = Query.of(List.of(ITEM1, ITEM2));
+
+        assertTrue(query.matches(Event.of("type2", List.of("tag2"), new byte[0])));
+        assertFalse(query.matches(Event.of("type1", List.of("tag2"), new byte[0])));
+    }
+
+    @Test
+    void matches_shouldMatchAllEvents_whenQueryIsEmpty() {
+        assertTrue(Query.empty().matches(Event.of("type", "tag", new byte[0])));
+    }
+
+    @Test
+    void optimize_shouldSortAndDeduplicate() {
+        Query query = Query.of(List.of(
+                QueryItem.of(List.of("b", "a", "b"), List.of("y", "x")),
+                QueryItem.of(List.of("a", "b"), List.of("x", "y", "x"))
+        ));
+
+        assertEquals(Query.of(QueryItem.of(List.of("a", "b"), List.of("x", "y"))), query.optimize());
+    }
+
+    @Test
+    void optimize_shouldDropSubsumedItems() {
+        Query query = Query.of(List.of(
+                QueryItem.ofTags(List.of("a", "b")),
+                QueryItem.ofTags(List.of("a")),
+                QueryItem.of(List.of("t"), List.of("a", "c"))
+        ));
+
+        assertEquals(Query.of(QueryItem.ofTags(List.of("a"))), query.optimize());
+    }
+
+    @Test
+    void optimize_shouldMergeTypesOfItemsWithEqualTags() {
+        Query query = Query.of(List.of(
+                QueryItem.of(List.of("b"), List.of("x")),
+                QueryItem.of(List.of("a"), List.of("x")),
+                QueryItem.of(List.of("c"), List.of("y"))
+        ));
+
+        assertEquals(Query.of(List.of(
+                QueryItem.of(List.of("a", "b"), List.of("x")),
+                QueryItem.of(List.of("c"), List.of("y"))
+        )), query.optimize());
+    }
+
+    @Test
+    void optimize_shouldReduceToMatchAll_whenQueryContainsMatchAll() {
+        Query query = Query.of(List.of(ITEM1, QueryItem.matchAll(), ITEM2));
+
+        assertEquals(Query.of(QueryItem.matchAll()), query.optimize());
+    }
+
+    @Test
+    void optimize_shouldKeepEmptyQuery() {
+        assertEquals(Query.empty(), Query.empty().optimize());
+    }
+
+    @Test
+    void optimize_shouldMatchSameEventsAndBeIdempotent() {
+        var random = new Random(42);
+        List<String> names = List.of("a", "b", "c", "d");
+        for (int run = 0; run < 500; run++) {
+            var items = new ArrayList<QueryItem>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                items.add(QueryItem.of(randomSubset(random, names), randomSubset(random, names)));
+            }
+            Query query = Query.of(items);
+
+            Query optimized = query.optimize();
+
+            assertTrue(optimized.items().size() <= query.items().size());
+            assertEquals(optimized, optimized.optimize());
+            for (String type : names) {
+                for (List<String> tags : List.of(List.of("a"), List.of("a", "b"), List.of("b", "c", "d"), List.of("a", "b", "c", "d"), List.of("x"))) {
+                    var event = Event.of(type, tags, new byte[0]);
+                    assertEquals(query.matches(event), optimized.matches(event), query + " vs " + optimized);
+                }
+            }
+        }
+    }
+
+    private static List<String> randomSubset(Random random, List<String> names) {
+        var subset = new ArrayList<String>();
+        for (String name : names) {
+            if (random.nextInt(3) == 0) {
+                subset.add(name);
+            }
+        }
+        return subset;
+    }
+
+    @Test
+    void canonicalHash_shouldBeEqual_whenQueriesAreEquivalent() {
+        Query query = Query.of(List.of(
+                QueryItem.of(List.of("a"), List.of("x", "y")),
+                QueryItem.of(List.of("b"), List.of("y", "x"))
+        ));
+        Query equivalent = Query.of(List.of(
+                QueryItem.of(List.of("b", "a"), List.of("x", "y")),
+                QueryItem.of(List.of("a"), List.of("x", "y", "z"))
+        ));
+
+        assertEquals(query.canonicalHash(), equivalent.canonicalHash());
+        assertNotEquals(query.canonicalHash(), Query.of(ITEM1).canonicalHash());
+    }
+
+    @Test
+    void canonicalHash_shouldBeStable() {
+        // Must not change between versions, it may be persisted as a cache key
+        assertEquals(5558979605539197941L, Query.empty().canonicalHash());
+        assertEquals(-520804285641779793L, Query.of(ITEM1).canonicalHash());
+    }
 }
@@ -0,0 +1,54 @@
+package io.umadb.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestOptionsTest {
+
+    @Test
+    void defaults_shouldHaveNoTimeout() {
+        RequestOptions options = RequestOptions.defaults();
+
+        assertNull(options.timeout());
+    }
+
+    @Test
+    void defaults_shouldNotCoalesce() {
+        RequestOptions options = RequestOptions.defaults();
+
+        assertFalse(options.coalesce());
+    }
+
+    @Test
+    void withCoalescing_shouldKeepTimeout() {
+        RequestOptions options = RequestOptions.ofTimeout(Duration.ofSeconds(5)).withCoalescing(true);
+
+        assertTrue(options.coalesce());
+        assertEquals(Duration.ofSeconds(5), options.timeout());
+    }
+
+    @Test
+    void ofTimeout_shouldCreateOptionsWithTimeout() {
+        RequestOptions options = RequestOptions.ofTimeout(Duration.ofSeconds(5));
+
+        assertEquals(Duration.ofSeconds(5), options.timeout());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenTimeoutIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class,
+                        () -> RequestOptions.ofTimeout(Duration.ZERO));
+
+        assertEquals("timeout must be > 0", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenTimeoutIsNegative() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RequestOptions.ofTimeout(Duration.ofMillis(-1)));
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -228,4 +229,70 @@ class UmaDbClientTest {
         assertEquals("stream-test", receivedEvent.event().type());
     }
 
+    @Test
+    @Order(7)
+    void testExpiredDeadlineThrowsTimeoutException() {
+        RequestOptions options = RequestOptions.ofTimeout(Duration.ofNanos(1));
+
+        assertThrows(UmaDbException.TimeoutException.class,
+                () -> client.getHeadPosition(options),
+                "Call exceeding its deadline should throw TimeoutException");
+    }
+
+    @Test
+    @Order(8)
+    void testConflictPrecheckRejectsKnownConflict() {
+        UmaDbClient precheckClient = UmaDbClient.builder()
+                .withHost(UMA_DB_CONTAINER.getHost())
+                .withPort(UMA_DB_CONTAINER.getExposedGrpcPort())
+                .withConflictPrecheck(100)
+                .build();
+        precheckClient.connect();
+        try {
+            Query query = createQuery(createQueryItem(List.of("precheck"), List.of("aggregate:1")));
+            long lastPosition = precheckClient.getHeadPosition();
+
+            Event event = createEvent("precheck", List.of("aggregate:1"), "first");
+            precheckClient.handle(new AppendRequest(List.of(event), conditional(query, lastPosition)));
+
+            // Retrying the same event is still resolved idempotently by the server
+            precheckClient.handle(new AppendRequest(List.of(event), conditional(query, lastPosition)));
+
+            Event conflictingEvent = createEvent("precheck", List.of("aggregate:1"), "second");
+            UmaDbException.IntegrityException exception = assertThrows(UmaDbException.IntegrityException.class,
+                    () -> precheckClient.handle(new AppendRequest(List.of(conflictingEvent), conditional(query, lastPosition))));
+            assertTrue(exception.getMessage().contains("locally"), "Known conflict should be detected without the server");
+        } finally {
+            precheckClient.shutdown();
+        }
+    }
+
+    @Test
+    @Order(9)
+    void testPayloadCompressionRoundTrip() {
+        UmaDbClient compressingClient = UmaDbClient.builder()
+                .withHost(UMA_DB_CONTAINER.getHost())
+                .withPort(UMA_DB_CONTAINER.getExposedGrpcPort())
+                .withPayloadCompression(PayloadCompression.deflate(64))
+                .build();
+        compressingClient.connect();
+        try {
+            String payload = "{\"status\":\"compressed\"}".repeat(50);
+            Event event = createEvent("compressed", List.of("compression:1"), payload);
+            long position = compressingClient.handle(AppendRequest.of(List.of(event))).position();
+
+            ReadRequest readRequest = ReadRequest.all().withStart(position).withLimit(1);
+            Event read = compressingClient.handle(readRequest).next().events().get(0).event();
+            assertEquals(payload, new String(read.data(), UTF_8));
+            assertEquals(List.of("compression:1"), read.tags());
+
+            // Clients without compression see the stored form
+            Event stored = client.handle(readRequest).next().events().get(0).event();
+            assertTrue(stored.tags().contains(PayloadCompression.COMPRESSED_TAG));
+            assertTrue(stored.data().length < payload.length());
+        } finally {
+            compressingClient.shutdown();
+        }
+    }
+
 }
@@ -0,0 +1,61 @@
+package io.umadb.client.append;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventIdFilterTest {
+
+    @Test
+    void mightContain_shouldReturnTrueForAllAddedIds() {
+        EventIdFilter filter = new EventIdFilter(10_000, 0.01);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            filter.add(id);
+        }
+
+        for (UUID id : ids) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void mightContain_shouldStayCloseToFalsePositiveRate() {
+        EventIdFilter filter = new EventIdFilter(10_000, 0.01);
+        for (int i = 0; i < 9_999; i++) {
+            filter.add(UUID.randomUUID());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void add_shouldForgetOldestGeneration() {
+        EventIdFilter filter = new EventIdFilter(100, 0.001);
+        UUID oldest = UUID.randomUUID();
+        filter.add(oldest);
+        for (int i = 0; i < 149; i++) {
+            filter.add(UUID.randomUUID());
+        }
+        assertTrue(filter.mightContain(oldest), "previous generation is still kept");
+
+        for (int i = 0; i < 50; i++) {
+            filter.add(UUID.randomUUID());
+        }
+
+        assertFalse(filter.mightContain(oldest));
+    }
+}
@@ -0,0 +1,40 @@
+package io.umadb.client.append;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyOptionsTest {
+
+    @Test
+    void constructor_shouldThrowException_whenMaxAttemptsIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> new IdempotencyOptions(0, 1, 1, 0.01));
+
+        assertEquals("maxAttempts must be >= 1", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenFalsePositiveRateIsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyOptions(1, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyOptions(1, 1, 1, 1));
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenVerificationBackoffIsNegative() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> IdempotencyOptions.defaults().withVerificationBackoff(Duration.ofMillis(-1)));
+
+        assertEquals("verificationBackoff must not be null or negative", exception.getMessage());
+    }
+
+    @Test
+    void defaults_shouldBeValid() {
+        IdempotencyOptions options = IdempotencyOptions.defaults();
+
+        assertEquals(3, options.maxAttempts());
+        assertEquals(1000, options.lookback());
+    }
+}
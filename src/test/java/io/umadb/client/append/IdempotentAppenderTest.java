@@ -0,0 +1,197 @@
+package io.umadb.client.append;
+
+import io.umadb.client.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentAppenderTest {
+
+    private InMemoryUmaDbClient client;
+    private IdempotentAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryUmaDbClient();
+        appender = new IdempotentAppender(client, new IdempotencyOptions(3, 100, 1000, 0.01, Duration.ZERO));
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static Event orderPlaced() {
+        return Event.of("order-placed", List.of("order:1"), "{}".getBytes(UTF_8));
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void append_shouldNotVerify_whenAppendSucceeds() {
+        AppendResponse response = appender.append(AppendRequest.of(List.of(orderPlaced())));
+
+        assertEquals(1, response.position());
+        assertEquals(0, appender.verifications());
+        assertTrue(client.readRequests().isEmpty());
+    }
+
+    @Test
+    void append_shouldNotResend_whenTimedOutAppendHasLanded() {
+        AtomicInteger calls = new AtomicInteger();
+        client.beforeAppend(request -> {
+            if (calls.incrementAndGet() == 1) {
+                // The append is written, but the response is lost
+                client.appendDirectly(request.events().toArray(Event[]::new));
+                throw new UmaDbException.TimeoutException("deadline exceeded");
+            }
+        });
+        Event event = orderPlaced();
+
+        AppendResponse response = appender.append(AppendRequest.of(List.of(event)));
+
+        assertEquals(1, response.position());
+        assertEquals(1, client.events().size(), "event must not be duplicated");
+        assertEquals(1, appender.deduplicated());
+    }
+
+    @Test
+    void append_shouldResend_whenFailedAppendHasNotLanded() {
+        AtomicInteger calls = new AtomicInteger();
+        client.beforeAppend(request -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+
+        AppendResponse response = appender.append(AppendRequest.of(List.of(orderPlaced())));
+
+        assertEquals(1, response.position());
+        assertEquals(2, calls.get());
+        assertEquals(1, appender.verifications());
+        assertEquals(0, appender.deduplicated());
+    }
+
+    @Test
+    void append_shouldThrow_whenAttemptsAreExhausted() {
+        client.beforeAppend(request -> {
+            throw new UmaDbException.TimeoutException("deadline exceeded");
+        });
+
+        assertThrows(UmaDbException.TimeoutException.class,
+                () -> appender.append(AppendRequest.of(List.of(orderPlaced()))));
+        assertEquals(3, client.appendRequests().size());
+        assertTrue(client.events().isEmpty());
+    }
+
+    @Test
+    void append_shouldVerifyAgain_whenVerificationReadFails() {
+        AtomicInteger appends = new AtomicInteger();
+        client.beforeAppend(request -> {
+            if (appends.incrementAndGet() == 1) {
+                client.appendDirectly(request.events().toArray(Event[]::new));
+                throw new UmaDbException.TimeoutException("deadline exceeded");
+            }
+        });
+        AtomicInteger reads = new AtomicInteger();
+        client.beforeRead(request -> {
+            if (reads.incrementAndGet() == 1) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+
+        AppendResponse response = appender.append(AppendRequest.of(List.of(orderPlaced())));
+
+        assertEquals(1, response.position());
+        assertEquals(1, client.appendRequests().size(), "append must not be resent while its outcome is unknown");
+        assertEquals(1, client.events().size());
+        assertEquals(2, appender.verifications());
+    }
+
+    @Test
+    void append_shouldThrowWithoutResending_whenOutcomeStaysUnknown() {
+        client.beforeAppend(request -> {
+            throw new UmaDbException.TimeoutException("deadline exceeded");
+        });
+        client.beforeRead(request -> {
+            throw new UmaDbException.TimeoutException("deadline exceeded");
+        });
+
+        assertThrows(UmaDbException.TimeoutException.class,
+                () -> appender.append(AppendRequest.of(List.of(orderPlaced()))));
+        assertEquals(1, client.appendRequests().size());
+        assertEquals(3, appender.verifications());
+    }
+
+    @Test
+    void retry_shouldCloseVerificationRead_whenEventIsFound() {
+        Event event = orderPlaced();
+        client.appendDirectly(event);
+
+        appender.retry(AppendRequest.of(List.of(event)));
+
+        assertEquals(1, client.closedReads());
+    }
+
+    @Test
+    void append_shouldNotRetry_whenFailureIsNotAmbiguous() {
+        client.beforeAppend(request -> {
+            throw new UmaDbException.IntegrityException("condition failed");
+        });
+
+        assertThrows(UmaDbException.IntegrityException.class,
+                () -> appender.append(AppendRequest.of(List.of(orderPlaced()))));
+        assertEquals(1, client.appendRequests().size());
+    }
+
+    @Test
+    void append_shouldReturnExistingPosition_whenReplayingWrittenEvent() {
+        Event event = orderPlaced();
+        appender.append(AppendRequest.of(List.of(event)));
+        client.appendDirectly(orderPlaced());
+
+        AppendResponse response = appender.append(AppendRequest.of(List.of(event)));
+
+        assertEquals(1, response.position());
+        assertEquals(2, client.events().size());
+        assertEquals(1, appender.deduplicated());
+    }
+
+    @Test
+    void append_shouldDetectReplay_whenEventWasObserved() {
+        Event event = orderPlaced();
+        client.appendDirectly(event);
+        appender.observe(event);
+
+        AppendResponse response = appender.append(AppendRequest.of(List.of(event)));
+
+        assertEquals(1, response.position());
+        assertTrue(client.appendRequests().isEmpty());
+    }
+
+    @Test
+    void retry_shouldVerifyBeforeAppending_whenFilterIsEmpty() {
+        Event event = orderPlaced();
+        client.appendDirectly(event);
+
+        AppendResponse response = appender.retry(AppendRequest.of(List.of(event)));
+
+        assertEquals(1, response.position());
+        assertTrue(client.appendRequests().isEmpty());
+    }
+
+    @Test
+    void retry_shouldAppend_whenEventsAreNotFound() {
+        AppendResponse response = appender.retry(AppendRequest.of(List.of(orderPlaced())));
+
+        assertEquals(1, response.position());
+        assertEquals(1, client.appendRequests().size());
+    }
+}
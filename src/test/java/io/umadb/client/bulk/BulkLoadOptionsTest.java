@@ -0,0 +1,32 @@
+package io.umadb.client.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkLoadOptionsTest {
+
+    @Test
+    void constructor_shouldThrowException_whenMaxInFlightIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> new BulkLoadOptions(1, 1, 0));
+
+        assertEquals("maxInFlight must be > 0", exception.getMessage());
+    }
+
+    @Test
+    void defaults_shouldUseGrpcMessageLimitAndPreserveOrder() {
+        BulkLoadOptions options = BulkLoadOptions.defaults();
+
+        assertEquals(4 * 1024 * 1024, options.maxRequestBytes());
+        assertEquals(1, options.maxInFlight());
+    }
+
+    @Test
+    void withMaxInFlight_shouldReturnCopyWithUpdatedConcurrency() {
+        BulkLoadOptions options = BulkLoadOptions.defaults().withMaxInFlight(8);
+
+        assertEquals(8, options.maxInFlight());
+        assertEquals(BulkLoadOptions.defaults().maxEventsPerRequest(), options.maxEventsPerRequest());
+    }
+}
@@ -0,0 +1,171 @@
+package io.umadb.client.bulk;
+
+import io.umadb.client.*;
+import io.umadb.client.grpc.UmaDbUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkLoaderTest {
+
+    private InMemoryUmaDbClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryUmaDbClient();
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static Stream<Event> events(int count, int payloadSize) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Event.of("imported", "index:" + i, new byte[payloadSize]));
+    }
+
+    /**
+     * Sizes events by their payload, so batch boundaries are predictable.
+     */
+    private BulkLoader loader(BulkLoadOptions options) {
+        return new BulkLoader(client, options, event -> event.data().length);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void load_shouldSplitRequestsAtMaxRequestBytes() {
+        var loader = loader(new BulkLoadOptions(1000, 100, 1));
+
+        BulkLoadProgress result = loader.load(events(10, 300));
+
+        assertEquals(10, result.eventsAppended());
+        assertEquals(4, result.requestsAppended(), "3 events of 300 bytes fit into 1000 bytes");
+        assertEquals(3000, result.bytesAppended());
+        assertEquals(10, result.lastPosition());
+        client.appendRequests().forEach(request -> assertTrue(request.events().size() <= 3));
+    }
+
+    @Test
+    void load_shouldSplitRequestsAtMaxEventsPerRequest() {
+        var loader = loader(new BulkLoadOptions(1_000_000, 4, 1));
+
+        BulkLoadProgress result = loader.load(events(10, 10));
+
+        assertEquals(3, result.requestsAppended());
+        assertEquals(List.of(4, 4, 2), client.appendRequests().stream().map(r -> r.events().size()).toList());
+    }
+
+    @Test
+    void load_shouldPreserveInputOrder_whenSingleRequestInFlight() {
+        var input = events(50, 10).toList();
+        var loader = loader(new BulkLoadOptions(100, 100, 1));
+
+        loader.load(input.stream());
+
+        assertEquals(input, client.events().stream().map(SequencedEvent::event).toList());
+    }
+
+    @Test
+    void load_shouldReportProgressForEveryRequest() {
+        var loader = loader(new BulkLoadOptions(100, 100, 1));
+        List<BulkLoadProgress> reports = new ArrayList<>();
+
+        loader.load(events(25, 10), reports::add);
+
+        assertEquals(3, reports.size());
+        assertEquals(List.of(10L, 20L, 25L), reports.stream().map(BulkLoadProgress::resumeIndex).toList());
+    }
+
+    @Test
+    void load_shouldAppendAllEvents_whenRequestsAreConcurrent() {
+        var loader = loader(new BulkLoadOptions(100, 100, 4));
+
+        BulkLoadProgress result = loader.load(events(1000, 10));
+
+        assertEquals(1000, result.resumeIndex());
+        assertEquals(1000, client.events().size());
+    }
+
+    @Test
+    void load_shouldStopAndReportResumeIndex_whenAppendFails() {
+        AtomicInteger calls = new AtomicInteger();
+        client.beforeAppend(request -> {
+            if (calls.incrementAndGet() == 3) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+        var loader = loader(new BulkLoadOptions(100, 100, 1));
+        List<BulkLoadProgress> reports = new ArrayList<>();
+
+        assertThrows(UmaDbException.IoException.class, () -> loader.load(events(100, 10), reports::add));
+
+        assertEquals(20, reports.get(reports.size() - 1).resumeIndex());
+        assertEquals(20, client.events().size());
+        assertEquals(3, client.appendRequests().size(), "no requests should be sent after a failure");
+    }
+
+    @Test
+    void load_shouldRejectEventLargerThanMaxRequestBytes() {
+        var loader = loader(new BulkLoadOptions(100, 100, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> loader.load(events(1, 101)));
+    }
+
+    @Test
+    void load_shouldWaitForRequestsInFlight_whenEventIsRejected() {
+        client.beforeAppend(request -> sleep(200));
+        var loader = loader(new BulkLoadOptions(100, 100, 2));
+        var input = Stream.concat(events(15, 10), events(1, 101));
+
+        assertThrows(IllegalArgumentException.class, () -> loader.load(input));
+
+        assertEquals(10, client.events().size(), "the request in flight should complete before the failure is thrown");
+    }
+
+    @Test
+    void load_shouldWaitForRequestsInFlight_whenInputFails() {
+        client.beforeAppend(request -> sleep(200));
+        var loader = loader(new BulkLoadOptions(100, 100, 2));
+        var input = Stream.concat(events(15, 10), Stream.<Event>generate(() -> {
+            throw new IllegalStateException("input unavailable");
+        }));
+
+        assertThrows(IllegalStateException.class, () -> loader.load(input));
+
+        assertEquals(10, client.events().size(), "the request in flight should complete before the failure is thrown");
+    }
+
+    @Test
+    void load_shouldCountCompressedSize_whenCompressionIsConfigured() {
+        var compression = PayloadCompression.deflate(0);
+        var loader = new BulkLoader(client, new BulkLoadOptions(1000, 1000, 1),
+                UmaDbUtils::appendRequestEventSize, compression);
+
+        loader.load(events(100, 200));
+
+        assertEquals(100, client.events().size());
+        for (AppendRequest request : client.appendRequests()) {
+            assertTrue(request.events().stream().allMatch(event -> event.tags().contains(PayloadCompression.COMPRESSED_TAG)));
+            int requestBytes = request.events().stream().mapToInt(UmaDbUtils::appendRequestEventSize).sum();
+            assertTrue(requestBytes <= 1000, "request of " + requestBytes + " bytes exceeds maxRequestBytes");
+        }
+    }
+}
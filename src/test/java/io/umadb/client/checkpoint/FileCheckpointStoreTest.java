@@ -0,0 +1,118 @@
+package io.umadb.client.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileCheckpointStoreTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    private Path file() {
+        return tempDir.resolve("projection.checkpoint");
+    }
+
+    @Test
+    void load_shouldReturnNull_whenNothingWasCommitted() throws IOException {
+        try (var store = new FileCheckpointStore(file())) {
+            assertNull(store.load());
+        }
+    }
+
+    @Test
+    void save_shouldCommitImmediately_whenIntervalIsZero() throws IOException {
+        try (var store = new FileCheckpointStore(file(), Duration.ZERO)) {
+            store.save(42);
+
+            assertEquals(Long.valueOf(42), store.load());
+        }
+    }
+
+    @Test
+    void save_shouldCoalesceUntilFlush() throws IOException {
+        try (var store = new FileCheckpointStore(file(), NEVER)) {
+            store.save(1);
+            store.save(2);
+            store.save(3);
+
+            assertNull(store.load());
+
+            store.flush();
+            assertEquals(Long.valueOf(3), store.load());
+        }
+    }
+
+    @Test
+    void save_shouldCommitInBackground() throws Exception {
+        try (var store = new FileCheckpointStore(file(), Duration.ofMillis(5))) {
+            store.save(7);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (store.load() == null && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(Long.valueOf(7), store.load());
+        }
+    }
+
+    @Test
+    void close_shouldCommitLastSavedPosition() throws IOException {
+        try (var store = new FileCheckpointStore(file(), NEVER)) {
+            store.save(10);
+            store.save(11);
+        }
+
+        try (var reopened = new FileCheckpointStore(file(), NEVER)) {
+            assertEquals(Long.valueOf(11), reopened.load());
+        }
+    }
+
+    @Test
+    void load_shouldFallBackToPreviousCheckpoint_whenLatestSlotIsTorn() throws IOException {
+        try (var store = new FileCheckpointStore(file(), Duration.ZERO)) {
+            store.save(100);
+            store.save(200);
+        }
+        // The second commit went to slot 0, damage its position
+        try (FileChannel channel = FileChannel.open(file(), WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1}), 8);
+        }
+
+        try (var reopened = new FileCheckpointStore(file(), Duration.ZERO)) {
+            assertEquals(Long.valueOf(100), reopened.load());
+
+            reopened.save(300);
+        }
+        try (var reopened = new FileCheckpointStore(file(), Duration.ZERO)) {
+            assertEquals(Long.valueOf(300), reopened.load());
+        }
+    }
+
+    @Test
+    void save_shouldThrowException_whenClosed() throws IOException {
+        var store = new FileCheckpointStore(file(), NEVER);
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.save(1));
+    }
+
+    @Test
+    void save_shouldThrowException_whenPositionIsNegative() throws IOException {
+        try (var store = new FileCheckpointStore(file(), NEVER)) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> store.save(-1));
+
+            assertEquals("position must be >= 0", exception.getMessage());
+        }
+    }
+}
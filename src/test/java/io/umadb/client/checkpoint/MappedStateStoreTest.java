@@ -0,0 +1,221 @@
+package io.umadb.client.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedStateStoreTest {
+
+    private static final StateStoreOptions SYNCHRONOUS = new StateStoreOptions(64, 16, 16, Duration.ZERO);
+    private static final StateStoreOptions NEVER = SYNCHRONOUS.withCommitInterval(Duration.ofHours(1));
+
+    @TempDir
+    Path tempDir;
+
+    private Path file() {
+        return tempDir.resolve("projection.state");
+    }
+
+    private Path journal() {
+        return tempDir.resolve("projection.state.journal");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void load_shouldReturnNull_whenNothingWasCommitted() throws IOException {
+        try (var store = new MappedStateStore(file(), SYNCHRONOUS)) {
+            assertNull(store.load());
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void get_shouldReturnValue_whenKeyWasPut() throws IOException {
+        try (var store = new MappedStateStore(file(), SYNCHRONOUS)) {
+            store.put(bytes("order:1"), bytes("placed"));
+            store.put(42L, bytes("shipped"));
+            store.put(bytes("order:1"), bytes("paid"));
+
+            assertArrayEquals(bytes("paid"), store.get(bytes("order:1")));
+            assertArrayEquals(bytes("shipped"), store.get(42L));
+            assertNull(store.get(43L));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void remove_shouldKeepOtherKeysReachable_whenProbeSequencesCollide() throws IOException {
+        var options = new StateStoreOptions(200, 8, 8, Duration.ZERO);
+        Map<Long, byte[]> expected = new HashMap<>();
+        var random = new Random(7);
+        try (var store = new MappedStateStore(file(), options)) {
+            for (int i = 0; i < 5000; i++) {
+                long key = random.nextInt(300);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key) != null, store.remove(key));
+                } else if (expected.containsKey(key) || expected.size() < 200) {
+                    byte[] value = bytes(Integer.toString(i));
+                    store.put(key, value);
+                    expected.put(key, value);
+                }
+                if (i % 100 == 0) {
+                    store.save(i);
+                }
+            }
+
+            assertEquals(expected.size(), store.size());
+            for (long key = 0; key < 300; key++) {
+                assertArrayEquals(expected.get(key), store.get(key));
+            }
+        }
+    }
+
+    @Test
+    void put_shouldThrowException_whenStoreIsFull() throws IOException {
+        try (var store = new MappedStateStore(file(), new StateStoreOptions(2, 8, 8, Duration.ZERO))) {
+            store.put(1L, new byte[0]);
+            store.put(2L, new byte[0]);
+            store.put(2L, new byte[1]);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> store.put(3L, new byte[0]));
+            assertEquals("state store is full", exception.getMessage());
+        }
+    }
+
+    @Test
+    void put_shouldThrowException_whenValueIsTooLong() throws IOException {
+        try (var store = new MappedStateStore(file(), SYNCHRONOUS)) {
+            IllegalArgumentException exception =
+                    assertThrows(IllegalArgumentException.class, () -> store.put(1L, new byte[17]));
+
+            assertEquals("value must not be null or longer than maxValueBytes", exception.getMessage());
+        }
+    }
+
+    @Test
+    void constructor_shouldRestoreCommittedStateWithPosition() throws IOException {
+        try (var store = new MappedStateStore(file(), SYNCHRONOUS)) {
+            store.put(1L, bytes("a"));
+            store.put(2L, bytes("b"));
+            store.save(10);
+            store.remove(1L);
+            store.put(3L, bytes("c"));
+        }
+
+        try (var reopened = new MappedStateStore(file(), SYNCHRONOUS)) {
+            assertEquals(Long.valueOf(10), reopened.load());
+            assertEquals(2, reopened.size());
+            assertArrayEquals(bytes("a"), reopened.get(1L));
+            assertArrayEquals(bytes("b"), reopened.get(2L));
+            assertNull(reopened.get(3L));
+        }
+    }
+
+    @Test
+    void save_shouldCoalesceUntilFlush() throws IOException {
+        try (var store = new MappedStateStore(file(), NEVER)) {
+            store.put(1L, bytes("a"));
+            store.save(1);
+            store.put(2L, bytes("b"));
+            store.save(2);
+
+            assertNull(store.load());
+            assertArrayEquals(bytes("b"), store.get(2L));
+
+            store.flush();
+            assertEquals(Long.valueOf(2), store.load());
+        }
+    }
+
+    @Test
+    void close_shouldCommitOnlyChangesCoveredBySave() throws IOException {
+        try (var store = new MappedStateStore(file(), NEVER)) {
+            store.put(1L, bytes("a"));
+            store.save(5);
+            store.put(2L, bytes("b"));
+        }
+
+        try (var reopened = new MappedStateStore(file(), NEVER)) {
+            assertEquals(Long.valueOf(5), reopened.load());
+            assertArrayEquals(bytes("a"), reopened.get(1L));
+            assertNull(reopened.get(2L));
+        }
+    }
+
+    @Test
+    void constructor_shouldCompleteCommit_whenCrashedAfterWritingJournal() throws IOException {
+        Path backup = tempDir.resolve("backup");
+        try (var store = new MappedStateStore(file(), SYNCHRONOUS)) {
+            store.put(1L, bytes("a"));
+            store.save(1);
+            Files.copy(file(), backup);
+            store.put(2L, bytes("b"));
+            store.save(2);
+        }
+        // The table and position of the first commit, with the journal of the second
+        Files.copy(backup, file(), StandardCopyOption.REPLACE_EXISTING);
+
+        try (var reopened = new MappedStateStore(file(), SYNCHRONOUS)) {
+            assertEquals(Long.valueOf(2), reopened.load());
+            assertEquals(2, reopened.size());
+            assertArrayEquals(bytes("b"), reopened.get(2L));
+        }
+    }
+
+    @Test
+    void constructor_shouldIgnoreJournal_whenItIsIncomplete() throws IOException {
+        Path backup = tempDir.resolve("backup");
+        try (var store = new MappedStateStore(file(), SYNCHRONOUS)) {
+            store.put(1L, bytes("a"));
+            store.save(1);
+            Files.copy(file(), backup);
+            store.put(2L, bytes("b"));
+            store.save(2);
+        }
+        Files.copy(backup, file(), StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(journal(), WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (var reopened = new MappedStateStore(file(), SYNCHRONOUS)) {
+            assertEquals(Long.valueOf(1), reopened.load());
+            assertEquals(1, reopened.size());
+            assertNull(reopened.get(2L));
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenGeometryDiffers() throws IOException {
+        new MappedStateStore(file(), SYNCHRONOUS).close();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new MappedStateStore(file(), new StateStoreOptions(64, 16, 32, Duration.ZERO)));
+
+        assertEquals("options must match the existing store with capacity 64, maxKeyBytes 16 and maxValueBytes 16",
+                exception.getMessage());
+    }
+
+    @Test
+    void put_shouldThrowException_whenClosed() throws IOException {
+        var store = new MappedStateStore(file(), SYNCHRONOUS);
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.put(1L, new byte[0]));
+    }
+}
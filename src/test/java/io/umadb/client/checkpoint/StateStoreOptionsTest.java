@@ -0,0 +1,41 @@
+package io.umadb.client.checkpoint;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateStoreOptionsTest {
+
+    @Test
+    void of_shouldCommitOncePerSecond() {
+        var options = StateStoreOptions.of(1000, 8, 64);
+
+        assertEquals(Duration.ofSeconds(1), options.commitInterval());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenCapacityIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> StateStoreOptions.of(0, 8, 64));
+
+        assertEquals("capacity must be > 0", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenEntryIsTooLarge() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> StateStoreOptions.of(1000, 8, StateStoreOptions.MAX_ENTRY_BYTES));
+
+        assertEquals("maxKeyBytes + maxValueBytes must be <= 1048576", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenCommitIntervalIsNegative() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new StateStoreOptions(1000, 8, 64, Duration.ofSeconds(-1)));
+
+        assertEquals("commitInterval must not be null or negative", exception.getMessage());
+    }
+}
@@ -0,0 +1,104 @@
+package io.umadb.client.codec;
+
+import io.umadb.client.Event;
+import io.umadb.client.SequencedEvent;
+import io.umadb.client.UmaDbException;
+import io.umadb.client.codec.GreetingCodec.Greeting;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecRegistryTest {
+
+    private final GreetingCodec codec = new GreetingCodec();
+    private final CodecRegistry registry = CodecRegistry.of(codec);
+
+    @Test
+    void encode_shouldUseEventTypeAndPayloadOfCodec() {
+        Event event = registry.encode(new Greeting("hello"), List.of("user:1"));
+
+        assertEquals("greeted", event.type());
+        assertEquals(List.of("user:1"), event.tags());
+        assertArrayEquals("hello".getBytes(UTF_8), event.data());
+    }
+
+    @Test
+    void encode_shouldReturnIndependentArrays_whenBufferIsReused() {
+        Event first = registry.encode(new Greeting("first"), List.of("user:1"));
+        Event second = registry.encode(new Greeting("second"), List.of("user:1"));
+
+        assertArrayEquals("first".getBytes(UTF_8), first.data());
+        assertArrayEquals("second".getBytes(UTF_8), second.data());
+    }
+
+    @Test
+    void encode_shouldThrowException_whenPayloadHasNoCodec() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> registry.encode("text", List.of("user:1")));
+
+        assertEquals("no codec registered for payload type java.lang.String", exception.getMessage());
+    }
+
+    @Test
+    void of_shouldThrowException_whenEventTypeIsRegisteredTwice() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> CodecRegistry.of(codec, new GreetingCodec()));
+
+        assertEquals("duplicate codec for event type greeted", exception.getMessage());
+    }
+
+    @Test
+    void codecFor_shouldFindCodecByEventTypeAndPayloadType() {
+        assertSame(codec, registry.codecFor("greeted"));
+        assertSame(codec, registry.codecFor(Greeting.class));
+        assertNull(registry.codecFor("unknown"));
+    }
+
+    @Test
+    void decode_shouldNotDecodePayloadEagerly() {
+        TypedEvent event = registry.decode(new SequencedEvent(1, registry.encode(new Greeting("hi"), List.of("user:1"))));
+
+        assertEquals(0, codec.decodes.get());
+        assertEquals("greeted", event.event().type());
+        assertEquals(0, codec.decodes.get());
+    }
+
+    @Test
+    void decode_shouldDecodePayloadOnce() {
+        TypedEvent event = registry.decode(new SequencedEvent(1, registry.encode(new Greeting("hi"), List.of("user:1"))));
+
+        assertEquals(new Greeting("hi"), event.payload(Greeting.class));
+        assertEquals(new Greeting("hi"), event.payload());
+        assertEquals(1, codec.decodes.get());
+    }
+
+    @Test
+    void payload_shouldThrowException_whenTypeHasNoCodec() {
+        TypedEvent event = registry.decode(new SequencedEvent(5, Event.of("unknown", "user:1", new byte[1])));
+
+        assertFalse(event.hasCodec());
+        assertThrows(UmaDbException.SerializationException.class, event::payload);
+    }
+
+    @Test
+    void payload_shouldThrowSerializationException_whenCodecFails() {
+        TypedEvent event = registry.decode(new SequencedEvent(5, Event.of("greeted", "user:1", new byte[0])));
+
+        var exception = assertThrows(UmaDbException.SerializationException.class, event::payload);
+        assertEquals("Failed to decode greeted at position 5: empty greeting", exception.getMessage());
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+
+    @Test
+    void encode_shouldThrowSerializationExceptionWithCause_whenCodecFails() {
+        var exception = assertThrows(UmaDbException.SerializationException.class,
+                () -> registry.encode(new Greeting(""), List.of("user:1")));
+
+        assertEquals("Failed to encode greeted: empty greeting", exception.getMessage());
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+}
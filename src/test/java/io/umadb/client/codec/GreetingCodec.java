@@ -0,0 +1,45 @@
+package io.umadb.client.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Test codec writing a {@link Greeting} as UTF-8 text and counting decodes.
+ */
+class GreetingCodec implements EventCodec<GreetingCodec.Greeting> {
+
+    record Greeting(String text) {
+    }
+
+    final AtomicInteger decodes = new AtomicInteger();
+
+    @Override
+    public String eventType() {
+        return "greeted";
+    }
+
+    @Override
+    public Class<Greeting> payloadType() {
+        return Greeting.class;
+    }
+
+    @Override
+    public void encode(Greeting payload, OutputStream out) throws IOException {
+        if (payload.text().isEmpty()) {
+            throw new IOException("empty greeting");
+        }
+        out.write(payload.text().getBytes(UTF_8));
+    }
+
+    @Override
+    public Greeting decode(byte[] data) throws IOException {
+        decodes.incrementAndGet();
+        if (data.length == 0) {
+            throw new IOException("empty greeting");
+        }
+        return new Greeting(new String(data, UTF_8));
+    }
+}
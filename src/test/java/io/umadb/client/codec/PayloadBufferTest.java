@@ -0,0 +1,32 @@
+package io.umadb.client.codec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadBufferTest {
+
+    @Test
+    void acquire_shouldReuseBufferOfThread() {
+        var buffer = PayloadBuffer.acquire();
+        buffer.write(1);
+        buffer.release();
+
+        var reused = PayloadBuffer.acquire();
+
+        assertSame(buffer, reused);
+        assertEquals(0, reused.size());
+    }
+
+    @Test
+    void release_shouldDropBuffer_whenItGrewTooLarge() {
+        var buffer = PayloadBuffer.acquire();
+        buffer.write(new byte[PayloadBuffer.MAX_RETAINED_BYTES + 1], 0, PayloadBuffer.MAX_RETAINED_BYTES + 1);
+        buffer.release();
+
+        var next = PayloadBuffer.acquire();
+
+        assertNotSame(buffer, next);
+        assertTrue(next.capacity() <= PayloadBuffer.MAX_RETAINED_BYTES);
+    }
+}
@@ -0,0 +1,48 @@
+package io.umadb.client.codec;
+
+import io.umadb.client.*;
+import io.umadb.client.codec.GreetingCodec.Greeting;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypedEventClientTest {
+
+    private final InMemoryUmaDbClient client = new InMemoryUmaDbClient();
+    private final TypedEventClient typed = new TypedEventClient(client, CodecRegistry.of(new GreetingCodec()));
+
+    @Test
+    void read_shouldReturnAppendedPayloads() {
+        typed.append(new Greeting("hello"), List.of("user:1"));
+        typed.append(new Greeting("world"), List.of("user:2"));
+
+        var payloads = new ArrayList<Object>();
+        typed.read(ReadRequest.all()).forEachRemaining(event -> payloads.add(event.payload()));
+
+        assertEquals(List.of(new Greeting("hello"), new Greeting("world")), payloads);
+    }
+
+    @Test
+    void read_shouldSpanResponses() {
+        for (int i = 0; i < 5; i++) {
+            typed.append(new Greeting("hello " + i), List.of("user:" + i));
+        }
+
+        var positions = new ArrayList<Long>();
+        typed.read(new ReadRequest(null, null, null, null, null, 2)).forEachRemaining(event -> positions.add(event.position()));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), positions);
+    }
+
+    @Test
+    void append_shouldThrowIntegrityException_whenConditionFails() {
+        typed.append(new Greeting("hello"), List.of("user:1"));
+        var condition = AppendCondition.failIfExists(Query.of(QueryItem.ofTags(List.of("user:1"))));
+
+        assertThrows(UmaDbException.IntegrityException.class,
+                () -> typed.append(new Greeting("again"), List.of("user:1"), condition));
+    }
+}
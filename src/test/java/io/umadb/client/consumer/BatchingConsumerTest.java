@@ -0,0 +1,166 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.*;
+import io.umadb.client.checkpoint.FileCheckpointStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingConsumerTest {
+
+    private static final Duration LONG_LINGER = Duration.ofSeconds(30);
+
+    private InMemoryUmaDbClient client;
+    private List<EventBatch> batches;
+    private List<Long> checkpoints;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryUmaDbClient();
+        batches = new CopyOnWriteArrayList<>();
+        checkpoints = new CopyOnWriteArrayList<>();
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private void append(int count, int payloadSize) {
+        for (int i = 0; i < count; i++) {
+            client.appendDirectly(Event.of("order-placed", "order:" + i, new byte[payloadSize]));
+        }
+    }
+
+    private static ReadRequest readInResponsesOf(int batchSize) {
+        return new ReadRequest(null, null, null, null, null, batchSize);
+    }
+
+    private Long run(BatchingOptions options, ReadRequest readRequest) {
+        return new BatchingConsumer(client, options).run(readRequest, batches::add, checkpoints::add);
+    }
+
+    private List<Integer> batchSizes() {
+        return batches.stream().map(EventBatch::size).toList();
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void run_shouldSplitResponses_whenLargerThanMaxBatchSize() {
+        append(25, 1);
+
+        Long checkpoint = run(new BatchingOptions(7, 1000, LONG_LINGER), readInResponsesOf(10));
+
+        assertEquals(List.of(7, 7, 7, 4), batchSizes());
+        assertEquals(List.of(7L, 14L, 21L, 25L), checkpoints);
+        assertEquals(Long.valueOf(25), checkpoint);
+    }
+
+    @Test
+    void run_shouldCombineResponses_whenSmallerThanMaxBatchSize() {
+        append(20, 1);
+
+        run(new BatchingOptions(8, 1000, LONG_LINGER), readInResponsesOf(3));
+
+        assertEquals(List.of(8, 8, 4), batchSizes());
+        assertEquals(1, batches.get(1).firstPosition() - 8);
+    }
+
+    @Test
+    void run_shouldFlush_whenMaxBatchBytesIsReached() {
+        append(10, 100);
+
+        run(new BatchingOptions(100, 250, LONG_LINGER), readInResponsesOf(10));
+
+        assertEquals(List.of(2, 2, 2, 2, 2), batchSizes());
+        batches.forEach(batch -> assertEquals(200, batch.bytes()));
+    }
+
+    @Test
+    void run_shouldDeliverLargeEventAlone() {
+        append(1, 10);
+        append(1, 1000);
+        append(1, 10);
+
+        run(new BatchingOptions(100, 500, LONG_LINGER), readInResponsesOf(10));
+
+        assertEquals(List.of(1, 1, 1), batchSizes());
+    }
+
+    @Test
+    void run_shouldReturnNull_whenNoEventsAreRead() {
+        Long checkpoint = run(BatchingOptions.defaults(), ReadRequest.all());
+
+        assertNull(checkpoint);
+        assertTrue(batches.isEmpty());
+        assertTrue(checkpoints.isEmpty());
+    }
+
+    @Test
+    void run_shouldFlushAfterMaxLinger_whenSubscribed() throws Exception {
+        var consumer = new BatchingConsumer(client, new BatchingOptions(1000, 1_000_000, Duration.ofMillis(20)));
+        var flushed = new CountDownLatch(1);
+        var result = CompletableFuture.supplyAsync(() -> consumer.run(ReadRequest.all().subscribe(100), batch -> {
+            batches.add(batch);
+            flushed.countDown();
+        }));
+
+        append(3, 1);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        consumer.close();
+        assertEquals(Long.valueOf(3), result.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(3), batchSizes());
+    }
+
+    @Test
+    void run_shouldPropagateHandlerFailure_withoutCheckpoint() {
+        append(5, 1);
+        var consumer = new BatchingConsumer(client, new BatchingOptions(2, 1000, LONG_LINGER));
+
+        var exception = assertThrows(IllegalStateException.class, () -> consumer.run(ReadRequest.all(), batch -> {
+            if (batch.firstPosition() > 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+        }, checkpoints::add));
+
+        assertEquals("database unavailable", exception.getMessage());
+        assertEquals(List.of(2L), checkpoints);
+    }
+
+    @Test
+    void run_shouldThrowException_whenClosed() {
+        var consumer = new BatchingConsumer(client);
+        consumer.close();
+
+        assertThrows(IllegalStateException.class, () -> consumer.run(ReadRequest.all(), batches::add));
+    }
+
+    @Test
+    void run_shouldResumeAfterCommittedCheckpoint(@TempDir Path tempDir) throws Exception {
+        append(10, 1);
+        var options = new BatchingOptions(4, 1000, LONG_LINGER);
+
+        try (var checkpoints = new FileCheckpointStore(tempDir.resolve("checkpoint"), Duration.ZERO)) {
+            checkpoints.save(3);
+
+            new BatchingConsumer(client, options).run(ReadRequest.all(), batches::add, checkpoints);
+
+            assertEquals(4, batches.get(0).firstPosition());
+            assertEquals(List.of(4, 3), batchSizes());
+            assertEquals(Long.valueOf(10), checkpoints.load());
+        }
+    }
+}
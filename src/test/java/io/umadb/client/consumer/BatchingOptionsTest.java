@@ -0,0 +1,35 @@
+package io.umadb.client.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingOptionsTest {
+
+    @Test
+    void constructor_shouldThrowException_whenMaxBatchSizeIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> new BatchingOptions(0, 1, Duration.ZERO));
+
+        assertEquals("maxBatchSize must be > 0", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenMaxLingerIsNegative() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> new BatchingOptions(1, 1, Duration.ofMillis(-1)));
+
+        assertEquals("maxLinger must not be null or negative", exception.getMessage());
+    }
+
+    @Test
+    void defaults_shouldUseBoundedBatches() {
+        BatchingOptions options = BatchingOptions.defaults();
+
+        assertEquals(500, options.maxBatchSize());
+        assertEquals(1024 * 1024, options.maxBatchBytes());
+        assertEquals(Duration.ofMillis(100), options.maxLinger());
+    }
+}
@@ -0,0 +1,26 @@
+package io.umadb.client.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatchUpOptionsTest {
+
+    @Test
+    void constructor_shouldThrowException_whenMaxBackoffIsLessThanBackoff() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new CatchUpOptions(1, 1, Duration.ofSeconds(2), Duration.ofSeconds(1)));
+
+        assertEquals("maxReconnectBackoff must not be null or less than reconnectBackoff", exception.getMessage());
+    }
+
+    @Test
+    void defaults_shouldReadHistoryInLargerBatchesThanLiveEvents() {
+        CatchUpOptions options = CatchUpOptions.defaults();
+
+        assertTrue(options.catchUpBatchSize() > options.liveBatchSize());
+        assertEquals(Duration.ofSeconds(10), options.maxReconnectBackoff());
+    }
+}
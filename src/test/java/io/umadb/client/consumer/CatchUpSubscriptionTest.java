@@ -0,0 +1,208 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.*;
+import io.umadb.client.checkpoint.FileCheckpointStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatchUpSubscriptionTest {
+
+    private InMemoryUmaDbClient client;
+    private CatchUpSubscription subscription;
+    private List<Long> delivered;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryUmaDbClient();
+        subscription = new CatchUpSubscription(client, new CatchUpOptions(1000, 10, Duration.ofMillis(1), Duration.ofMillis(5)));
+        delivered = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscription.close();
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private void append(String type, int count) {
+        for (int i = 0; i < count; i++) {
+            client.appendDirectly(Event.of(type, "order:" + i, new byte[0]));
+        }
+    }
+
+    private CompletableFuture<Long> start(ReadRequest readRequest) {
+        return CompletableFuture.supplyAsync(() -> subscription.run(readRequest, e -> delivered.add(e.position())));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(1);
+        }
+    }
+
+    private static List<Long> positions(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void run_shouldDeliverHistoryThenLiveEvents_withoutGapsOrDuplicates() throws Exception {
+        append("order-placed", 25);
+
+        var result = start(ReadRequest.all());
+        await(subscription::isLive);
+        append("order-placed", 5);
+        await(() -> delivered.size() == 30);
+        subscription.close();
+
+        assertEquals(Long.valueOf(30), result.get(10, TimeUnit.SECONDS));
+        assertEquals(positions(1, 30), delivered);
+        assertFalse(subscription.isLive());
+    }
+
+    @Test
+    void run_shouldReadHistoryWithoutSubscribing() throws Exception {
+        append("order-placed", 3);
+
+        start(ReadRequest.all());
+        await(subscription::isLive);
+
+        var historical = client.readRequests().get(0);
+        assertEquals(Boolean.FALSE, historical.subscribe());
+        assertEquals(Integer.valueOf(1000), historical.batchSize());
+        var live = client.readRequests().get(1);
+        assertEquals(Boolean.TRUE, live.subscribe());
+        assertEquals(Long.valueOf(4), live.start());
+    }
+
+    @Test
+    void run_shouldSubscribeAfterHead_whenLatestEventsDoNotMatch() throws Exception {
+        append("order-placed", 3);
+        append("order-shipped", 7);
+        var query = Query.of(QueryItem.of(List.of("order-placed"), List.of()));
+
+        start(ReadRequest.of(query));
+        await(subscription::isLive);
+
+        assertEquals(positions(1, 3), delivered);
+        assertEquals(Long.valueOf(11), client.readRequests().get(1).start());
+        assertEquals(Long.valueOf(10), subscription.lastPosition());
+    }
+
+    @Test
+    void run_shouldStartAtRequestedPosition() throws Exception {
+        append("order-placed", 10);
+
+        start(ReadRequest.all().withStart(6));
+        await(() -> delivered.size() == 5);
+
+        assertEquals(positions(6, 10), delivered);
+    }
+
+    @Test
+    void run_shouldReconnectAndResume_whenReadFails() throws Exception {
+        append("order-placed", 10);
+        var failures = new AtomicInteger(2);
+        client.beforeRead(request -> {
+            if (Boolean.TRUE.equals(request.subscribe()) && failures.getAndDecrement() > 0) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+
+        start(ReadRequest.all());
+        await(subscription::isLive);
+        append("order-placed", 2);
+        await(() -> delivered.size() == 12);
+
+        assertEquals(positions(1, 12), delivered);
+        var starts = client.readRequests().stream().map(ReadRequest::start).toList();
+        assertEquals(Long.valueOf(11), starts.get(starts.size() - 1));
+    }
+
+    @Test
+    void run_shouldThrowException_whenFailureIsNotTransient() {
+        client.beforeRead(request -> {
+            throw new UmaDbException.AuthenticationException("invalid api key");
+        });
+
+        assertThrows(UmaDbException.AuthenticationException.class,
+                () -> subscription.run(ReadRequest.all(), e -> delivered.add(e.position())));
+    }
+
+    @Test
+    void run_shouldThrowException_whenReadHasLimit() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> subscription.run(ReadRequest.all().withLimit(10), e -> {
+                }));
+
+        assertEquals("only forward reads without limit can be subscribed to", exception.getMessage());
+    }
+
+    @Test
+    void run_shouldResumeAfterCommittedCheckpoint(@TempDir Path tempDir) throws Exception {
+        append("order-placed", 10);
+        try (var checkpoints = new FileCheckpointStore(tempDir.resolve("checkpoint"), Duration.ZERO)) {
+            checkpoints.save(6);
+
+            start(ReadRequest.all(), checkpoints);
+            await(subscription::isLive);
+            append("order-placed", 1);
+            await(() -> delivered.size() == 5);
+            subscription.close();
+
+            assertEquals(positions(7, 11), delivered);
+            assertEquals(Long.valueOf(11), checkpoints.load());
+        }
+    }
+
+    @Test
+    void close_shouldNotInterruptHandlerInProgress() throws Exception {
+        append("order-placed", 1);
+        var handling = new CountDownLatch(1);
+        var interrupted = new AtomicBoolean();
+        var result = CompletableFuture.supplyAsync(() -> subscription.run(ReadRequest.all(), e -> {
+            handling.countDown();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+            delivered.add(e.position());
+        }));
+        assertTrue(handling.await(10, TimeUnit.SECONDS));
+
+        subscription.close();
+
+        assertEquals(Long.valueOf(1), result.get(10, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+        assertEquals(positions(1, 1), delivered);
+    }
+
+    private CompletableFuture<Long> start(ReadRequest readRequest, FileCheckpointStore checkpoints) {
+        return CompletableFuture.supplyAsync(() -> subscription.run(readRequest, e -> delivered.add(e.position()), checkpoints));
+    }
+}
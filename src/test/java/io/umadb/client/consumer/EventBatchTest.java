@@ -0,0 +1,33 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.Event;
+import io.umadb.client.SequencedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBatchTest {
+
+    private static SequencedEvent event(long position) {
+        return new SequencedEvent(position, Event.of("order-placed", "order:" + position, new byte[0]));
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenEventsAreEmpty() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> new EventBatch(List.of(), 0));
+
+        assertEquals("events must not be null or empty", exception.getMessage());
+    }
+
+    @Test
+    void checkpoint_shouldReturnPositionOfLastEvent() {
+        var batch = new EventBatch(List.of(event(4), event(5), event(9)), 0);
+
+        assertEquals(3, batch.size());
+        assertEquals(4, batch.firstPosition());
+        assertEquals(9, batch.checkpoint());
+    }
+}
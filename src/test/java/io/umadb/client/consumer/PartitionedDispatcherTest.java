@@ -0,0 +1,221 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.Event;
+import io.umadb.client.SequencedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private PartitionedDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static SequencedEvent event(long position, String order) {
+        return new SequencedEvent(position, Event.of("order-updated", List.of("order:" + order, "region:eu"), new byte[0]));
+    }
+
+    private PartitionedDispatcher dispatcher(int partitions, Consumer<SequencedEvent> handler) {
+        dispatcher = new PartitionedDispatcher(partitions, PartitionedDispatcher.tagWithPrefix("order:"), handler);
+        return dispatcher;
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void dispatch_shouldPreserveOrderPerKey() throws Exception {
+        Map<String, List<Long>> handled = new ConcurrentHashMap<>();
+        var dispatcher = dispatcher(4, e -> {
+            String key = e.event().tags().get(0);
+            handled.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(e.position());
+        });
+
+        for (long position = 1; position <= 1000; position++) {
+            dispatcher.dispatch(event(position, String.valueOf(position % 10)));
+        }
+
+        assertTrue(dispatcher.awaitIdle(TIMEOUT));
+        assertEquals(10, handled.size());
+        handled.forEach((key, positions) -> {
+            assertEquals(100, positions.size());
+            var sorted = new ArrayList<>(positions);
+            sorted.sort(null);
+            assertEquals(sorted, positions, "events of " + key + " out of order");
+        });
+        assertEquals(1000, dispatcher.lowWatermark());
+    }
+
+    @Test
+    void dispatch_shouldProcessKeysInParallel() throws Exception {
+        var blocked = new CountDownLatch(1);
+        var otherHandled = new CountDownLatch(1);
+        var dispatcher = dispatcher(2, e -> {
+            if (e.position() == 1) {
+                await(blocked);
+            } else {
+                otherHandled.countDown();
+            }
+        });
+
+        var first = event(1, "a");
+        var second = event(2, "b");
+        dispatcher.dispatch(first);
+        dispatcher.dispatch(second);
+
+        assertTrue(otherHandled.await(10, TimeUnit.SECONDS), "a slow key must not block other partitions");
+        blocked.countDown();
+        assertTrue(dispatcher.awaitIdle(TIMEOUT));
+    }
+
+    @Test
+    void lowWatermark_shouldStayBelowUnhandledEvent() throws Exception {
+        var release = new CountDownLatch(1);
+        var handled = new AtomicInteger();
+        dispatcher = new PartitionedDispatcher(2, 100, e -> e.event().tags().get(0), e -> {
+            if (e.position() == 3) {
+                await(release);
+            }
+            handled.incrementAndGet();
+        }, Thread::new);
+
+        // Positions 1 and 3 share a key, 2, 4 and 5 use another one that is never blocked
+        dispatcher.dispatch(event(1, "a"));
+        dispatcher.dispatch(event(2, "b"));
+        dispatcher.dispatch(event(3, "a"));
+        dispatcher.dispatch(event(4, "b"));
+        dispatcher.dispatch(event(5, "b"));
+        while (handled.get() < 4) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(2, dispatcher.lowWatermark());
+
+        release.countDown();
+        assertTrue(dispatcher.awaitIdle(TIMEOUT));
+        assertEquals(5, dispatcher.lowWatermark());
+    }
+
+    @Test
+    void lowWatermark_shouldReturnZero_whenNothingWasHandled() {
+        assertEquals(0, dispatcher(1, e -> {
+        }).lowWatermark());
+    }
+
+    @Test
+    void dispatch_shouldThrowException_afterHandlerFailed() throws Exception {
+        var allDispatched = new CountDownLatch(1);
+        var dispatcher = dispatcher(1, e -> {
+            if (e.position() == 2) {
+                // Fails only once all events are queued, so dispatching them does not fail yet
+                await(allDispatched);
+                throw new IllegalStateException("projection failed");
+            }
+        });
+
+        dispatcher.dispatch(event(1, "a"));
+        dispatcher.dispatch(event(2, "a"));
+        dispatcher.dispatch(event(3, "a"));
+        allDispatched.countDown();
+
+        var exception = assertThrows(IllegalStateException.class, () -> dispatcher.awaitIdle(TIMEOUT));
+        assertEquals("projection failed", exception.getCause().getMessage());
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(event(4, "a")));
+        assertEquals(1, dispatcher.lowWatermark());
+    }
+
+    @Test
+    void constructor_shouldUseThreadFactory() throws Exception {
+        var created = new AtomicInteger();
+        dispatcher = new PartitionedDispatcher(3, 10, e -> null, e -> {
+        }, runnable -> {
+            created.incrementAndGet();
+            return new Thread(runnable);
+        });
+
+        dispatcher.dispatch(event(1, "a"));
+
+        assertTrue(dispatcher.awaitIdle(TIMEOUT));
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    void close_shouldProcessQueuedEvents() throws Exception {
+        var handled = new AtomicInteger();
+        var dispatcher = dispatcher(2, e -> handled.incrementAndGet());
+        for (long position = 1; position <= 100; position++) {
+            dispatcher.dispatch(event(position, String.valueOf(position)));
+        }
+
+        dispatcher.close();
+
+        assertEquals(100, handled.get());
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(event(101, "a")));
+    }
+
+    @Test
+    void close_shouldNotInterruptHandlerInProgress() throws Exception {
+        var started = new CountDownLatch(1);
+        var interrupted = new AtomicInteger();
+        var handled = new AtomicInteger();
+        var dispatcher = dispatcher(1, e -> {
+            started.countDown();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                interrupted.incrementAndGet();
+            }
+            handled.incrementAndGet();
+        });
+        dispatcher.dispatch(event(1, "a"));
+        dispatcher.dispatch(event(2, "a"));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        dispatcher.close();
+
+        assertEquals(2, handled.get());
+        assertEquals(0, interrupted.get());
+        assertEquals(2, dispatcher.lowWatermark());
+    }
+
+    @Test
+    void tagWithPrefix_shouldReturnNull_whenNoTagMatches() {
+        var keyExtractor = PartitionedDispatcher.tagWithPrefix("customer:");
+
+        assertNull(keyExtractor.apply(event(1, "a")));
+        assertEquals("region:eu", PartitionedDispatcher.tagWithPrefix("region:").apply(event(1, "a")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
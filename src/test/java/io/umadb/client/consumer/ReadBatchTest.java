@@ -0,0 +1,213 @@
+package io.umadb.client.consumer;
+
+import io.umadb.client.Event;
+import io.umadb.client.InMemoryUmaDbClient;
+import io.umadb.client.ReadRequest;
+import io.umadb.client.ReadResponse;
+import io.umadb.client.SequencedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadBatchTest {
+
+    private static final SequencedEvent PLACED = new SequencedEvent(3,
+            new Event("order-placed", List.of("order:1", "customer:7"), "placed".getBytes(StandardCharsets.UTF_8), UUID.randomUUID()));
+    private static final SequencedEvent SHIPPED = new SequencedEvent(5,
+            new Event("order-shipped", List.of("order:1"), new byte[0], UUID.randomUUID()));
+    private static final SequencedEvent CANCELLED = new SequencedEvent(8,
+            new Event("order-placed", List.of("order:2"), "again".getBytes(StandardCharsets.UTF_8), UUID.randomUUID()));
+
+    @Test
+    void of_shouldHoldFieldsOfResponseInColumns() {
+        var dictionary = new StringDictionary();
+        var batch = ReadBatch.of(new ReadResponse(List.of(PLACED, SHIPPED, CANCELLED), 9L), dictionary);
+
+        assertEquals(3, batch.size());
+        assertEquals(Long.valueOf(9), batch.head());
+        assertEquals(5, batch.position(1));
+        assertEquals("order-shipped", batch.type(1));
+        assertEquals(batch.typeId(0), batch.typeId(2));
+        assertEquals(2, batch.tagCount(0));
+        assertEquals("customer:7", dictionary.get(batch.tagId(0, 1)));
+        assertTrue(batch.hasTag(1, dictionary.idOf("order:1")));
+        assertFalse(batch.hasTag(2, dictionary.idOf("order:1")));
+        assertEquals(PLACED.event().id(), batch.id(0));
+    }
+
+    @Test
+    void payload_shouldReturnSliceOfContiguousBuffer() {
+        var batch = ReadBatch.of(new ReadResponse(List.of(PLACED, SHIPPED, CANCELLED), null), new StringDictionary());
+
+        assertEquals(11, batch.payloads().remaining());
+        assertEquals(6, batch.payloadOffset(2));
+        assertEquals(0, batch.payloadLength(1));
+        var payload = batch.payload(2);
+        var bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        assertEquals("again", new String(bytes, StandardCharsets.UTF_8));
+        assertTrue(payload.isReadOnly());
+    }
+
+    @Test
+    void event_shouldMaterializeEqualRecords() {
+        var batch = ReadBatch.of(new ReadResponse(List.of(PLACED, SHIPPED, CANCELLED), null), new StringDictionary());
+
+        List<SequencedEvent> events = batch.events();
+
+        assertEquals(3, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            var expected = List.of(PLACED, SHIPPED, CANCELLED).get(i);
+            assertEquals(expected.position(), events.get(i).position());
+            assertEquals(expected.event().type(), events.get(i).event().type());
+            assertEquals(expected.event().tags(), events.get(i).event().tags());
+            assertArrayEquals(expected.event().data(), events.get(i).event().data());
+            assertEquals(expected.event().id(), events.get(i).event().id());
+        }
+    }
+
+    @Test
+    void forEachOfType_shouldVisitOnlyEventsOfType() {
+        var dictionary = new StringDictionary();
+        int placed = dictionary.intern("order-placed");
+        var batch = ReadBatch.of(new ReadResponse(List.of(PLACED, SHIPPED, CANCELLED), null), dictionary);
+        var visited = new ArrayList<Long>();
+
+        batch.forEachOfType(placed, (index, position, typeId) -> visited.add(position));
+
+        assertEquals(List.of(3L, 8L), visited);
+    }
+
+    @Test
+    void forEachPosition_shouldVisitPositionsInOrder() {
+        var batch = ReadBatch.of(new ReadResponse(List.of(PLACED, SHIPPED, CANCELLED), null), new StringDictionary());
+        var visited = new ArrayList<Long>();
+
+        batch.forEachPosition(visited::add);
+
+        assertEquals(List.of(3L, 5L, 8L), visited);
+    }
+
+    @Test
+    void builder_shouldGrowColumns_whenManyEventsAreAdded() {
+        var builder = ReadBatch.builder(new StringDictionary());
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i, new Event("type-" + i % 3, List.of("tag:" + i), new byte[i % 7], UUID.randomUUID()));
+        }
+
+        var batch = builder.build(null);
+
+        assertEquals(1000, batch.size());
+        assertEquals(0, builder.size());
+        assertEquals(999, batch.position(999));
+        assertEquals("type-0", batch.type(999));
+        assertEquals(999 % 7, batch.payloadLength(999));
+        assertEquals(1003, batch.dictionary().size());
+    }
+
+    @Test
+    void build_shouldLeaveBatchUnchanged_whenBuilderIsReused() {
+        var builder = ReadBatch.builder(new StringDictionary());
+        var first = builder.add(PLACED).build(null);
+
+        var second = builder.add(SHIPPED).add(CANCELLED).build(4L);
+
+        assertEquals(1, first.size());
+        assertEquals("order-placed", first.type(0));
+        assertEquals(6, first.payloads().remaining());
+        assertEquals(2, second.size());
+        assertEquals(8, second.position(1));
+    }
+
+    @Test
+    void build_shouldReturnEmptyBatches_whenBuiltAgainWithoutEvents() {
+        var builder = ReadBatch.builder(new StringDictionary());
+        builder.add(PLACED).build(null);
+
+        var empty = builder.build(5L);
+        var again = builder.build(6L);
+
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.payloads().remaining());
+        assertEquals(6L, again.head());
+        assertEquals(1, builder.add(SHIPPED).build(null).size());
+    }
+
+    @Test
+    void builder_shouldAddEventsFieldByField_inAnyOrder() {
+        var id = UUID.randomUUID();
+        byte[] payload = "xplacedx".getBytes(StandardCharsets.UTF_8);
+
+        var batch = ReadBatch.builder(new StringDictionary())
+                .begin()
+                .tag("order:1")
+                .payload(payload, 1, 6)
+                .id(id.getMostSignificantBits(), id.getLeastSignificantBits())
+                .type("order-placed")
+                .tag("customer:7")
+                .position(3)
+                .end()
+                .build(null);
+
+        var event = batch.event(0);
+        assertEquals(3, event.position());
+        assertEquals("order-placed", event.event().type());
+        assertEquals(List.of("order:1", "customer:7"), event.event().tags());
+        assertEquals("placed", new String(event.event().data(), StandardCharsets.UTF_8));
+        assertEquals(id, event.event().id());
+    }
+
+    @Test
+    void end_shouldThrowException_whenEventHasNoId() {
+        var builder = ReadBatch.builder(new StringDictionary()).begin().type("order-placed");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, builder::end);
+
+        assertEquals("event at position 0 must have a type and an id", exception.getMessage());
+    }
+
+    @Test
+    void tag_shouldThrowException_whenNoEventHasBeenStarted() {
+        var builder = ReadBatch.builder(new StringDictionary());
+
+        assertThrows(IllegalStateException.class, () -> builder.tag("order:1"));
+    }
+
+    @Test
+    void read_shouldConvertResponses_whenClientIsNotGrpc() {
+        var client = new InMemoryUmaDbClient();
+        client.appendDirectly(PLACED.event(), SHIPPED.event());
+        var dictionary = new StringDictionary();
+
+        Iterator<ReadBatch> batches = ReadBatch.read(client, ReadRequest.all(), dictionary);
+
+        var types = new ArrayList<String>();
+        while (batches.hasNext()) {
+            var batch = batches.next();
+            batch.forEach((index, position, typeId) -> types.add(dictionary.get(typeId)));
+        }
+        assertEquals(List.of("order-placed", "order-shipped"), types);
+    }
+
+    @Test
+    void position_shouldThrowException_whenIndexIsOutOfRange() {
+        var batch = ReadBatch.of(new ReadResponse(List.of(PLACED), null), new StringDictionary());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.position(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.tagId(0, 2));
+    }
+
+    @Test
+    void of_shouldThrowException_whenResponseIsNull() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> ReadBatch.of(null, new StringDictionary()));
+
+        assertEquals("response must not be null", exception.getMessage());
+    }
+}
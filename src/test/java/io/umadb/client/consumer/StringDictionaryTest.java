@@ -0,0 +1,47 @@
+package io.umadb.client.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    @Test
+    void intern_shouldAssignDenseIdsInOrderOfFirstAppearance() {
+        var dictionary = new StringDictionary();
+
+        assertEquals(0, dictionary.intern("order-placed"));
+        assertEquals(1, dictionary.intern("order-shipped"));
+        assertEquals(0, dictionary.intern("order-placed"));
+        assertEquals(2, dictionary.size());
+        assertEquals("order-shipped", dictionary.get(1));
+    }
+
+    @Test
+    void intern_shouldKeepIds_whenDictionaryGrows() {
+        var dictionary = new StringDictionary();
+        for (int i = 0; i < 100; i++) {
+            dictionary.intern("tag:" + i);
+        }
+
+        assertEquals(42, dictionary.idOf("tag:42"));
+        assertEquals("tag:99", dictionary.get(99));
+    }
+
+    @Test
+    void idOf_shouldReturnAbsent_whenStringIsNotInterned() {
+        var dictionary = new StringDictionary();
+
+        assertEquals(StringDictionary.ABSENT, dictionary.idOf("order-placed"));
+        assertEquals(0, dictionary.size());
+    }
+
+    @Test
+    void get_shouldThrowException_whenIdIsUnknown() {
+        var dictionary = new StringDictionary();
+        dictionary.intern("order-placed");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.get(-1));
+    }
+}
@@ -0,0 +1,163 @@
+package io.umadb.client.dcb;
+
+import io.umadb.client.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionExecutorTest {
+
+    private static final Query COURSE_QUERY = Query.of(QueryItem.ofTags(List.of("course:1")));
+    private static final DecisionModel<Integer> SUBSCRIPTION_COUNT =
+            DecisionModel.of(COURSE_QUERY, 0, (count, event) -> count + 1);
+
+    private InMemoryUmaDbClient client;
+    private DecisionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryUmaDbClient();
+        executor = new DecisionExecutor(client, new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static Event subscribed(String tag) {
+        return Event.of("student-subscribed", List.of("course:1", tag), "{}".getBytes(UTF_8));
+    }
+
+    private static Event unrelated() {
+        return Event.of("course-renamed", List.of("course:2"), "{}".getBytes(UTF_8));
+    }
+
+    private static List<Event> subscribeIfCapacityLeft(int count) {
+        return count < 3 ? List.of(subscribed("student:new")) : List.of();
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void execute_shouldAppendWithConditionAfterReadPosition() {
+        client.appendDirectly(subscribed("student:1"), unrelated());
+
+        DecisionResult<Integer> result = executor.execute(SUBSCRIPTION_COUNT, DecisionExecutorTest::subscribeIfCapacityLeft);
+
+        assertTrue(result.appended());
+        assertEquals(Integer.valueOf(1), result.state());
+        assertEquals(1, result.attempts());
+        assertEquals(Long.valueOf(3), result.position());
+
+        AppendCondition condition = client.appendRequests().get(0).condition();
+        assertEquals(COURSE_QUERY, condition.failIfEventsMatch());
+        assertEquals(Long.valueOf(2), condition.after(), "condition should cover everything up to the read head");
+    }
+
+    @Test
+    void execute_shouldNotAppend_whenDecisionIsEmpty() {
+        client.appendDirectly(subscribed("student:1"), subscribed("student:2"), subscribed("student:3"));
+
+        DecisionResult<Integer> result = executor.execute(SUBSCRIPTION_COUNT, DecisionExecutorTest::subscribeIfCapacityLeft);
+
+        assertFalse(result.appended());
+        assertTrue(result.events().isEmpty());
+        assertTrue(client.appendRequests().isEmpty());
+    }
+
+    @Test
+    void execute_shouldReadOnlyDeltaAndRetry_whenConcurrentWriteConflicts() {
+        client.appendDirectly(subscribed("student:1"));
+        client.beforeAppend(request -> {
+            if (client.appendRequests().size() == 1) {
+                client.appendDirectly(subscribed("student:concurrent"));
+            }
+        });
+
+        DecisionResult<Integer> result = executor.execute(SUBSCRIPTION_COUNT, DecisionExecutorTest::subscribeIfCapacityLeft);
+
+        assertTrue(result.appended());
+        assertEquals(Integer.valueOf(2), result.state(), "state should include the concurrently appended event");
+        assertEquals(2, result.attempts());
+
+        List<ReadRequest> reads = client.readRequests();
+        assertEquals(2, reads.size());
+        assertNull(reads.get(0).start());
+        assertEquals(Long.valueOf(2), reads.get(1).start(), "retry should only read events after the previous position");
+
+        DecisionStats stats = executor.stats();
+        assertEquals(1, stats.decisions());
+        assertEquals(2, stats.appendAttempts());
+        assertEquals(1, stats.conflicts());
+        assertEquals(1, stats.retries());
+        assertEquals(0.5, stats.conflictRate(), 0.0001);
+    }
+
+    @Test
+    void execute_shouldReconsiderDecision_whenConflictChangesState() {
+        client.appendDirectly(subscribed("student:1"), subscribed("student:2"));
+        client.beforeAppend(request -> {
+            if (client.appendRequests().size() == 1) {
+                client.appendDirectly(subscribed("student:concurrent"));
+            }
+        });
+
+        DecisionResult<Integer> result = executor.execute(SUBSCRIPTION_COUNT, DecisionExecutorTest::subscribeIfCapacityLeft);
+
+        assertFalse(result.appended(), "course is full after the concurrent subscription");
+        assertEquals(Integer.valueOf(3), result.state());
+    }
+
+    @Test
+    void execute_shouldThrowIntegrityException_whenRetriesAreExhausted() {
+        client.beforeAppend(request -> client.appendDirectly(subscribed("student:concurrent")));
+        var unbounded = DecisionModel.of(COURSE_QUERY, 0, (Integer count, SequencedEvent event) -> count + 1);
+
+        assertThrows(UmaDbException.IntegrityException.class,
+                () -> executor.execute(unbounded, count -> List.of(subscribed("student:new"))));
+
+        DecisionStats stats = executor.stats();
+        assertEquals(3, stats.appendAttempts());
+        assertEquals(3, stats.conflicts());
+        assertEquals(1, stats.exhausted());
+    }
+
+    @Test
+    void execute_shouldFoldOnlyNewEvents_whenSnapshotIsCached() {
+        var snapshots = new SnapshotCache(10);
+        var cachingExecutor = new DecisionExecutor(client, new RetryPolicy(3, Duration.ZERO, Duration.ZERO), snapshots);
+        var model = SUBSCRIPTION_COUNT.withSnapshots("subscription-count-v1");
+        client.appendDirectly(subscribed("student:1"));
+
+        cachingExecutor.execute(model, DecisionExecutorTest::subscribeIfCapacityLeft);
+        DecisionResult<Integer> result = cachingExecutor.execute(model, DecisionExecutorTest::subscribeIfCapacityLeft);
+
+        assertEquals(Integer.valueOf(2), result.state());
+        List<ReadRequest> reads = client.readRequests();
+        assertEquals(2, reads.size());
+        assertEquals(Long.valueOf(2), reads.get(1).start(), "second decision should only read events after the snapshot");
+        assertEquals(Long.valueOf(2), client.appendRequests().get(1).condition().after());
+        assertEquals(1, snapshots.hits());
+        assertEquals(Long.valueOf(2), Long.valueOf(snapshots.get(model).position()));
+    }
+
+    @Test
+    void execute_shouldNotCacheState_whenModelHasNoSnapshotId() {
+        var snapshots = new SnapshotCache(10);
+        var cachingExecutor = new DecisionExecutor(client, new RetryPolicy(3, Duration.ZERO, Duration.ZERO), snapshots);
+        client.appendDirectly(subscribed("student:1"));
+
+        cachingExecutor.execute(SUBSCRIPTION_COUNT, DecisionExecutorTest::subscribeIfCapacityLeft);
+        cachingExecutor.execute(SUBSCRIPTION_COUNT, DecisionExecutorTest::subscribeIfCapacityLeft);
+
+        assertNull(client.readRequests().get(1).start());
+        assertEquals(0, snapshots.size());
+    }
+}
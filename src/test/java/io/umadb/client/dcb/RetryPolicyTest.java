@@ -0,0 +1,41 @@
+package io.umadb.client.dcb;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    @Test
+    void constructor_shouldThrowException_whenMaxAttemptsIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class,
+                        () -> new RetryPolicy(0, Duration.ZERO, Duration.ZERO));
+
+        assertEquals("maxAttempts must be >= 1", exception.getMessage());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenMaxBackoffIsLessThanInitialBackoff() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RetryPolicy(3, Duration.ofSeconds(1), Duration.ofMillis(1)));
+    }
+
+    @Test
+    void backoff_shouldStayWithinExponentialCeiling() {
+        RetryPolicy policy = new RetryPolicy(10, Duration.ofMillis(10), Duration.ofMillis(100));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoff(1).compareTo(Duration.ofMillis(10)) <= 0);
+            assertTrue(policy.backoff(3).compareTo(Duration.ofMillis(40)) <= 0);
+            assertTrue(policy.backoff(20).compareTo(Duration.ofMillis(100)) <= 0);
+        }
+    }
+
+    @Test
+    void noRetry_shouldAllowSingleAttempt() {
+        assertEquals(1, RetryPolicy.noRetry().maxAttempts());
+    }
+}
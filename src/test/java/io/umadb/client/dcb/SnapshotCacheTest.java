@@ -0,0 +1,194 @@
+package io.umadb.client.dcb;
+
+import io.umadb.client.Query;
+import io.umadb.client.QueryItem;
+import io.umadb.client.SequencedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheTest {
+
+    private static final Query COURSE_1 = Query.of(QueryItem.ofTags(List.of("course:1")));
+    private static final Query COURSE_2 = Query.of(QueryItem.ofTags(List.of("course:2")));
+
+    private static final SnapshotCodec<Integer> INT_CODEC = new SnapshotCodec<>() {
+        @Override
+        public byte[] encode(Integer state) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(state).array();
+        }
+
+        @Override
+        public Integer decode(byte[] data) {
+            return ByteBuffer.wrap(data).getInt();
+        }
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private static DecisionModel<Integer> count(Query query) {
+        return DecisionModel.of(query, 0, (Integer count, SequencedEvent event) -> count + 1)
+                .withSnapshots("count-v1", INT_CODEC);
+    }
+
+    private Path file(Query query) throws IOException {
+        String prefix = "%016x-".formatted(query.canonicalHash());
+        try (var files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).findFirst().orElseThrow();
+        }
+    }
+
+    @Test
+    void get_shouldReturnNull_whenNothingIsCached() {
+        var cache = new SnapshotCache(10);
+
+        assertNull(cache.get(count(COURSE_1)));
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void put_shouldKeepSnapshotCoveringHigherPosition() {
+        var cache = new SnapshotCache(10);
+        var model = count(COURSE_1);
+
+        cache.put(model, new Snapshot<>(5, 20));
+        cache.put(model, new Snapshot<>(4, 18));
+
+        assertEquals(new Snapshot<>(5, 20), cache.get(model));
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void get_shouldSeparateSnapshots_whenIdsDiffer() {
+        var cache = new SnapshotCache(10);
+        var model = count(COURSE_1);
+
+        cache.put(model, new Snapshot<>(5, 20));
+
+        assertNull(cache.get(model.withSnapshots("count-v2")));
+        assertNull(cache.get(count(COURSE_2)));
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedSnapshot_whenFull() {
+        var cache = new SnapshotCache(1);
+
+        cache.put(count(COURSE_1), new Snapshot<>(1, 1));
+        cache.put(count(COURSE_2), new Snapshot<>(2, 2));
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(count(COURSE_1)));
+        assertEquals(new Snapshot<>(2, 2), cache.get(count(COURSE_2)));
+    }
+
+    @Test
+    void get_shouldReadSnapshotFromDisk_whenCacheIsNew() throws IOException {
+        try (var cache = new SnapshotCache(10, tempDir)) {
+            cache.put(count(COURSE_1), new Snapshot<>(7, 42));
+        }
+
+        var reopened = new SnapshotCache(10, tempDir);
+
+        assertEquals(new Snapshot<>(7, 42), reopened.get(count(COURSE_1)));
+        assertEquals(1, reopened.size());
+    }
+
+    @Test
+    void get_shouldIgnoreSnapshotOnDisk_whenFileIsDamaged() throws IOException {
+        try (var cache = new SnapshotCache(10, tempDir)) {
+            cache.put(count(COURSE_1), new Snapshot<>(7, 42));
+        }
+        try (var files = Files.list(tempDir)) {
+            Path file = files.findFirst().orElseThrow();
+            byte[] content = Files.readAllBytes(file);
+            content[content.length / 2] ^= 1;
+            Files.write(file, content);
+        }
+
+        assertNull(new SnapshotCache(10, tempDir).get(count(COURSE_1)));
+    }
+
+    @Test
+    void put_shouldKeepSnapshotInMemoryOnly_whenModelHasNoCodec() throws IOException {
+        var cache = new SnapshotCache(10, tempDir);
+        var model = DecisionModel.of(COURSE_1, 0, (Integer count, SequencedEvent event) -> count + 1)
+                .withSnapshots("count-v1");
+
+        cache.put(model, new Snapshot<>(7, 42));
+        cache.flush();
+
+        assertEquals(new Snapshot<>(7, 42), cache.get(model));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void get_shouldIgnoreSnapshotOnDisk_whenFileHoldsAnotherQuery() throws IOException {
+        try (var cache = new SnapshotCache(10, tempDir)) {
+            cache.put(count(COURSE_1), new Snapshot<>(7, 42));
+            cache.put(count(COURSE_2), new Snapshot<>(3, 12));
+        }
+        // As if the hashes of both queries collided
+        Path course1 = file(COURSE_1);
+        Files.copy(course1, file(COURSE_2), StandardCopyOption.REPLACE_EXISTING);
+
+        var reopened = new SnapshotCache(10, tempDir);
+
+        assertNull(reopened.get(count(COURSE_2)));
+        assertEquals(new Snapshot<>(7, 42), reopened.get(count(COURSE_1)));
+    }
+
+    @Test
+    void flush_shouldWaitForPendingWrites() throws IOException {
+        var cache = new SnapshotCache(10, tempDir);
+
+        cache.put(count(COURSE_1), new Snapshot<>(7, 42));
+        cache.put(count(COURSE_1), new Snapshot<>(8, 43));
+        cache.flush();
+
+        assertEquals(new Snapshot<>(8, 43), new SnapshotCache(10, tempDir).get(count(COURSE_1)));
+        cache.close();
+    }
+
+    @Test
+    void put_shouldKeepSnapshotInMemoryOnly_whenCacheIsClosed() throws IOException {
+        var cache = new SnapshotCache(10, tempDir);
+        cache.close();
+
+        cache.put(count(COURSE_1), new Snapshot<>(7, 42));
+
+        assertEquals(new Snapshot<>(7, 42), cache.get(count(COURSE_1)));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void get_shouldThrowException_whenModelHasNoSnapshotId() {
+        var cache = new SnapshotCache(10);
+        var model = DecisionModel.of(COURSE_1, 0, (Integer count, SequencedEvent event) -> count + 1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> cache.get(model));
+
+        assertEquals("model must have a snapshotId", exception.getMessage());
+    }
+
+    @Test
+    void withSnapshots_shouldThrowException_whenIdIsBlank() {
+        var model = DecisionModel.of(COURSE_1, 0, (Integer count, SequencedEvent event) -> count + 1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> model.withSnapshots(" "));
+
+        assertEquals("snapshotId must not be blank", exception.getMessage());
+    }
+}
@@ -0,0 +1,116 @@
+package io.umadb.client.export;
+
+import io.umadb.client.*;
+import io.umadb.client.bulk.BulkLoadProgress;
+import io.umadb.client.bulk.BulkLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryUmaDbClient source;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        source = new InMemoryUmaDbClient();
+        file = tempDir.resolve("events.umadb");
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private void appendEvents(int count) {
+        for (int i = 0; i < count; i++) {
+            source.appendDirectly(Event.of("order-placed", List.of("order:" + i, "shop:1"), ("{\"i\":" + i + "}").getBytes(UTF_8)));
+        }
+    }
+
+    private static void assertSameEvents(List<SequencedEvent> expected, List<SequencedEvent> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Event e = expected.get(i).event();
+            Event a = actual.get(i).event();
+            assertEquals(e.id(), a.id());
+            assertEquals(e.type(), a.type());
+            assertEquals(e.tags(), a.tags());
+            assertArrayEquals(e.data(), a.data());
+        }
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void export_shouldRoundTripThroughImporter() throws IOException {
+        appendEvents(100);
+
+        ExportResult result = new EventExporter(source, 256).export(ReadRequest.all(), file);
+
+        assertEquals(100, result.eventsWritten());
+        assertEquals(Long.valueOf(100), result.lastPosition());
+
+        var target = new InMemoryUmaDbClient();
+        BulkLoadProgress progress = new EventImporter(new BulkLoader(target), 256).importFrom(file);
+
+        assertEquals(100, progress.resumeIndex());
+        assertSameEvents(source.events(), target.events());
+    }
+
+    @Test
+    void export_shouldResumeAfterLastCompleteRecord() throws IOException {
+        appendEvents(10);
+        new EventExporter(source).export(ReadRequest.all(), file);
+        // Simulate an interrupted export that left a partial record behind
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+        appendEvents(5);
+
+        ExportResult result = new EventExporter(source).export(ReadRequest.all(), file);
+
+        assertEquals(6, result.eventsWritten(), "the truncated event and the new events");
+        assertEquals(Long.valueOf(15), result.lastPosition());
+        assertEquals(Long.valueOf(10), source.readRequests().get(1).start());
+
+        var target = new InMemoryUmaDbClient();
+        new EventImporter(new BulkLoader(target)).importFrom(file);
+        assertSameEvents(source.events(), target.events());
+    }
+
+    @Test
+    void export_shouldRejectSubscriptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventExporter(source).export(ReadRequest.all().subscribe(10), file));
+    }
+
+    @Test
+    void importFrom_shouldSkipAlreadyImportedEvents() throws IOException {
+        appendEvents(20);
+        new EventExporter(source).export(ReadRequest.all(), file);
+
+        var target = new InMemoryUmaDbClient();
+        BulkLoadProgress progress = new EventImporter(new BulkLoader(target)).importFrom(file, 15, p -> {
+        });
+
+        assertEquals(20, progress.resumeIndex());
+        assertEquals(5, target.events().size());
+        assertEquals(source.events().get(15).event().id(), target.events().get(0).event().id());
+    }
+}
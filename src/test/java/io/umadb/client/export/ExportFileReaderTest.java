@@ -0,0 +1,104 @@
+package io.umadb.client.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportFileReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private Path file(byte[]... records) throws IOException {
+        int size = ExportFormat.HEADER.length;
+        for (byte[] record : records) {
+            size += Integer.BYTES + record.length;
+        }
+        var buffer = ByteBuffer.allocate(size).put(ExportFormat.HEADER);
+        for (byte[] record : records) {
+            buffer.putInt(record.length).put(record);
+        }
+        Path file = tempDir.resolve("export.umadb");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void next_shouldReturnRecordsInOrder() throws IOException {
+        Path file = file(new byte[]{1, 2, 3}, new byte[0], new byte[]{4});
+
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            var reader = new ExportFileReader(channel, 16);
+
+            assertArrayEquals(new byte[]{1, 2, 3}, bytes(reader.next()));
+            assertArrayEquals(new byte[0], bytes(reader.next()));
+            assertArrayEquals(new byte[]{4}, bytes(reader.next()));
+            assertNull(reader.next());
+            assertEquals(Files.size(file), reader.validEnd());
+        }
+    }
+
+    @Test
+    void next_shouldReadRecordsLargerThanBuffer() throws IOException {
+        byte[] large = new byte[100];
+        large[99] = 42;
+        Path file = file(new byte[]{1}, large, new byte[]{2});
+
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            var reader = new ExportFileReader(channel, 16);
+
+            assertArrayEquals(new byte[]{1}, bytes(reader.next()));
+            assertArrayEquals(large, bytes(reader.next()));
+            assertArrayEquals(new byte[]{2}, bytes(reader.next()));
+        }
+    }
+
+    @Test
+    void next_shouldIgnorePartialLastRecord() throws IOException {
+        Path file = file(new byte[]{1, 2}, new byte[]{3, 4, 5, 6});
+        long complete = ExportFormat.HEADER.length + Integer.BYTES + 2;
+        try (FileChannel channel = FileChannel.open(file, java.nio.file.StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 2);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            var reader = new ExportFileReader(channel, 64);
+
+            assertNotNull(reader.next());
+            assertNull(reader.next());
+            assertEquals(complete, reader.validEnd());
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenHeaderIsMissing() throws IOException {
+        Path file = tempDir.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            assertThrows(IOException.class, () -> new ExportFileReader(channel, 64));
+        }
+    }
+}
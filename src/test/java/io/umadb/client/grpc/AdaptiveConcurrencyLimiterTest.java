@@ -0,0 +1,129 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.ConcurrencyLimit;
+import io.umadb.client.UmaDbException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long ONE_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimiter(new ConcurrencyLimit(initial, min, max, Duration.ZERO), clock::get);
+    }
+
+    private void completeRound(AdaptiveConcurrencyLimiter limiter, int calls, long rttNanos) {
+        var permits = new AdaptiveConcurrencyLimiter.Permit[calls];
+        for (int i = 0; i < calls; i++) {
+            permits[i] = limiter.acquire();
+        }
+        clock.addAndGet(rttNanos);
+        for (var permit : permits) {
+            permit.release(false);
+        }
+    }
+
+    @Test
+    void acquire_shouldRejectImmediately_whenLimitIsReached() {
+        var limiter = limiter(2, 1, 2);
+
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThrows(UmaDbException.LimitExceededException.class, limiter::acquire);
+    }
+
+    @Test
+    void release_shouldFreeSlotForNextCall() {
+        var limiter = limiter(1, 1, 1);
+
+        limiter.acquire().release(false);
+
+        assertDoesNotThrow(limiter::acquire);
+    }
+
+    @Test
+    void release_shouldOnlyCountOnce() {
+        var limiter = limiter(1, 1, 1);
+        var permit = limiter.acquire();
+
+        permit.release(false);
+        permit.release(false);
+
+        limiter.acquire();
+        assertThrows(UmaDbException.LimitExceededException.class, limiter::acquire);
+    }
+
+    @Test
+    void limit_shouldGrow_whenLatencyStaysAtMinimum() {
+        var limiter = limiter(2, 1, 10);
+
+        for (int round = 0; round < 5; round++) {
+            completeRound(limiter, limiter.currentLimit(), ONE_MILLI);
+        }
+
+        assertEquals(10, limiter.currentLimit());
+    }
+
+    @Test
+    void limit_shouldNotGrow_whenItIsNotUsed() {
+        var limiter = limiter(10, 1, 20);
+
+        for (int round = 0; round < 5; round++) {
+            completeRound(limiter, 1, ONE_MILLI);
+        }
+
+        assertEquals(10, limiter.currentLimit());
+    }
+
+    @Test
+    void limit_shouldShrink_whenLatencyIncreases() {
+        var limiter = limiter(10, 1, 10);
+        completeRound(limiter, 10, ONE_MILLI);
+
+        completeRound(limiter, 5, 10 * ONE_MILLI);
+
+        assertTrue(limiter.currentLimit() < 10, "Limit should shrink when requests queue up");
+    }
+
+    @Test
+    void limit_shouldShrinkMultiplicatively_whenCallsAreDropped() {
+        var limiter = limiter(100, 5, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire().release(true);
+        }
+        assertEquals(34, limiter.currentLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire().release(true);
+        }
+        assertEquals(5, limiter.currentLimit());
+    }
+
+    @Test
+    void acquire_shouldWaitForReleasedPermit_whenQueueTimeIsConfigured() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(
+                new ConcurrencyLimit(1, 1, 1, Duration.ofSeconds(5)),
+                clock::get
+        );
+        var permit = limiter.acquire();
+
+        var queued = CompletableFuture.supplyAsync(limiter::acquire);
+        Thread.sleep(50);
+        assertFalse(queued.isDone(), "Second call should be queued");
+
+        permit.release(false);
+
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+}
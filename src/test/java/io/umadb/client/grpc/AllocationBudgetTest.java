@@ -0,0 +1,172 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.*;
+import io.umadb.client.consumer.ReadBatch;
+import io.umadb.client.consumer.StringDictionary;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes allocated by the encode/decode paths and the record constructors
+ * and fails if they exceed the budgets in {@code allocation-budget.properties}.
+ * <p>
+ * Allocation is measured with {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}
+ * after a warm-up phase, so the JIT has compiled the measured code. The budgets only apply
+ * to the JDK release they were measured on.
+ */
+class AllocationBudgetTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+    private static final int EVENTS_PER_REQUEST = 10;
+
+    private static final List<String> TAGS = List.of("order:123", "customer:42", "region:eu");
+    private static final byte[] DATA = new byte[128];
+    private static final UUID ID = UUID.randomUUID();
+
+    private static final Event EVENT = new Event("order-created", TAGS, DATA, ID);
+    private static final QueryItem QUERY_ITEM = QueryItem.of(List.of("order-created"), List.of("order:123"));
+    private static final Query QUERY = Query.of(QUERY_ITEM);
+    private static final AppendRequest APPEND_REQUEST = new AppendRequest(
+            Collections.nCopies(EVENTS_PER_REQUEST, EVENT),
+            AppendCondition.failIfExistsAfter(QUERY, 42L)
+    );
+
+    private static final Umadb.SequencedEvent UMADB_SEQUENCED_EVENT = Umadb.SequencedEvent.newBuilder()
+            .setPosition(42L)
+            .setEvent(UmaDbUtils.toUmadbEvent(EVENT))
+            .build();
+    private static final Umadb.ReadResponse UMADB_READ_RESPONSE = Umadb.ReadResponse.newBuilder()
+            .addAllEvents(Collections.nCopies(EVENTS_PER_REQUEST, UMADB_SEQUENCED_EVENT))
+            .setHead(100L)
+            .build();
+    private static final AppendRequestMarshaller APPEND_REQUEST_MARSHALLER = new AppendRequestMarshaller(null);
+    private static final byte[] READ_RESPONSE_BYTES = UMADB_READ_RESPONSE.toByteArray();
+    private static final ReadResponseMarshaller READ_RESPONSE_MARSHALLER = new ReadResponseMarshaller(null);
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Properties budgets;
+
+    /**
+     * Keeps results reachable so the JIT cannot eliminate the measured allocations.
+     */
+    private static volatile Object sink;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        assumeTrue(THREAD_MX_BEAN.isThreadAllocatedMemorySupported(), "thread allocation measurement not supported");
+        THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budget.properties")) {
+            assertNotNull(in, "allocation-budget.properties not found");
+            budgets.load(in);
+        }
+        int measuredOn = Integer.parseInt(budgets.getProperty("jdk"));
+        assumeTrue(Runtime.version().feature() == measuredOn, "budgets are measured on JDK " + measuredOn);
+    }
+
+    @Test
+    void toUmadbEvent_shouldStayWithinBudget() {
+        assertWithinBudget("encode.event", 1, () -> UmaDbUtils.toUmadbEvent(EVENT));
+    }
+
+    @Test
+    void toUmadbAppendRequest_shouldStayWithinBudgetPerEvent() {
+        assertWithinBudget("encode.appendRequest.perEvent", EVENTS_PER_REQUEST,
+                () -> UmaDbUtils.toUmadbAppendRequest(APPEND_REQUEST));
+    }
+
+    @Test
+    void appendRequestMarshaller_shouldStayWithinBudgetPerEvent() {
+        assertWithinBudget("encode.appendRequestMarshaller.perEvent", EVENTS_PER_REQUEST,
+                () -> APPEND_REQUEST_MARSHALLER.stream(APPEND_REQUEST));
+    }
+
+    @Test
+    void toSequencedEvent_shouldStayWithinBudget() {
+        assertWithinBudget("decode.sequencedEvent", 1, () -> UmaDbUtils.toSequencedEvent(UMADB_SEQUENCED_EVENT));
+    }
+
+    @Test
+    void toReadResponse_shouldStayWithinBudgetPerEvent() {
+        assertWithinBudget("decode.readResponse.perEvent", EVENTS_PER_REQUEST,
+                () -> UmaDbUtils.toReadResponse(UMADB_READ_RESPONSE));
+    }
+
+    @Test
+    void readResponseMarshaller_shouldStayWithinBudgetPerEvent() {
+        assertWithinBudget("decode.readResponseMarshaller.perEvent", EVENTS_PER_REQUEST, () -> {
+            try {
+                return READ_RESPONSE_MARSHALLER.decode(READ_RESPONSE_BYTES, READ_RESPONSE_BYTES.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    void readBatchMarshaller_shouldStayWithinBudgetPerEvent() {
+        var dictionary = new StringDictionary();
+        assertWithinBudget("decode.readBatchMarshaller.perEvent", EVENTS_PER_REQUEST, () -> {
+            try {
+                return READ_RESPONSE_MARSHALLER.decode(READ_RESPONSE_BYTES, READ_RESPONSE_BYTES.length, ReadBatch.builder(dictionary));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    void eventConstructor_shouldStayWithinBudget() {
+        assertWithinBudget("record.event", 1, () -> new Event("order-created", TAGS, DATA, ID));
+    }
+
+    @Test
+    void queryConstructor_shouldStayWithinBudget() {
+        List<QueryItem> items = QUERY.items();
+        assertWithinBudget("record.query", 1, () -> new Query(items));
+    }
+
+    @Test
+    void queryItemConstructor_shouldStayWithinBudget() {
+        List<String> types = QUERY_ITEM.types();
+        List<String> tags = QUERY_ITEM.tags();
+        assertWithinBudget("record.queryItem", 1, () -> new QueryItem(types, tags));
+    }
+
+    private static void assertWithinBudget(String budgetKey, int eventsPerOperation, Supplier<?> operation) {
+        long budget = Long.parseLong(budgets.getProperty(budgetKey));
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+
+        long before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long allocated = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - before;
+
+        long perEvent = allocated / ((long) MEASURED_ITERATIONS * eventsPerOperation);
+        assertTrue(perEvent <= budget, () -> "%s allocated %d bytes per event, budget is %d bytes"
+                .formatted(budgetKey, perEvent, budget));
+    }
+}
@@ -0,0 +1,143 @@
+package io.umadb.client.grpc;
+
+import com.google.protobuf.CodedOutputStream;
+import io.umadb.client.*;
+import org.junit.jupiter.api.Test;
+import umadb.v1.Umadb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendRequestEncoderTest {
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static byte[] encode(AppendRequest appendRequest) throws IOException {
+        byte[] bytes = new byte[AppendRequestEncoder.serializedSize(appendRequest)];
+        var output = CodedOutputStream.newInstance(bytes);
+        AppendRequestEncoder.encode(appendRequest, null, output);
+        output.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    private static void assertEncodedLikeGeneratedClasses(AppendRequest appendRequest) throws IOException {
+        var umadbAppendRequest = UmaDbUtils.toUmadbAppendRequest(appendRequest);
+
+        assertEquals(umadbAppendRequest.getSerializedSize(), AppendRequestEncoder.serializedSize(appendRequest));
+        assertArrayEquals(umadbAppendRequest.toByteArray(), encode(appendRequest));
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void encode_shouldMatchGeneratedClasses_whenUnconditional() throws IOException {
+        assertEncodedLikeGeneratedClasses(AppendRequest.of(List.of(
+                Event.of("order-placed", List.of("order:1", "customer:7"), new byte[]{1, 2, 3}),
+                Event.of("order-shipped", "order:1", new byte[0])
+        )));
+    }
+
+    @Test
+    void encode_shouldMatchGeneratedClasses_whenConditional() throws IOException {
+        var query = Query.of(List.of(
+                QueryItem.of(List.of("order-placed", "order-shipped"), List.of("order:1")),
+                QueryItem.ofTags(List.of("customer:7"))
+        ));
+
+        assertEncodedLikeGeneratedClasses(AppendRequest.of(
+                List.of(Event.of("order-placed", "order:1", new byte[]{1})),
+                AppendCondition.failIfExistsAfter(query, 300L)
+        ));
+        assertEncodedLikeGeneratedClasses(AppendRequest.of(
+                List.of(Event.of("order-placed", "order:1", new byte[]{1})),
+                AppendCondition.failIfExists(query)
+        ));
+    }
+
+    @Test
+    void encode_shouldMatchGeneratedClasses_whenConditionQueryIsEmpty() throws IOException {
+        assertEncodedLikeGeneratedClasses(new AppendRequest(
+                List.of(Event.of("order-placed", "order:1", new byte[]{1})),
+                new AppendCondition(new Query(List.of()), 0L)
+        ));
+    }
+
+    @Test
+    void encode_shouldMatchGeneratedClasses_whenFieldsNeedMultiByteLengths() throws IOException {
+        assertEncodedLikeGeneratedClasses(AppendRequest.of(List.of(
+                Event.of("bestellung-aufgegeben-\u00e4\u20ac\uD83D\uDE00", List.of("kunde:m\u00fcller", "x".repeat(300)), new byte[70_000])
+        )));
+    }
+
+    @Test
+    void stream_shouldUseCachedConditionQuery() throws IOException {
+        var query = Query.of(QueryItem.of(List.of("order-placed"), List.of("order:1")));
+        var appendRequest = AppendRequest.of(
+                List.of(Event.of("order-placed", "order:1", new byte[]{1})),
+                AppendCondition.failIfExistsAfter(query, 7L)
+        );
+        var queryCache = new QueryCache(10);
+
+        byte[] first = new AppendRequestMarshaller(queryCache).stream(appendRequest).readAllBytes();
+        byte[] second = new AppendRequestMarshaller(queryCache).stream(appendRequest).readAllBytes();
+
+        assertArrayEquals(UmaDbUtils.toUmadbAppendRequest(appendRequest).toByteArray(), first);
+        assertArrayEquals(first, second);
+        assertEquals(1, queryCache.misses());
+        assertEquals(1, queryCache.hits());
+    }
+
+    @Test
+    void eventFieldSize_shouldMatchGeneratedClasses() {
+        var event = Event.of("order-placed", List.of("order:1", "customer:7"), new byte[200]);
+
+        assertEquals(
+                CodedOutputStream.computeMessageSize(Umadb.AppendRequest.EVENTS_FIELD_NUMBER, UmaDbUtils.toUmadbEvent(event)),
+                AppendRequestEncoder.eventFieldSize(event)
+        );
+    }
+
+    @Test
+    void stream_shouldProvideEncodedRequest() throws IOException {
+        var appendRequest = AppendRequest.of(List.of(Event.of("order-placed", "order:1", new byte[]{1, 2, 3})));
+        byte[] expected = UmaDbUtils.toUmadbAppendRequest(appendRequest).toByteArray();
+
+        var stream = new AppendRequestMarshaller(null).stream(appendRequest);
+
+        assertEquals(expected.length, stream.available());
+        assertArrayEquals(expected, stream.readAllBytes());
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    void stream_shouldDrainEncodedRequest() throws IOException {
+        var appendRequest = AppendRequest.of(List.of(Event.of("order-placed", "order:1", new byte[]{1, 2, 3})));
+        byte[] expected = UmaDbUtils.toUmadbAppendRequest(appendRequest).toByteArray();
+        var target = new ByteArrayOutputStream();
+
+        int drained = ((io.grpc.Drainable) new AppendRequestMarshaller(null).stream(appendRequest)).drainTo(target);
+
+        assertEquals(expected.length, drained);
+        assertArrayEquals(expected, target.toByteArray());
+    }
+
+    @Test
+    void stream_shouldKeepEncodedRequest_whenSameThreadEncodesAnother() throws IOException {
+        var marshaller = new AppendRequestMarshaller(null);
+        var firstRequest = AppendRequest.of(List.of(Event.of("order-placed", "order:1", new byte[]{1, 2, 3})));
+        var secondRequest = AppendRequest.of(List.of(Event.of("order-shipped", "order:2", new byte[]{4, 5, 6})));
+        byte[] expected = UmaDbUtils.toUmadbAppendRequest(firstRequest).toByteArray();
+
+        var queued = marshaller.stream(firstRequest);
+        marshaller.stream(secondRequest).readAllBytes();
+
+        assertArrayEquals(expected, queued.readAllBytes());
+    }
+}
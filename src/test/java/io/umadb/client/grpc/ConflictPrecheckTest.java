@@ -0,0 +1,107 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictPrecheckTest {
+
+    private static final Query ACCOUNT_QUERY = Query.of(QueryItem.ofTags(List.of("account:1")));
+
+    private static AppendRequest append(AppendCondition condition) {
+        return new AppendRequest(List.of(event("account:1")), condition);
+    }
+
+    private static Event event(String tag) {
+        return Event.of("deposited", List.of(tag), new byte[0]);
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenCapacityIsZero() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> new ConflictPrecheck(0));
+
+        assertEquals("capacity must be > 0", exception.getMessage());
+    }
+
+    @Test
+    void findConflict_shouldReturnMatchingEventAfterPosition() {
+        var precheck = new ConflictPrecheck(10);
+        precheck.record(List.of(
+                new SequencedEvent(4, event("account:1")),
+                new SequencedEvent(5, event("account:2")),
+                new SequencedEvent(6, event("account:1"))
+        ));
+
+        var conflict = precheck.findConflict(append(AppendCondition.failIfExistsAfter(ACCOUNT_QUERY, 5)));
+
+        assertTrue(conflict.isPresent());
+        assertEquals(6, conflict.get().position());
+    }
+
+    @Test
+    void findConflict_shouldReturnEmpty_whenMatchingEventsAreNotAfterPosition() {
+        var precheck = new ConflictPrecheck(10);
+        precheck.record(List.of(
+                new SequencedEvent(4, event("account:1")),
+                new SequencedEvent(5, event("account:2"))
+        ));
+
+        assertTrue(precheck.findConflict(append(AppendCondition.failIfExistsAfter(ACCOUNT_QUERY, 4))).isEmpty());
+    }
+
+    @Test
+    void findConflict_shouldConsiderAllEvents_whenConditionHasNoPosition() {
+        var precheck = new ConflictPrecheck(10);
+        precheck.record(List.of(new SequencedEvent(1, event("account:1"))));
+
+        assertTrue(precheck.findConflict(append(AppendCondition.failIfExists(ACCOUNT_QUERY))).isPresent());
+    }
+
+    @Test
+    void recordAppended_shouldAssignConsecutivePositionsEndingAtLastPosition() {
+        var precheck = new ConflictPrecheck(10);
+        precheck.recordAppended(List.of(event("account:1"), event("account:2")), 8);
+
+        var conflict = precheck.findConflict(append(AppendCondition.failIfExistsAfter(ACCOUNT_QUERY, 6)));
+
+        assertTrue(conflict.isPresent());
+        assertEquals(7, conflict.get().position());
+    }
+
+    @Test
+    void record_shouldEvictLowestPositions_whenCapacityIsExceeded() {
+        var precheck = new ConflictPrecheck(2);
+        precheck.record(List.of(
+                new SequencedEvent(1, event("account:1")),
+                new SequencedEvent(2, event("account:2")),
+                new SequencedEvent(3, event("account:3"))
+        ));
+        precheck.record(List.of(new SequencedEvent(2, event("account:2"))));
+
+        assertEquals(2, precheck.size());
+        assertTrue(precheck.findConflict(append(AppendCondition.failIfExists(ACCOUNT_QUERY))).isEmpty());
+    }
+
+    @Test
+    void findConflict_shouldIgnoreEventsOfTheRequestItself() {
+        var precheck = new ConflictPrecheck(10);
+        var written = event("account:1");
+        precheck.recordAppended(List.of(written), 3);
+
+        var retry = new AppendRequest(List.of(written), AppendCondition.failIfExistsAfter(ACCOUNT_QUERY, 2));
+
+        assertTrue(precheck.findConflict(retry).isEmpty(), "retries are resolved idempotently by the server");
+    }
+
+    @Test
+    void findConflict_shouldReturnEmpty_whenRequestIsUnconditional() {
+        var precheck = new ConflictPrecheck(10);
+        precheck.record(List.of(new SequencedEvent(1, event("account:1"))));
+
+        assertTrue(precheck.findConflict(new AppendRequest(List.of(event("account:1")), null)).isEmpty());
+    }
+}
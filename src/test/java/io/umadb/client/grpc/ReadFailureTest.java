@@ -0,0 +1,104 @@
+package io.umadb.client.grpc;
+
+import com.google.protobuf.ByteString;
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.umadb.client.PayloadCompression;
+import io.umadb.client.ReadRequest;
+import io.umadb.client.RequestOptions;
+import io.umadb.client.UmaDbException;
+import io.umadb.client.consumer.StringDictionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import umadb.v1.DCBGrpc;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests how failures to decode a read response reach the caller, using an in-process gRPC
+ * server that sends a corrupt compressed payload.
+ */
+class ReadFailureTest {
+
+    private Server server;
+    private ManagedChannel channel;
+    private UmaDbClientImpl client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(new CorruptDcbService())
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+
+        // Routes every call to the in-process server instead of the channel of the client
+        ClientInterceptor inProcess = new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+                return channel.newCall(method, callOptions);
+            }
+        };
+        var defaults = ClientOptions.defaults();
+        var options = new ClientOptions(List.of(inProcess), defaults.appendTimeout(), defaults.readTimeout(),
+                defaults.headTimeout(), null, null, 0, PayloadCompression.deflate(0), null, false, false);
+        client = new UmaDbClientImpl("localhost", 50051, null, null, options);
+        client.connect();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void handle_shouldThrowSerializationException_whenCompressedPayloadIsCorrupt() {
+        var responses = client.handle(ReadRequest.all());
+
+        var failure = assertThrows(UmaDbException.SerializationException.class, responses::hasNext);
+        assertTrue(failure.getMessage().contains("order-placed"));
+    }
+
+    @Test
+    void readBatches_shouldThrowSerializationException_whenCompressedPayloadIsCorrupt() {
+        var batches = client.readBatches(ReadRequest.all(), RequestOptions.defaults(), new StringDictionary());
+
+        assertThrows(UmaDbException.SerializationException.class, batches::hasNext);
+    }
+
+    // ----------------------
+    // Fake Server
+    // ----------------------
+
+    private static final class CorruptDcbService extends DCBGrpc.DCBImplBase {
+
+        @Override
+        public void read(Umadb.ReadRequest request, StreamObserver<Umadb.ReadResponse> responseObserver) {
+            var event = Umadb.Event.newBuilder()
+                    .setEventType("order-placed")
+                    .addTags(PayloadCompression.COMPRESSED_TAG)
+                    .setData(ByteString.copyFrom(new byte[]{0, 0, 0, 8, 1, 2, 3}))
+                    .setUuid(UUID.randomUUID().toString())
+                    .build();
+            responseObserver.onNext(Umadb.ReadResponse.newBuilder()
+                    .addEvents(Umadb.SequencedEvent.newBuilder().setPosition(1L).setEvent(event))
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+}
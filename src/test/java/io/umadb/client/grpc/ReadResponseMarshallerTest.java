@@ -0,0 +1,184 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.Event;
+import io.umadb.client.PayloadCompression;
+import io.umadb.client.ReadResponse;
+import io.umadb.client.SequencedEvent;
+import io.umadb.client.consumer.StringDictionary;
+import org.junit.jupiter.api.Test;
+import umadb.v1.Umadb;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadResponseMarshallerTest {
+
+    private final ReadResponseMarshaller marshaller = new ReadResponseMarshaller(null);
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static Umadb.ReadResponse umadbReadResponse(PayloadCompression compression, Event... events) {
+        var builder = Umadb.ReadResponse.newBuilder().setHead(100L);
+        for (int i = 0; i < events.length; i++) {
+            builder.addEvents(Umadb.SequencedEvent.newBuilder()
+                    .setPosition(i + 1)
+                    .setEvent(UmaDbUtils.toUmadbEvent(compression != null ? compression.compress(events[i]) : events[i]))
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static void assertSameEvents(ReadResponse expected, ReadResponse actual) {
+        assertEquals(expected.head(), actual.head());
+        assertEquals(expected.events().size(), actual.events().size());
+        for (int i = 0; i < expected.events().size(); i++) {
+            SequencedEvent expectedEvent = expected.events().get(i);
+            SequencedEvent actualEvent = actual.events().get(i);
+            assertEquals(expectedEvent.position(), actualEvent.position());
+            assertEquals(expectedEvent.event().type(), actualEvent.event().type());
+            assertEquals(expectedEvent.event().tags(), actualEvent.event().tags());
+            assertArrayEquals(expectedEvent.event().data(), actualEvent.event().data());
+            assertEquals(expectedEvent.event().id(), actualEvent.event().id());
+        }
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void parse_shouldDecodeLikeGeneratedClasses() {
+        var grpcResponse = umadbReadResponse(null,
+                Event.of("order-placed", List.of("order:1", "customer:7", "region:eu", "channel:web", "priority"), new byte[]{1, 2, 3}),
+                Event.of("order-shipped", "order:1", new byte[0]));
+
+        var decoded = marshaller.parse(new ByteArrayInputStream(grpcResponse.toByteArray()));
+
+        assertSameEvents(UmaDbUtils.toReadResponse(grpcResponse), decoded.response());
+        assertEquals(grpcResponse.getSerializedSize(), decoded.serializedSize());
+    }
+
+    @Test
+    void parse_shouldDecodeManyEvents() {
+        var events = new Event[100];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = Event.of("order-placed", "order:" + i, new byte[i]);
+        }
+        var grpcResponse = umadbReadResponse(null, events);
+
+        var decoded = marshaller.parse(new ByteArrayInputStream(grpcResponse.toByteArray()));
+
+        assertSameEvents(UmaDbUtils.toReadResponse(grpcResponse), decoded.response());
+    }
+
+    @Test
+    void parse_shouldDecodeEmptyResponse() {
+        var grpcResponse = Umadb.ReadResponse.newBuilder().setHead(42L).build();
+
+        var decoded = marshaller.parse(new ByteArrayInputStream(grpcResponse.toByteArray()));
+
+        assertTrue(decoded.response().events().isEmpty());
+        assertEquals(Long.valueOf(42), decoded.response().head());
+    }
+
+    @Test
+    void parse_shouldSkipUnknownFields() {
+        var grpcResponse = umadbReadResponse(null, Event.of("order-placed", "order:1", new byte[]{1}));
+        byte[] bytes = grpcResponse.toByteArray();
+        // Field 15 as a varint and field 14 as a length-delimited value, as a newer server might send
+        byte[] unknown = {15 << 3, 7, 14 << 3 | 2, 2, 'h', 'i'};
+        byte[] extended = Arrays.copyOf(bytes, bytes.length + unknown.length);
+        System.arraycopy(unknown, 0, extended, bytes.length, unknown.length);
+
+        var decoded = marshaller.parse(new ByteArrayInputStream(extended));
+
+        assertSameEvents(UmaDbUtils.toReadResponse(grpcResponse), decoded.response());
+    }
+
+    @Test
+    void parse_shouldDecompressPayloads() {
+        var compression = PayloadCompression.deflate(10);
+        var event = Event.of("order-placed", "order:1", new byte[1000]);
+        var grpcResponse = umadbReadResponse(compression, event);
+
+        var decoded = new ReadResponseMarshaller(compression).parse(new ByteArrayInputStream(grpcResponse.toByteArray()));
+
+        Event decodedEvent = decoded.response().events().get(0).event();
+        assertArrayEquals(event.data(), decodedEvent.data());
+        assertEquals(event.tags(), decodedEvent.tags());
+        assertTrue(decoded.serializedSize() < event.data().length);
+    }
+
+    @Test
+    void parse_shouldThrow_whenMessageIsMalformed() {
+        byte[] truncated = {1 << 3 | 2, 100, 8};
+
+        assertThrows(RuntimeException.class, () -> marshaller.parse(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void batches_shouldDecodeIntoColumnsLikeRecords() {
+        var grpcResponse = umadbReadResponse(null,
+                Event.of("order-placed", List.of("order:1", "customer:7"), new byte[]{1, 2, 3}),
+                Event.of("order-shipped", "order:1", new byte[0]),
+                Event.of("order-placed", "order:2", new byte[]{4}));
+
+        var decoded = marshaller.batches(new StringDictionary()).parse(new ByteArrayInputStream(grpcResponse.toByteArray()));
+
+        assertSameEvents(UmaDbUtils.toReadResponse(grpcResponse), new ReadResponse(decoded.batch().events(), decoded.batch().head()));
+        assertEquals(decoded.batch().typeId(0), decoded.batch().typeId(2));
+        assertEquals(4, decoded.batch().payloads().remaining());
+        assertEquals(grpcResponse.getSerializedSize(), decoded.serializedSize());
+    }
+
+    @Test
+    void batches_shouldSkipUnknownFields() {
+        var grpcResponse = umadbReadResponse(null, Event.of("order-placed", "order:1", new byte[]{1}));
+        byte[] bytes = grpcResponse.toByteArray();
+        byte[] unknown = {15 << 3, 7, 14 << 3 | 2, 2, 'h', 'i'};
+        byte[] extended = Arrays.copyOf(bytes, bytes.length + unknown.length);
+        System.arraycopy(unknown, 0, extended, bytes.length, unknown.length);
+
+        var decoded = marshaller.batches(new StringDictionary()).parse(new ByteArrayInputStream(extended));
+
+        assertSameEvents(UmaDbUtils.toReadResponse(grpcResponse), new ReadResponse(decoded.batch().events(), decoded.batch().head()));
+    }
+
+    @Test
+    void batches_shouldDecompressPayloads() {
+        var compression = PayloadCompression.deflate(10);
+        var event = Event.of("order-placed", "order:1", new byte[1000]);
+        var grpcResponse = umadbReadResponse(compression, event);
+
+        var decoded = new ReadResponseMarshaller(compression).batches(new StringDictionary())
+                .parse(new ByteArrayInputStream(grpcResponse.toByteArray()));
+
+        Event decodedEvent = decoded.batch().event(0).event();
+        assertArrayEquals(event.data(), decodedEvent.data());
+        assertEquals(event.tags(), decodedEvent.tags());
+    }
+
+    @Test
+    void batches_shouldThrow_whenEventHasNoId() {
+        var grpcResponse = Umadb.ReadResponse.newBuilder()
+                .addEvents(Umadb.SequencedEvent.newBuilder()
+                        .setPosition(1)
+                        .setEvent(Umadb.Event.newBuilder().setEventType("order-placed").addTags("order:1")))
+                .build();
+
+        assertThrows(RuntimeException.class,
+                () -> marshaller.batches(new StringDictionary()).parse(new ByteArrayInputStream(grpcResponse.toByteArray())));
+    }
+
+    @Test
+    void stream_shouldThrow() {
+        var decoded = new DecodedReadResponse(new ReadResponse(List.of(), 0L), 0);
+
+        assertThrows(UnsupportedOperationException.class, () -> marshaller.stream(decoded));
+    }
+}
@@ -0,0 +1,187 @@
+package io.umadb.client.grpc;
+
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.umadb.client.ReadRequest;
+import io.umadb.client.ReadResponse;
+import io.umadb.client.RequestOptions;
+import io.umadb.client.UmaDbClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import umadb.v1.DCBGrpc;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests which calls of a client with request coalescing share a call, using an in-process
+ * gRPC server that holds every call until released.
+ */
+class RequestCoalescingTest {
+
+    private static final long HEAD = 42L;
+
+    private final BlockingDcbService service = new BlockingDcbService();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private Server server;
+    private ManagedChannel channel;
+    private UmaDbClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(service)
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+
+        // Routes every call to the in-process server instead of the channel of the client
+        ClientInterceptor inProcess = new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+                return channel.newCall(method, callOptions);
+            }
+        };
+        var defaults = ClientOptions.defaults();
+        var options = new ClientOptions(List.of(inProcess), defaults.appendTimeout(), defaults.readTimeout(),
+                defaults.headTimeout(), null, null, 0, null, null, false, true);
+        client = new UmaDbClientImpl("localhost", 50051, null, null, options);
+        client.connect();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.release.countDown();
+        callers.shutdownNow();
+        client.shutdown();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private <T> List<Future<T>> callTwice(Supplier<T> call) throws InterruptedException {
+        var first = callers.submit(call::get);
+        awaitCalls(1);
+        var second = callers.submit(call::get);
+        // The second caller either joins the first call or starts its own
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (System.nanoTime() < deadline && service.calls.get() < 2) {
+            Thread.sleep(10);
+        }
+        return List.of(first, second);
+    }
+
+    private void awaitCalls(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.calls.get() < calls) {
+            assertTrue(System.nanoTime() < deadline, "expected " + calls + " calls to reach the server");
+            Thread.sleep(10);
+        }
+    }
+
+    private static int countEvents(Iterator<ReadResponse> responses) {
+        int events = 0;
+        while (responses.hasNext()) {
+            events += responses.next().events().size();
+        }
+        return events;
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void getHeadPosition_shouldShareCall_whenOptionsAllowCoalescing() throws Exception {
+        var shared = RequestOptions.defaults().withCoalescing(true);
+
+        var results = callTwice(() -> client.getHeadPosition(shared));
+        service.release.countDown();
+
+        for (var result : results) {
+            assertEquals(HEAD, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, service.calls.get());
+    }
+
+    @Test
+    void getHeadPosition_shouldNotShareCall_whenOptionsAreDefault() throws Exception {
+        var results = callTwice(client::getHeadPosition);
+        awaitCalls(2);
+        service.release.countDown();
+
+        for (var result : results) {
+            assertEquals(HEAD, result.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void handle_shouldNotShareRead_whenOptionsAreDefault() throws Exception {
+        var results = callTwice(() -> countEvents(client.handle(ReadRequest.all())));
+        awaitCalls(2);
+        service.release.countDown();
+
+        var events = new ArrayList<Integer>();
+        for (var result : results) {
+            events.add(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(1, 1), events);
+    }
+
+    // ----------------------
+    // Fake Server
+    // ----------------------
+
+    private static final class BlockingDcbService extends DCBGrpc.DCBImplBase {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void read(Umadb.ReadRequest request, StreamObserver<Umadb.ReadResponse> responseObserver) {
+            await();
+            responseObserver.onNext(Umadb.ReadResponse.newBuilder()
+                    .addEvents(Umadb.SequencedEvent.newBuilder()
+                            .setPosition(1)
+                            .setEvent(Umadb.Event.newBuilder()
+                                    .setEventType("order-placed")
+                                    .addTags("order:1")
+                                    .setUuid("123e4567-e89b-12d3-a456-426614174000")))
+                    .setHead(HEAD)
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void head(Umadb.HeadRequest request, StreamObserver<Umadb.HeadResponse> responseObserver) {
+            await();
+            responseObserver.onNext(Umadb.HeadResponse.newBuilder().setPosition(HEAD).build());
+            responseObserver.onCompleted();
+        }
+
+        private void await() {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.umadb.client.grpc;
+
+import io.umadb.client.UmaDbException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    /**
+     * Starts the callers and releases the leading call once all others have joined it.
+     */
+    private static <V> List<Future<V>> callConcurrently(SingleFlight<String, V> flights, Callable<V> call) throws Exception {
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<V>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> flights.execute("head", () -> {
+                    try {
+                        release.await();
+                        return call.call();
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (flights.joined() < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<V> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    // Inspected by the test
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldShareOneCall_whenCallsAreConcurrent() throws Exception {
+        var flights = new SingleFlight<String, Long>();
+        var calls = new AtomicInteger();
+
+        List<Future<Long>> results = callConcurrently(flights, () -> (long) calls.incrementAndGet());
+
+        assertEquals(1, calls.get());
+        assertEquals(CALLERS - 1, flights.joined());
+        for (Future<Long> result : results) {
+            assertEquals(Long.valueOf(1), result.get());
+        }
+    }
+
+    @Test
+    void execute_shouldThrowExceptionToAllCallers_whenSharedCallFails() throws Exception {
+        var flights = new SingleFlight<String, Long>();
+        var failure = new UmaDbException.IoException("unavailable");
+
+        List<Future<Long>> results = callConcurrently(flights, () -> {
+            throw failure;
+        });
+
+        for (Future<Long> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+            assertSame(failure, exception.getCause());
+        }
+    }
+
+    @Test
+    void execute_shouldStartNewCall_whenPreviousCallHasCompleted() {
+        var flights = new SingleFlight<String, Integer>();
+        var calls = new AtomicInteger();
+
+        assertEquals(Integer.valueOf(1), flights.execute("head", calls::incrementAndGet));
+        assertEquals(Integer.valueOf(2), flights.execute("head", calls::incrementAndGet));
+        assertEquals(0, flights.joined());
+    }
+
+    @Test
+    void execute_shouldNotShareCalls_whenKeysDiffer() {
+        var flights = new SingleFlight<String, String>();
+
+        String result = flights.execute("outer", () -> flights.execute("inner", () -> "inner result"));
+
+        assertEquals("inner result", result);
+        assertEquals(0, flights.joined());
+    }
+}
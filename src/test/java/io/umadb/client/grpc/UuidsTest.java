@@ -0,0 +1,72 @@
+package io.umadb.client.grpc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidsTest {
+
+    private static UUID parse(String value) {
+        // Surrounding bytes make sure the offset is honored
+        byte[] bytes = ("xx" + value + "yy").getBytes(US_ASCII);
+        return Uuids.parse(bytes, 2, value.length());
+    }
+
+    @Test
+    void parse_shouldMatchUuidFromString() {
+        for (int i = 0; i < 1000; i++) {
+            var uuid = UUID.randomUUID();
+
+            assertEquals(uuid, parse(uuid.toString()));
+        }
+    }
+
+    @Test
+    void parse_shouldAcceptUpperCaseDigits() {
+        var uuid = UUID.randomUUID();
+
+        assertEquals(uuid, parse(uuid.toString().toUpperCase(Locale.ROOT)));
+    }
+
+    @Test
+    void parse_shouldHandleExtremeValues() {
+        assertEquals(new UUID(0, 0), parse("00000000-0000-0000-0000-000000000000"));
+        assertEquals(new UUID(-1, -1), parse("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+    }
+
+    @Test
+    void parse_shouldFallBackToUuidFromString_whenNotCanonical() {
+        assertEquals(UUID.fromString("1-2-3-4-5"), parse("1-2-3-4-5"));
+    }
+
+    @Test
+    void parse_shouldThrow_whenInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> parse("123e4567-e89b-12d3-a456-42661417400g"));
+        assertThrows(IllegalArgumentException.class, () -> parse("not-a-uuid"));
+    }
+
+    @Test
+    void format_shouldMatchToString() {
+        byte[] target = new byte[Uuids.CANONICAL_LENGTH + 4];
+        for (int i = 0; i < 1000; i++) {
+            var uuid = UUID.randomUUID();
+
+            Uuids.format(uuid, target, 2);
+
+            assertEquals(uuid.toString(), new String(target, 2, Uuids.CANONICAL_LENGTH, US_ASCII));
+        }
+    }
+
+    @Test
+    void format_shouldHandleExtremeValues() {
+        byte[] target = new byte[Uuids.CANONICAL_LENGTH];
+
+        Uuids.format(new UUID(-1, 0), target, 0);
+
+        assertEquals("ffffffff-ffff-ffff-0000-000000000000", new String(target, US_ASCII));
+    }
+}
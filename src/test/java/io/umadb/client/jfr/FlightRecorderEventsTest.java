@@ -0,0 +1,300 @@
+package io.umadb.client.jfr;
+
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.umadb.client.*;
+import io.umadb.client.grpc.ClientOptions;
+import io.umadb.client.grpc.UmaDbClientImpl;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import umadb.v1.DCBGrpc;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the flight recorder events emitted by the client, using an in-process gRPC server
+ * and recordings read back from disk.
+ */
+class FlightRecorderEventsTest {
+
+    private static final String APPEND = "io.umadb.Append";
+    private static final String HEAD = "io.umadb.Head";
+    private static final String READ_BATCH_RECEIVED = "io.umadb.ReadBatchReceived";
+    private static final String READ_BATCH_DECODED = "io.umadb.ReadBatchDecoded";
+
+    @TempDir
+    Path directory;
+
+    private Server server;
+    private ManagedChannel channel;
+    private UmaDbClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private void connect() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(new FakeDcbService())
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName)
+                .directExecutor()
+                .build();
+
+        // Routes every call to the in-process server instead of the channel of the client
+        ClientInterceptor inProcess = new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+                return channel.newCall(method, callOptions);
+            }
+        };
+        var defaults = ClientOptions.defaults();
+        var options = new ClientOptions(List.of(inProcess), defaults.appendTimeout(), defaults.readTimeout(),
+                defaults.headTimeout(), null, null, 0, null, null, false, false);
+        client = new UmaDbClientImpl("localhost", 50051, null, null, options);
+        client.connect();
+    }
+
+    private List<RecordedEvent> record(Recording recording, Runnable calls) throws IOException {
+        recording.start();
+        calls.run();
+        recording.stop();
+        Path file = directory.resolve("recording.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("io.umadb."))
+                .toList();
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+
+    private static Event event(String type) {
+        return Event.of(type, "tag1", "payload".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReadRequest readOf(String type) {
+        return ReadRequest.of(Query.of(QueryItem.of(List.of(type), List.of("tag1"))));
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void append_shouldEmitAppendEventWithRequestShapeAndPosition() throws IOException {
+        connect();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(APPEND);
+            events = record(recording, () -> client.handle(AppendRequest.of(List.of(event("order-created"), event("order-paid")))));
+        }
+
+        var appends = named(events, APPEND);
+        assertEquals(1, appends.size());
+        var append = appends.getFirst();
+        assertEquals("success", append.getString("outcome"));
+        assertEquals(2, append.getInt("eventCount"));
+        assertEquals(FakeDcbService.POSITION, append.getLong("position"));
+        assertFalse(append.getBoolean("conditional"));
+        assertTrue(append.getLong("byteSize") > 0);
+    }
+
+    @Test
+    void append_shouldRecordExceptionTypeAsOutcome_whenAppendFails() throws IOException {
+        connect();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(APPEND);
+            events = record(recording, () -> assertThrows(UmaDbException.IntegrityException.class,
+                    () -> client.handle(AppendRequest.of(List.of(event(FakeDcbService.CONFLICTING_TYPE))))));
+        }
+
+        var appends = named(events, APPEND);
+        assertEquals(1, appends.size());
+        assertEquals("IntegrityException", appends.getFirst().getString("outcome"));
+    }
+
+    @Test
+    void read_shouldEmitOneReceivedAndOneDecodedEventPerBatch_whenEnabled() throws IOException {
+        connect();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(READ_BATCH_RECEIVED);
+            recording.enable(READ_BATCH_DECODED);
+            events = record(recording, () -> client.handle(ReadRequest.all()).forEachRemaining(response -> {
+            }));
+        }
+
+        var received = named(events, READ_BATCH_RECEIVED);
+        assertEquals(2, received.size());
+        for (var batch : received) {
+            assertEquals("success", batch.getString("outcome"));
+            assertEquals(2, batch.getInt("eventCount"));
+            assertFalse(batch.getBoolean("subscription"));
+        }
+        var decoded = named(events, READ_BATCH_DECODED);
+        assertEquals(2, decoded.size());
+        assertEquals(2, decoded.getFirst().getInt("eventCount"));
+    }
+
+    @Test
+    void read_shouldCoverWaitInHasNext_whenBatchIsDelayed() throws IOException {
+        connect();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(READ_BATCH_RECEIVED);
+            events = record(recording, () -> client.handle(readOf(FakeDcbService.DELAYED_TYPE)).forEachRemaining(response -> {
+            }));
+        }
+
+        var received = named(events, READ_BATCH_RECEIVED);
+        assertEquals(1, received.size());
+        assertEquals("success", received.getFirst().getString("outcome"));
+        assertTrue(received.getFirst().getDuration().compareTo(FakeDcbService.DELAY) >= 0,
+                "duration " + received.getFirst().getDuration() + " must cover the delay");
+    }
+
+    @Test
+    void read_shouldRecordExceptionTypeAsOutcome_whenStreamFails() throws IOException {
+        connect();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(READ_BATCH_RECEIVED);
+            events = record(recording, () -> {
+                var responses = client.handle(readOf(FakeDcbService.FAILING_TYPE));
+                assertThrows(UmaDbException.IoException.class, responses::hasNext);
+            });
+        }
+
+        var received = named(events, READ_BATCH_RECEIVED);
+        assertEquals(1, received.size());
+        assertEquals("IoException", received.getFirst().getString("outcome"));
+        assertEquals(0, received.getFirst().getInt("eventCount"));
+    }
+
+    @Test
+    void defaultConfiguration_shouldEmitAppendAndHeadButNotBatchEvents() throws IOException, ParseException {
+        connect();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording(Configuration.getConfiguration("default"))) {
+            events = record(recording, () -> {
+                client.handle(AppendRequest.of(List.of(event("order-created"))));
+                client.handle(ReadRequest.all()).forEachRemaining(response -> {
+                });
+                client.getHeadPosition();
+            });
+        }
+
+        assertEquals(1, named(events, APPEND).size());
+        var heads = named(events, HEAD);
+        assertEquals(1, heads.size());
+        assertEquals("success", heads.getFirst().getString("outcome"));
+        assertEquals(FakeDcbService.POSITION, heads.getFirst().getLong("position"));
+        assertTrue(named(events, READ_BATCH_RECEIVED).isEmpty());
+        assertTrue(named(events, READ_BATCH_DECODED).isEmpty());
+    }
+
+    // ----------------------
+    // Fake Server
+    // ----------------------
+
+    private static final class FakeDcbService extends DCBGrpc.DCBImplBase {
+
+        static final long POSITION = 42L;
+        static final String CONFLICTING_TYPE = "conflicting";
+        static final String DELAYED_TYPE = "delayed";
+        static final String FAILING_TYPE = "failing";
+        static final Duration DELAY = Duration.ofMillis(200);
+
+        @Override
+        public void append(Umadb.AppendRequest request, StreamObserver<Umadb.AppendResponse> responseObserver) {
+            if (request.getEvents(0).getEventType().equals(CONFLICTING_TYPE)) {
+                responseObserver.onError(Status.FAILED_PRECONDITION
+                        .withDescription("condition failed")
+                        .asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(Umadb.AppendResponse.newBuilder().setPosition(POSITION).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void read(Umadb.ReadRequest request, StreamObserver<Umadb.ReadResponse> responseObserver) {
+            String type = request.getQuery().getItemsCount() > 0 ? request.getQuery().getItems(0).getTypes(0) : "";
+            if (type.equals(FAILING_TYPE)) {
+                responseObserver.onError(Status.UNAVAILABLE.withDescription("connection lost").asRuntimeException());
+                return;
+            }
+            if (type.equals(DELAYED_TYPE)) {
+                // Sent from another thread, so the client is already waiting for it
+                Thread.ofPlatform().daemon().start(() -> {
+                    try {
+                        Thread.sleep(DELAY);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    responseObserver.onNext(Umadb.ReadResponse.newBuilder()
+                            .addEvents(Umadb.SequencedEvent.newBuilder().setPosition(1L).setEvent(event(1L)))
+                            .build());
+                    responseObserver.onCompleted();
+                });
+                return;
+            }
+            for (int batch = 0; batch < 2; batch++) {
+                responseObserver.onNext(Umadb.ReadResponse.newBuilder()
+                        .addEvents(Umadb.SequencedEvent.newBuilder().setPosition(batch * 2L + 1).setEvent(event(batch * 2L + 1)))
+                        .addEvents(Umadb.SequencedEvent.newBuilder().setPosition(batch * 2L + 2).setEvent(event(batch * 2L + 2)))
+                        .build());
+            }
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void head(Umadb.HeadRequest request, StreamObserver<Umadb.HeadResponse> responseObserver) {
+            responseObserver.onNext(Umadb.HeadResponse.newBuilder().setPosition(POSITION).build());
+            responseObserver.onCompleted();
+        }
+
+        private static Umadb.Event event(long position) {
+            return Umadb.Event.newBuilder()
+                    .setEventType("type-" + position)
+                    .addTags("tag1")
+                    .setUuid(UUID.randomUUID().toString())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package io.umadb.client.otel;
+
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import umadb.v1.DCBGrpc;
+import umadb.v1.Umadb;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TracingInterceptor} using an in-process gRPC server
+ * and an in-memory span exporter.
+ */
+class TracingInterceptorTest {
+
+    private static final Metadata.Key<String> TRACEPARENT =
+            Metadata.Key.of("traceparent", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final Metadata.Key<byte[]> DETAILS =
+            Metadata.Key.of("grpc-status-details-bin", Metadata.BINARY_BYTE_MARSHALLER);
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final AtomicReference<Metadata> receivedHeaders = new AtomicReference<>();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private DCBGrpc.DCBBlockingStub connect(Sampler sampler) throws IOException {
+        var tracerProvider = SdkTracerProvider.builder()
+                .setSampler(sampler)
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build();
+        var openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(new FakeDcbService(), new HeaderCapturingInterceptor()))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName)
+                .directExecutor()
+                .intercept(new TracingInterceptor(openTelemetry))
+                .build();
+        return DCBGrpc.newBlockingStub(channel);
+    }
+
+    private static Umadb.Event event(String type) {
+        return Umadb.Event.newBuilder()
+                .setEventType(type)
+                .addTags("tag1")
+                .build();
+    }
+
+    private SpanData singleSpan() {
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        return spans.getFirst();
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void append_shouldRecordSpanWithRequestAndResponseAttributes() throws IOException {
+        var stub = connect(Sampler.alwaysOn());
+
+        stub.append(Umadb.AppendRequest.newBuilder()
+                .addEvents(event("order-created"))
+                .addEvents(event("order-created"))
+                .addEvents(event("order-paid"))
+                .build());
+
+        SpanData span = singleSpan();
+        assertEquals("umadb.v1.DCB/Append", span.getName());
+        assertEquals(SpanKind.CLIENT, span.getKind());
+        assertEquals("Append", span.getAttributes().get(TracingInterceptor.RPC_METHOD));
+        assertEquals(3L, span.getAttributes().get(TracingInterceptor.EVENT_COUNT));
+        assertEquals(List.of("order-created", "order-paid"), span.getAttributes().get(TracingInterceptor.EVENT_TYPES));
+        assertEquals(false, span.getAttributes().get(TracingInterceptor.APPEND_CONDITIONAL));
+        assertEquals(FakeDcbService.POSITION, span.getAttributes().get(TracingInterceptor.APPEND_POSITION));
+    }
+
+    @Test
+    void append_shouldPropagateW3cTraceContext() throws IOException {
+        var stub = connect(Sampler.alwaysOn());
+
+        stub.append(Umadb.AppendRequest.newBuilder().addEvents(event("example")).build());
+
+        String traceparent = receivedHeaders.get().get(TRACEPARENT);
+        assertNotNull(traceparent, "traceparent header should be propagated");
+        assertTrue(traceparent.contains(singleSpan().getTraceId()));
+    }
+
+    @Test
+    void append_shouldRecordErrorTypeFromErrorResponse() throws IOException {
+        var stub = connect(Sampler.alwaysOn());
+
+        var conditionalRequest = Umadb.AppendRequest.newBuilder()
+                .addEvents(event(FakeDcbService.CONFLICTING_TYPE))
+                .setCondition(Umadb.AppendCondition.newBuilder()
+                        .setFailIfEventsMatch(Umadb.Query.newBuilder()
+                                .addItems(Umadb.QueryItem.newBuilder().addTypes(FakeDcbService.CONFLICTING_TYPE))))
+                .build();
+
+        assertThrows(StatusRuntimeException.class, () -> stub.append(conditionalRequest));
+
+        SpanData span = singleSpan();
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+        assertEquals(true, span.getAttributes().get(TracingInterceptor.APPEND_CONDITIONAL));
+        assertEquals(1L, span.getAttributes().get(TracingInterceptor.QUERY_ITEMS));
+        assertEquals("INTEGRITY", span.getAttributes().get(TracingInterceptor.ERROR_TYPE));
+    }
+
+    @Test
+    void read_shouldCountReceivedEvents() throws IOException {
+        var stub = connect(Sampler.alwaysOn());
+
+        var iterator = stub.read(Umadb.ReadRequest.newBuilder().setSubscribe(false).build());
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+
+        SpanData span = singleSpan();
+        assertEquals("umadb.v1.DCB/Read", span.getName());
+        assertEquals(4L, span.getAttributes().get(TracingInterceptor.EVENT_COUNT));
+        assertEquals(false, span.getAttributes().get(TracingInterceptor.READ_SUBSCRIBE));
+    }
+
+    @Test
+    void sampledOutCalls_shouldNotExportSpansButStillPropagateContext() throws IOException {
+        var stub = connect(Sampler.alwaysOff());
+
+        stub.head(Umadb.HeadRequest.getDefaultInstance());
+
+        assertTrue(spanExporter.getFinishedSpanItems().isEmpty());
+        assertNotNull(receivedHeaders.get().get(TRACEPARENT));
+    }
+
+    // ----------------------
+    // Test Doubles
+    // ----------------------
+
+    private final class HeaderCapturingInterceptor implements ServerInterceptor {
+
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                ServerCall<ReqT, RespT> call,
+                Metadata headers,
+                ServerCallHandler<ReqT, RespT> next
+        ) {
+            receivedHeaders.set(headers);
+            return next.startCall(call, headers);
+        }
+    }
+
+    private static final class FakeDcbService extends DCBGrpc.DCBImplBase {
+
+        static final long POSITION = 42L;
+        static final String CONFLICTING_TYPE = "conflicting";
+
+        @Override
+        public void append(Umadb.AppendRequest request, StreamObserver<Umadb.AppendResponse> responseObserver) {
+            if (request.getEvents(0).getEventType().equals(CONFLICTING_TYPE)) {
+                var trailers = new Metadata();
+                trailers.put(DETAILS, Umadb.ErrorResponse.newBuilder()
+                        .setMessage("condition failed")
+                        .setErrorType(Umadb.ErrorResponse.ErrorType.INTEGRITY)
+                        .build()
+                        .toByteArray());
+                responseObserver.onError(Status.FAILED_PRECONDITION
+                        .withDescription("condition failed")
+                        .asRuntimeException(trailers));
+                return;
+            }
+            responseObserver.onNext(Umadb.AppendResponse.newBuilder().setPosition(POSITION).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void read(Umadb.ReadRequest request, StreamObserver<Umadb.ReadResponse> responseObserver) {
+            for (int batch = 0; batch < 2; batch++) {
+                responseObserver.onNext(Umadb.ReadResponse.newBuilder()
+                        .addEvents(Umadb.SequencedEvent.newBuilder().setPosition(batch * 2L + 1).setEvent(event("a")))
+                        .addEvents(Umadb.SequencedEvent.newBuilder().setPosition(batch * 2L + 2).setEvent(event("b")))
+                        .build());
+            }
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void head(Umadb.HeadRequest request, StreamObserver<Umadb.HeadResponse> responseObserver) {
+            responseObserver.onNext(Umadb.HeadResponse.newBuilder().setPosition(POSITION).build());
+            responseObserver.onCompleted();
+        }
+    }
+}
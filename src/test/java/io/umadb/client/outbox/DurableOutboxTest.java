@@ -0,0 +1,282 @@
+package io.umadb.client.outbox;
+
+import io.umadb.client.*;
+import io.umadb.client.grpc.UmaDbUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableOutboxTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryUmaDbClient client;
+    private OutboxOptions options;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryUmaDbClient();
+        options = new OutboxOptions(tempDir, 64 * 1024, 100, Duration.ofMillis(10));
+    }
+
+    // ----------------------
+    // Helper Methods
+    // ----------------------
+
+    private static Event event(int i) {
+        return Event.of("order-placed", "order:" + i, ("{\"i\":" + i + "}").getBytes(UTF_8));
+    }
+
+    private static List<java.util.UUID> ids(List<Event> events) {
+        return events.stream().map(Event::id).toList();
+    }
+
+    private List<java.util.UUID> storedIds() {
+        return client.events().stream().map(e -> e.event().id()).toList();
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(1);
+        }
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(f -> f.toString().endsWith(".seg")).count();
+        }
+    }
+
+    // ----------------------
+    // Tests
+    // ----------------------
+
+    @Test
+    void append_shouldDrainEventsInOrder() throws Exception {
+        var events = new ArrayList<Event>();
+        try (var outbox = new DurableOutbox(client, options)) {
+            for (int i = 0; i < 250; i++) {
+                events.add(event(i));
+                outbox.append(AppendRequest.of(List.of(events.get(i))));
+            }
+
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+            assertEquals(0, outbox.pendingBytes());
+        }
+
+        assertEquals(ids(events), storedIds());
+        assertTrue(client.appendRequests().size() < 250, "events should be drained in batches");
+    }
+
+    @Test
+    void append_shouldRejectConditionalRequests() throws Exception {
+        try (var outbox = new DurableOutbox(client, options)) {
+            var condition = AppendCondition.failIfExists(Query.empty());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> outbox.append(AppendRequest.of(List.of(event(1)), condition)));
+        }
+    }
+
+    @Test
+    void append_shouldKeepEventsUntilServerIsReachable() throws Exception {
+        AtomicBoolean available = new AtomicBoolean(false);
+        client.beforeAppend(request -> {
+            if (!available.get()) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+
+        try (var outbox = new DurableOutbox(client, options)) {
+            outbox.append(AppendRequest.of(List.of(event(1), event(2))));
+
+            assertFalse(outbox.awaitDrained(Duration.ofMillis(100)));
+            assertTrue(outbox.lastError() instanceof UmaDbException.IoException);
+
+            available.set(true);
+
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+            assertNull(outbox.lastError());
+        }
+        assertEquals(2, client.events().size());
+    }
+
+    @Test
+    void open_shouldDrainEventsOfPreviousRun() throws Exception {
+        var unavailable = new InMemoryUmaDbClient().beforeAppend(request -> {
+            throw new UmaDbException.IoException("unavailable");
+        });
+        var events = List.of(event(1), event(2), event(3));
+        try (var outbox = new DurableOutbox(unavailable, options)) {
+            outbox.append(AppendRequest.of(events));
+        }
+
+        try (var outbox = new DurableOutbox(client, options)) {
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+        }
+
+        assertEquals(ids(events), storedIds());
+    }
+
+    @Test
+    void open_shouldNotDuplicateEventsSentBeforeCrash() throws Exception {
+        var events = List.of(event(1), event(2));
+        // The previous run sent the events, but stopped before recording it
+        client.appendDirectly(events.toArray(Event[]::new));
+        var unavailable = new InMemoryUmaDbClient().beforeAppend(request -> {
+            throw new UmaDbException.IoException("unavailable");
+        });
+        try (var outbox = new DurableOutbox(unavailable, options)) {
+            outbox.append(AppendRequest.of(events));
+        }
+
+        try (var outbox = new DurableOutbox(client, options)) {
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+        }
+
+        assertEquals(2, client.events().size());
+    }
+
+    @Test
+    void append_shouldRollOverAndDeleteDrainedSegments() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean available = new AtomicBoolean(false);
+        client.beforeAppend(request -> {
+            attempts.incrementAndGet();
+            if (!available.get()) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+        var smallSegments = new OutboxOptions(tempDir, 1024, 100, Duration.ofMillis(10));
+
+        try (var outbox = new DurableOutbox(client, smallSegments)) {
+            for (int i = 0; i < 50; i++) {
+                outbox.append(AppendRequest.of(List.of(event(i))));
+            }
+            assertTrue(segmentFiles() > 1);
+
+            available.set(true);
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+        }
+
+        assertEquals(50, client.events().size());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void drain_shouldResendSameBatch_whenAmbiguousFailureIsFollowedByMoreAppends() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        AtomicBoolean written = new AtomicBoolean(false);
+        client.beforeAppend(request -> {
+            if (!failing.get()) {
+                return;
+            }
+            if (written.compareAndSet(false, true)) {
+                // Written, but the response is lost
+                client.appendDirectly(request.events().toArray(Event[]::new));
+                throw new UmaDbException.TimeoutException("deadline exceeded");
+            }
+            throw new UmaDbException.IoException("unavailable");
+        });
+        client.beforeRead(request -> {
+            if (failing.get()) {
+                throw new UmaDbException.IoException("unavailable");
+            }
+        });
+        var events = List.of(event(1), event(2), event(3));
+
+        try (var outbox = new DurableOutbox(client, options)) {
+            outbox.append(AppendRequest.of(events.subList(0, 2)));
+            await(() -> outbox.lastError() != null, "drain did not fail");
+            outbox.append(AppendRequest.of(events.subList(2, 3)));
+            // Every failed attempt verifies once, so the second one started after the last append
+            int reads = client.readRequests().size();
+            await(() -> client.readRequests().size() >= reads + 2, "drain was not retried");
+
+            failing.set(false);
+
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+        }
+
+        assertEquals(ids(events), storedIds());
+    }
+
+    @Test
+    void open_shouldVerifyOnlyBatchInFlight_whenMoreRecordsFollowIt() throws Exception {
+        var events = List.of(event(1), event(2), event(3));
+        var unavailable = new InMemoryUmaDbClient().beforeAppend(request -> {
+            throw new UmaDbException.IoException("unavailable");
+        });
+        try (var outbox = new DurableOutbox(unavailable, options)) {
+            outbox.append(AppendRequest.of(events.subList(0, 2)));
+            await(() -> outbox.lastError() != null, "drain did not fail");
+            outbox.append(AppendRequest.of(events.subList(2, 3)));
+        }
+        // The batch in flight was written, but the previous run stopped before recording it
+        client.appendDirectly(events.get(0), events.get(1));
+
+        try (var outbox = new DurableOutbox(client, options)) {
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+        }
+
+        assertEquals(ids(events), storedIds());
+    }
+
+    @Test
+    void open_shouldQuarantineCorruptRecordAndDrainTheRest() throws Exception {
+        var valid = event(1);
+        byte[] corrupt = {0x0a, 0x7f};
+        var segment = OutboxSegment.create(tempDir, 0, options.segmentBytes());
+        segment.write(corrupt);
+        segment.write(UmaDbUtils.toUmadbAppendRequest(AppendRequest.of(List.of(valid))).toByteArray());
+        segment.force();
+
+        try (var outbox = new DurableOutbox(client, options)) {
+            assertTrue(outbox.awaitDrained(TIMEOUT));
+            assertEquals(1, outbox.quarantined());
+        }
+
+        assertEquals(List.of(valid.id()), storedIds());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            var quarantined = files.filter(f -> f.toString().endsWith(".corrupt")).toList();
+            assertEquals(1, quarantined.size());
+            assertArrayEquals(corrupt, Files.readAllBytes(quarantined.getFirst()));
+        }
+    }
+
+    @Test
+    void append_shouldThrow_whenFlushFails() throws Exception {
+        Consumer<OutboxSegment> failingFlush = segment -> {
+            throw new UncheckedIOException(new IOException("device unavailable"));
+        };
+        try (var outbox = new DurableOutbox(client, options, failingFlush)) {
+            var request = AppendRequest.of(List.of(event(1)));
+
+            var failure = assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(UncheckedIOException.class, () -> outbox.append(request)));
+            assertEquals("device unavailable", failure.getCause().getMessage());
+            assertThrows(UncheckedIOException.class, () -> outbox.append(AppendRequest.of(List.of(event(2)))),
+                    "no further appends should be accepted");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.umadb.client.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxSegmentTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void write_shouldStoreRecordsInOrder() throws IOException {
+        var segment = OutboxSegment.create(tempDir, 1, 1024);
+        segment.write(new byte[]{1, 2, 3});
+        segment.write(new byte[]{4});
+
+        int first = segment.drainedOffset();
+        assertArrayEquals(new byte[]{1, 2, 3}, segment.read(first));
+        int second = segment.next(first);
+        assertArrayEquals(new byte[]{4}, segment.read(second));
+        assertEquals(segment.writeOffset(), segment.next(second));
+    }
+
+    @Test
+    void hasRoom_shouldAccountForRecordOverhead() throws IOException {
+        var segment = OutboxSegment.create(tempDir, 1, OutboxSegment.HEADER_BYTES + OutboxSegment.RECORD_OVERHEAD + 10);
+
+        assertTrue(segment.hasRoom(10));
+        assertFalse(segment.hasRoom(11));
+    }
+
+    @Test
+    void open_shouldRecoverWrittenAndDrainedOffsets() throws IOException {
+        var segment = OutboxSegment.create(tempDir, 7, 1024);
+        segment.write(new byte[]{1});
+        segment.write(new byte[]{2});
+        segment.markDrained(segment.next(segment.drainedOffset()));
+        segment.force();
+
+        var recovered = OutboxSegment.open(OutboxSegment.fileOf(tempDir, 7), 7);
+
+        assertEquals(segment.writeOffset(), recovered.writeOffset());
+        assertEquals(segment.drainedOffset(), recovered.drainedOffset());
+        assertArrayEquals(new byte[]{2}, recovered.read(recovered.drainedOffset()));
+    }
+
+    @Test
+    void open_shouldDiscardTornRecord() throws IOException {
+        var segment = OutboxSegment.create(tempDir, 1, 1024);
+        segment.write(new byte[]{1, 1, 1});
+        int validEnd = segment.writeOffset();
+        segment.write(new byte[]{2, 2, 2});
+        segment.force();
+        // Corrupt the payload of the second record
+        try (FileChannel channel = FileChannel.open(OutboxSegment.fileOf(tempDir, 1), WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{9}), validEnd + OutboxSegment.RECORD_OVERHEAD);
+        }
+
+        var recovered = OutboxSegment.open(OutboxSegment.fileOf(tempDir, 1), 1);
+
+        assertEquals(validEnd, recovered.writeOffset());
+        recovered.write(new byte[]{3});
+        assertArrayEquals(new byte[]{3}, recovered.read(validEnd));
+    }
+
+    @Test
+    void open_shouldThrowException_whenFileIsNotASegment() throws IOException {
+        Path file = tempDir.resolve("other.seg");
+        java.nio.file.Files.write(file, new byte[32]);
+
+        assertThrows(IOException.class, () -> OutboxSegment.open(file, 0));
+    }
+}